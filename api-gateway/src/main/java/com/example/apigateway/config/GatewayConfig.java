@@ -35,11 +35,36 @@ public class GatewayConfig {
                         .filters(f -> f.stripPrefix(1))
                         .uri("lb://restaurant-service"))
                 
+                .route("restaurants-listing", r -> r.path("/api/restaurants/listing")
+                        .and().method("GET")
+                        .filters(f -> f.stripPrefix(1))
+                        .uri("lb://restaurant-service"))
+                
+                .route("restaurants-nearby", r -> r.path("/api/restaurants/nearby")
+                        .and().method("GET")
+                        .filters(f -> f.stripPrefix(1))
+                        .uri("lb://restaurant-service"))
+                
+                .route("restaurants-suggest", r -> r.path("/api/restaurants/suggest")
+                        .and().method("GET")
+                        .filters(f -> f.stripPrefix(1))
+                        .uri("lb://restaurant-service"))
+                
                 .route("restaurant-details", r -> r.path("/api/restaurants/{id}")
                         .and().method("GET")
                         .filters(f -> f.stripPrefix(1))
                         .uri("lb://restaurant-service"))
                 
+                .route("restaurant-hours", r -> r.path("/api/restaurants/{id}/hours")
+                        .and().method("GET")
+                        .filters(f -> f.stripPrefix(1))
+                        .uri("lb://restaurant-service"))
+                
+                .route("popular-dishes", r -> r.path("/api/orders/popular-dishes", "/api/orders/restaurant/{id}/popular-dishes")
+                        .and().method("GET")
+                        .filters(f -> f.stripPrefix(1))
+                        .uri("lb://order-service"))
+                
                 // ============= CUSTOMER ROUTES =============
                 .route("user-profile-get", r -> r.path("/api/users/profile")
                         .and().method("GET")
@@ -76,6 +101,20 @@ public class GatewayConfig {
                                 .filter(roleFilter.apply(c -> c.setAllowedRoles("CUSTOMER", "RESTAURANT_OWNER", "DELIVERY_PARTNER", "ADMIN"))))
                         .uri("lb://order-service"))
                 
+                .route("order-timeline", r -> r.path("/api/orders/{id}/timeline")
+                        .and().method("GET")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("CUSTOMER", "DELIVERY_PARTNER", "ADMIN"))))
+                        .uri("lb://order-service"))
+                
+                .route("order-review", r -> r.path("/api/orders/{id}/review")
+                        .and().method("POST")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("CUSTOMER"))))
+                        .uri("lb://order-service"))
+                
                 // ============= RESTAURANT OWNER ROUTES =============
                 .route("restaurant-create", r -> r.path("/api/restaurants")
                         .and().method("POST")
@@ -98,6 +137,27 @@ public class GatewayConfig {
                                 .filter(roleFilter.apply(c -> c.setAllowedRoles("RESTAURANT_OWNER", "ADMIN"))))
                         .uri("lb://restaurant-service"))
                 
+                .route("restaurant-menu-import", r -> r.path("/api/restaurants/{id}/menu-items/import")
+                        .and().method("POST")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("RESTAURANT_OWNER", "ADMIN"))))
+                        .uri("lb://restaurant-service"))
+                
+                .route("restaurant-menu-availability", r -> r.path("/api/restaurants/{id}/menu-items/{itemId}/availability")
+                        .and().method("PUT")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("RESTAURANT_OWNER", "ADMIN"))))
+                        .uri("lb://restaurant-service"))
+                
+                .route("restaurant-hours-update", r -> r.path("/api/restaurants/{id}/hours")
+                        .and().method("PUT", "DELETE")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("RESTAURANT_OWNER", "ADMIN"))))
+                        .uri("lb://restaurant-service"))
+                
                 .route("restaurant-orders", r -> r.path("/api/restaurants/{id}/orders")
                         .filters(f -> f.stripPrefix(1)
                                 .filter(authFilter.apply(new AuthenticationFilter.Config()))
@@ -111,6 +171,18 @@ public class GatewayConfig {
                                 .filter(roleFilter.apply(c -> c.setAllowedRoles("RESTAURANT_OWNER", "ADMIN"))))
                         .uri("lb://order-service"))
                 
+                .route("restaurant-order-stats", r -> r.path("/api/orders/restaurant/{id}/stats", "/api/orders/restaurant/{id}/stats/**")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("RESTAURANT_OWNER", "ADMIN"))))
+                        .uri("lb://order-service"))
+                
+                .route("restaurant-rating", r -> r.path("/api/orders/restaurant/{id}/rating", "/api/orders/restaurant/{id}/rating/**")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("RESTAURANT_OWNER", "ADMIN"))))
+                        .uri("lb://order-service"))
+                
                 // ============= DELIVERY PARTNER ROUTES =============
                 .route("orders-available", r -> r.path("/api/orders/available")
                         .filters(f -> f.stripPrefix(1)
@@ -132,6 +204,33 @@ public class GatewayConfig {
                                 .filter(roleFilter.apply(c -> c.setAllowedRoles("DELIVERY_PARTNER", "ADMIN"))))
                         .uri("lb://order-service"))
                 
+                .route("orders-available-nearby", r -> r.path("/api/orders/available/nearby")
+                        .and().method("GET")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("DELIVERY_PARTNER"))))
+                        .uri("lb://order-service"))
+                
+                .route("dispatch-offer", r -> r.path("/api/orders/dispatch/offer", "/api/orders/dispatch/offer/**")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("DELIVERY_PARTNER"))))
+                        .uri("lb://order-service"))
+                
+                .route("partner-location", r -> r.path("/api/partners/location")
+                        .and().method("POST", "DELETE")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("DELIVERY_PARTNER"))))
+                        .uri("lb://order-service"))
+                
+                .route("partners-near-restaurant", r -> r.path("/api/partners/near-restaurant/{id}")
+                        .and().method("GET")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("RESTAURANT_OWNER", "ADMIN"))))
+                        .uri("lb://order-service"))
+                
                 // ============= ADMIN ROUTES =============
                 .route("users-list", r -> r.path("/api/users")
                         .and().method("GET")
@@ -153,12 +252,46 @@ public class GatewayConfig {
                                 .filter(roleFilter.apply(c -> c.setAllowedRoles("ADMIN"))))
                         .uri("lb://restaurant-service"))
                 
+                .route("restaurant-benchmarks", r -> r.path("/api/restaurants/search/benchmark", "/api/restaurants/nearby/benchmark",
+                        "/api/restaurants/listing/benchmark", "/api/restaurants/suggest/benchmark",
+                        "/api/restaurants/cache/benchmark", "/api/restaurants/hours/benchmark")
+                        .and().method("GET")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("ADMIN"))))
+                        .uri("lb://restaurant-service"))
+                
                 .route("orders-all", r -> r.path("/api/orders/all")
                         .filters(f -> f.stripPrefix(1)
                                 .filter(authFilter.apply(new AuthenticationFilter.Config()))
                                 .filter(roleFilter.apply(c -> c.setAllowedRoles("ADMIN"))))
                         .uri("lb://order-service"))
                 
+                .route("orders-eta-replay", r -> r.path("/api/orders/eta/replay")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("ADMIN"))))
+                        .uri("lb://order-service"))
+                
+                .route("dispatch-admin", r -> r.path("/api/orders/dispatch/run", "/api/orders/dispatch/benchmark")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("ADMIN"))))
+                        .uri("lb://order-service"))
+                
+                .route("popular-dishes-benchmark", r -> r.path("/api/orders/popular-dishes/benchmark")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("ADMIN"))))
+                        .uri("lb://order-service"))
+                
+                .route("orders-archive-run", r -> r.path("/api/orders/archive/run")
+                        .and().method("POST")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("ADMIN"))))
+                        .uri("lb://order-service"))
+                
                 .route("payment-initiate", r -> r.path("/api/payments/initiate")
                         .filters(f -> f.stripPrefix(1)
                                 .filter(authFilter.apply(new AuthenticationFilter.Config())))
@@ -169,6 +302,19 @@ public class GatewayConfig {
                                 .filter(authFilter.apply(new AuthenticationFilter.Config())))
                         .uri("lb://order-service"))
                 
+                .route("payment-webhook-dead-letters", r -> r.path("/api/payments/webhook/dead-letters/replay")
+                        .and().method("POST")
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(authFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(roleFilter.apply(c -> c.setAllowedRoles("ADMIN"))))
+                        .uri("lb://order-service"))
+                
+                // Razorpay calls this directly; requests are authenticated by their HMAC signature
+                .route("payment-webhook", r -> r.path("/api/payments/webhook")
+                        .and().method("POST")
+                        .filters(f -> f.stripPrefix(1))
+                        .uri("lb://order-service"))
+                
                 .build();
     }
 }
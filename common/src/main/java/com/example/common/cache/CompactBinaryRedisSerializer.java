@@ -0,0 +1,601 @@
+package com.example.common.cache;
+
+import org.hibernate.Hibernate;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache values as compact tagged binary instead of JDK serialization. Every value starts with a one-byte tag;
+ * numbers are varints, dates are epoch offsets, and an application class is described once per payload by its
+ * name and field names, after which each instance is just its field values in that order. Fields are matched
+ * by name when reading, so added or removed fields never invalidate cached entries (and serialVersionUID plays
+ * no part); a field whose type changed fails to read, which the cache treats as a miss. Shared and cyclic
+ * references (e.g. an entity's back-reference to its parent) are written once and referenced by index. Uninitialized Hibernate
+ * proxies and collections are written as null.
+ * <p>
+ * Only classes under com.example are instantiated when reading. Other Serializable JDK types fall back to
+ * embedded JDK serialization, and payloads written by the JDK serializer are still read, so entries cached
+ * before the switch stay usable until they expire.
+ */
+public class CompactBinaryRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = (byte) 0xCB;
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte JDK_STREAM_MAGIC = (byte) 0xAC;
+    private static final String APPLICATION_PACKAGE = "com.example.";
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int WHOLE_DOUBLE = 6; // A double with an int value, as a varint (prices, 0.0 ratings)
+    private static final int FLOAT = 7;
+    private static final int SHORT = 8;
+    private static final int BYTE = 9;
+    private static final int CHAR = 10;
+    private static final int STRING = 11;
+    private static final int BYTES = 12;
+    private static final int BIG_DECIMAL = 13;
+    private static final int BIG_INTEGER = 14;
+    private static final int LOCAL_DATE_TIME = 15;
+    private static final int LOCAL_DATE = 16;
+    private static final int LOCAL_TIME = 17;
+    private static final int INSTANT = 18;
+    private static final int UUID_VALUE = 19;
+    private static final int LIST = 20;
+    private static final int SET = 21;
+    private static final int MAP = 22;
+    private static final int ENUM = 23;
+    private static final int OBJECT = 24;
+    private static final int REFERENCE = 25;
+    private static final int JDK_SERIALIZED = 26;
+
+    private static final JdkSerializationRedisSerializer JDK = new JdkSerializationRedisSerializer();
+
+    // Field layout of an application class: declared fields of the class and its superclasses, or record components
+    private static final class Schema {
+        final Class<?> type;
+        final String[] names;
+        final Field[] fields;
+        final Class<?>[] types;
+        final Constructor<?> constructor;
+        final boolean record;
+
+        Schema(Class<?> type) {
+            this.type = type;
+            this.record = type.isRecord();
+            try {
+                if (record) {
+                    RecordComponent[] components = type.getRecordComponents();
+                    names = new String[components.length];
+                    types = new Class<?>[components.length];
+                    fields = new Field[components.length];
+                    for (int i = 0; i < components.length; i++) {
+                        names[i] = components[i].getName();
+                        types[i] = components[i].getType();
+                        fields[i] = type.getDeclaredField(names[i]);
+                        fields[i].setAccessible(true);
+                    }
+                    constructor = type.getDeclaredConstructor(types);
+                } else {
+                    List<Field> declared = new ArrayList<>();
+                    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                        for (Field field : c.getDeclaredFields()) {
+                            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                                field.setAccessible(true);
+                                declared.add(field);
+                            }
+                        }
+                    }
+                    fields = declared.toArray(new Field[0]);
+                    names = new String[fields.length];
+                    types = new Class<?>[fields.length];
+                    for (int i = 0; i < fields.length; i++) {
+                        names[i] = fields[i].getName();
+                        types[i] = fields[i].getType();
+                    }
+                    constructor = type.getDeclaredConstructor();
+                }
+                constructor.setAccessible(true);
+            } catch (ReflectiveOperationException e) {
+                throw new SerializationException("Cannot cache " + type.getName() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // A class as described in one payload, with its fields mapped onto the local schema (-1 = no longer exists)
+    private record ReadClass(Class<?> type, Schema schema, int[] slots) {
+    }
+
+    private final Map<Class<?>, Schema> schemas = new ConcurrentHashMap<>();
+    private final ClassLoader classLoader;
+
+    public CompactBinaryRedisSerializer() {
+        this(CompactBinaryRedisSerializer.class.getClassLoader());
+    }
+
+    public CompactBinaryRedisSerializer(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        Writer writer = new Writer();
+        writer.out.writeByte(MAGIC);
+        writer.out.writeByte(FORMAT_VERSION);
+        writer.writeValue(value);
+        return writer.out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JDK_STREAM_MAGIC) {
+            return JDK.deserialize(bytes);
+        }
+        if (bytes.length < 2 || bytes[0] != MAGIC || bytes[1] != FORMAT_VERSION) {
+            throw new SerializationException("Unknown cache payload format");
+        }
+        try {
+            return new Reader(bytes, 2).readValue();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new SerializationException("Cannot read cache payload: " + e.getMessage(), e);
+        }
+    }
+
+    private Schema schema(Class<?> type) {
+        return schemas.computeIfAbsent(type, Schema::new);
+    }
+
+    private final class Writer {
+        final Output out = new Output();
+        final Map<Object, Integer> references = new IdentityHashMap<>();
+        final Map<Class<?>, Integer> classIds = new HashMap<>();
+
+        void writeValue(Object value) {
+            if (value == null) {
+                out.writeByte(NULL);
+                return;
+            }
+            // Exact class checks for the common field types first; interface instanceof checks on every value
+            // (Hibernate's, List, Map) cost more than encoding the value itself
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                out.writeByte(STRING);
+                out.writeString((String) value);
+            } else if (type == Long.class) {
+                out.writeByte(LONG);
+                out.writeSignedVarLong((Long) value);
+            } else if (type == Integer.class) {
+                out.writeByte(INT);
+                out.writeSignedVarLong((Integer) value);
+            } else if (type == Double.class) {
+                writeDouble((Double) value);
+            } else if (type == Boolean.class) {
+                out.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (type == LocalDateTime.class) {
+                LocalDateTime time = (LocalDateTime) value;
+                out.writeByte(LOCAL_DATE_TIME);
+                out.writeSignedVarLong(time.toEpochSecond(ZoneOffset.UTC));
+                out.writeVarLong(time.getNano());
+            } else if (value instanceof HibernateProxy proxy) {
+                writeValue(Hibernate.isInitialized(proxy) ? Hibernate.unproxy(proxy) : null);
+            } else if (value instanceof PersistentCollection<?> collection && !collection.wasInitialized()) {
+                out.writeByte(NULL);
+            } else if (value instanceof List<?> list) {
+                out.writeByte(LIST);
+                writeElements(list);
+            } else if (value instanceof Set<?> set) {
+                out.writeByte(SET);
+                writeElements(set);
+            } else if (value instanceof Map<?, ?> map) {
+                out.writeByte(MAP);
+                out.writeVarLong(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof Enum<?> constant) {
+                out.writeByte(ENUM);
+                writeClass(constant.getDeclaringClass(), null);
+                out.writeString(constant.name());
+            } else if (type.getName().startsWith(APPLICATION_PACKAGE)) {
+                writeObject(value);
+            } else {
+                writeOther(value);
+            }
+        }
+
+        void writeDouble(double number) {
+            int whole = (int) number;
+            if (whole == number && (whole != 0 || Double.doubleToRawLongBits(number) == 0)) {
+                out.writeByte(WHOLE_DOUBLE);
+                out.writeSignedVarLong(whole);
+            } else {
+                out.writeByte(DOUBLE);
+                out.writeLong(Double.doubleToRawLongBits(number));
+            }
+        }
+
+        void writeElements(Collection<?> elements) {
+            out.writeVarLong(elements.size());
+            for (Object element : elements) {
+                writeValue(element);
+            }
+        }
+
+        void writeObject(Object value) {
+            Integer reference = references.get(value);
+            if (reference != null) {
+                out.writeByte(REFERENCE);
+                out.writeVarLong(reference);
+                return;
+            }
+            references.put(value, references.size());
+            Schema schema = schema(value.getClass());
+            out.writeByte(OBJECT);
+            writeClass(schema.type, schema);
+            try {
+                for (Field field : schema.fields) {
+                    writeValue(field.get(value));
+                }
+            } catch (IllegalAccessException e) {
+                throw new SerializationException("Cannot read " + schema.type.getName() + ": " + e.getMessage(), e);
+            }
+        }
+
+        // First use of a class in the payload writes its name (and field names); later uses only its index
+        void writeClass(Class<?> type, Schema schema) {
+            Integer id = classIds.get(type);
+            if (id != null) {
+                out.writeVarLong(id);
+                return;
+            }
+            out.writeVarLong(classIds.size());
+            classIds.put(type, classIds.size());
+            out.writeString(type.getName());
+            if (schema != null) {
+                out.writeVarLong(schema.names.length);
+                for (String name : schema.names) {
+                    out.writeString(name);
+                }
+            }
+        }
+
+        void writeOther(Object value) {
+            if (value instanceof BigDecimal number) {
+                out.writeByte(BIG_DECIMAL);
+                out.writeSignedVarLong(number.scale());
+                out.writeBytes(number.unscaledValue().toByteArray());
+            } else if (value instanceof BigInteger number) {
+                out.writeByte(BIG_INTEGER);
+                out.writeBytes(number.toByteArray());
+            } else if (value instanceof LocalDate date) {
+                out.writeByte(LOCAL_DATE);
+                out.writeSignedVarLong(date.toEpochDay());
+            } else if (value instanceof LocalTime time) {
+                out.writeByte(LOCAL_TIME);
+                out.writeVarLong(time.toNanoOfDay());
+            } else if (value instanceof Instant instant) {
+                out.writeByte(INSTANT);
+                out.writeSignedVarLong(instant.getEpochSecond());
+                out.writeVarLong(instant.getNano());
+            } else if (value instanceof UUID uuid) {
+                out.writeByte(UUID_VALUE);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            } else if (value instanceof Float number) {
+                out.writeByte(FLOAT);
+                out.writeLong(Float.floatToRawIntBits(number));
+            } else if (value instanceof Short number) {
+                out.writeByte(SHORT);
+                out.writeSignedVarLong(number);
+            } else if (value instanceof Byte number) {
+                out.writeByte(BYTE);
+                out.writeSignedVarLong(number);
+            } else if (value instanceof Character character) {
+                out.writeByte(CHAR);
+                out.writeVarLong(character);
+            } else if (value instanceof byte[] bytes) {
+                out.writeByte(BYTES);
+                out.writeBytes(bytes);
+            } else if (value instanceof Serializable) {
+                out.writeByte(JDK_SERIALIZED);
+                out.writeBytes(JDK.serialize(value));
+            } else {
+                throw new SerializationException("Cannot cache value of type " + value.getClass().getName());
+            }
+        }
+    }
+
+    private final class Reader {
+        final byte[] bytes;
+        int position;
+        final List<Object> references = new ArrayList<>();
+        final List<ReadClass> classes = new ArrayList<>();
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        Object readValue() throws ReflectiveOperationException {
+            int tag = bytes[position++];
+            switch (tag) {
+                case NULL:
+                    return null;
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case INT:
+                    return (int) readSignedVarLong();
+                case LONG:
+                    return readSignedVarLong();
+                case DOUBLE:
+                    return Double.longBitsToDouble(readLong());
+                case WHOLE_DOUBLE:
+                    return (double) readSignedVarLong();
+                case FLOAT:
+                    return Float.intBitsToFloat((int) readLong());
+                case SHORT:
+                    return (short) readSignedVarLong();
+                case BYTE:
+                    return (byte) readSignedVarLong();
+                case CHAR:
+                    return (char) readVarLong();
+                case STRING:
+                    return readString();
+                case BYTES:
+                    return readBytes();
+                case BIG_DECIMAL:
+                    int scale = (int) readSignedVarLong();
+                    return new BigDecimal(new BigInteger(readBytes()), scale);
+                case BIG_INTEGER:
+                    return new BigInteger(readBytes());
+                case LOCAL_DATE_TIME:
+                    long seconds = readSignedVarLong();
+                    return LocalDateTime.ofEpochSecond(seconds, (int) readVarLong(), ZoneOffset.UTC);
+                case LOCAL_DATE:
+                    return LocalDate.ofEpochDay(readSignedVarLong());
+                case LOCAL_TIME:
+                    return LocalTime.ofNanoOfDay(readVarLong());
+                case INSTANT:
+                    long epochSecond = readSignedVarLong();
+                    return Instant.ofEpochSecond(epochSecond, readVarLong());
+                case UUID_VALUE:
+                    long high = readLong();
+                    return new UUID(high, readLong());
+                case LIST:
+                    int listSize = readSize();
+                    List<Object> list = new ArrayList<>(listSize);
+                    for (int i = 0; i < listSize; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                case SET:
+                    int setSize = readSize();
+                    Set<Object> set = new LinkedHashSet<>(Math.max(16, setSize * 4 / 3 + 1));
+                    for (int i = 0; i < setSize; i++) {
+                        set.add(readValue());
+                    }
+                    return set;
+                case MAP:
+                    int mapSize = readSize();
+                    Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, mapSize * 4 / 3 + 1));
+                    for (int i = 0; i < mapSize; i++) {
+                        Object key = readValue();
+                        map.put(key, readValue());
+                    }
+                    return map;
+                case ENUM:
+                    return readEnum(readClass(false).type());
+                case OBJECT:
+                    return readObject(readClass(true));
+                case REFERENCE:
+                    return references.get(readSize());
+                case JDK_SERIALIZED:
+                    return JDK.deserialize(readBytes());
+                default:
+                    throw new SerializationException("Unknown value tag " + tag);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Object readEnum(Class<?> type) {
+            return Enum.valueOf((Class) type, readString());
+        }
+
+        Object readObject(ReadClass readClass) throws ReflectiveOperationException {
+            Schema schema = readClass.schema();
+            int index = references.size();
+            if (schema.record) {
+                // Components come first, so a record cannot be part of a cycle
+                references.add(null);
+                Object[] arguments = new Object[schema.names.length];
+                for (int slot : readClass.slots()) {
+                    Object value = readValue();
+                    if (slot >= 0) {
+                        arguments[slot] = value;
+                    }
+                }
+                for (int i = 0; i < arguments.length; i++) {
+                    if (arguments[i] == null && schema.types[i].isPrimitive()) {
+                        arguments[i] = Array.get(Array.newInstance(schema.types[i], 1), 0);
+                    }
+                }
+                Object record = schema.constructor.newInstance(arguments);
+                references.set(index, record);
+                return record;
+            }
+            Object instance = schema.constructor.newInstance();
+            references.add(instance);
+            for (int slot : readClass.slots()) {
+                Object value = readValue();
+                if (slot >= 0 && (value != null || !schema.types[slot].isPrimitive())) {
+                    schema.fields[slot].set(instance, value);
+                }
+            }
+            return instance;
+        }
+
+        ReadClass readClass(boolean withFields) throws ClassNotFoundException {
+            int id = readSize();
+            if (id < classes.size()) {
+                return classes.get(id);
+            }
+            String name = readString();
+            if (!name.startsWith(APPLICATION_PACKAGE)) {
+                throw new SerializationException("Refusing to instantiate " + name);
+            }
+            Class<?> type = Class.forName(name, false, classLoader);
+            ReadClass readClass;
+            if (withFields) {
+                Schema schema = schema(type);
+                int[] slots = new int[readSize()];
+                List<String> localNames = Arrays.asList(schema.names);
+                for (int i = 0; i < slots.length; i++) {
+                    slots[i] = localNames.indexOf(readString());
+                }
+                readClass = new ReadClass(type, schema, slots);
+            } else {
+                readClass = new ReadClass(type, null, null);
+            }
+            classes.add(readClass);
+            return readClass;
+        }
+
+        String readString() {
+            int length = readSize();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        byte[] readBytes() {
+            int length = readSize();
+            byte[] value = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return value;
+        }
+
+        int readSize() {
+            long size = readVarLong();
+            if (size < 0 || size > bytes.length) {
+                throw new SerializationException("Corrupt cache payload");
+            }
+            return (int) size;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        long readSignedVarLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+    }
+
+    private static final class Output {
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        // Zigzag, so small negative numbers stay short
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int i = 7; i >= 0; i--) {
+                buffer[size++] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        void writeString(String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeBytes(byte[] value) {
+            writeVarLong(value.length);
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, size, value.length);
+            size += value.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded, TTL-bounded in-process cache. Keys are spread over independently locked LRU segments so
+ * concurrent readers rarely contend; eviction is least-recently-used per segment, which approximates a global LRU.
+ */
+public class LocalCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private record Entry(Object value, long expiresAtMillis) {
+    }
+
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+        private final int maxEntries;
+
+        Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private final Segment[] segments;
+    private final long ttlMillis;
+
+    public LocalCache(int maxEntries, long ttlMillis) {
+        int segmentCount = Math.max(1, Math.min(MAX_SEGMENTS, maxEntries / 16));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(Math.max(1, maxEntries / segmentCount));
+        }
+        this.ttlMillis = ttlMillis;
+    }
+
+    public Object get(String key) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+                segment.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    public void put(String key, Object value) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, new Entry(value, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    public void remove(String key) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segment(String key) {
+        int hash = key.hashCode();
+        return segments[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % segments.length];
+    }
+}
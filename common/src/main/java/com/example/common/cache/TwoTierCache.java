@@ -0,0 +1,257 @@
+package com.example.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One cache name with an in-process L1 in front of Redis. Reads try L1, then Redis (promoting the value into L1),
+ * then the loader. Writes and evictions go to Redis first, then L1, then are broadcast so other instances drop
+ * their L1 copy. If Redis is unreachable the cache degrades to L1 plus the loader instead of failing the request.
+ * L1 hands out shared instances, so callers must not mutate cached values.
+ * <p>
+ * get(key, loader), which {@code @Cacheable(sync = true)} uses, runs at most one loader per key on this instance;
+ * concurrent callers wait for its result. Entries remember their expiry and how long they took to load, and as
+ * expiry nears a caller may refresh early (XFetch), so a hot key is reloaded by one request before it expires
+ * rather than by every request after.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    public record Stats(Counter l1Hits, Counter l2Hits, Counter misses, Counter l2Errors, Counter coalesced,
+                        Counter earlyRefreshes) {
+    }
+
+    // What L1 and Redis hold: the value plus when it expires from Redis and what it cost to load
+    public record Stamped(Object value, long expiresAtMillis, long loadMillis) implements Serializable {
+    }
+
+    private final String name;
+    private final String keyPrefix;
+    private final LocalCache local;
+    private final RedisCacheWriter redis;
+    private final RedisSerializer<Object> serializer;
+    private final Duration ttl;
+    private final Consumer<String> invalidationPublisher;
+    private final Stats stats;
+    private final double earlyRefreshBeta;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // Bumped by every put, evict and clear; a load that overlapped one does not store its (possibly stale) result
+    private final AtomicLong generation = new AtomicLong();
+
+    public TwoTierCache(String name, String keyPrefix, LocalCache local, RedisCacheWriter redis,
+                        RedisSerializer<Object> serializer, Duration ttl, Consumer<String> invalidationPublisher, Stats stats,
+                        double earlyRefreshBeta) {
+        super(false); // Null results are not cached: a missing id may exist a moment later
+        this.name = name;
+        this.keyPrefix = keyPrefix;
+        this.local = local;
+        this.redis = redis;
+        this.serializer = serializer;
+        this.ttl = ttl;
+        this.invalidationPublisher = invalidationPublisher;
+        this.stats = stats;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Stamped stamped = lookupStamped(cacheKey(key));
+        return stamped == null ? null : stamped.value();
+    }
+
+    private Stamped lookupStamped(String cacheKey) {
+        Object value = local.get(cacheKey);
+        if (value != null) {
+            stats.l1Hits().increment();
+            return (Stamped) value;
+        }
+        try {
+            byte[] bytes = redis.get(name, redisKey(cacheKey));
+            if (bytes != null) {
+                Object stored = serializer.deserialize(bytes);
+                // Entries written before values were stamped carry no expiry and are never refreshed early
+                Stamped stamped = stored instanceof Stamped s ? s : new Stamped(stored, Long.MAX_VALUE, 0);
+                local.put(cacheKey, stamped);
+                stats.l2Hits().increment();
+                return stamped;
+            }
+        } catch (RuntimeException e) {
+            // Also covers payloads written by an older build that no longer deserialize
+            stats.l2Errors().increment();
+            System.out.println("Cache " + name + " L2 read failed for " + cacheKey + ": " + e.getMessage());
+        }
+        stats.misses().increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = cacheKey(key);
+        Stamped cached = lookupStamped(cacheKey);
+        if (cached != null) {
+            CompletableFuture<Object> refresh = new CompletableFuture<>();
+            // Only one caller refreshes; the rest keep serving the cached value meanwhile
+            if (shouldRefreshEarly(cached) && inFlight.putIfAbsent(cacheKey, refresh) == null) {
+                stats.earlyRefreshes().increment();
+                try {
+                    return (T) load(key, cacheKey, valueLoader, refresh);
+                } catch (ValueRetrievalException e) {
+                    // The cached value is still valid, so serve it
+                    System.out.println("Cache " + name + " early refresh failed for " + cacheKey + ": " + e.getMessage());
+                }
+            }
+            return (T) fromStoreValue(cached.value());
+        }
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(cacheKey, flight);
+        if (running != null) {
+            stats.coalesced().increment();
+            return (T) await(key, valueLoader, running);
+        }
+        // The previous load may have finished between the lookup and claiming the key
+        Object loaded = local.get(cacheKey);
+        if (loaded != null) {
+            inFlight.remove(cacheKey, flight);
+            flight.complete(((Stamped) loaded).value());
+            return (T) fromStoreValue(((Stamped) loaded).value());
+        }
+        return (T) load(key, cacheKey, valueLoader, flight);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        generation.incrementAndGet();
+        store(cacheKey(key), new Stamped(toStoreValue(value), System.currentTimeMillis() + ttl.toMillis(), 0));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing == null) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        generation.incrementAndGet();
+        String cacheKey = cacheKey(key);
+        try {
+            redis.remove(name, redisKey(cacheKey));
+        } catch (RuntimeException e) {
+            stats.l2Errors().increment();
+            System.out.println("Cache " + name + " L2 evict failed for " + cacheKey + ": " + e.getMessage());
+        }
+        local.remove(cacheKey);
+        invalidationPublisher.accept(cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        try {
+            redis.clean(name, (keyPrefix + "*").getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            stats.l2Errors().increment();
+            System.out.println("Cache " + name + " L2 clear failed: " + e.getMessage());
+        }
+        local.clear();
+        invalidationPublisher.accept(null);
+    }
+
+    // Applied when another instance changed this cache
+    void invalidateLocal(String cacheKey) {
+        generation.incrementAndGet();
+        if (cacheKey == null) {
+            local.clear();
+        } else {
+            local.remove(cacheKey);
+        }
+    }
+
+    int localSize() {
+        return local.size();
+    }
+
+    private Object load(Object key, String cacheKey, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        long startGeneration = generation.get();
+        long start = System.currentTimeMillis();
+        try {
+            Object value = valueLoader.call();
+            long now = System.currentTimeMillis();
+            if (value != null && generation.get() == startGeneration) {
+                store(cacheKey, new Stamped(toStoreValue(value), now + ttl.toMillis(), now - start));
+            }
+            flight.complete(value);
+            return value;
+        } catch (Exception e) {
+            flight.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(cacheKey, flight);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> running) {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    // XFetch: refresh when now - loadMillis * beta * ln(rand) passes expiry, so slow loads start refreshing sooner
+    private boolean shouldRefreshEarly(Stamped stamped) {
+        if (earlyRefreshBeta <= 0 || stamped.loadMillis() <= 0) {
+            return false;
+        }
+        double lead = -stamped.loadMillis() * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + lead >= stamped.expiresAtMillis();
+    }
+
+    private void store(String cacheKey, Stamped stamped) {
+        try {
+            redis.put(name, redisKey(cacheKey), serializer.serialize(stamped), ttl);
+        } catch (RuntimeException e) {
+            stats.l2Errors().increment();
+            System.out.println("Cache " + name + " L2 write failed for " + cacheKey + ": " + e.getMessage());
+        }
+        local.put(cacheKey, stamped);
+        invalidationPublisher.accept(cacheKey);
+    }
+
+    private byte[] redisKey(String cacheKey) {
+        return (keyPrefix + cacheKey).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String cacheKey(Object key) {
+        return String.valueOf(key);
+    }
+}
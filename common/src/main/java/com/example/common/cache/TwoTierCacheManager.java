@@ -0,0 +1,113 @@
+package com.example.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds a TwoTierCache per cache name, with its policy read from app.cache.&lt;name&gt;.* and falling back to
+ * app.cache.default.*. Redis keys are namespaced as &lt;key-prefix&gt;::&lt;cache&gt;::&lt;key&gt;. Every write or eviction
+ * is published on a per-service channel; other instances drop the key from their L1. Caches are wrapped so puts
+ * and evictions made inside a transaction only happen after it commits.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private static final String CLEAR_ALL = "*";
+
+    private final RedisCacheWriter redis;
+    private final RedisSerializer<Object> serializer;
+    private final StringRedisTemplate redisTemplate;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final String keyPrefix;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Cache> decorated = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(RedisCacheWriter redis, RedisSerializer<Object> serializer, StringRedisTemplate redisTemplate,
+                               Environment environment, MeterRegistry meterRegistry, String keyPrefix) {
+        this.redis = redis;
+        this.serializer = serializer;
+        this.redisTemplate = redisTemplate;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.keyPrefix = keyPrefix;
+        this.channel = keyPrefix + "::cache-invalidation";
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return decorated.computeIfAbsent(name, n -> new TransactionAwareCacheDecorator(caches.computeIfAbsent(n, this::create)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public String getInvalidationChannel() {
+        return channel;
+    }
+
+    // Message format: <instance>|<cache>|<key>, with key "*" for a full clear
+    public void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(CLEAR_ALL.equals(parts[2]) ? null : parts[2]);
+        }
+    }
+
+    private TwoTierCache create(String name) {
+        int l1MaxEntries = policy(name, "l1-max-entries", 1000);
+        long l1TtlSeconds = policy(name, "l1-ttl-seconds", 30);
+        long ttlSeconds = policy(name, "ttl-seconds", 600);
+        double earlyRefreshBeta = policy(name, "early-refresh-beta", 1.0);
+        LocalCache local = new LocalCache(l1MaxEntries, l1TtlSeconds * 1000);
+        TwoTierCache.Stats stats = new TwoTierCache.Stats(
+                meterRegistry.counter("cache.tier.gets", "cache", name, "result", "l1_hit"),
+                meterRegistry.counter("cache.tier.gets", "cache", name, "result", "l2_hit"),
+                meterRegistry.counter("cache.tier.gets", "cache", name, "result", "miss"),
+                meterRegistry.counter("cache.tier.l2.errors", "cache", name),
+                meterRegistry.counter("cache.tier.loads.coalesced", "cache", name),
+                meterRegistry.counter("cache.tier.early.refreshes", "cache", name));
+        TwoTierCache cache = new TwoTierCache(name, keyPrefix + "::" + name + "::", local, redis, serializer,
+                Duration.ofSeconds(ttlSeconds), key -> publish(name, key), stats, earlyRefreshBeta);
+        meterRegistry.gauge("cache.tier.l1.size", Tags.of("cache", name), cache, TwoTierCache::localSize);
+        System.out.println("Cache " + name + ": L1 " + l1MaxEntries + " entries / " + l1TtlSeconds + "s, Redis TTL " + ttlSeconds + "s");
+        return cache;
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + "|" + cacheName + "|" + (key == null ? CLEAR_ALL : key));
+        } catch (RuntimeException e) {
+            // Peers fall back to their L1 TTL
+            System.out.println("Cache invalidation publish failed for " + cacheName + ": " + e.getMessage());
+        }
+    }
+
+    private <T extends Number> T policy(String name, String setting, T fallback) {
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) fallback.getClass();
+        T defaultValue = environment.getProperty("app.cache.default." + setting, type, fallback);
+        return environment.getProperty("app.cache." + name + "." + setting, type, defaultValue);
+    }
+}
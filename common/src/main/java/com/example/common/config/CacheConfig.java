@@ -0,0 +1,61 @@
+package com.example.common.config;
+
+import com.example.common.cache.CompactBinaryRedisSerializer;
+import com.example.common.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+// Two-tier caching: per-instance L1 in front of Redis, with L1 invalidation over Redis pub/sub.
+// Registered before Boot's cache auto-configuration so it replaces the default Redis cache manager.
+@AutoConfiguration(after = RedisAutoConfiguration.class, before = CacheAutoConfiguration.class)
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory, StringRedisTemplate redisTemplate,
+                                            Environment environment, MeterRegistry meterRegistry,
+                                            @Value("${app.cache.key-prefix:${spring.application.name}}") String keyPrefix,
+                                            @Value("${app.cache.serializer:binary}") String serializerName) {
+        // SCAN rather than KEYS when clearing a cache, so a clear never blocks Redis
+        RedisCacheWriter redis = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000));
+        return new TwoTierCacheManager(redis, serializer(serializerName), redisTemplate, environment, meterRegistry, keyPrefix);
+    }
+
+    // "binary" (compact, tolerant of added/removed fields; still reads "java" entries) or "java"
+    private static RedisSerializer<Object> serializer(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "binary":
+                return new CompactBinaryRedisSerializer();
+            case "java":
+                return RedisSerializer.java();
+            default:
+                throw new IllegalStateException("Unknown app.cache.serializer: " + name);
+        }
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) ->
+                        cacheManager.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(cacheManager.getInvalidationChannel()));
+        return container;
+    }
+}
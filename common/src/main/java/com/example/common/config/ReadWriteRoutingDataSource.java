@@ -0,0 +1,45 @@
+package com.example.common.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Sends read-only transactions to the replica while it is healthy and within the lag budget; everything else goes to the primary.
+// Cache loaders and the startup loads of in-memory indexes are read-write on purpose, so only uncached reads are served
+// from the replica: whatever those load is kept for a TTL or longer and must not be a lagging copy
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isReplicaUsable()
+                ? REPLICA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        DataSource primary = getResolvedDataSources().get(PRIMARY);
+        if (!REPLICA.equals(key)) {
+            return primary.getConnection();
+        }
+        try {
+            return getResolvedDataSources().get(REPLICA).getConnection();
+        } catch (SQLException e) {
+            // Fall back to the primary rather than failing the read
+            lagMonitor.markUnavailable(e);
+            return primary.getConnection();
+        }
+    }
+}
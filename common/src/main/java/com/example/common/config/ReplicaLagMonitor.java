@@ -0,0 +1,72 @@
+package com.example.common.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Polls replication lag on the replica; reads are routed there only while lag <= app.datasource.replica.max-lag-seconds
+public class ReplicaLagMonitor {
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+
+    private volatile boolean replicaUsable = false;
+    private volatile long lastLagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagSeconds) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    public void markUnavailable(Exception cause) {
+        if (replicaUsable) {
+            System.out.println("Replica unavailable, routing reads to primary: " + cause.getMessage());
+        }
+        replicaUsable = false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public void checkLag() {
+        try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+            long lag = readLagSeconds(statement);
+            lastLagSeconds = lag;
+            boolean usable = lag >= 0 && lag <= maxLagSeconds;
+            if (usable != replicaUsable) {
+                System.out.println("Replica " + (usable ? "enabled" : "disabled") + " for reads (lag: " + lag + "s)");
+            }
+            replicaUsable = usable;
+        } catch (SQLException e) {
+            lastLagSeconds = -1;
+            markUnavailable(e);
+        }
+    }
+
+    // -1 (over budget) when replication is stopped, the lag is unknown or the server is not a replica at all
+    private long readLagSeconds(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            return rs.next() ? lagColumn(rs, "Seconds_Behind_Source") : -1;
+        } catch (SQLException e) {
+            // MySQL < 8.0.22
+            try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                return rs.next() ? lagColumn(rs, "Seconds_Behind_Master") : -1;
+            }
+        }
+    }
+
+    private long lagColumn(ResultSet rs, String column) throws SQLException {
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? -1 : lag;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.ApiResponse;
+import com.example.orderservice.dto.DispatchBenchmarkReport;
+import com.example.orderservice.dto.DispatchOffer;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.service.DispatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/orders/dispatch")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class DispatchController {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    // Delivery Partner: Current trip offer from the batch dispatcher, if any
+    @GetMapping("/offer")
+    public ResponseEntity<ApiResponse<DispatchOffer>> getOffer(
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+        
+        DispatchOffer offer = dispatchService.getOffer(userId);
+        if (offer == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("No active offer"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(offer));
+    }
+
+    // Delivery Partner: Accept the offered trip; returns the orders assigned
+    @PutMapping("/offer/accept")
+    public ResponseEntity<ApiResponse<List<Order>>> acceptOffer(
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+        
+        List<Order> orders = dispatchService.acceptOffer(userId);
+        return ResponseEntity.ok(ApiResponse.success("Accepted " + orders.size() + " order(s)", orders));
+    }
+
+    // Delivery Partner: Decline the offered trip so it goes back to the pool
+    @PutMapping("/offer/decline")
+    public ResponseEntity<ApiResponse<Void>> declineOffer(
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+        
+        dispatchService.declineOffer(userId);
+        return ResponseEntity.ok(ApiResponse.success("Offer declined", null));
+    }
+
+    // Admin: Run one dispatch round now
+    @PostMapping("/run")
+    public ResponseEntity<ApiResponse<List<DispatchOffer>>> runDispatch() {
+        return ResponseEntity.ok(ApiResponse.success(dispatchService.dispatch()));
+    }
+
+    // Admin: Deterministic synthetic-city benchmark of first-come vs batch dispatch
+    @GetMapping("/benchmark")
+    public ResponseEntity<ApiResponse<DispatchBenchmarkReport>> benchmark(
+            @RequestParam(defaultValue = "10000") int orders,
+            @RequestParam(defaultValue = "4000") int partners,
+            @RequestParam(defaultValue = "42") long seed) {
+        
+        return ResponseEntity.ok(ApiResponse.success(dispatchService.benchmark(orders, partners, seed)));
+    }
+}
@@ -2,13 +2,30 @@ package com.example.orderservice.controller;
 
 import com.example.orderservice.dto.ApiResponse;
 
+import com.example.orderservice.dto.EtaReplayReport;
+import com.example.orderservice.dto.NearbyOrderResponse;
+import com.example.orderservice.dto.PopularDishBenchmarkReport;
+import com.example.orderservice.dto.PopularDishResponse;
+import com.example.orderservice.dto.RestaurantRatingResponse;
+import com.example.orderservice.dto.RestaurantStatsResponse;
+import com.example.orderservice.dto.ReviewRequest;
 import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderEvent;
+import com.example.orderservice.model.OrderReview;
+import com.example.orderservice.service.OrderArchivalService;
 import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatsService;
+import com.example.orderservice.service.PartnerLocationService;
+import com.example.orderservice.service.PopularDishService;
+import com.example.orderservice.service.RestaurantRatingService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +37,21 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private OrderArchivalService orderArchivalService;
+
+    @Autowired
+    private PartnerLocationService partnerLocationService;
+
+    @Autowired
+    private RestaurantRatingService restaurantRatingService;
+
+    @Autowired
+    private PopularDishService popularDishService;
+
     // Customer: Create order
     @PostMapping
     public ResponseEntity<ApiResponse<Order>> createOrder(
@@ -117,6 +149,31 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success(order));
     }
 
+    // Customer/Delivery/Admin: Status history of an order, same access rules as viewing the order
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<ApiResponse<?>> getOrderTimeline(
+            @PathVariable Long id,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        
+        Order order = orderService.getOrderById(id);
+        if (order == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Order not found"));
+        }
+        
+        boolean hasAccess = "ADMIN".equals(userRole) ||
+                           order.getCustomerId().equals(userId) ||
+                           ("DELIVERY_PARTNER".equals(userRole) && userId.equals(order.getDeliveryPartnerId()));
+        
+        if (!hasAccess) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("You don't have permission to view this order"));
+        }
+        
+        List<OrderEvent> timeline = orderService.getOrderTimeline(id);
+        return ResponseEntity.ok(ApiResponse.success(timeline));
+    }
+
     // Restaurant Owner: Get orders for restaurant
     @GetMapping("/restaurant/{restaurantId}")
     public ResponseEntity<List<Order>> getRestaurantOrders(
@@ -127,15 +184,103 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    // Restaurant Owner: Daily order stats, served from the rollup table
+    @GetMapping("/restaurant/{restaurantId}/stats")
+    public ResponseEntity<ApiResponse<List<RestaurantStatsResponse>>> getRestaurantStats(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("'from' must not be after 'to'"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(orderStatsService.getDailyStats(restaurantId, start, end)));
+    }
+
+    // Admin: Rebuild a restaurant's stats rollup from order history
+    @PostMapping("/restaurant/{restaurantId}/stats/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildRestaurantStats(@PathVariable Long restaurantId) {
+        int days = orderStatsService.rebuildFromHistory(restaurantId);
+        return ResponseEntity.ok(ApiResponse.success("Stats rebuilt for " + days + " day(s)", days));
+    }
+
+    // Public: Most ordered dishes of a restaurant over the last windowHours
+    @GetMapping("/restaurant/{restaurantId}/popular-dishes")
+    public ResponseEntity<ApiResponse<List<PopularDishResponse>>> getRestaurantPopularDishes(
+            @PathVariable Long restaurantId,
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(defaultValue = "24") int windowHours) {
+        
+        return ResponseEntity.ok(ApiResponse.success(popularDishService.popularDishes(restaurantId, limit, windowHours)));
+    }
+
+    // Public: Trending dishes across all restaurants
+    @GetMapping("/popular-dishes")
+    public ResponseEntity<ApiResponse<List<PopularDishResponse>>> getPopularDishes(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "24") int windowHours) {
+        
+        return ResponseEntity.ok(ApiResponse.success(popularDishService.popularDishes(null, limit, windowHours)));
+    }
+
+    // Admin: Accuracy and cost of the popular dish summaries against exact counts on a synthetic order stream
+    @GetMapping("/popular-dishes/benchmark")
+    public ResponseEntity<ApiResponse<PopularDishBenchmarkReport>> benchmarkPopularDishes(
+            @RequestParam(defaultValue = "1000000") int items,
+            @RequestParam(defaultValue = "50000") int dishes,
+            @RequestParam(defaultValue = "1.1") double skew,
+            @RequestParam(defaultValue = "200") int capacity,
+            @RequestParam(defaultValue = "10") int topK,
+            @RequestParam(defaultValue = "24") int windowHours,
+            @RequestParam(defaultValue = "42") long seed) {
+        
+        return ResponseEntity.ok(ApiResponse.success(
+                popularDishService.benchmark(items, dishes, skew, capacity, topK, windowHours, seed)));
+    }
+
+    // Restaurant Owner: Review aggregates and the rating last published to restaurant-service
+    @GetMapping("/restaurant/{restaurantId}/rating")
+    public ResponseEntity<ApiResponse<RestaurantRatingResponse>> getRestaurantRating(@PathVariable Long restaurantId) {
+        return ResponseEntity.ok(ApiResponse.success(restaurantRatingService.getRating(restaurantId)));
+    }
+
+    // Admin: Rebuild a restaurant's rating aggregates from its reviews
+    @PostMapping("/restaurant/{restaurantId}/rating/rebuild")
+    public ResponseEntity<ApiResponse<Long>> rebuildRestaurantRating(@PathVariable Long restaurantId) {
+        long reviews = restaurantRatingService.rebuildFromReviews(restaurantId);
+        return ResponseEntity.ok(ApiResponse.success("Rating rebuilt from " + reviews + " review(s)", reviews));
+    }
+
+    // Customer: Rate a delivered order (1-5), once
+    @PostMapping("/{id}/review")
+    public ResponseEntity<ApiResponse<OrderReview>> reviewOrder(
+            @PathVariable Long id,
+            @Valid @RequestBody ReviewRequest review,
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+
+        Order order = orderService.getOrderForWrite(id);
+        if (order == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Order not found"));
+        }
+        if (!order.getCustomerId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponse.error("You can only rate your own orders"));
+        }
+        OrderReview saved = orderService.reviewOrder(id, userId, review.getRating(), review.getComment());
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Thanks for rating your order", saved));
+    }
+
     // Restaurant Owner: Update order status
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateOrderStatus(
             @PathVariable Long id,
             @RequestBody Map<String, String> statusUpdate,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
             @RequestHeader(value = "X-User-Role", required = false) String userRole) {
         
         String newStatus = statusUpdate.get("status");
-        Order updated = orderService.updateOrderStatus(id, newStatus);
+        Order updated = orderService.updateOrderStatus(id, newStatus, userId, userRole);
         return ResponseEntity.ok(updated);
     }
 
@@ -146,13 +291,24 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    // Delivery Partner: READY orders closest to the partner's last location ping
+    @GetMapping("/available/nearby")
+    public ResponseEntity<ApiResponse<List<NearbyOrderResponse>>> getNearbyAvailableOrders(
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        return ResponseEntity.ok(ApiResponse.success(partnerLocationService.ordersNearPartner(userId, radiusKm, limit)));
+    }
+
     // Delivery Partner: Accept order
     @PutMapping("/{id}/accept")
     public ResponseEntity<?> acceptOrder(
             @PathVariable Long id,
-            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
         
-        Order order = orderService.assignDeliveryPartner(id, userId);
+        Order order = orderService.assignDeliveryPartner(id, userId, userRole);
         return ResponseEntity.ok(order);
     }
 
@@ -160,9 +316,10 @@ public class OrderController {
     @PutMapping("/{id}/complete")
     public ResponseEntity<?> completeOrder(
             @PathVariable Long id,
-            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
         
-        Order order = orderService.completeOrder(id, userId);
+        Order order = orderService.completeOrder(id, userId, userRole);
         return ResponseEntity.ok(order);
     }
 
@@ -173,6 +330,19 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    // Admin: Replay delivered orders through the delivery-time estimator and report its error
+    @GetMapping("/eta/replay")
+    public ResponseEntity<ApiResponse<EtaReplayReport>> replayDeliveryEstimates() {
+        return ResponseEntity.ok(ApiResponse.success(orderService.replayDeliveryEstimates()));
+    }
+
+    // Admin: Move old delivered/cancelled orders to the archive tables now instead of waiting for the nightly run
+    @PostMapping("/archive/run")
+    public ResponseEntity<ApiResponse<Integer>> runArchival() {
+        int archived = orderArchivalService.archiveOldOrders();
+        return ResponseEntity.ok(ApiResponse.success("Archived " + archived + " orders", archived));
+    }
+
     // Customer/Admin: Cancel order
     @PutMapping("/{id}/cancel")
     public ResponseEntity<?> cancelOrder(
@@ -185,7 +355,7 @@ public class OrderController {
             String reason = cancelRequest.getOrDefault("reason", "Cancelled by user");
             
             // Check if user has permission to cancel
-            Order order = orderService.getOrderById(id);
+            Order order = orderService.getOrderForWrite(id);
             if (order == null) {
                 return ResponseEntity.notFound().build();
             }
@@ -196,7 +366,7 @@ public class OrderController {
                         .body(Map.of("error", "You don't have permission to cancel this order"));
             }
             
-            Order cancelled = orderService.cancelOrder(id, reason);
+            Order cancelled = orderService.cancelOrder(id, reason, userId, userRole);
             return ResponseEntity.ok(cancelled);
             
         } catch (IllegalStateException e) {
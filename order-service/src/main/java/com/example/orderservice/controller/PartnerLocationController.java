@@ -0,0 +1,58 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.ApiResponse;
+import com.example.orderservice.dto.LocationPing;
+import com.example.orderservice.dto.NearbyPartnerResponse;
+import com.example.orderservice.service.PartnerLocationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/partners")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class PartnerLocationController {
+
+    @Autowired
+    private PartnerLocationService partnerLocationService;
+
+    // Delivery Partner: GPS ping, sent every few seconds while on shift; only the latest position is kept
+    @PostMapping("/location")
+    public ResponseEntity<Void> updateLocation(
+            @Valid @RequestBody LocationPing ping,
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+        
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        partnerLocationService.recordPing(userId, ping.getLatitude(), ping.getLongitude(), ping.getRecordedAt());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Delivery Partner: Going off shift
+    @DeleteMapping("/location")
+    public ResponseEntity<Void> clearLocation(
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+        
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        partnerLocationService.removePartner(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Restaurant Owner/Admin: Active partners within radiusKm of a restaurant, closest first
+    @GetMapping("/near-restaurant/{restaurantId}")
+    public ResponseEntity<ApiResponse<List<NearbyPartnerResponse>>> partnersNearRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam(defaultValue = "3") double radiusKm,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        return ResponseEntity.ok(ApiResponse.success(
+                partnerLocationService.partnersNearRestaurant(restaurantId, radiusKm, limit)));
+    }
+}
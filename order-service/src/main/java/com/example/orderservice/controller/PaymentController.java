@@ -0,0 +1,74 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.ApiResponse;
+import com.example.orderservice.dto.PaymentInitiateResponse;
+import com.example.orderservice.dto.PaymentVerifyRequest;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.service.PaymentService;
+import com.example.orderservice.service.PaymentWebhookProcessor;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/payments")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class PaymentController {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentWebhookProcessor webhookProcessor;
+
+    // Customer: Create the Razorpay order for checkout
+    @PostMapping("/initiate")
+    public ResponseEntity<ApiResponse<PaymentInitiateResponse>> initiatePayment(
+            @RequestBody Map<String, Long> request,
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+        
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Please login to make a payment"));
+        }
+        Long orderId = request.get("orderId");
+        if (orderId == null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Order ID is required"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(paymentService.initiatePayment(orderId, userId)));
+    }
+
+    // Customer: Confirm checkout with the signature returned by Razorpay
+    @PostMapping("/verify")
+    public ResponseEntity<ApiResponse<Order>> verifyPayment(@Valid @RequestBody PaymentVerifyRequest request) {
+        Order order = paymentService.verifyPayment(request);
+        return ResponseEntity.ok(ApiResponse.success("Payment verified", order));
+    }
+
+    // Admin: Queue stored dead-lettered webhooks again
+    @PostMapping("/webhook/dead-letters/replay")
+    public ResponseEntity<ApiResponse<Integer>> replayDeadLetters() {
+        int replayed = webhookProcessor.replayDeadLetters();
+        return ResponseEntity.ok(ApiResponse.success("Queued " + replayed + " dead-lettered webhooks", replayed));
+    }
+
+    // Razorpay: Webhook, acknowledged once queued; signature is checked by the worker pool
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> webhook(
+            @RequestBody byte[] payload,
+            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        
+        if (signature == null || signature.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!webhookProcessor.submit(payload, signature, eventId)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.orderservice.dispatch;
+
+import com.example.orderservice.geo.GeoGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Assigns READY orders to idle partners in one pass over the whole pool.
+ * Orders from the same restaurant heading in a similar direction are first bundled into a single pickup.
+ * Each bundle is then matched greedily to one of its nearest partners, with older bundles cheaper so they
+ * win contested partners. Finally, pairwise swaps and moves to free partners shorten the total pickup
+ * distance. The result is deterministic for the same input, so replays are comparable.
+ */
+public class DispatchPlanner {
+
+    private static final double EPSILON = 1e-9;
+    static final double PLANNING_CELL_KM = 1.0;
+
+    public record OrderCandidate(Long orderId, Long restaurantId, double pickupLatitude, double pickupLongitude,
+                                 double dropLatitude, double dropLongitude, long readyAtMillis) {
+    }
+
+    public record PartnerCandidate(String partnerId, double latitude, double longitude) {
+    }
+
+    public record Assignment(String partnerId, List<Long> orderIds, double pickupKm) {
+    }
+
+    public record Plan(List<Assignment> assignments, int bundles, int improvementMoves) {
+    }
+
+    public record Settings(double maxPickupKm, double ageWeightKmPerMinute, int maxBundleSize,
+                           double maxBundleAngleDegrees, int candidatesPerBundle, int maxImprovementRounds) {
+    }
+
+    private static final class Bundle {
+        final List<Long> orderIds = new ArrayList<>();
+        double latitude;
+        double longitude;
+        long oldestReadyAt = Long.MAX_VALUE;
+        final Map<Integer, Double> candidateDistances = new HashMap<>();
+        int partner = -1;
+    }
+
+    private record Edge(int bundle, int partner, double distance, double cost) {
+    }
+
+    private final Settings settings;
+
+    public DispatchPlanner(Settings settings) {
+        this.settings = settings;
+    }
+
+    public Plan plan(List<OrderCandidate> orders, List<PartnerCandidate> partners, long nowMillis) {
+        List<Bundle> bundles = bundle(orders);
+        if (bundles.isEmpty() || partners.isEmpty()) {
+            return new Plan(List.of(), bundles.size(), 0);
+        }
+
+        GeoGrid partnerGrid = new GeoGrid(PLANNING_CELL_KM, partners.size());
+        for (PartnerCandidate partner : partners) {
+            partnerGrid.move(partnerGrid.allocate(), partner.latitude(), partner.longitude());
+        }
+
+        List<Edge> edges = new ArrayList<>();
+        for (int b = 0; b < bundles.size(); b++) {
+            Bundle bundle = bundles.get(b);
+            int bundleIndex = b;
+            double agePenalty = agePenalty(bundle, nowMillis);
+            partnerGrid.nearest(bundle.latitude, bundle.longitude, settings.maxPickupKm(), settings.candidatesPerBundle(),
+                    (partner, distance) -> {
+                        bundle.candidateDistances.put(partner, distance);
+                        edges.add(new Edge(bundleIndex, partner, distance, distance - agePenalty));
+                    });
+        }
+
+        // Greedy: cheapest edge first, each bundle and partner used at most once
+        edges.sort(Comparator.comparingDouble(Edge::cost).thenComparingInt(Edge::bundle).thenComparingInt(Edge::partner));
+        int[] bundleOfPartner = new int[partners.size()];
+        Arrays.fill(bundleOfPartner, -1);
+        for (Edge edge : edges) {
+            Bundle bundle = bundles.get(edge.bundle());
+            if (bundle.partner < 0 && bundleOfPartner[edge.partner()] < 0) {
+                bundle.partner = edge.partner();
+                bundleOfPartner[edge.partner()] = edge.bundle();
+            }
+        }
+
+        // Busy pickup spots exhaust their nearest candidates; send leftover bundles, oldest first, to the
+        // nearest partner still free anywhere within range
+        for (int p = 0; p < bundleOfPartner.length; p++) {
+            if (bundleOfPartner[p] >= 0) {
+                partnerGrid.release(p);
+            }
+        }
+        List<Integer> unassigned = new ArrayList<>();
+        for (int b = 0; b < bundles.size(); b++) {
+            if (bundles.get(b).partner < 0) {
+                unassigned.add(b);
+            }
+        }
+        unassigned.sort(Comparator.<Integer>comparingLong(b -> bundles.get(b).oldestReadyAt).thenComparing(b -> b));
+        for (int b : unassigned) {
+            Bundle bundle = bundles.get(b);
+            partnerGrid.nearest(bundle.latitude, bundle.longitude, settings.maxPickupKm(), 1, (partner, distance) -> {
+                bundle.candidateDistances.put(partner, distance);
+                bundle.partner = partner;
+                bundleOfPartner[partner] = b;
+                partnerGrid.release(partner);
+            });
+        }
+
+        int moves = improve(bundles, bundleOfPartner);
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (Bundle bundle : bundles) {
+            if (bundle.partner >= 0) {
+                assignments.add(new Assignment(partners.get(bundle.partner).partnerId(), List.copyOf(bundle.orderIds),
+                        bundle.candidateDistances.get(bundle.partner)));
+            }
+        }
+        return new Plan(assignments, bundles.size(), moves);
+    }
+
+    private double agePenalty(Bundle bundle, long nowMillis) {
+        return settings.ageWeightKmPerMinute() * Math.max(0, nowMillis - bundle.oldestReadyAt) / 60_000.0;
+    }
+
+    // Local search on pickup distance. Age only decides which bundles get served, so it plays no part here.
+    private int improve(List<Bundle> bundles, int[] bundleOfPartner) {
+        int moves = 0;
+        for (int round = 0; round < settings.maxImprovementRounds(); round++) {
+            int movesThisRound = 0;
+            for (int b = 0; b < bundles.size(); b++) {
+                Bundle bundle = bundles.get(b);
+                if (bundle.partner < 0) {
+                    continue;
+                }
+                for (Map.Entry<Integer, Double> candidate : sortedCandidates(bundle)) {
+                    int other = candidate.getKey();
+                    double current = bundle.candidateDistances.get(bundle.partner);
+                    if (other == bundle.partner || candidate.getValue() >= current - EPSILON) {
+                        continue;
+                    }
+                    int otherBundleIndex = bundleOfPartner[other];
+                    if (otherBundleIndex < 0) {
+                        // A closer partner is still free: move to it
+                        bundleOfPartner[bundle.partner] = -1;
+                        bundle.partner = other;
+                        bundleOfPartner[other] = b;
+                        movesThisRound++;
+                        continue;
+                    }
+                    Bundle otherBundle = bundles.get(otherBundleIndex);
+                    Double swapped = otherBundle.candidateDistances.get(bundle.partner);
+                    if (swapped == null) {
+                        continue;
+                    }
+                    double delta = candidate.getValue() + swapped
+                            - current - otherBundle.candidateDistances.get(other);
+                    if (delta < -EPSILON) {
+                        int mine = bundle.partner;
+                        bundle.partner = other;
+                        otherBundle.partner = mine;
+                        bundleOfPartner[other] = b;
+                        bundleOfPartner[mine] = otherBundleIndex;
+                        movesThisRound++;
+                    }
+                }
+            }
+            moves += movesThisRound;
+            if (movesThisRound == 0) {
+                break;
+            }
+        }
+        return moves;
+    }
+
+    private static List<Map.Entry<Integer, Double>> sortedCandidates(Bundle bundle) {
+        List<Map.Entry<Integer, Double>> candidates = new ArrayList<>(bundle.candidateDistances.entrySet());
+        candidates.sort(Map.Entry.<Integer, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        return candidates;
+    }
+
+    // Groups each restaurant's orders by drop-off bearing; orders without drop-off coordinates ride alone
+    private List<Bundle> bundle(List<OrderCandidate> orders) {
+        Map<Long, List<OrderCandidate>> byRestaurant = new TreeMap<>();
+        for (OrderCandidate order : orders) {
+            byRestaurant.computeIfAbsent(order.restaurantId(), id -> new ArrayList<>()).add(order);
+        }
+
+        List<Bundle> bundles = new ArrayList<>();
+        for (List<OrderCandidate> group : byRestaurant.values()) {
+            List<OrderCandidate> directed = new ArrayList<>();
+            for (OrderCandidate order : group) {
+                if (Double.isNaN(order.dropLatitude()) || Double.isNaN(order.dropLongitude()) || settings.maxBundleSize() <= 1) {
+                    bundles.add(single(order));
+                } else {
+                    directed.add(order);
+                }
+            }
+            if (directed.isEmpty()) {
+                continue;
+            }
+            directed.sort(Comparator.comparingDouble(DispatchPlanner::bearing).thenComparing(OrderCandidate::orderId));
+
+            // Start the sweep after the widest bearing gap so a cluster around north is not split in two
+            int start = 0;
+            double widestGap = -1;
+            for (int i = 0; i < directed.size(); i++) {
+                double previous = bearing(directed.get((i + directed.size() - 1) % directed.size()));
+                double gap = (bearing(directed.get(i)) - previous + 360) % 360;
+                if (gap > widestGap) {
+                    widestGap = gap;
+                    start = i;
+                }
+            }
+
+            Bundle current = null;
+            double firstBearing = 0;
+            for (int k = 0; k < directed.size(); k++) {
+                OrderCandidate order = directed.get((start + k) % directed.size());
+                double orderBearing = bearing(order);
+                if (current == null || current.orderIds.size() >= settings.maxBundleSize()
+                        || (orderBearing - firstBearing + 360) % 360 > settings.maxBundleAngleDegrees()) {
+                    current = single(order);
+                    bundles.add(current);
+                    firstBearing = orderBearing;
+                } else {
+                    current.orderIds.add(order.orderId());
+                    current.oldestReadyAt = Math.min(current.oldestReadyAt, order.readyAtMillis());
+                }
+            }
+        }
+        return bundles;
+    }
+
+    private static Bundle single(OrderCandidate order) {
+        Bundle bundle = new Bundle();
+        bundle.orderIds.add(order.orderId());
+        bundle.latitude = order.pickupLatitude();
+        bundle.longitude = order.pickupLongitude();
+        bundle.oldestReadyAt = order.readyAtMillis();
+        return bundle;
+    }
+
+    // Initial compass bearing from pickup to drop-off, 0-360 degrees
+    private static double bearing(OrderCandidate order) {
+        double lat1 = Math.toRadians(order.pickupLatitude());
+        double lat2 = Math.toRadians(order.dropLatitude());
+        double dLon = Math.toRadians(order.dropLongitude() - order.pickupLongitude());
+        double y = Math.sin(dLon) * Math.cos(lat2);
+        double x = Math.cos(lat1) * Math.sin(lat2) - Math.sin(lat1) * Math.cos(lat2) * Math.cos(dLon);
+        return (Math.toDegrees(Math.atan2(y, x)) + 360) % 360;
+    }
+}
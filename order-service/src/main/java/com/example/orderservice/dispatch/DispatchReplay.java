@@ -0,0 +1,147 @@
+package com.example.orderservice.dispatch;
+
+import com.example.orderservice.dto.DispatchBenchmarkReport;
+import com.example.orderservice.dto.DispatchStrategyResult;
+import com.example.orderservice.geo.GeoGrid;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic benchmark for the dispatch planner. A seeded synthetic city (restaurant hubs, skewed restaurant
+ * popularity, partners clustered around hubs) is dispatched three ways: first-come, where each order in ready
+ * order takes the nearest free partner as the accept endpoint does; greedy batch matching; and greedy plus
+ * local improvement. Only runtimes vary between runs with the same seed.
+ */
+public final class DispatchReplay {
+
+    private static final double CENTER_LATITUDE = 12.9716;
+    private static final double CENTER_LONGITUDE = 77.5946;
+    private static final double CITY_RADIUS_KM = 12;
+    private static final int HUBS = 6;
+    private static final long NOW_MILLIS = 1_700_000_000_000L;
+
+    private DispatchReplay() {
+    }
+
+    public static DispatchBenchmarkReport run(DispatchPlanner.Settings settings, int orderCount, int partnerCount, long seed) {
+        Random random = new Random(seed);
+        double[][] hubs = new double[HUBS][];
+        for (int h = 0; h < HUBS; h++) {
+            hubs[h] = offset(CENTER_LATITUDE, CENTER_LONGITUDE, random.nextDouble() * 360, random.nextDouble() * CITY_RADIUS_KM * 0.7);
+        }
+
+        int restaurantCount = Math.max(1, orderCount / 25);
+        double[][] restaurants = new double[restaurantCount][];
+        for (int r = 0; r < restaurantCount; r++) {
+            double[] hub = hubs[random.nextInt(HUBS)];
+            restaurants[r] = offset(hub[0], hub[1], random.nextDouble() * 360, Math.abs(random.nextGaussian()) * 2);
+        }
+
+        List<DispatchPlanner.OrderCandidate> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            double skew = random.nextDouble();
+            int r = (int) (restaurantCount * skew * skew); // Popular restaurants get most of the orders
+            double[] drop = offset(restaurants[r][0], restaurants[r][1], random.nextDouble() * 360, 1 + random.nextDouble() * 6);
+            long readyAt = NOW_MILLIS - (long) (random.nextDouble() * 20 * 60_000);
+            orders.add(new DispatchPlanner.OrderCandidate((long) i + 1, (long) r + 1, restaurants[r][0], restaurants[r][1],
+                    drop[0], drop[1], readyAt));
+        }
+
+        List<DispatchPlanner.PartnerCandidate> partners = new ArrayList<>(partnerCount);
+        for (int i = 0; i < partnerCount; i++) {
+            double[] position;
+            if (random.nextBoolean()) {
+                double[] hub = hubs[random.nextInt(HUBS)];
+                position = offset(hub[0], hub[1], random.nextDouble() * 360, Math.abs(random.nextGaussian()) * 3);
+            } else {
+                position = offset(CENTER_LATITUDE, CENTER_LONGITUDE, random.nextDouble() * 360,
+                        Math.sqrt(random.nextDouble()) * CITY_RADIUS_KM);
+            }
+            partners.add(new DispatchPlanner.PartnerCandidate("partner-" + (i + 1), position[0], position[1]));
+        }
+
+        List<DispatchStrategyResult> results = new ArrayList<>();
+        results.add(firstCome(settings, orders, partners));
+        DispatchPlanner.Settings greedyOnly = new DispatchPlanner.Settings(settings.maxPickupKm(), settings.ageWeightKmPerMinute(),
+                settings.maxBundleSize(), settings.maxBundleAngleDegrees(), settings.candidatesPerBundle(), 0);
+        results.add(batch("batch-greedy", greedyOnly, orders, partners));
+        results.add(batch("batch-greedy-improved", settings, orders, partners));
+        return new DispatchBenchmarkReport(seed, orderCount, partnerCount, restaurantCount, results);
+    }
+
+    private static DispatchStrategyResult batch(String name, DispatchPlanner.Settings settings,
+                                                List<DispatchPlanner.OrderCandidate> orders,
+                                                List<DispatchPlanner.PartnerCandidate> partners) {
+        long start = System.nanoTime();
+        DispatchPlanner.Plan plan = new DispatchPlanner(settings).plan(orders, partners, NOW_MILLIS);
+        double runtimeMillis = (System.nanoTime() - start) / 1e6;
+
+        long[] readyAtById = new long[orders.size() + 1];
+        orders.forEach(order -> readyAtById[order.orderId().intValue()] = order.readyAtMillis());
+        int assigned = 0;
+        double totalPickupKm = 0;
+        double totalWaitMinutes = 0;
+        for (DispatchPlanner.Assignment assignment : plan.assignments()) {
+            totalPickupKm += assignment.pickupKm();
+            for (Long orderId : assignment.orderIds()) {
+                assigned++;
+                totalWaitMinutes += (NOW_MILLIS - readyAtById[orderId.intValue()]) / 60_000.0;
+            }
+        }
+        return result(name, assigned, plan.assignments().size(), totalPickupKm, totalWaitMinutes, plan.improvementMoves(), runtimeMillis);
+    }
+
+    private static DispatchStrategyResult firstCome(DispatchPlanner.Settings settings,
+                                                    List<DispatchPlanner.OrderCandidate> orders,
+                                                    List<DispatchPlanner.PartnerCandidate> partners) {
+        long start = System.nanoTime();
+        GeoGrid free = new GeoGrid(DispatchPlanner.PLANNING_CELL_KM, partners.size());
+        for (DispatchPlanner.PartnerCandidate partner : partners) {
+            free.move(free.allocate(), partner.latitude(), partner.longitude());
+        }
+        List<DispatchPlanner.OrderCandidate> byReadyAt = new ArrayList<>(orders);
+        byReadyAt.sort(Comparator.comparingLong(DispatchPlanner.OrderCandidate::readyAtMillis)
+                .thenComparing(DispatchPlanner.OrderCandidate::orderId));
+
+        int assigned = 0;
+        double totalPickupKm = 0;
+        double totalWaitMinutes = 0;
+        for (DispatchPlanner.OrderCandidate order : byReadyAt) {
+            double[] nearest = {-1, 0};
+            free.nearest(order.pickupLatitude(), order.pickupLongitude(), settings.maxPickupKm(), 1, (slot, distance) -> {
+                nearest[0] = slot;
+                nearest[1] = distance;
+            });
+            if (nearest[0] >= 0) {
+                free.release((int) nearest[0]);
+                assigned++;
+                totalPickupKm += nearest[1];
+                totalWaitMinutes += (NOW_MILLIS - order.readyAtMillis()) / 60_000.0;
+            }
+        }
+        double runtimeMillis = (System.nanoTime() - start) / 1e6;
+        return result("first-come", assigned, assigned, totalPickupKm, totalWaitMinutes, 0, runtimeMillis);
+    }
+
+    private static DispatchStrategyResult result(String name, int assigned, int trips, double totalPickupKm,
+                                                 double totalWaitMinutes, int moves, double runtimeMillis) {
+        return new DispatchStrategyResult(name, assigned, trips, round(totalPickupKm),
+                trips > 0 ? round(totalPickupKm / trips) : 0,
+                assigned > 0 ? round(totalWaitMinutes / assigned) : 0,
+                moves, round(runtimeMillis));
+    }
+
+    private static double[] offset(double latitude, double longitude, double bearingDegrees, double distanceKm) {
+        double bearing = Math.toRadians(bearingDegrees);
+        double dLat = distanceKm * Math.cos(bearing) / 111.32;
+        double dLon = distanceKm * Math.sin(bearing) / (111.32 * Math.cos(Math.toRadians(latitude)));
+        return new double[] {latitude + dLat, longitude + dLon};
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchBenchmarkReport {
+    private long seed;
+    private int orders;
+    private int partners;
+    private int restaurants;
+    private List<DispatchStrategyResult> results;
+}
@@ -0,0 +1,19 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchOffer {
+    private String partnerId;
+    private List<Long> orderIds;
+    private double pickupKm;
+    private Instant offeredAt;
+    private Instant expiresAt;
+}
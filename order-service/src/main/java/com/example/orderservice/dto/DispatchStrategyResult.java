@@ -0,0 +1,19 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchStrategyResult {
+    private String strategy;
+    private int assignedOrders;
+    private int trips;
+    private double totalPickupKm;
+    private double averagePickupKmPerTrip;
+    private double averageWaitMinutesOfAssigned;
+    private int improvementMoves;
+    private double runtimeMillis;
+}
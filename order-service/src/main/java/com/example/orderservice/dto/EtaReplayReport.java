@@ -0,0 +1,20 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EtaReplayReport {
+    private int ordersReplayed;
+    private int ordersScored;
+    private double meanAbsoluteErrorMinutes;
+    private double rootMeanSquareErrorMinutes;
+    private double biasMinutes; // Positive means deliveries arrived later than estimated
+    private double p50AbsoluteErrorMinutes;
+    private double p90AbsoluteErrorMinutes;
+    private double baselineMeanAbsoluteErrorMinutes; // Fixed now + 35 minutes
+    private double averageEstimateMicros;
+}
@@ -0,0 +1,15 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A menu item's current name and restaurant, as served by restaurant-service
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemName {
+    private Long id;
+    private Long restaurantId;
+    private String name;
+}
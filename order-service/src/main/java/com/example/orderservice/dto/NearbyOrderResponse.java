@@ -0,0 +1,19 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyOrderResponse {
+    private Long orderId;
+    private Long restaurantId;
+    private double pickupLatitude;
+    private double pickupLongitude;
+    private double distanceKm;
+    private Instant readyAt;
+}
@@ -0,0 +1,18 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyPartnerResponse {
+    private String partnerId;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+    private Instant lastSeenAt;
+}
@@ -0,0 +1,16 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentInitiateResponse {
+    private Long orderId;
+    private String razorpayOrderId;
+    private Long amount; // In paise
+    private String currency;
+    private String keyId;
+}
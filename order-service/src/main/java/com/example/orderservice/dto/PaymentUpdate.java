@@ -0,0 +1,15 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One verified payment outcome from a gateway webhook, applied in batches by OrderService
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentUpdate {
+    private String razorpayOrderId;
+    private String razorpayPaymentId;
+    private String paymentStatus; // PAID or FAILED
+}
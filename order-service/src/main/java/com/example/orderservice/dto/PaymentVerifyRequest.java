@@ -0,0 +1,25 @@
+package com.example.orderservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentVerifyRequest {
+
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+
+    @NotBlank(message = "Razorpay order ID is required")
+    private String razorpayOrderId;
+
+    @NotBlank(message = "Razorpay payment ID is required")
+    private String razorpayPaymentId;
+
+    @NotBlank(message = "Razorpay signature is required")
+    private String razorpaySignature;
+}
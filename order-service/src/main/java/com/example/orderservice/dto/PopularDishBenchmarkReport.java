@@ -0,0 +1,21 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PopularDishBenchmarkReport {
+    private long seed;
+    private int items;
+    private int dishes;
+    private double skew;
+    private int capacity;
+    private int topK;
+    private int windowHours;
+    private List<PopularDishStrategyResult> results;
+}
@@ -0,0 +1,20 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A dish's ordered quantity over the requested window. Counts are estimates from a bounded summary: the true
+ * quantity is at least minQuantity and at most maxQuantity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PopularDishResponse {
+    private Long menuItemId;
+    private String name;
+    private long quantity;
+    private long minQuantity;
+    private long maxQuantity;
+}
@@ -0,0 +1,19 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PopularDishStrategyResult {
+    private String strategy;
+    private int counters; // Entries held across all buckets
+    private double ingestNanosPerItem;
+    private double queryMillis;
+    private double recallAtK; // Share of the exact top K also returned
+    private double maxRelativeError; // Over the exact top K
+    private double averageRelativeError;
+    private boolean boundsHeld; // Every returned dish's exact count within its min/max
+}
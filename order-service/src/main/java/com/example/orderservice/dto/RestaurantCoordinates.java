@@ -0,0 +1,15 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A restaurant's stored location, as served by restaurant-service
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantCoordinates {
+    private Long id;
+    private Double latitude;
+    private Double longitude;
+}
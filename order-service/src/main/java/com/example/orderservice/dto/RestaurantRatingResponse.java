@@ -0,0 +1,24 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A restaurant's review aggregates as of the last flush: the plain average, the average with recent reviews
+ * weighted more, and the rating last pushed to restaurant-service (the recent average smoothed towards the prior,
+ * null until first pushed).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantRatingResponse {
+    private Long restaurantId;
+    private long reviews;
+    private Double averageRating;
+    private Double recentAverageRating;
+    private Double rating;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Body item of restaurant-service's PUT /restaurants/internal/ratings
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantRatingUpdate {
+    private Long restaurantId;
+    private Double rating;
+}
@@ -0,0 +1,20 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantStatsResponse {
+    private LocalDate date;
+    private long ordersPlaced;
+    private long ordersDelivered;
+    private long ordersCancelled;
+    private double revenue;
+    private Double averageOrderValue;
+    private Double averagePrepTimeMinutes;
+}
@@ -0,0 +1,155 @@
+package com.example.orderservice.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Latest known position of each delivery partner. A ping overwrites the partner's slot in place, so memory
+ * is a few primitive arrays sized to the number of active partners, not to the ping rate.
+ */
+public class PartnerLocationStore {
+
+    public record Match(String partnerId, double latitude, double longitude, double distanceKm, long lastSeenMillis) {
+    }
+
+    private final GeoGrid grid;
+    private final Map<String, Integer> slotByPartner = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private String[] partnerBySlot;
+    private long[] lastSeenMillis;
+
+    public PartnerLocationStore(double cellSizeKm, int initialCapacity) {
+        this.grid = new GeoGrid(cellSizeKm, initialCapacity);
+        this.partnerBySlot = new String[grid.capacity()];
+        this.lastSeenMillis = new long[grid.capacity()];
+    }
+
+    public void update(String partnerId, double latitude, double longitude, long timestampMillis) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByPartner.get(partnerId);
+            if (slot == null) {
+                slot = grid.allocate();
+                ensureCapacity();
+                slotByPartner.put(partnerId, slot);
+                partnerBySlot[slot] = partnerId;
+            } else if (timestampMillis < lastSeenMillis[slot]) {
+                return; // Out-of-order ping from a retrying client
+            }
+            grid.move(slot, latitude, longitude);
+            lastSeenMillis[slot] = timestampMillis;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String partnerId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByPartner.remove(partnerId);
+            if (slot == null) {
+                return false;
+            }
+            release(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops partners that stopped pinging; returns how many were removed
+    public int evictOlderThan(long cutoffMillis) {
+        lock.writeLock().lock();
+        try {
+            List<String> stale = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : slotByPartner.entrySet()) {
+                if (lastSeenMillis[entry.getValue()] < cutoffMillis) {
+                    stale.add(entry.getKey());
+                }
+            }
+            for (String partnerId : stale) {
+                release(slotByPartner.remove(partnerId));
+            }
+            return stale.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Match> get(String partnerId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByPartner.get(partnerId);
+            if (slot == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new Match(partnerId, grid.latitude(slot), grid.longitude(slot), 0, lastSeenMillis[slot]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Closest partners first, ignoring positions older than minLastSeenMillis
+    public List<Match> within(double latitude, double longitude, double radiusKm, int limit, long minLastSeenMillis) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            grid.forEachWithin(latitude, longitude, radiusKm, (slot, distance) -> {
+                if (lastSeenMillis[slot] >= minLastSeenMillis) {
+                    matches.add(new Match(partnerBySlot[slot], grid.latitude(slot), grid.longitude(slot), distance,
+                            lastSeenMillis[slot]));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingDouble(Match::distanceKm));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    // Every partner seen since minLastSeenMillis, for the dispatch planner
+    public List<Match> snapshot(long minLastSeenMillis) {
+        lock.readLock().lock();
+        try {
+            List<Match> all = new ArrayList<>(slotByPartner.size());
+            for (Map.Entry<String, Integer> entry : slotByPartner.entrySet()) {
+                int slot = entry.getValue();
+                if (lastSeenMillis[slot] >= minLastSeenMillis) {
+                    all.add(new Match(entry.getKey(), grid.latitude(slot), grid.longitude(slot), 0, lastSeenMillis[slot]));
+                }
+            }
+            return all;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return grid.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void release(int slot) {
+        grid.release(slot);
+        partnerBySlot[slot] = null;
+        lastSeenMillis[slot] = 0;
+    }
+
+    private void ensureCapacity() {
+        if (partnerBySlot.length < grid.capacity()) {
+            partnerBySlot = Arrays.copyOf(partnerBySlot, grid.capacity());
+            lastSeenMillis = Arrays.copyOf(lastSeenMillis, grid.capacity());
+        }
+    }
+}
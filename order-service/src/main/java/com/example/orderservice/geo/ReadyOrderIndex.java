@@ -0,0 +1,138 @@
+package com.example.orderservice.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * READY orders without a delivery partner, indexed by pickup location. Kept in step with the orders table
+ * by OrderService's after-commit hook, so partners can look up nearby work without a table scan.
+ */
+public class ReadyOrderIndex {
+
+    // Drop-off coordinates are NaN when the order did not supply them
+    public record Match(Long orderId, Long restaurantId, double pickupLatitude, double pickupLongitude,
+                        double dropLatitude, double dropLongitude, double distanceKm, long readyAtMillis) {
+    }
+
+    private final GeoGrid grid;
+    private final Map<Long, Integer> slotByOrder = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] orderBySlot;
+    private long[] restaurantBySlot;
+    private long[] readyAtMillis;
+    private double[] dropLatitudes;
+    private double[] dropLongitudes;
+
+    public ReadyOrderIndex(double cellSizeKm, int initialCapacity) {
+        this.grid = new GeoGrid(cellSizeKm, initialCapacity);
+        this.orderBySlot = new long[grid.capacity()];
+        this.restaurantBySlot = new long[grid.capacity()];
+        this.readyAtMillis = new long[grid.capacity()];
+        this.dropLatitudes = new double[grid.capacity()];
+        this.dropLongitudes = new double[grid.capacity()];
+    }
+
+    public void put(Long orderId, Long restaurantId, double pickupLatitude, double pickupLongitude,
+                    double dropLatitude, double dropLongitude, long readyAt) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByOrder.get(orderId);
+            if (slot == null) {
+                slot = grid.allocate();
+                ensureCapacity();
+                slotByOrder.put(orderId, slot);
+            }
+            grid.move(slot, pickupLatitude, pickupLongitude);
+            orderBySlot[slot] = orderId;
+            restaurantBySlot[slot] = restaurantId;
+            readyAtMillis[slot] = readyAt;
+            dropLatitudes[slot] = dropLatitude;
+            dropLongitudes[slot] = dropLongitude;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(Long orderId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByOrder.remove(orderId);
+            if (slot == null) {
+                return false;
+            }
+            grid.release(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (Integer slot : slotByOrder.values()) {
+                grid.release(slot);
+            }
+            slotByOrder.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Closest pickups first
+    public List<Match> within(double latitude, double longitude, double radiusKm, int limit) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            grid.forEachWithin(latitude, longitude, radiusKm, (slot, distance) -> matches.add(match(slot, distance)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingDouble(Match::distanceKm));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    // Every indexed order, for the dispatch planner
+    public List<Match> snapshot() {
+        lock.readLock().lock();
+        try {
+            List<Match> all = new ArrayList<>(slotByOrder.size());
+            for (Integer slot : slotByOrder.values()) {
+                all.add(match(slot, 0));
+            }
+            return all;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return grid.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Match match(int slot, double distanceKm) {
+        return new Match(orderBySlot[slot], restaurantBySlot[slot], grid.latitude(slot), grid.longitude(slot),
+                dropLatitudes[slot], dropLongitudes[slot], distanceKm, readyAtMillis[slot]);
+    }
+
+    private void ensureCapacity() {
+        if (orderBySlot.length < grid.capacity()) {
+            orderBySlot = Arrays.copyOf(orderBySlot, grid.capacity());
+            restaurantBySlot = Arrays.copyOf(restaurantBySlot, grid.capacity());
+            readyAtMillis = Arrays.copyOf(readyAtMillis, grid.capacity());
+            dropLatitudes = Arrays.copyOf(dropLatitudes, grid.capacity());
+            dropLongitudes = Arrays.copyOf(dropLongitudes, grid.capacity());
+        }
+    }
+}
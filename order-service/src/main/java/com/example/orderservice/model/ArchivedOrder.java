@@ -0,0 +1,131 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cold copy of a terminal order, moved out of `orders` by OrderArchivalService. Columns mirror Order.
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_customer", columnList = "customer_id"),
+        @Index(name = "idx_orders_archive_restaurant", columnList = "restaurant_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "delivery_partner_id")
+    private String deliveryPartnerId;
+
+    @Column(name = "total_price")
+    private Double totalPrice;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "delivery_address", nullable = false)
+    private String deliveryAddress;
+
+    @Column(name = "pickup_latitude")
+    private Double pickupLatitude;
+
+    @Column(name = "pickup_longitude")
+    private Double pickupLongitude;
+
+    @Column(name = "delivery_latitude")
+    private Double deliveryLatitude;
+
+    @Column(name = "delivery_longitude")
+    private Double deliveryLongitude;
+
+    @Column(name = "razorpay_order_id")
+    private String razorpayOrderId;
+
+    @Column(name = "razorpay_payment_id")
+    private String razorpayPaymentId;
+
+    @Column(name = "razorpay_signature")
+    private String razorpaySignature;
+
+    @Column(name = "payment_status")
+    private String paymentStatus;
+
+    @Column(name = "payment_method")
+    private String paymentMethod;
+
+    @Column(name = "cancellation_reason")
+    private String cancellationReason;
+
+    @Column(name = "special_instructions", length = 500)
+    private String specialInstructions;
+
+    @Column(name = "estimated_delivery_time")
+    private LocalDateTime estimatedDeliveryTime;
+
+    @Column(name = "actual_delivery_time")
+    private LocalDateTime actualDeliveryTime;
+
+    @OneToMany(mappedBy = "order")
+    private List<ArchivedOrderItem> items;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Detached Order view so read APIs return the same shape for hot and archived orders
+    public Order toOrder() {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        order.setRestaurantId(restaurantId);
+        order.setDeliveryPartnerId(deliveryPartnerId);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(status);
+        order.setDeliveryAddress(deliveryAddress);
+        order.setPickupLatitude(pickupLatitude);
+        order.setPickupLongitude(pickupLongitude);
+        order.setDeliveryLatitude(deliveryLatitude);
+        order.setDeliveryLongitude(deliveryLongitude);
+        order.setRazorpayOrderId(razorpayOrderId);
+        order.setRazorpayPaymentId(razorpayPaymentId);
+        order.setRazorpaySignature(razorpaySignature);
+        order.setPaymentStatus(paymentStatus);
+        order.setPaymentMethod(paymentMethod);
+        order.setCancellationReason(cancellationReason);
+        order.setSpecialInstructions(specialInstructions);
+        order.setEstimatedDeliveryTime(estimatedDeliveryTime);
+        order.setActualDeliveryTime(actualDeliveryTime);
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(updatedAt);
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        if (items != null) {
+            for (ArchivedOrderItem archivedItem : items) {
+                orderItems.add(new OrderItem(archivedItem.getId(), archivedItem.getMenuItemId(), archivedItem.getName(),
+                        archivedItem.getQuantity(), archivedItem.getPrice(), order));
+            }
+        }
+        order.setItems(orderItems);
+        return order;
+    }
+}
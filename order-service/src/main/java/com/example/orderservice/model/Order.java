@@ -9,11 +9,17 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer", columnList = "customer_id"),
+        @Index(name = "idx_orders_restaurant", columnList = "restaurant_id"),
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_orders_razorpay_order", columnList = "razorpay_order_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Order {
+public class Order implements java.io.Serializable {
+    private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,6 +43,19 @@ public class Order {
     @Column(name = "delivery_address", nullable = false)
     private String deliveryAddress;
 
+    // Restaurant and drop-off coordinates, used for partner matching; null for orders placed before they existed
+    @Column(name = "pickup_latitude")
+    private Double pickupLatitude;
+
+    @Column(name = "pickup_longitude")
+    private Double pickupLongitude;
+
+    @Column(name = "delivery_latitude")
+    private Double deliveryLatitude;
+
+    @Column(name = "delivery_longitude")
+    private Double deliveryLongitude;
+
     @Column(name = "razorpay_order_id")
     private String razorpayOrderId;
 
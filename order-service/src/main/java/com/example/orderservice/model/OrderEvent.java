@@ -0,0 +1,42 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Append-only status transition; rows are inserted in batches by OrderEventWriter and never updated
+@Entity
+@Table(name = "order_events", indexes = {
+        @Index(name = "idx_order_events_order", columnList = "order_id, created_at"),
+        @Index(name = "idx_order_events_to_status", columnList = "to_status, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "from_status")
+    private String fromStatus; // Null for the creation event
+
+    @Column(name = "to_status", nullable = false)
+    private String toStatus;
+
+    @Column(name = "actor_id")
+    private String actorId; // X-User-Id of the caller, or a system component
+
+    @Column(name = "actor_role")
+    private String actorRole;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,45 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A customer's rating of a delivered order; at most one per order
+@Entity
+@Table(name = "order_reviews", indexes = {
+        @Index(name = "idx_order_reviews_restaurant", columnList = "restaurant_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReview {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(nullable = false)
+    private Integer rating; // 1-5
+
+    @Column(length = 500)
+    private String comment;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Per-restaurant, per-day rollup maintained by OrderStatsService (write-behind)
+@Entity
+@Table(name = "restaurant_daily_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_restaurant_stat_date", columnNames = {"restaurant_id", "stat_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate; // Day the orders were placed (Order.createdAt)
+
+    @Column(name = "orders_placed", nullable = false)
+    private Long ordersPlaced = 0L;
+
+    @Column(name = "orders_delivered", nullable = false)
+    private Long ordersDelivered = 0L;
+
+    @Column(name = "orders_cancelled", nullable = false)
+    private Long ordersCancelled = 0L;
+
+    @Column(nullable = false)
+    private Double revenue = 0.0; // Sum of totalPrice over delivered orders
+
+    @Column(name = "prep_time_seconds", nullable = false)
+    private Long prepTimeSeconds = 0L;
+
+    @Column(name = "prep_time_samples", nullable = false)
+    private Long prepTimeSamples = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Per-restaurant review aggregates maintained by RestaurantRatingService (write-behind)
+@Entity
+@Table(name = "restaurant_ratings")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantRating {
+
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    // Sums of rating * weight and weight, each review weighted 2^(age at the decay epoch / half-life)
+    @Column(name = "decayed_sum", nullable = false)
+    private Double decayedSum = 0.0;
+
+    @Column(name = "decayed_weight", nullable = false)
+    private Double decayedWeight = 0.0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // The rating last pushed to restaurant-service; null until the first push
+    @Column(name = "published_rating")
+    private Double publishedRating;
+}
@@ -0,0 +1,53 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderArchiveRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @EntityGraph(attributePaths = "items")
+    Optional<ArchivedOrder> findWithItemsById(Long id);
+
+    @EntityGraph(attributePaths = "items")
+    List<ArchivedOrder> findByCustomerId(String customerId);
+
+    List<ArchivedOrder> findByRestaurantId(Long restaurantId);
+
+    List<ArchivedOrder> findByStatus(String status);
+
+    // Set-based move of one batch; callers run all four statements in a single transaction
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (id, customer_id, restaurant_id, delivery_partner_id, total_price, status, " +
+            "delivery_address, pickup_latitude, pickup_longitude, delivery_latitude, delivery_longitude, " +
+            "razorpay_order_id, razorpay_payment_id, razorpay_signature, payment_status, payment_method, " +
+            "cancellation_reason, special_instructions, estimated_delivery_time, actual_delivery_time, created_at, updated_at, archived_at) " +
+            "SELECT id, customer_id, restaurant_id, delivery_partner_id, total_price, status, " +
+            "delivery_address, pickup_latitude, pickup_longitude, delivery_latitude, delivery_longitude, " +
+            "razorpay_order_id, razorpay_payment_id, razorpay_signature, payment_status, payment_method, " +
+            "cancellation_reason, special_instructions, estimated_delivery_time, actual_delivery_time, created_at, updated_at, NOW() " +
+            "FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (id, order_id, menu_item_id, name, quantity, price) " +
+            "SELECT id, order_id, menu_item_id, name, quantity, price FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int copyOrderItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteHotOrderItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteHotOrders(@Param("ids") Collection<Long> ids);
+}
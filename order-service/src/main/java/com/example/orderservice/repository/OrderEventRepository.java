@@ -0,0 +1,14 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+    List<OrderEvent> findByOrderIdOrderByCreatedAtAscIdAsc(Long orderId);
+    List<OrderEvent> findByOrderIdInOrderByCreatedAtAscIdAsc(Collection<Long> orderIds);
+}
@@ -2,8 +2,19 @@ package com.example.orderservice.repository;
 
 import com.example.orderservice.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // restaurant id, menu item id, quantity, confirmed at; for loading the popular dishes window from the
+    // CONFIRMED transitions in the timeline, the same moment the live count uses
+    @Query("SELECT o.restaurantId, i.menuItemId, i.quantity, e.createdAt FROM OrderEvent e, OrderItem i JOIN i.order o " +
+            "WHERE o.id = e.orderId AND e.toStatus = 'CONFIRMED' AND e.createdAt >= :from AND e.createdAt < :to")
+    List<Object[]> findConfirmedPopularityFields(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
\ No newline at end of file
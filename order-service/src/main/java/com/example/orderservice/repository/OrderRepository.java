@@ -1,9 +1,17 @@
 package com.example.orderservice.repository;
 
 import com.example.orderservice.model.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,5 +19,40 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerId(String customerId);
     List<Order> findByRestaurantId(Long restaurantId);
     Order findByRazorpayOrderId(String razorpayOrderId);
+
+    // Row-locked, so a payment and a concurrent cancel of the same order are applied one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.razorpayOrderId IN :razorpayOrderIds ORDER BY o.id")
+    List<Order> findByRazorpayOrderIdInForUpdate(@Param("razorpayOrderIds") Collection<String> razorpayOrderIds);
+
     List<Order> findByStatusAndDeliveryPartnerIdIsNull(String status);
+    List<Order> findByStatus(String status);
+
+    // Rows of [restaurantId, count]
+    @Query("SELECT o.restaurantId, COUNT(o) FROM Order o WHERE o.status IN :statuses GROUP BY o.restaurantId")
+    List<Object[]> countByRestaurantForStatuses(@Param("statuses") Collection<String> statuses);
+
+    // Rows of [id, createdAt, updatedAt] for unassigned orders in a status; used to re-arm deadlines after a restart
+    @Query("SELECT o.id, o.createdAt, o.updatedAt FROM Order o WHERE o.status = :status AND o.deliveryPartnerId IS NULL")
+    List<Object[]> findUnassignedTimestampsByStatus(@Param("status") String status);
+
+    @Query("SELECT DISTINCT o.deliveryPartnerId FROM Order o WHERE o.status = :status AND o.deliveryPartnerId IS NOT NULL")
+    List<String> findDeliveryPartnerIdsByStatus(@Param("status") String status);
+
+    // Cancels the order only if it is still unassigned in the expected status; returns the number of rows changed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = 'CANCELLED', o.cancellationReason = :reason, o.updatedAt = :now " +
+            "WHERE o.id = :id AND o.status = :expectedStatus AND o.deliveryPartnerId IS NULL")
+    int cancelIfInStatus(@Param("id") Long id, @Param("expectedStatus") String expectedStatus,
+                         @Param("reason") String reason, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.deliveryPartnerId = :partnerId, o.status = 'OUT_FOR_DELIVERY', o.updatedAt = :now " +
+            "WHERE o.id = :id AND o.status = 'READY' AND o.deliveryPartnerId IS NULL")
+    int claimForDelivery(@Param("id") Long id, @Param("partnerId") String partnerId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.createdAt < :cutoff ORDER BY o.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<String> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
 }
@@ -0,0 +1,17 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.OrderReview;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderReviewRepository extends JpaRepository<OrderReview, Long> {
+
+    // rating, created at; for rebuilding a restaurant's aggregates
+    @Query("SELECT r.rating, r.createdAt FROM OrderReview r WHERE r.restaurantId = :restaurantId")
+    List<Object[]> findRatingFields(@Param("restaurantId") Long restaurantId);
+}
@@ -0,0 +1,45 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.RestaurantDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RestaurantDailyStatsRepository extends JpaRepository<RestaurantDailyStats, Long> {
+
+    List<RestaurantDailyStats> findByRestaurantIdAndStatDateBetweenOrderByStatDateAsc(Long restaurantId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Transactional
+    void deleteByRestaurantId(Long restaurantId);
+
+    // Adds deltas to the rollup row, creating it on first write. Safe with several instances flushing concurrently.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO restaurant_daily_stats " +
+            "(restaurant_id, stat_date, orders_placed, orders_delivered, orders_cancelled, revenue, prep_time_seconds, prep_time_samples, updated_at) " +
+            "VALUES (:restaurantId, :statDate, :placed, :delivered, :cancelled, :revenue, :prepSeconds, :prepSamples, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "orders_placed = orders_placed + VALUES(orders_placed), " +
+            "orders_delivered = orders_delivered + VALUES(orders_delivered), " +
+            "orders_cancelled = orders_cancelled + VALUES(orders_cancelled), " +
+            "revenue = revenue + VALUES(revenue), " +
+            "prep_time_seconds = prep_time_seconds + VALUES(prep_time_seconds), " +
+            "prep_time_samples = prep_time_samples + VALUES(prep_time_samples), " +
+            "updated_at = NOW()", nativeQuery = true)
+    void addDeltas(@Param("restaurantId") Long restaurantId,
+                   @Param("statDate") LocalDate statDate,
+                   @Param("placed") long placed,
+                   @Param("delivered") long delivered,
+                   @Param("cancelled") long cancelled,
+                   @Param("revenue") double revenue,
+                   @Param("prepSeconds") long prepSeconds,
+                   @Param("prepSamples") long prepSamples);
+}
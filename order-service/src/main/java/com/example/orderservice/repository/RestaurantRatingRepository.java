@@ -0,0 +1,47 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.RestaurantRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RestaurantRatingRepository extends JpaRepository<RestaurantRating, Long> {
+
+    @Query("SELECT r.restaurantId FROM RestaurantRating r")
+    List<Long> findAllRestaurantIds();
+
+    // Not read-only, so it reads the primary: called right after a flush wrote the rows
+    @Transactional
+    @Query("SELECT r FROM RestaurantRating r WHERE r.restaurantId IN :restaurantIds")
+    List<RestaurantRating> findForPublishing(@Param("restaurantIds") Collection<Long> restaurantIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RestaurantRating r SET r.publishedRating = :rating WHERE r.restaurantId = :restaurantId")
+    void markPublished(@Param("restaurantId") Long restaurantId, @Param("rating") double rating);
+
+    // Adds deltas to the aggregate row, creating it on first write. Safe with several instances flushing concurrently.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO restaurant_ratings " +
+            "(restaurant_id, review_count, rating_sum, decayed_sum, decayed_weight, updated_at) " +
+            "VALUES (:restaurantId, :reviews, :ratingSum, :decayedSum, :decayedWeight, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "review_count = review_count + VALUES(review_count), " +
+            "rating_sum = rating_sum + VALUES(rating_sum), " +
+            "decayed_sum = decayed_sum + VALUES(decayed_sum), " +
+            "decayed_weight = decayed_weight + VALUES(decayed_weight), " +
+            "updated_at = NOW()", nativeQuery = true)
+    void addDeltas(@Param("restaurantId") Long restaurantId,
+                   @Param("reviews") long reviews,
+                   @Param("ratingSum") long ratingSum,
+                   @Param("decayedSum") double decayedSum,
+                   @Param("decayedWeight") double decayedWeight);
+}
@@ -0,0 +1,191 @@
+package com.example.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Learns how long orders spend in each stage (CONFIRMED, PREPARING, READY, OUT_FOR_DELIVERY) per restaurant
+ * using exponentially weighted moving averages, plus an hour-of-day factor and a queue-depth adjustment.
+ * Memory is constant per restaurant and estimates never touch the database.
+ */
+@Component
+public class DeliveryTimeEstimator {
+
+    private static final String[] STAGES = {"CONFIRMED", "PREPARING", "READY", "OUT_FOR_DELIVERY"};
+    private static final int COOK_STAGE = 1;
+    private static final double MAX_SAMPLE_SECONDS = 4 * 3600;
+
+    private final double alpha;
+    private final double hourAlpha;
+    private final double queueFactor;
+    private final double[] priorStageMinutes;
+
+    private final ConcurrentHashMap<Long, StageModel> models = new ConcurrentHashMap<>();
+    private final StageModel global;
+    private final double[] hourFactor = new double[24];
+
+    @Autowired
+    public DeliveryTimeEstimator(@Value("${orders.eta.alpha:0.2}") double alpha,
+                                 @Value("${orders.eta.queue-factor:0.1}") double queueFactor,
+                                 @Value("${orders.eta.prior-stage-minutes:3,17,5,10}") double[] priorStageMinutes) {
+        if (priorStageMinutes.length != STAGES.length) {
+            throw new IllegalArgumentException("orders.eta.prior-stage-minutes needs " + STAGES.length + " values");
+        }
+        this.alpha = alpha;
+        this.hourAlpha = alpha / 4;
+        this.queueFactor = queueFactor;
+        this.priorStageMinutes = priorStageMinutes.clone();
+        double[] priorStageSeconds = new double[STAGES.length];
+        for (int i = 0; i < STAGES.length; i++) {
+            priorStageSeconds[i] = priorStageMinutes[i] * 60;
+        }
+        this.global = new StageModel(priorStageSeconds);
+        Arrays.fill(hourFactor, 1.0);
+    }
+
+    // Expected time from confirmation to delivery for an order confirmed at the given time
+    public Duration estimate(Long restaurantId, LocalDateTime confirmedAt) {
+        StageModel model = restaurantId != null ? models.get(restaurantId) : null;
+        if (model == null) {
+            model = global;
+        }
+        double seconds = model.estimateSeconds(queueFactor) * hourFactor(confirmedAt.getHour());
+        return Duration.ofSeconds(Math.round(seconds));
+    }
+
+    // Feeds one observed status transition; a transition that skips stages is spread over them
+    public void recordTransition(Long restaurantId, String fromStatus, String toStatus,
+                                 LocalDateTime startedAt, LocalDateTime endedAt) {
+        if (restaurantId == null || toStatus == null || toStatus.equals(fromStatus)) {
+            return;
+        }
+        StageModel model = models.computeIfAbsent(restaurantId, id -> new StageModel(global.snapshotMeans()));
+        model.trackQueue(fromStatus, toStatus);
+
+        int from = stageIndex(fromStatus);
+        int to = "DELIVERED".equals(toStatus) ? STAGES.length : stageIndex(toStatus);
+        if (from < 0 || to <= from || startedAt == null || endedAt == null) {
+            return;
+        }
+        double observed = Duration.between(startedAt, endedAt).getSeconds();
+        if (observed <= 0 || observed > MAX_SAMPLE_SECONDS) {
+            return;
+        }
+
+        int hour = startedAt.getHour();
+        double factor = hourFactor(hour);
+        double expectedNeutral = model.spanSeconds(from, to);
+        model.observe(from, to, observed / factor, alpha);
+        global.observe(from, to, observed / factor, alpha);
+
+        if (expectedNeutral > 0) {
+            double ratio = Math.max(0.25, Math.min(4.0, observed / expectedNeutral));
+            synchronized (hourFactor) {
+                hourFactor[hour] += hourAlpha * (ratio - hourFactor[hour]);
+            }
+        }
+    }
+
+    public void seedQueueDepth(Long restaurantId, int activeOrders) {
+        models.computeIfAbsent(restaurantId, id -> new StageModel(global.snapshotMeans())).seedQueue(activeOrders);
+    }
+
+    // Same configuration, no learned state; used by the replay harness
+    public DeliveryTimeEstimator untrainedCopy() {
+        return new DeliveryTimeEstimator(alpha, queueFactor, priorStageMinutes);
+    }
+
+    public int trackedRestaurants() {
+        return models.size();
+    }
+
+    private double hourFactor(int hour) {
+        synchronized (hourFactor) {
+            return hourFactor[hour];
+        }
+    }
+
+    private static int stageIndex(String status) {
+        if (status == null) {
+            return -1;
+        }
+        for (int i = 0; i < STAGES.length; i++) {
+            if (STAGES[i].equals(status)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean inKitchen(String status) {
+        return "CONFIRMED".equals(status) || "PREPARING".equals(status);
+    }
+
+    private static final class StageModel {
+        private final double[] meanSeconds;
+        private long samples;
+        private int queueDepth;
+        private double averageQueueDepth;
+
+        StageModel(double[] initialMeans) {
+            this.meanSeconds = initialMeans.clone();
+        }
+
+        synchronized double[] snapshotMeans() {
+            return meanSeconds.clone();
+        }
+
+        synchronized double spanSeconds(int from, int to) {
+            double sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += meanSeconds[i];
+            }
+            return sum;
+        }
+
+        synchronized void observe(int from, int to, double seconds, double alpha) {
+            // Faster warm-up for new restaurants, then settle on the configured smoothing
+            double a = Math.max(alpha, 1.0 / (samples + 2));
+            double span = 0;
+            for (int i = from; i < to; i++) {
+                span += meanSeconds[i];
+            }
+            for (int i = from; i < to; i++) {
+                double share = span > 0 ? meanSeconds[i] / span : 1.0 / (to - from);
+                meanSeconds[i] += a * (seconds * share - meanSeconds[i]);
+            }
+            samples++;
+        }
+
+        synchronized double estimateSeconds(double queueFactor) {
+            double queueAdjust = Math.max(0.5, 1 + queueFactor * (queueDepth - averageQueueDepth));
+            double total = 0;
+            for (int i = 0; i < meanSeconds.length; i++) {
+                total += i == COOK_STAGE ? meanSeconds[i] * queueAdjust : meanSeconds[i];
+            }
+            return total;
+        }
+
+        synchronized void trackQueue(String fromStatus, String toStatus) {
+            boolean wasQueued = inKitchen(fromStatus);
+            boolean isQueued = inKitchen(toStatus);
+            if (!wasQueued && isQueued) {
+                averageQueueDepth += 0.05 * (queueDepth - averageQueueDepth);
+                queueDepth++;
+            } else if (wasQueued && !isQueued && queueDepth > 0) {
+                queueDepth--;
+            }
+        }
+
+        synchronized void seedQueue(int activeOrders) {
+            queueDepth = Math.max(0, activeOrders);
+            averageQueueDepth = queueDepth;
+        }
+    }
+}
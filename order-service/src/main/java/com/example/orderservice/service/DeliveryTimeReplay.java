@@ -0,0 +1,84 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.EtaReplayReport;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline replay of historical status transitions through a fresh estimator.
+ * Each order is estimated at confirmation time, exactly as on the payment path, and scored at delivery.
+ */
+public final class DeliveryTimeReplay {
+
+    private static final long BASELINE_MINUTES = 35;
+
+    public record Event(Long orderId, Long restaurantId, String fromStatus, String toStatus, LocalDateTime at) {
+    }
+
+    private DeliveryTimeReplay() {
+    }
+
+    // Events must be sorted by time
+    public static EtaReplayReport run(DeliveryTimeEstimator estimator, List<Event> events) {
+        Map<Long, LocalDateTime> lastTransitionAt = new HashMap<>();
+        Map<Long, LocalDateTime> estimatedDeliveryAt = new HashMap<>();
+        Map<Long, LocalDateTime> confirmedAt = new HashMap<>();
+        List<Double> absErrors = new ArrayList<>();
+        double sumError = 0;
+        double sumSquaredError = 0;
+        double sumBaselineAbsError = 0;
+        long estimateNanos = 0;
+        int replayed = 0;
+
+        for (Event event : events) {
+            if ("CONFIRMED".equals(event.toStatus())) {
+                long start = System.nanoTime();
+                Duration eta = estimator.estimate(event.restaurantId(), event.at());
+                estimateNanos += System.nanoTime() - start;
+                estimatedDeliveryAt.put(event.orderId(), event.at().plus(eta));
+                confirmedAt.put(event.orderId(), event.at());
+                replayed++;
+            }
+
+            estimator.recordTransition(event.restaurantId(), event.fromStatus(), event.toStatus(),
+                    lastTransitionAt.get(event.orderId()), event.at());
+            lastTransitionAt.put(event.orderId(), event.at());
+
+            if ("DELIVERED".equals(event.toStatus()) || "CANCELLED".equals(event.toStatus())) {
+                LocalDateTime estimated = estimatedDeliveryAt.remove(event.orderId());
+                LocalDateTime confirmed = confirmedAt.remove(event.orderId());
+                lastTransitionAt.remove(event.orderId());
+                if ("DELIVERED".equals(event.toStatus()) && estimated != null) {
+                    double error = Duration.between(estimated, event.at()).getSeconds() / 60.0;
+                    double baselineError = Duration.between(confirmed.plusMinutes(BASELINE_MINUTES), event.at()).getSeconds() / 60.0;
+                    absErrors.add(Math.abs(error));
+                    sumError += error;
+                    sumSquaredError += error * error;
+                    sumBaselineAbsError += Math.abs(baselineError);
+                }
+            }
+        }
+
+        int scored = absErrors.size();
+        if (scored == 0) {
+            return new EtaReplayReport(replayed, 0, 0, 0, 0, 0, 0, 0, replayed > 0 ? estimateNanos / 1000.0 / replayed : 0);
+        }
+        absErrors.sort(Double::compare);
+        double mae = absErrors.stream().mapToDouble(Double::doubleValue).sum() / scored;
+        return new EtaReplayReport(
+                replayed,
+                scored,
+                mae,
+                Math.sqrt(sumSquaredError / scored),
+                sumError / scored,
+                absErrors.get((int) Math.floor(0.5 * (scored - 1))),
+                absErrors.get((int) Math.floor(0.9 * (scored - 1))),
+                sumBaselineAbsError / scored,
+                estimateNanos / 1000.0 / replayed);
+    }
+}
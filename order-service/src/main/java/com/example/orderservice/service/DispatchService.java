@@ -0,0 +1,299 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dispatch.DispatchPlanner;
+import com.example.orderservice.dispatch.DispatchReplay;
+import com.example.orderservice.dto.DispatchBenchmarkReport;
+import com.example.orderservice.dto.DispatchOffer;
+import com.example.orderservice.geo.PartnerLocationStore;
+import com.example.orderservice.geo.ReadyOrderIndex;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Periodic batch dispatch. Every few seconds all unoffered READY orders and idle partners with a fresh
+ * location go through DispatchPlanner, and each resulting trip is offered to its partner for offer-ttl-seconds.
+ * Orders on an open offer are held out of later rounds; declined or expired offers return them to the pool.
+ * The first-come accept endpoint keeps working alongside this.
+ * <p>
+ * Offers and the orders they hold live in Redis with the offer's lifetime as TTL, so every instance sees and
+ * can accept them. The scheduled round runs on one instance per interval, whichever takes the round lease.
+ */
+@Service
+public class DispatchService {
+
+    private static final String DELIVERY_PARTNER_ROLE = "DELIVERY_PARTNER";
+
+    @Autowired
+    private PartnerLocationService partnerLocationService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${app.cache.key-prefix:${spring.application.name}}")
+    private String keyPrefix;
+
+    @Value("${dispatch.interval-ms:5000}")
+    private long intervalMillis;
+
+    @Value("${dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dispatch.offer-ttl-seconds:30}")
+    private long offerTtlSeconds;
+
+    @Value("${dispatch.max-pickup-km:5}")
+    private double maxPickupKm;
+
+    @Value("${dispatch.age-weight-km-per-minute:0.2}")
+    private double ageWeightKmPerMinute;
+
+    @Value("${dispatch.max-bundle-size:3}")
+    private int maxBundleSize;
+
+    @Value("${dispatch.max-bundle-angle-degrees:30}")
+    private double maxBundleAngleDegrees;
+
+    @Value("${dispatch.candidates-per-bundle:8}")
+    private int candidatesPerBundle;
+
+    @Value("${dispatch.max-improvement-rounds:5}")
+    private int maxImprovementRounds;
+
+    // Deletes KEYS[1] only while it still holds ARGV[1], so a claim is never released for someone else's offer
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0", Long.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private Counter offersCreated;
+    private Counter offersAccepted;
+    private Counter offersDeclined;
+    private Timer planTimer;
+
+    @PostConstruct
+    public void init() {
+        offersCreated = meterRegistry.counter("dispatch.offers", "result", "created");
+        offersAccepted = meterRegistry.counter("dispatch.offers", "result", "accepted");
+        offersDeclined = meterRegistry.counter("dispatch.offers", "result", "declined");
+        planTimer = meterRegistry.timer("dispatch.plan");
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.interval-ms:5000}")
+    public void scheduledDispatch() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // The lease is left to expire, so the other instances skip this interval
+            Boolean leader = redisTemplate.opsForValue().setIfAbsent(keyPrefix + "::dispatch::round", instanceId,
+                    Duration.ofMillis(intervalMillis));
+            if (Boolean.TRUE.equals(leader)) {
+                dispatch();
+            }
+        } catch (DataAccessException e) {
+            System.out.println("Dispatch round skipped, Redis unavailable: " + e.getMessage());
+        }
+    }
+
+    // One planning round; returns the offers it made
+    public synchronized List<DispatchOffer> dispatch() {
+        List<ReadyOrderIndex.Match> ready = partnerLocationService.readyOrdersSnapshot();
+        List<String> orderClaims = redisTemplate.opsForValue().multiGet(
+                ready.stream().map(order -> claimKey(order.orderId())).toList());
+        List<DispatchPlanner.OrderCandidate> orders = new ArrayList<>();
+        for (int i = 0; i < ready.size(); i++) {
+            ReadyOrderIndex.Match order = ready.get(i);
+            if (orderClaims == null || orderClaims.get(i) == null) {
+                orders.add(new DispatchPlanner.OrderCandidate(order.orderId(), order.restaurantId(), order.pickupLatitude(),
+                        order.pickupLongitude(), order.dropLatitude(), order.dropLongitude(), order.readyAtMillis()));
+            }
+        }
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> busy = new HashSet<>(orderRepository.findDeliveryPartnerIdsByStatus("OUT_FOR_DELIVERY"));
+        List<PartnerLocationStore.Match> active = partnerLocationService.activePartnersSnapshot().stream()
+                .filter(partner -> !busy.contains(partner.partnerId())).toList();
+        List<String> openOffers = redisTemplate.opsForValue().multiGet(
+                active.stream().map(partner -> offerKey(partner.partnerId())).toList());
+        List<DispatchPlanner.PartnerCandidate> partners = new ArrayList<>();
+        for (int i = 0; i < active.size(); i++) {
+            PartnerLocationStore.Match partner = active.get(i);
+            if (openOffers == null || openOffers.get(i) == null) {
+                partners.add(new DispatchPlanner.PartnerCandidate(partner.partnerId(), partner.latitude(), partner.longitude()));
+            }
+        }
+        if (partners.isEmpty()) {
+            return List.of();
+        }
+
+        long now = System.currentTimeMillis();
+        DispatchPlanner.Plan plan = planTimer.record(() -> new DispatchPlanner(settings()).plan(orders, partners, now));
+
+        Instant offeredAt = Instant.ofEpochMilli(now);
+        Instant expiresAt = offeredAt.plusSeconds(offerTtlSeconds);
+        List<DispatchOffer> offers = new ArrayList<>();
+        for (DispatchPlanner.Assignment assignment : plan.assignments()) {
+            DispatchOffer offer = new DispatchOffer(assignment.partnerId(), assignment.orderIds(), assignment.pickupKm(),
+                    offeredAt, expiresAt);
+            if (store(offer)) {
+                offers.add(offer);
+            }
+        }
+        offersCreated.increment(offers.size());
+        if (!offers.isEmpty()) {
+            System.out.println("Dispatch round: " + orders.size() + " orders, " + partners.size() + " partners, "
+                    + plan.bundles() + " trips planned, " + offers.size() + " offers made");
+        }
+        return offers;
+    }
+
+    public DispatchOffer getOffer(String partnerId) {
+        try {
+            return parseOffer(partnerId, redisTemplate.opsForValue().get(offerKey(partnerId)));
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Dispatch offers are unavailable, please try again shortly");
+        }
+    }
+
+    // Claims every order in the offer that is still READY and unclaimed; returns the orders taken
+    public List<Order> acceptOffer(String partnerId) {
+        DispatchOffer offer = removeOffer(partnerId);
+        if (offer == null) {
+            throw new IllegalStateException("No active dispatch offer for partner " + partnerId);
+        }
+        List<Order> accepted = new ArrayList<>();
+        for (Long orderId : offer.getOrderIds()) {
+            // Someone may have taken it through the first-come endpoint in the meantime
+            Order claimed = orderService.claimForDelivery(orderId, partnerId, DELIVERY_PARTNER_ROLE);
+            if (claimed != null) {
+                accepted.add(claimed);
+            } else {
+                releaseClaim(orderId, partnerId);
+            }
+        }
+        offersAccepted.increment();
+        return accepted;
+    }
+
+    public void declineOffer(String partnerId) {
+        DispatchOffer offer = removeOffer(partnerId);
+        if (offer == null) {
+            throw new IllegalStateException("No active dispatch offer for partner " + partnerId);
+        }
+        offer.getOrderIds().forEach(orderId -> releaseClaim(orderId, partnerId));
+        offersDeclined.increment();
+    }
+
+    public DispatchBenchmarkReport benchmark(int orders, int partners, long seed) {
+        if (orders <= 0 || orders > 100_000 || partners <= 0 || partners > 100_000) {
+            throw new IllegalArgumentException("orders and partners must be between 1 and 100000");
+        }
+        return DispatchReplay.run(settings(), orders, partners, seed);
+    }
+
+    // Claims the offer's orders, then publishes the offer; gives up if another round got to any of them first
+    private boolean store(DispatchOffer offer) {
+        Duration ttl = Duration.between(Instant.now(), offer.getExpiresAt());
+        if (ttl.isNegative() || ttl.isZero()) {
+            return false;
+        }
+        List<Long> claimed = new ArrayList<>();
+        for (Long orderId : offer.getOrderIds()) {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(claimKey(orderId), offer.getPartnerId(), ttl))) {
+                claimed.forEach(id -> releaseClaim(id, offer.getPartnerId()));
+                return false;
+            }
+            claimed.add(orderId);
+        }
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(offerKey(offer.getPartnerId()), formatOffer(offer), ttl))) {
+            claimed.forEach(id -> releaseClaim(id, offer.getPartnerId()));
+            return false;
+        }
+        return true;
+    }
+
+    // Taken with GETDEL, so an offer is accepted or declined once however many instances are asked
+    private DispatchOffer removeOffer(String partnerId) {
+        DispatchOffer offer;
+        try {
+            offer = parseOffer(partnerId, redisTemplate.opsForValue().getAndDelete(offerKey(partnerId)));
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Dispatch offers are unavailable, please try again shortly");
+        }
+        if (offer != null && !offer.getExpiresAt().isAfter(Instant.now())) {
+            offer.getOrderIds().forEach(orderId -> releaseClaim(orderId, partnerId));
+            return null;
+        }
+        return offer;
+    }
+
+    private void releaseClaim(Long orderId, String partnerId) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(claimKey(orderId)), partnerId);
+        } catch (DataAccessException e) {
+            // Left to expire with the offer
+            System.out.println("Could not release dispatch claim on order " + orderId + ": " + e.getMessage());
+        }
+    }
+
+    // Stored as <offeredAt millis>|<expiresAt millis>|<pickup km>|<order id>,<order id>...
+    private String formatOffer(DispatchOffer offer) {
+        return offer.getOfferedAt().toEpochMilli() + "|" + offer.getExpiresAt().toEpochMilli() + "|" + offer.getPickupKm()
+                + "|" + offer.getOrderIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private DispatchOffer parseOffer(String partnerId, String value) {
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split("\\|");
+        List<Long> orderIds = Arrays.stream(parts[3].split(",")).map(Long::valueOf).toList();
+        return new DispatchOffer(partnerId, orderIds, Double.parseDouble(parts[2]),
+                Instant.ofEpochMilli(Long.parseLong(parts[0])), Instant.ofEpochMilli(Long.parseLong(parts[1])));
+    }
+
+    private String offerKey(String partnerId) {
+        return keyPrefix + "::dispatch::offer::" + partnerId;
+    }
+
+    private String claimKey(Long orderId) {
+        return keyPrefix + "::dispatch::offered::" + orderId;
+    }
+
+    private DispatchPlanner.Settings settings() {
+        return new DispatchPlanner.Settings(maxPickupKm, ageWeightKmPerMinute, maxBundleSize, maxBundleAngleDegrees,
+                candidatesPerBundle, maxImprovementRounds);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.repository.OrderArchiveRepository;
+import com.example.orderservice.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves DELIVERED/CANCELLED orders older than the retention window from the hot orders/order_items
+ * tables into orders_archive/order_items_archive. Each batch is its own short transaction and batches
+ * are spaced out so the move does not compete with live traffic.
+ */
+@Service
+public class OrderArchivalService {
+
+    private static final List<String> TERMINAL_STATUSES = List.of("DELIVERED", "CANCELLED");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${orders.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orders.archive.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${orders.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${orders.archive.batch-pause-ms:200}")
+    private long batchPauseMs;
+
+    @Value("${orders.archive.max-batches-per-run:1000}")
+    private int maxBatchesPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Scheduled(cron = "${orders.archive.cron:0 30 3 * * *}")
+    public void scheduledArchival() {
+        if (enabled) {
+            archiveOldOrders();
+        }
+    }
+
+    // Returns the number of orders moved in this run
+    public int archiveOldOrders() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Order archival is already running");
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            int archived = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                Integer moved = transaction.execute(status -> archiveBatch(cutoff));
+                archived += moved != null ? moved : 0;
+                if (moved == null || moved < batchSize || !pause()) {
+                    break;
+                }
+            }
+            System.out.println("Archived " + archived + " orders created before " + cutoff);
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = orderRepository.findArchivableIds(TERMINAL_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        orderArchiveRepository.copyOrders(ids);
+        orderArchiveRepository.copyOrderItems(ids);
+        orderArchiveRepository.deleteHotOrderItems(ids);
+        orderArchiveRepository.deleteHotOrders(ids);
+        return ids.size();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
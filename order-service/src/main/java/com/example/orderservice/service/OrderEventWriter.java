@@ -0,0 +1,203 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit writer for the order timeline. Transitions are queued after their order transaction commits,
+ * and a single writer thread inserts whatever accumulated within max-delay-ms as one JDBC batch and one commit.
+ * A batch that fails is retried with backoff, up to max-attempts, before it is given up on.
+ * Metrics under orders.timeline.* show how many statements and commits each transition costs.
+ */
+@Component
+public class OrderEventWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO order_events " +
+            "(order_id, from_status, to_status, actor_id, actor_role, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${orders.timeline.queue-capacity:50000}")
+    private int queueCapacity;
+
+    @Value("${orders.timeline.batch-size:500}")
+    private int batchSize;
+
+    @Value("${orders.timeline.max-delay-ms:20}")
+    private long maxDelayMs;
+
+    @Value("${orders.timeline.max-attempts:10}")
+    private int maxAttempts;
+
+    private BlockingQueue<OrderEvent> queue;
+    private volatile List<OrderEvent> inFlight = Collections.emptyList();
+    private volatile boolean running;
+    private Thread writerThread;
+    private TransactionTemplate transactionTemplate;
+
+    private Counter enqueued;
+    private Counter rowsWritten;
+    private Counter batchesWritten;
+    private Counter syncFallbacks;
+    private Counter retried;
+    private Counter dropped;
+    private DistributionSummary batchSizes;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // append() runs in afterCommit, where the finished order transaction is still bound to the thread;
+        // joining it would leave the insert uncommitted
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        enqueued = meterRegistry.counter("orders.timeline.events.enqueued");
+        rowsWritten = meterRegistry.counter("orders.timeline.rows.written");
+        batchesWritten = meterRegistry.counter("orders.timeline.batches.written");
+        syncFallbacks = meterRegistry.counter("orders.timeline.sync.fallback");
+        retried = meterRegistry.counter("orders.timeline.batches.retried");
+        dropped = meterRegistry.counter("orders.timeline.events.dropped");
+        batchSizes = meterRegistry.summary("orders.timeline.batch.size");
+        flushTimer = meterRegistry.timer("orders.timeline.flush");
+        meterRegistry.gauge("orders.timeline.queue.size", queue, BlockingQueue::size);
+
+        running = true;
+        writerThread = new Thread(this::writeLoop, "order-event-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(10_000);
+    }
+
+    public void append(OrderEvent event) {
+        enqueued.increment();
+        if (!queue.offer(event)) {
+            // Queue saturated: pay for a single-row insert rather than losing the event
+            syncFallbacks.increment();
+            if (!write(List.of(event))) {
+                dropped.increment();
+            }
+        }
+    }
+
+    // Events not yet visible in the table, so a timeline read right after a transition still shows it
+    public List<OrderEvent> pendingFor(Long orderId) {
+        List<OrderEvent> pending = new ArrayList<>();
+        for (OrderEvent event : inFlight) {
+            if (orderId.equals(event.getOrderId())) {
+                pending.add(event);
+            }
+        }
+        for (OrderEvent event : queue) {
+            if (orderId.equals(event.getOrderId())) {
+                pending.add(event);
+            }
+        }
+        return pending;
+    }
+
+    private void writeLoop() {
+        List<OrderEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OrderEvent first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Group commit: give concurrent transitions a short window to join this batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    OrderEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+
+                inFlight = new ArrayList<>(batch);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+                inFlight = Collections.emptyList();
+            }
+        }
+    }
+
+    // Keeps retrying the same batch, so later events queue up behind it and the timeline stays in order
+    private void writeWithRetry(List<OrderEvent> batch) throws InterruptedException {
+        long backoffMs = 100;
+        for (int attempt = 1; !write(batch); attempt++) {
+            if (attempt >= maxAttempts) {
+                dropped.increment(batch.size());
+                System.out.println("Giving up on " + batch.size() + " order events after " + attempt + " attempts");
+                return;
+            }
+            retried.increment();
+            Thread.sleep(backoffMs);
+            backoffMs = Math.min(backoffMs * 2, 5000);
+        }
+    }
+
+    private boolean write(List<OrderEvent> events) {
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+                        ps.setLong(1, event.getOrderId());
+                        ps.setString(2, event.getFromStatus());
+                        ps.setString(3, event.getToStatus());
+                        ps.setString(4, event.getActorId());
+                        ps.setString(5, event.getActorRole());
+                        ps.setTimestamp(6, Timestamp.valueOf(event.getCreatedAt()));
+                    })));
+            rowsWritten.increment(events.size());
+            batchesWritten.increment();
+            batchSizes.record(events.size());
+            return true;
+        } catch (RuntimeException e) {
+            System.out.println("Failed to write " + events.size() + " order events: " + e.getMessage());
+            return false;
+        }
+    }
+}
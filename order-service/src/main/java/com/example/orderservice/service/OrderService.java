@@ -1,23 +1,84 @@
 package com.example.orderservice.service;
 
+import com.example.orderservice.dto.EtaReplayReport;
+import com.example.orderservice.dto.PaymentUpdate;
+import com.example.orderservice.dto.RestaurantCoordinates;
+import com.example.orderservice.model.ArchivedOrder;
 import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderEvent;
+import com.example.orderservice.model.OrderReview;
+import com.example.orderservice.repository.OrderArchiveRepository;
+import com.example.orderservice.repository.OrderEventRepository;
 import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OrderReviewRepository;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
 public class OrderService {
 
+    private static final String PAYMENT_ACTOR_ID = "payment-gateway";
+    private static final String SYSTEM_ROLE = "SYSTEM";
+    private static final int TIMELINE_LOOKUP_CHUNK = 1000;
+
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private DeliveryTimeEstimator deliveryTimeEstimator;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private OrderEventWriter orderEventWriter;
+
+    @Autowired
+    private PartnerLocationService partnerLocationService;
+
+    @Autowired
+    private OrderTimeoutService orderTimeoutService;
+
+    @Autowired
+    private OrderReviewRepository orderReviewRepository;
+
+    @Autowired
+    private RestaurantRatingService restaurantRatingService;
+
+    @Autowired
+    private PopularDishService popularDishService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @CacheEvict(value = "orders_customer", key = "#order.customerId")
     public Order createOrder(Order order) {
         if (order == null) {
@@ -33,6 +94,15 @@ public class OrderService {
             throw new IllegalArgumentException("Restaurant ID is required");
         }
         
+        if ((order.getDeliveryLatitude() == null) != (order.getDeliveryLongitude() == null)) {
+            throw new IllegalArgumentException("Coordinates need both latitude and longitude");
+        }
+
+        // The pickup point is the restaurant's stored location, whatever the request says
+        RestaurantCoordinates pickup = partnerLocationService.pickupPoint(order.getRestaurantId());
+        order.setPickupLatitude(pickup != null ? pickup.getLatitude() : null);
+        order.setPickupLongitude(pickup != null ? pickup.getLongitude() : null);
+        
         // Default to PENDING_PAYMENT if not specified, as this is the start of the flow
         if (order.getStatus() == null || order.getStatus().isEmpty()) {
             order.setStatus("PENDING_PAYMENT");
@@ -44,28 +114,57 @@ public class OrderService {
                          ", restaurant: " + order.getRestaurantId() + 
                          ", total: " + order.getTotalPrice());
         
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        onStatusChanged(saved, null, null, saved.getCustomerId(), "CUSTOMER");
+        return saved;
     }
 
-    @Cacheable(value = "order", key = "#id")
+    // Falls back to the archive so old orders stay reachable by id
+    // Cache loader: read-write so it runs on the primary; a lagging replica row would be cached for the whole TTL
+    @Transactional
+    @Cacheable(value = "order", key = "#id", unless = "#result == null")
     public Order getOrderById(Long id) {
-        return orderRepository.findById(id).orElse(null);
+        Order order = orderRepository.findById(id).orElse(null);
+        if (order != null) {
+            Hibernate.initialize(order.getItems()); // Cached copies outlive the session
+            return order;
+        }
+        return orderArchiveRepository.findWithItemsById(id).map(ArchivedOrder::toOrder).orElse(null);
+    }
+
+    // Same lookup for checks that precede a write: read-write so it runs on the primary, and never cached
+    public Order getOrderForWrite(Long id) {
+        Order order = orderRepository.findById(id).orElse(null);
+        if (order != null) {
+            return order;
+        }
+        return orderArchiveRepository.findWithItemsById(id).map(ArchivedOrder::toOrder).orElse(null);
     }
     
+    // Full customer history: live orders plus archived ones
+    @Transactional
     @Cacheable(value = "orders_customer", key = "#customerId")
     public List<Order> getOrdersByCustomerId(String customerId) {
-        return orderRepository.findByCustomerId(customerId);
+        List<Order> orders = new ArrayList<>(orderRepository.findByCustomerId(customerId));
+        orders.forEach(order -> Hibernate.initialize(order.getItems()));
+        for (ArchivedOrder archived : orderArchiveRepository.findByCustomerId(customerId)) {
+            orders.add(archived.toOrder());
+        }
+        return orders;
     }
     
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByRestaurantId(Long restaurantId) {
         return orderRepository.findByRestaurantId(restaurantId);
     }
     
+    @Transactional(readOnly = true)
     public List<Order> getAvailableOrders() {
         // Orders that are ready for delivery but not yet assigned
         return orderRepository.findByStatusAndDeliveryPartnerIdIsNull("READY");
     }
     
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
@@ -74,11 +173,15 @@ public class OrderService {
         @CacheEvict(value = "order", key = "#id"),
         @CacheEvict(value = "orders_customer", allEntries = true)
     })
-    public Order updateOrderStatus(Long id, String status) {
-        Order order = getOrderById(id);
+    public Order updateOrderStatus(Long id, String status, String actorId, String actorRole) {
+        Order order = findActiveOrder(id);
         if (order != null) {
+            String previousStatus = order.getStatus();
+            LocalDateTime previousUpdatedAt = order.getUpdatedAt();
             order.setStatus(status);
-            return orderRepository.save(order);
+            Order saved = orderRepository.save(order);
+            onStatusChanged(saved, previousStatus, previousUpdatedAt, actorId, actorRole);
+            return saved;
         }
         return null;
     }
@@ -87,14 +190,35 @@ public class OrderService {
         @CacheEvict(value = "order", key = "#orderId"),
         @CacheEvict(value = "orders_customer", allEntries = true)
     })
-    public Order assignDeliveryPartner(Long orderId, String deliveryPartnerId) {
-        Order order = getOrderById(orderId);
-        if (order != null) {
-            order.setDeliveryPartnerId(deliveryPartnerId);
-            order.setStatus("OUT_FOR_DELIVERY");
-            return orderRepository.save(order);
+    public Order assignDeliveryPartner(Long orderId, String deliveryPartnerId, String actorRole) {
+        if (findActiveOrder(orderId) == null) {
+            return null;
         }
-        return null;
+        Order claimed = claimForDelivery(orderId, deliveryPartnerId, actorRole);
+        if (claimed == null) {
+            throw new IllegalStateException("Order " + orderId + " is not available for pickup");
+        }
+        return claimed;
+    }
+
+    // Pickup claim: a conditional UPDATE on READY with no partner, so two partners accepting the same order
+    // (first-come endpoint or a dispatch offer) cannot both win. Returns null when the order was not claimable
+    @Caching(evict = {
+        @CacheEvict(value = "order", key = "#orderId"),
+        @CacheEvict(value = "orders_customer", allEntries = true)
+    })
+    public Order claimForDelivery(Long orderId, String deliveryPartnerId, String actorRole) {
+        Order order = findActiveOrder(orderId);
+        if (order == null || !"READY".equals(order.getStatus()) || order.getDeliveryPartnerId() != null) {
+            return null;
+        }
+        LocalDateTime previousUpdatedAt = order.getUpdatedAt();
+        if (orderRepository.claimForDelivery(orderId, deliveryPartnerId, LocalDateTime.now()) != 1) {
+            return null;
+        }
+        Order claimed = findActiveOrder(orderId);
+        onStatusChanged(claimed, "READY", previousUpdatedAt, deliveryPartnerId, actorRole);
+        return claimed;
     }
     
     
@@ -102,12 +226,16 @@ public class OrderService {
         @CacheEvict(value = "order", key = "#orderId"),
         @CacheEvict(value = "orders_customer", allEntries = true)
     })
-    public Order completeOrder(Long orderId, String deliveryPartnerId) {
-        Order order = getOrderById(orderId);
+    public Order completeOrder(Long orderId, String deliveryPartnerId, String actorRole) {
+        Order order = findActiveOrder(orderId);
         if (order != null && deliveryPartnerId.equals(order.getDeliveryPartnerId())) {
+            String previousStatus = order.getStatus();
+            LocalDateTime previousUpdatedAt = order.getUpdatedAt();
             order.setStatus("DELIVERED");
             order.setActualDeliveryTime(LocalDateTime.now());
-            return orderRepository.save(order);
+            Order saved = orderRepository.save(order);
+            onStatusChanged(saved, previousStatus, previousUpdatedAt, deliveryPartnerId, actorRole);
+            return saved;
         }
         return null;
     }
@@ -117,41 +245,88 @@ public class OrderService {
         @CacheEvict(value = "orders_customer", allEntries = true)
     })
     public Order updatePaymentStatus(Long orderId, String paymentStatus, String razorpayPaymentId, String razorpaySignature) {
-        Order order = getOrderById(orderId);
+        Order order = findActiveOrder(orderId);
         if (order != null) {
-            order.setPaymentStatus(paymentStatus);
-            order.setRazorpayPaymentId(razorpayPaymentId);
+            String previousStatus = order.getStatus();
+            LocalDateTime previousUpdatedAt = order.getUpdatedAt();
             order.setRazorpaySignature(razorpaySignature);
-            
-            // If payment is successful, update order status to CONFIRMED
-            if ("PAID".equals(paymentStatus)) {
-                order.setStatus("CONFIRMED");
-                // Set estimated delivery time (30-40 minutes from now)
-                order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(35));
-            } else if ("FAILED".equals(paymentStatus)) {
-                order.setStatus("CANCELLED");
-                order.setCancellationReason("Payment failed");
+            if (isTerminal(order.getStatus())) {
+                return recordLatePayment(order, paymentStatus, razorpayPaymentId) ? orderRepository.save(order) : order;
             }
+            applyPayment(order, paymentStatus, razorpayPaymentId);
             
             System.out.println("Updated payment status for order " + orderId + " to " + paymentStatus);
-            return orderRepository.save(order);
+            Order saved = orderRepository.save(order);
+            onStatusChanged(saved, previousStatus, previousUpdatedAt, PAYMENT_ACTOR_ID, SYSTEM_ROLE);
+            return saved;
         }
         return null;
     }
 
+    // Applies a batch of webhook payment outcomes in one transaction with a single lookup query.
+    // Replays are idempotent: an order already in the reported state, or already PAID, is left alone.
+    // Cancelled and delivered orders keep their status; a late capture is only recorded (see recordLatePayment).
+    // Only the orders it wrote, and their customers' lists, are evicted.
+    public int applyPaymentUpdates(List<PaymentUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        List<String> razorpayOrderIds = updates.stream().map(PaymentUpdate::getRazorpayOrderId).toList();
+        Map<String, Order> ordersByRazorpayId = new HashMap<>();
+        for (Order order : orderRepository.findByRazorpayOrderIdInForUpdate(razorpayOrderIds)) {
+            ordersByRazorpayId.put(order.getRazorpayOrderId(), order);
+        }
+
+        List<Order> changed = new ArrayList<>();
+        List<Order> recordedOnly = new ArrayList<>();
+        List<String> previousStatuses = new ArrayList<>();
+        List<LocalDateTime> previousUpdatedAts = new ArrayList<>();
+        for (PaymentUpdate update : updates) {
+            Order order = ordersByRazorpayId.get(update.getRazorpayOrderId());
+            if (order == null || update.getPaymentStatus().equals(order.getPaymentStatus())
+                    || "PAID".equals(order.getPaymentStatus())) {
+                continue;
+            }
+            if (isTerminal(order.getStatus())) {
+                if (recordLatePayment(order, update.getPaymentStatus(), update.getRazorpayPaymentId())) {
+                    recordedOnly.add(order);
+                }
+                continue;
+            }
+            previousStatuses.add(order.getStatus());
+            previousUpdatedAts.add(order.getUpdatedAt());
+            applyPayment(order, update.getPaymentStatus(), update.getRazorpayPaymentId());
+            changed.add(order);
+        }
+
+        orderRepository.saveAll(recordedOnly);
+        List<Order> saved = orderRepository.saveAll(changed);
+        for (int i = 0; i < saved.size(); i++) {
+            onStatusChanged(saved.get(i), previousStatuses.get(i), previousUpdatedAts.get(i), PAYMENT_ACTOR_ID, SYSTEM_ROLE);
+        }
+        List<Order> written = new ArrayList<>(saved);
+        written.addAll(recordedOnly);
+        evictOrders(written);
+        return written.size();
+    }
+
     @Caching(evict = {
         @CacheEvict(value = "order", key = "#orderId"),
         @CacheEvict(value = "orders_customer", allEntries = true)
     })
-    public Order cancelOrder(Long orderId, String reason) {
-        Order order = getOrderById(orderId);
+    public Order cancelOrder(Long orderId, String reason, String actorId, String actorRole) {
+        Order order = findActiveOrder(orderId);
         if (order != null) {
             // Only allow cancellation if order is not yet delivered or out for delivery
             if (!"DELIVERED".equals(order.getStatus()) && !"OUT_FOR_DELIVERY".equals(order.getStatus())) {
+                String previousStatus = order.getStatus();
+                LocalDateTime previousUpdatedAt = order.getUpdatedAt();
                 order.setStatus("CANCELLED");
                 order.setCancellationReason(reason);
                 System.out.println("Order " + orderId + " cancelled. Reason: " + reason);
-                return orderRepository.save(order);
+                Order saved = orderRepository.save(order);
+                onStatusChanged(saved, previousStatus, previousUpdatedAt, actorId, actorRole);
+                return saved;
             } else {
                 throw new IllegalStateException("Cannot cancel order in " + order.getStatus() + " status");
             }
@@ -159,6 +334,205 @@ public class OrderService {
         throw new IllegalArgumentException("Order not found with id: " + orderId);
     }
 
+    // One rating per delivered order; the restaurant's rating picks it up on the next rating flush
+    public OrderReview reviewOrder(Long orderId, String customerId, Integer rating, String comment) {
+        Order order = findActiveOrder(orderId);
+        if (order == null) {
+            throw new IllegalStateException("Archived orders can no longer be rated");
+        }
+        if (!"DELIVERED".equals(order.getStatus())) {
+            throw new IllegalStateException("Only delivered orders can be rated");
+        }
+        if (orderReviewRepository.existsById(orderId)) {
+            throw new IllegalStateException("This order has already been rated");
+        }
+        OrderReview saved;
+        try {
+            saved = orderReviewRepository.saveAndFlush(
+                    new OrderReview(orderId, order.getRestaurantId(), customerId, rating, comment, null));
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("This order has already been rated");
+        }
+        afterCommit(() -> restaurantRatingService.recordReview(saved.getRestaurantId(), saved.getRating(),
+                saved.getCreatedAt()));
+        return saved;
+    }
+
+    // Deadline path: cancels only if the order is still in the status the deadline was armed for. The cancel is a
+    // conditional UPDATE, so a payment or pickup that commits after the read below still wins
+    @Caching(evict = {
+        @CacheEvict(value = "order", key = "#orderId"),
+        @CacheEvict(value = "orders_customer", allEntries = true)
+    })
+    public Order cancelIfStillInStatus(Long orderId, String expectedStatus, String reason, String actorId, String actorRole) {
+        Order order = findActiveOrder(orderId);
+        if (order == null || !expectedStatus.equals(order.getStatus()) || order.getDeliveryPartnerId() != null) {
+            return null;
+        }
+        LocalDateTime previousUpdatedAt = order.getUpdatedAt();
+        if (orderRepository.cancelIfInStatus(orderId, expectedStatus, reason, LocalDateTime.now()) != 1) {
+            return null;
+        }
+        System.out.println("Order " + orderId + " cancelled. Reason: " + reason);
+        Order cancelled = findActiveOrder(orderId);
+        onStatusChanged(cancelled, expectedStatus, previousUpdatedAt, actorId, actorRole);
+        return cancelled;
+    }
+
+    // Replays delivered orders through an untrained copy of the estimator to measure its error.
+    // Orders with a recorded timeline replay every stage; older ones only have creation and delivery times.
+    @Transactional(readOnly = true)
+    public EtaReplayReport replayDeliveryEstimates() {
+        List<Order> delivered = new ArrayList<>(orderRepository.findByStatus("DELIVERED"));
+        orderArchiveRepository.findByStatus("DELIVERED").forEach(archived -> delivered.add(archived.toOrder()));
+
+        Map<Long, List<OrderEvent>> timelines = new HashMap<>();
+        List<Long> orderIds = delivered.stream().map(Order::getId).toList();
+        for (int i = 0; i < orderIds.size(); i += TIMELINE_LOOKUP_CHUNK) {
+            List<Long> chunk = orderIds.subList(i, Math.min(i + TIMELINE_LOOKUP_CHUNK, orderIds.size()));
+            for (OrderEvent event : orderEventRepository.findByOrderIdInOrderByCreatedAtAscIdAsc(chunk)) {
+                timelines.computeIfAbsent(event.getOrderId(), id -> new ArrayList<>()).add(event);
+            }
+        }
+
+        List<DeliveryTimeReplay.Event> events = new ArrayList<>();
+        for (Order order : delivered) {
+            List<OrderEvent> timeline = timelines.get(order.getId());
+            if (timeline != null && timeline.stream().anyMatch(event -> "CONFIRMED".equals(event.getToStatus()))) {
+                for (OrderEvent event : timeline) {
+                    events.add(new DeliveryTimeReplay.Event(order.getId(), order.getRestaurantId(),
+                            event.getFromStatus(), event.getToStatus(), event.getCreatedAt()));
+                }
+                continue;
+            }
+            if (order.getCreatedAt() == null || order.getActualDeliveryTime() == null) {
+                continue;
+            }
+            events.add(new DeliveryTimeReplay.Event(order.getId(), order.getRestaurantId(), null, "CONFIRMED", order.getCreatedAt()));
+            events.add(new DeliveryTimeReplay.Event(order.getId(), order.getRestaurantId(), "CONFIRMED", "DELIVERED", order.getActualDeliveryTime()));
+        }
+        events.sort(Comparator.comparing(DeliveryTimeReplay.Event::at));
+        return DeliveryTimeReplay.run(deliveryTimeEstimator.untrainedCopy(), events);
+    }
+
+    // Status history of an order, oldest first. Includes transitions still waiting in the group-commit queue.
+    @Transactional(readOnly = true)
+    public List<OrderEvent> getOrderTimeline(Long orderId) {
+        List<OrderEvent> timeline = new ArrayList<>(orderEventRepository.findByOrderIdOrderByCreatedAtAscIdAsc(orderId));
+        Set<String> seen = new HashSet<>();
+        timeline.forEach(event -> seen.add(timelineKey(event)));
+        for (OrderEvent pending : orderEventWriter.pendingFor(orderId)) {
+            // A batch can commit between the two reads, so skip anything already returned by the query
+            if (seen.add(timelineKey(pending))) {
+                timeline.add(pending);
+            }
+        }
+        timeline.sort(Comparator.comparing(OrderEvent::getCreatedAt));
+        return timeline;
+    }
+
+    private static String timelineKey(OrderEvent event) {
+        return event.getFromStatus() + ">" + event.getToStatus() + "@" + event.getCreatedAt();
+    }
+
+    private void applyPayment(Order order, String paymentStatus, String razorpayPaymentId) {
+        order.setPaymentStatus(paymentStatus);
+        order.setRazorpayPaymentId(razorpayPaymentId);
+
+        // If payment is successful, update order status to CONFIRMED
+        if ("PAID".equals(paymentStatus)) {
+            order.setStatus("CONFIRMED");
+            // Learned per-restaurant estimate, adjusted for kitchen queue and hour of day
+            LocalDateTime now = LocalDateTime.now();
+            order.setEstimatedDeliveryTime(now.plus(deliveryTimeEstimator.estimate(order.getRestaurantId(), now)));
+        } else if ("FAILED".equals(paymentStatus)) {
+            order.setStatus("CANCELLED");
+            order.setCancellationReason("Payment failed");
+        }
+    }
+
+    private static boolean isTerminal(String status) {
+        return "CANCELLED".equals(status) || "DELIVERED".equals(status);
+    }
+
+    // A capture that arrives after the order was cancelled (e.g. by the payment timeout) or delivered leaves the
+    // order as it is: the payment is recorded and a cancelled order is flagged for a refund. True if anything changed.
+    private boolean recordLatePayment(Order order, String paymentStatus, String razorpayPaymentId) {
+        if (!"PAID".equals(paymentStatus) || "PAID".equals(order.getPaymentStatus())) {
+            return false;
+        }
+        order.setPaymentStatus("PAID");
+        order.setRazorpayPaymentId(razorpayPaymentId);
+        if ("CANCELLED".equals(order.getStatus())) {
+            System.out.println("REFUND NEEDED: payment " + razorpayPaymentId + " was captured for cancelled order "
+                    + order.getId());
+        }
+        return true;
+    }
+
+    // Mutations only ever apply to live orders; archived orders are terminal
+    private Order findActiveOrder(Long id) {
+        return orderRepository.findById(id).orElse(null);
+    }
+
+    // Kitchen queue depth is tracked in memory; seed it from the DB once after a restart
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedDeliveryTimeEstimator() {
+        for (Object[] row : orderRepository.countByRestaurantForStatuses(List.of("CONFIRMED", "PREPARING"))) {
+            deliveryTimeEstimator.seedQueueDepth((Long) row[0], ((Long) row[1]).intValue());
+        }
+    }
+
+    // Single hook for everything derived from status transitions; runs once the transaction commits
+    private void onStatusChanged(Order order, String previousStatus, LocalDateTime previousUpdatedAt,
+                                 String actorId, String actorRole) {
+        LocalDateTime changedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        OrderEvent event = new OrderEvent(null, order.getId(), previousStatus, order.getStatus(), actorId, actorRole, changedAt);
+        // Popular dishes count paid orders only; the items are read now, while the session is open
+        boolean confirmed = "CONFIRMED".equals(order.getStatus()) && !"CONFIRMED".equals(previousStatus);
+        if (confirmed) {
+            Hibernate.initialize(order.getItems());
+        }
+        afterCommit(() -> {
+            orderEventWriter.append(event);
+            partnerLocationService.onOrderChanged(order);
+            orderTimeoutService.onOrderChanged(order, changedAt);
+            orderStatsService.recordStatusChange(order, previousStatus, previousUpdatedAt, changedAt);
+            if (confirmed) {
+                popularDishService.recordConfirmedOrder(order, changedAt);
+            }
+            deliveryTimeEstimator.recordTransition(order.getRestaurantId(), previousStatus, order.getStatus(),
+                    previousUpdatedAt, changedAt);
+        });
+    }
+
+    // After commit, so a read in between cannot put the old row back
+    private void evictOrders(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Cache orderCache = cacheManager.getCache("order");
+        Cache customerCache = cacheManager.getCache("orders_customer");
+        afterCommit(() -> orders.forEach(order -> {
+            orderCache.evict(order.getId());
+            customerCache.evict(order.getCustomerId());
+        }));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     public boolean isValidStatusTransition(String currentStatus, String newStatus) {
         // Define valid status transitions
         if (currentStatus.equals(newStatus)) return true;
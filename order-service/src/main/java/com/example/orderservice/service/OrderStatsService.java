@@ -0,0 +1,187 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.RestaurantStatsResponse;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.RestaurantDailyStats;
+import com.example.orderservice.repository.OrderArchiveRepository;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.RestaurantDailyStatsRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-restaurant, per-day order aggregates.
+ * Mutations in OrderService add O(1) deltas to striped in-memory counters once their transaction
+ * commits. A scheduled flush adds the accumulated deltas to the restaurant_daily_stats rollup table.
+ */
+@Service
+public class OrderStatsService {
+
+    @Autowired
+    private RestaurantDailyStatsRepository statsRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    private final ConcurrentHashMap<StatsKey, DailyAccumulator> pending = new ConcurrentHashMap<>();
+
+    // Called after the mutating transaction has committed
+    public void recordStatusChange(Order order, String previousStatus, LocalDateTime previousUpdatedAt, LocalDateTime changedAt) {
+        if (order.getRestaurantId() == null || order.getStatus() == null) {
+            return;
+        }
+        String newStatus = order.getStatus();
+        if (newStatus.equals(previousStatus)) {
+            return;
+        }
+
+        LocalDate day = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+        StatsKey key = new StatsKey(order.getRestaurantId(), day);
+        double total = order.getTotalPrice() != null ? order.getTotalPrice() : 0.0;
+
+        // Prep time is the time spent in PREPARING, i.e. since the transition that last touched updatedAt
+        long prepSeconds = -1;
+        if ("READY".equals(newStatus) && "PREPARING".equals(previousStatus) && previousUpdatedAt != null) {
+            prepSeconds = Math.max(0, Duration.between(previousUpdatedAt, changedAt).getSeconds());
+        }
+
+        DailyAccumulator acc = pending.computeIfAbsent(key, k -> new DailyAccumulator());
+        if (previousStatus == null) {
+            acc.placed.increment();
+        }
+        if ("DELIVERED".equals(newStatus)) {
+            acc.delivered.increment();
+            acc.revenue.add(total);
+        } else if ("CANCELLED".equals(newStatus)) {
+            acc.cancelled.increment();
+        }
+        if (prepSeconds >= 0) {
+            acc.prepSeconds.add(prepSeconds);
+            acc.prepSamples.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stats.flush-interval-ms:5000}")
+    public void flush() {
+        LocalDate retainFrom = LocalDate.now().minusDays(1);
+        for (Map.Entry<StatsKey, DailyAccumulator> entry : pending.entrySet()) {
+            StatsKey key = entry.getKey();
+            DailyAccumulator acc = entry.getValue();
+            boolean wrote = writeDeltas(key, acc);
+
+            // Late updates for older days are rare; drop their accumulators once drained
+            if (!wrote && key.day().isBefore(retainFrom) && pending.remove(key, acc)) {
+                writeDeltas(key, acc); // Picks up increments that raced with the removal
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Transactional(readOnly = true)
+    public List<RestaurantStatsResponse> getDailyStats(Long restaurantId, LocalDate from, LocalDate to) {
+        List<RestaurantStatsResponse> result = new ArrayList<>();
+        for (RestaurantDailyStats row : statsRepository.findByRestaurantIdAndStatDateBetweenOrderByStatDateAsc(restaurantId, from, to)) {
+            Double avgOrderValue = row.getOrdersDelivered() > 0 ? row.getRevenue() / row.getOrdersDelivered() : null;
+            Double avgPrepMinutes = row.getPrepTimeSamples() > 0
+                    ? row.getPrepTimeSeconds() / 60.0 / row.getPrepTimeSamples() : null;
+            result.add(new RestaurantStatsResponse(row.getStatDate(), row.getOrdersPlaced(), row.getOrdersDelivered(),
+                    row.getOrdersCancelled(), row.getRevenue(), avgOrderValue, avgPrepMinutes));
+        }
+        return result;
+    }
+
+    // Recomputes the rollup for one restaurant from the live and archived orders.
+    // Prep times cannot be recovered from history, so rebuilt rows only carry counts and revenue.
+    @Transactional
+    public int rebuildFromHistory(Long restaurantId) {
+        pending.keySet().removeIf(key -> key.restaurantId().equals(restaurantId));
+        statsRepository.deleteByRestaurantId(restaurantId);
+        statsRepository.flush();
+
+        List<Order> history = new ArrayList<>(orderRepository.findByRestaurantId(restaurantId));
+        orderArchiveRepository.findByRestaurantId(restaurantId).forEach(archived -> history.add(archived.toOrder()));
+
+        Map<LocalDate, RestaurantDailyStats> byDay = new HashMap<>();
+        for (Order order : history) {
+            if (order.getCreatedAt() == null) {
+                continue;
+            }
+            RestaurantDailyStats row = byDay.computeIfAbsent(order.getCreatedAt().toLocalDate(), day -> {
+                RestaurantDailyStats stats = new RestaurantDailyStats();
+                stats.setRestaurantId(restaurantId);
+                stats.setStatDate(day);
+                stats.setUpdatedAt(LocalDateTime.now());
+                return stats;
+            });
+            row.setOrdersPlaced(row.getOrdersPlaced() + 1);
+            if ("DELIVERED".equals(order.getStatus())) {
+                row.setOrdersDelivered(row.getOrdersDelivered() + 1);
+                row.setRevenue(row.getRevenue() + (order.getTotalPrice() != null ? order.getTotalPrice() : 0.0));
+            } else if ("CANCELLED".equals(order.getStatus())) {
+                row.setOrdersCancelled(row.getOrdersCancelled() + 1);
+            }
+        }
+        statsRepository.saveAll(byDay.values());
+        System.out.println("Rebuilt daily stats for restaurant " + restaurantId + " (" + byDay.size() + " days)");
+        return byDay.size();
+    }
+
+    private boolean writeDeltas(StatsKey key, DailyAccumulator acc) {
+        long placed = acc.placed.sumThenReset();
+        long delivered = acc.delivered.sumThenReset();
+        long cancelled = acc.cancelled.sumThenReset();
+        double revenue = acc.revenue.sumThenReset();
+        long prepSeconds = acc.prepSeconds.sumThenReset();
+        long prepSamples = acc.prepSamples.sumThenReset();
+        if (placed == 0 && delivered == 0 && cancelled == 0 && revenue == 0.0 && prepSamples == 0) {
+            return false;
+        }
+        try {
+            statsRepository.addDeltas(key.restaurantId(), key.day(), placed, delivered, cancelled, revenue, prepSeconds, prepSamples);
+        } catch (RuntimeException e) {
+            // Keep the deltas for the next flush
+            DailyAccumulator retry = pending.computeIfAbsent(key, k -> new DailyAccumulator());
+            retry.placed.add(placed);
+            retry.delivered.add(delivered);
+            retry.cancelled.add(cancelled);
+            retry.revenue.add(revenue);
+            retry.prepSeconds.add(prepSeconds);
+            retry.prepSamples.add(prepSamples);
+            System.out.println("Failed to flush stats for restaurant " + key.restaurantId() + ": " + e.getMessage());
+        }
+        return true;
+    }
+
+    private record StatsKey(Long restaurantId, LocalDate day) {
+    }
+
+    private static class DailyAccumulator {
+        final LongAdder placed = new LongAdder();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final DoubleAdder revenue = new DoubleAdder();
+        final LongAdder prepSeconds = new LongAdder();
+        final LongAdder prepSamples = new LongAdder();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.timer.TimingWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-order deadlines on an in-process timing wheel instead of periodic table scans.
+ * Unpaid PENDING_PAYMENT orders are cancelled after pending-payment-minutes. READY orders that no partner
+ * has taken are escalated every ready-escalation-minutes, then cancelled once ready-max-escalations have passed.
+ * Each order holds at most one timer; any status change replaces it. After a restart the timers are
+ * re-armed from the DB, and deadlines that passed while the service was down fire on the first tick.
+ */
+@Service
+public class OrderTimeoutService {
+
+    private static final String ACTOR_ID = "order-timeouts";
+    private static final String SYSTEM_ROLE = "SYSTEM";
+
+    private record Deadline(Long orderId, String status, int escalations) {
+    }
+
+    @Lazy
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${orders.timeouts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orders.timeouts.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${orders.timeouts.pending-payment-minutes:15}")
+    private long pendingPaymentMinutes;
+
+    @Value("${orders.timeouts.ready-escalation-minutes:10}")
+    private long readyEscalationMinutes;
+
+    @Value("${orders.timeouts.ready-max-escalations:3}")
+    private int readyMaxEscalations;
+
+    private TimingWheel<Deadline> wheel;
+    private final Map<Long, TimingWheel.Timer<Deadline>> timersByOrder = new ConcurrentHashMap<>();
+    private ScheduledExecutorService ticker;
+    private ExecutorService actions;
+
+    @PostConstruct
+    public void start() {
+        wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+        meterRegistry.gauge("orders.timeouts.pending", wheel, TimingWheel::size);
+        if (!enabled) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "order-timeout-wheel"));
+        // Expiry actions hit the DB, so they run off the ticking thread
+        actions = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "order-timeout-actions"));
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            actions.shutdown();
+            actions.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // Called after every committed status change
+    public void onOrderChanged(Order order, LocalDateTime changedAt) {
+        if (!enabled) {
+            return;
+        }
+        if ("PENDING_PAYMENT".equals(order.getStatus())) {
+            arm(new Deadline(order.getId(), "PENDING_PAYMENT", 0), plusMinutes(changedAt, pendingPaymentMinutes));
+        } else if ("READY".equals(order.getStatus()) && order.getDeliveryPartnerId() == null) {
+            arm(new Deadline(order.getId(), "READY", 0), plusMinutes(changedAt, readyEscalationMinutes));
+        } else {
+            disarm(order.getId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildFromDatabase() {
+        if (!enabled) {
+            return;
+        }
+        int armed = 0;
+        for (Object[] row : orderRepository.findUnassignedTimestampsByStatus("PENDING_PAYMENT")) {
+            Long orderId = (Long) row[0];
+            if (!timersByOrder.containsKey(orderId)) {
+                arm(new Deadline(orderId, "PENDING_PAYMENT", 0), plusMinutes((LocalDateTime) row[1], pendingPaymentMinutes));
+                armed++;
+            }
+        }
+        for (Object[] row : orderRepository.findUnassignedTimestampsByStatus("READY")) {
+            Long orderId = (Long) row[0];
+            if (!timersByOrder.containsKey(orderId)) {
+                arm(new Deadline(orderId, "READY", 0), plusMinutes((LocalDateTime) row[2], readyEscalationMinutes));
+                armed++;
+            }
+        }
+        System.out.println("Order timeouts re-armed for " + armed + " orders");
+    }
+
+    private void tick() {
+        try {
+            List<Deadline> expired = wheel.advanceTo(System.currentTimeMillis());
+            for (Deadline deadline : expired) {
+                // Only act if this is still the order's current timer; a newer status change replaces it
+                TimingWheel.Timer<Deadline> current = timersByOrder.get(deadline.orderId());
+                if (current != null && current.payload() == deadline) {
+                    timersByOrder.remove(deadline.orderId(), current);
+                    actions.execute(() -> expire(deadline));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Order timeout tick failed: " + e.getMessage());
+        }
+    }
+
+    private void expire(Deadline deadline) {
+        try {
+            if ("PENDING_PAYMENT".equals(deadline.status())) {
+                Order cancelled = orderService.cancelIfStillInStatus(deadline.orderId(), "PENDING_PAYMENT",
+                        "Payment not completed within " + pendingPaymentMinutes + " minutes", ACTOR_ID, SYSTEM_ROLE);
+                if (cancelled != null) {
+                    meterRegistry.counter("orders.timeouts.expired", "action", "payment_cancelled").increment();
+                }
+            } else if (deadline.escalations() < readyMaxEscalations) {
+                Order order = orderRepository.findById(deadline.orderId()).orElse(null);
+                if (order != null && "READY".equals(order.getStatus()) && order.getDeliveryPartnerId() == null) {
+                    int escalations = deadline.escalations() + 1;
+                    System.out.println("ESCALATION: order " + order.getId() + " from restaurant " + order.getRestaurantId()
+                            + " has waited " + escalations * readyEscalationMinutes + " minutes for a delivery partner");
+                    meterRegistry.counter("orders.timeouts.expired", "action", "ready_escalated").increment();
+                    arm(new Deadline(order.getId(), "READY", escalations),
+                            System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(readyEscalationMinutes));
+                }
+            } else {
+                Order cancelled = orderService.cancelIfStillInStatus(deadline.orderId(), "READY",
+                        "No delivery partner available", ACTOR_ID, SYSTEM_ROLE);
+                if (cancelled != null) {
+                    meterRegistry.counter("orders.timeouts.expired", "action", "ready_cancelled").increment();
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Failed to handle " + deadline.status() + " timeout for order " + deadline.orderId()
+                    + ": " + e.getMessage());
+        }
+    }
+
+    private void arm(Deadline deadline, long deadlineMillis) {
+        TimingWheel.Timer<Deadline> timer = wheel.schedule(deadlineMillis, deadline);
+        TimingWheel.Timer<Deadline> previous = timersByOrder.put(deadline.orderId(), timer);
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    private void disarm(Long orderId) {
+        TimingWheel.Timer<Deadline> previous = timersByOrder.remove(orderId);
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    private static long plusMinutes(LocalDateTime from, long minutes) {
+        return from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + TimeUnit.MINUTES.toMillis(minutes);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
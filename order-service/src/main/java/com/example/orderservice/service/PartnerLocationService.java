@@ -0,0 +1,305 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.ApiResponse;
+import com.example.orderservice.dto.NearbyOrderResponse;
+import com.example.orderservice.dto.NearbyPartnerResponse;
+import com.example.orderservice.dto.RestaurantCoordinates;
+import com.example.orderservice.geo.PartnerLocationStore;
+import com.example.orderservice.geo.ReadyOrderIndex;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live geography for delivery: the latest GPS position of every active partner and READY orders indexed by
+ * pickup point. Everything is in memory; partner positions are rebuilt by the next round of pings after a restart
+ * and READY orders are reloaded from the DB. Restaurant locations are the ones stored by restaurant-service,
+ * fetched on first use and kept for restaurant-location-ttl-seconds; an order's pickup point is always its
+ * restaurant's location.
+ * <p>
+ * Order changes are relayed to the other instances over Redis, which re-read the order and update their own READY
+ * index. The index is also rebuilt from the DB every ready-rebuild-interval-ms, so a missed message or a restaurant
+ * location that could not be fetched is corrected on the next rebuild.
+ */
+@Service
+public class PartnerLocationService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.cache.key-prefix:${spring.application.name}}")
+    private String keyPrefix;
+
+    @Autowired
+    @LoadBalanced
+    private RestTemplate loadBalancedRestTemplate;
+
+    @Value("${dispatch.geo.restaurant-service-url:http://restaurant-service}")
+    private String restaurantServiceUrl;
+
+    @Value("${dispatch.geo.restaurant-location-ttl-seconds:600}")
+    private long restaurantLocationTtlSeconds;
+
+    @Value("${dispatch.geo.cell-size-km:1.0}")
+    private double cellSizeKm;
+
+    @Value("${dispatch.geo.initial-capacity:65536}")
+    private int initialCapacity;
+
+    @Value("${dispatch.geo.stale-after-seconds:120}")
+    private long staleAfterSeconds;
+
+    @Value("${dispatch.geo.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    @Value("${dispatch.geo.max-results:100}")
+    private int maxResults;
+
+    private PartnerLocationStore partners;
+    // Replaced whole by each rebuild
+    private volatile ReadyOrderIndex readyOrders;
+    private final Map<Long, RestaurantLocation> restaurantLocations = new ConcurrentHashMap<>();
+    private final String instanceId = UUID.randomUUID().toString();
+    private String channel;
+    private TransactionTemplate transactionTemplate;
+
+    private Counter pings;
+    private Timer queryTimer;
+
+    private record RestaurantLocation(double latitude, double longitude, long fetchedAtMillis) {
+    }
+
+    @PostConstruct
+    public void init() {
+        partners = new PartnerLocationStore(cellSizeKm, initialCapacity);
+        readyOrders = new ReadyOrderIndex(cellSizeKm, initialCapacity / 4);
+        pings = meterRegistry.counter("dispatch.geo.pings");
+        queryTimer = meterRegistry.timer("dispatch.geo.query");
+        meterRegistry.gauge("dispatch.geo.partners.active", this, service -> service.partners.size());
+        meterRegistry.gauge("dispatch.geo.orders.ready", this, service -> service.readyOrders.size());
+        channel = keyPrefix + "::ready-orders";
+        // Read-write, so the re-read goes to the primary: the replica may not have the change yet
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        listenerContainer.addMessageListener((message, pattern) ->
+                onMessage(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(channel));
+    }
+
+    public void recordPing(String partnerId, double latitude, double longitude, Long recordedAt) {
+        long now = System.currentTimeMillis();
+        // Clamp device clocks running ahead so a bad clock cannot pin a partner as fresh forever
+        long timestamp = recordedAt != null ? Math.min(recordedAt, now) : now;
+        partners.update(partnerId, latitude, longitude, timestamp);
+        pings.increment();
+    }
+
+    public void removePartner(String partnerId) {
+        partners.remove(partnerId);
+    }
+
+    public List<NearbyPartnerResponse> partnersNearRestaurant(Long restaurantId, double radiusKm, int limit) {
+        RestaurantLocation location = restaurantLocation(restaurantId);
+        return partnersNear(location.latitude(), location.longitude(), radiusKm, limit);
+    }
+
+    public List<NearbyPartnerResponse> partnersNear(double latitude, double longitude, double radiusKm, int limit) {
+        double radius = checkRadius(radiusKm);
+        checkLimit(limit);
+        long minLastSeen = System.currentTimeMillis() - staleAfterSeconds * 1000;
+        List<PartnerLocationStore.Match> matches = queryTimer.record(() ->
+                partners.within(latitude, longitude, radius, limit, minLastSeen));
+        return matches.stream()
+                .map(match -> new NearbyPartnerResponse(match.partnerId(), match.latitude(), match.longitude(),
+                        match.distanceKm(), Instant.ofEpochMilli(match.lastSeenMillis())))
+                .toList();
+    }
+
+    public List<NearbyOrderResponse> ordersNearPartner(String partnerId, double radiusKm, int limit) {
+        PartnerLocationStore.Match position = partners.get(partnerId)
+                .filter(match -> match.lastSeenMillis() >= System.currentTimeMillis() - staleAfterSeconds * 1000)
+                .orElseThrow(() -> new IllegalStateException("No recent location for partner " + partnerId
+                        + "; send a location ping first"));
+        double radius = checkRadius(radiusKm);
+        checkLimit(limit);
+        List<ReadyOrderIndex.Match> matches = queryTimer.record(() ->
+                readyOrders.within(position.latitude(), position.longitude(), radius, limit));
+        return matches.stream()
+                .map(match -> new NearbyOrderResponse(match.orderId(), match.restaurantId(), match.pickupLatitude(),
+                        match.pickupLongitude(), match.distanceKm(), Instant.ofEpochMilli(match.readyAtMillis())))
+                .toList();
+    }
+
+    public List<ReadyOrderIndex.Match> readyOrdersSnapshot() {
+        return readyOrders.snapshot();
+    }
+
+    public List<PartnerLocationStore.Match> activePartnersSnapshot() {
+        return partners.snapshot(System.currentTimeMillis() - staleAfterSeconds * 1000);
+    }
+
+    // The restaurant's stored location, or null if it has none or restaurant-service cannot be reached
+    public RestaurantCoordinates pickupPoint(Long restaurantId) {
+        try {
+            RestaurantLocation location = restaurantLocation(restaurantId);
+            return new RestaurantCoordinates(restaurantId, location.latitude(), location.longitude());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    // Called after every committed order change; keeps the READY index of this and every other instance current
+    public void onOrderChanged(Order order) {
+        index(readyOrders, order);
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + "|" + order.getId());
+        } catch (RuntimeException e) {
+            System.out.println("Ready order publish failed for order " + order.getId() + ": " + e.getMessage());
+        }
+    }
+
+    // Message format: <instance>|<order>
+    public void onMessage(String message) {
+        String[] parts = message.split("\\|");
+        if (parts.length < 2 || instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            long orderId = Long.parseLong(parts[1]);
+            Order order = transactionTemplate.execute(status -> orderRepository.findById(orderId).orElse(null));
+            if (order != null) {
+                index(readyOrders, order);
+            } else {
+                readyOrders.remove(orderId);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring malformed ready order message: " + message);
+        } catch (RuntimeException e) {
+            System.out.println("Failed to apply ready order change " + message + ": " + e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dispatch.geo.ready-rebuild-interval-ms:60000}",
+            initialDelayString = "${dispatch.geo.ready-rebuild-interval-ms:60000}")
+    @Transactional
+    public void loadFromDatabase() {
+        ReadyOrderIndex rebuilt = new ReadyOrderIndex(cellSizeKm, initialCapacity / 4);
+        for (Order order : orderRepository.findByStatusAndDeliveryPartnerIdIsNull("READY")) {
+            index(rebuilt, order);
+        }
+        readyOrders = rebuilt;
+        System.out.println("Partner location index ready: " + rebuilt.size() + " READY orders");
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.geo.eviction-interval-ms:30000}")
+    public void evictStalePartners() {
+        int evicted = partners.evictOlderThan(System.currentTimeMillis() - staleAfterSeconds * 1000);
+        if (evicted > 0) {
+            System.out.println("Evicted " + evicted + " partners with no location ping in " + staleAfterSeconds + "s");
+        }
+    }
+
+    // The restaurant's own coordinates, never an order's pickup point, which comes from the customer's request.
+    // If restaurant-service cannot be reached, a location past its TTL is still used rather than failing.
+    private RestaurantLocation restaurantLocation(Long restaurantId) {
+        long now = System.currentTimeMillis();
+        RestaurantLocation cached = restaurantLocations.get(restaurantId);
+        if (cached != null && now - cached.fetchedAtMillis() < restaurantLocationTtlSeconds * 1000) {
+            return cached;
+        }
+        try {
+            ApiResponse<RestaurantCoordinates> response = loadBalancedRestTemplate.exchange(
+                    restaurantServiceUrl + "/restaurants/internal/{id}/location", HttpMethod.GET, null,
+                    new ParameterizedTypeReference<ApiResponse<RestaurantCoordinates>>() {}, restaurantId).getBody();
+            RestaurantCoordinates coordinates = response != null ? response.getData() : null;
+            if (coordinates == null || coordinates.getLatitude() == null || coordinates.getLongitude() == null) {
+                throw new IllegalArgumentException("No location known for restaurant " + restaurantId);
+            }
+            RestaurantLocation location = new RestaurantLocation(coordinates.getLatitude(), coordinates.getLongitude(), now);
+            restaurantLocations.put(restaurantId, location);
+            return location;
+        } catch (HttpClientErrorException.NotFound e) {
+            restaurantLocations.remove(restaurantId);
+            throw new IllegalArgumentException("No location known for restaurant " + restaurantId);
+        } catch (RestClientException e) {
+            if (cached != null) {
+                return cached;
+            }
+            throw new IllegalStateException("Restaurant location unavailable, please try again: " + e.getMessage());
+        }
+    }
+
+    // Indexed at the restaurant's location, never the pickup point stored on the order
+    private void index(ReadyOrderIndex target, Order order) {
+        if (!"READY".equals(order.getStatus()) || order.getDeliveryPartnerId() != null) {
+            target.remove(order.getId());
+            return;
+        }
+        RestaurantCoordinates pickup = pickupPoint(order.getRestaurantId());
+        if (pickup == null) {
+            System.out.println("No location for restaurant " + order.getRestaurantId() + "; order " + order.getId()
+                    + " left out of the READY index until the next rebuild");
+            target.remove(order.getId());
+            return;
+        }
+        long readyAt = order.getUpdatedAt() != null
+                ? order.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        target.put(order.getId(), order.getRestaurantId(), pickup.getLatitude(), pickup.getLongitude(),
+                order.getDeliveryLatitude() != null ? order.getDeliveryLatitude() : Double.NaN,
+                order.getDeliveryLongitude() != null ? order.getDeliveryLongitude() : Double.NaN, readyAt);
+    }
+
+    private void checkLimit(int limit) {
+        if (limit <= 0 || limit > maxResults) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxResults);
+        }
+    }
+
+    private double checkRadius(double radiusKm) {
+        if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + maxRadiusKm + " km");
+        }
+        return radiusKm;
+    }
+}
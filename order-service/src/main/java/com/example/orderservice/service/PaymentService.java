@@ -0,0 +1,92 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.PaymentInitiateResponse;
+import com.example.orderservice.dto.PaymentVerifyRequest;
+import com.example.orderservice.exception.ResourceNotFoundException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.OrderRepository;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PaymentService {
+
+    private static final String CURRENCY = "INR";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentSignatureVerifier signatureVerifier;
+
+    @Value("${razorpay.key.id}")
+    private String keyId;
+
+    @Value("${razorpay.key.secret}")
+    private String keySecret;
+
+    private volatile RazorpayClient razorpayClient;
+
+    // Creates the Razorpay order for checkout; repeat calls return the existing Razorpay order
+    public PaymentInitiateResponse initiatePayment(Long orderId, String customerId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+        if (!order.getCustomerId().equals(customerId)) {
+            throw new IllegalArgumentException("You can only pay for your own orders");
+        }
+        if (!"PENDING_PAYMENT".equals(order.getStatus())) {
+            throw new IllegalStateException("Cannot initiate payment for order in " + order.getStatus() + " status");
+        }
+
+        long amountInPaise = Math.round(order.getTotalPrice() * 100);
+        if (order.getRazorpayOrderId() == null) {
+            JSONObject options = new JSONObject();
+            options.put("amount", amountInPaise);
+            options.put("currency", CURRENCY);
+            options.put("receipt", "order_" + order.getId());
+            try {
+                com.razorpay.Order razorpayOrder = client().orders.create(options);
+                order.setRazorpayOrderId(razorpayOrder.get("id"));
+            } catch (RazorpayException e) {
+                throw new IllegalStateException("Payment gateway error: " + e.getMessage(), e);
+            }
+            orderRepository.save(order);
+        }
+        return new PaymentInitiateResponse(order.getId(), order.getRazorpayOrderId(), amountInPaise, CURRENCY, keyId);
+    }
+
+    // Client-side confirmation from the checkout handler; webhooks remain the source of truth for failures
+    public Order verifyPayment(PaymentVerifyRequest request) {
+        Order order = orderRepository.findByRazorpayOrderId(request.getRazorpayOrderId());
+        if (order == null || !order.getId().equals(request.getOrderId())) {
+            throw new ResourceNotFoundException("No order found for Razorpay order " + request.getRazorpayOrderId());
+        }
+        if (!signatureVerifier.verifyCheckout(request.getRazorpayOrderId(), request.getRazorpayPaymentId(),
+                request.getRazorpaySignature())) {
+            throw new IllegalArgumentException("Invalid payment signature");
+        }
+        if ("PAID".equals(order.getPaymentStatus())) {
+            return order; // Already confirmed by the webhook
+        }
+        return orderService.updatePaymentStatus(order.getId(), "PAID", request.getRazorpayPaymentId(),
+                request.getRazorpaySignature());
+    }
+
+    private RazorpayClient client() throws RazorpayException {
+        if (razorpayClient == null) {
+            synchronized (this) {
+                if (razorpayClient == null) {
+                    razorpayClient = new RazorpayClient(keyId, keySecret);
+                }
+            }
+        }
+        return razorpayClient;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+// HMAC-SHA256 checks for Razorpay checkout signatures and webhooks. Macs are keyed once and reused per thread.
+@Component
+public class PaymentSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Value("${razorpay.key.secret}")
+    private String keySecret;
+
+    @Value("${razorpay.webhook.secret}")
+    private String webhookSecret;
+
+    private final ThreadLocal<Mac> checkoutMac = ThreadLocal.withInitial(() -> newMac(keySecret));
+
+    // Checkout signature is HMAC(key secret, "<razorpay_order_id>|<razorpay_payment_id>")
+    public boolean verifyCheckout(String razorpayOrderId, String razorpayPaymentId, String signature) {
+        byte[] payload = (razorpayOrderId + "|" + razorpayPaymentId).getBytes(StandardCharsets.UTF_8);
+        return verify(checkoutMac.get(), payload, signature);
+    }
+
+    // Webhook workers hold their own Mac for the lifetime of the thread
+    public Mac newWebhookMac() {
+        return newMac(webhookSecret);
+    }
+
+    public String signWebhook(Mac mac, byte[] payload) {
+        return HexFormat.of().formatHex(mac.doFinal(payload));
+    }
+
+    public static boolean verify(Mac mac, byte[] payload, String hexSignature) {
+        if (hexSignature == null) {
+            return false;
+        }
+        byte[] expected = HexFormat.of().formatHex(mac.doFinal(payload)).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, hexSignature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Mac newMac(String secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + ALGORITHM, e);
+        }
+    }
+}
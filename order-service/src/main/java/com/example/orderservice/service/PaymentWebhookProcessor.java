@@ -0,0 +1,276 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.PaymentUpdate;
+import com.example.orderservice.model.PaymentWebhookDeadLetter;
+import com.example.orderservice.repository.PaymentWebhookDeadLetterRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Webhooks are acknowledged as soon as they are queued. Worker threads verify signatures with their own
+ * keyed Mac, drop replays, and hand each drained batch to OrderService as a single transaction. If the batch fails,
+ * its updates are applied one at a time; one that still fails is queued again, and after MAX_ATTEMPTS it is kept
+ * as a dead letter, since Razorpay will not redeliver a webhook that was acknowledged.
+ */
+@Component
+public class PaymentWebhookProcessor {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentSignatureVerifier signatureVerifier;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentWebhookDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${payments.webhook.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${payments.webhook.workers:4}")
+    private int workerCount;
+
+    @Value("${payments.webhook.batch-size:200}")
+    private int batchSize;
+
+    @Value("${payments.webhook.dedupe-capacity:100000}")
+    private int dedupeCapacity;
+
+    private BlockingQueue<Envelope> queue;
+    private ExecutorService workers;
+    private Map<String, Boolean> recentEventIds;
+    private volatile boolean running;
+
+    private Counter accepted;
+    private Counter rejected;
+    private Counter invalidSignature;
+    private Counter duplicate;
+    private Counter ignored;
+    private Counter applied;
+    private Counter failed;
+    private Counter deadLettered;
+    private Timer batchTimer;
+
+    private record Envelope(byte[] payload, String signature, String eventId, int attempt) {
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        recentEventIds = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupeCapacity;
+            }
+        });
+
+        accepted = meterRegistry.counter("payments.webhook.received", "result", "accepted");
+        rejected = meterRegistry.counter("payments.webhook.received", "result", "rejected");
+        invalidSignature = meterRegistry.counter("payments.webhook.processed", "result", "invalid_signature");
+        duplicate = meterRegistry.counter("payments.webhook.processed", "result", "duplicate");
+        ignored = meterRegistry.counter("payments.webhook.processed", "result", "ignored");
+        applied = meterRegistry.counter("payments.webhook.processed", "result", "applied");
+        failed = meterRegistry.counter("payments.webhook.processed", "result", "failed");
+        deadLettered = meterRegistry.counter("payments.webhook.processed", "result", "dead_lettered");
+        batchTimer = meterRegistry.timer("payments.webhook.batch");
+        meterRegistry.gauge("payments.webhook.queue.size", queue, BlockingQueue::size);
+
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "payment-webhook-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workerLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Returns false when the queue is full so the caller can answer 503 and let the gateway retry
+    public boolean submit(byte[] payload, String signature, String eventId) {
+        if (queue.offer(new Envelope(payload, signature, eventId, 1))) {
+            accepted.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    // Queues stored dead letters again and removes those that were queued; returns how many were
+    public int replayDeadLetters() {
+        int replayed = 0;
+        for (PaymentWebhookDeadLetter deadLetter : deadLetterRepository.findAll()) {
+            // No event id: the original delivery is already in the replay filter
+            if (!queue.offer(new Envelope(deadLetter.getPayload().getBytes(StandardCharsets.UTF_8),
+                    deadLetter.getSignature(), null, 1))) {
+                break;
+            }
+            deadLetterRepository.delete(deadLetter);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private void workerLoop() {
+        Mac mac = signatureVerifier.newWebhookMac();
+        List<Envelope> batch = new ArrayList<>(batchSize);
+        // Keep draining after shutdown starts so acknowledged webhooks are not lost
+        while (running || !queue.isEmpty()) {
+            try {
+                Envelope first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchTimer.record(() -> processBatch(mac, batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.out.println("Payment webhook worker error: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(Mac mac, List<Envelope> batch) {
+        // Last event per Razorpay order wins within a batch, except that PAID is never overridden
+        Map<String, PaymentUpdate> updates = new LinkedHashMap<>();
+        Map<String, List<Envelope>> envelopesByOrder = new LinkedHashMap<>();
+        for (Envelope envelope : batch) {
+            if (!PaymentSignatureVerifier.verify(mac, envelope.payload(), envelope.signature())) {
+                invalidSignature.increment();
+                continue;
+            }
+            if (envelope.attempt() == 1 && envelope.eventId() != null
+                    && recentEventIds.putIfAbsent(envelope.eventId(), Boolean.TRUE) != null) {
+                duplicate.increment();
+                continue;
+            }
+            PaymentUpdate update = parse(envelope.payload());
+            if (update == null) {
+                ignored.increment();
+                continue;
+            }
+            PaymentUpdate previous = updates.get(update.getRazorpayOrderId());
+            if (previous == null || !"PAID".equals(previous.getPaymentStatus())) {
+                updates.put(update.getRazorpayOrderId(), update);
+            } else {
+                duplicate.increment();
+            }
+            envelopesByOrder.computeIfAbsent(update.getRazorpayOrderId(), id -> new ArrayList<>()).add(envelope);
+        }
+
+        try {
+            apply(new ArrayList<>(updates.values()));
+        } catch (RuntimeException e) {
+            // One bad update should not hold back the rest of the batch
+            System.out.println("Failed to apply payment batch of " + updates.size() + ", applying one at a time: "
+                    + e.getMessage());
+            for (PaymentUpdate update : updates.values()) {
+                try {
+                    apply(List.of(update));
+                } catch (RuntimeException single) {
+                    String razorpayOrderId = update.getRazorpayOrderId();
+                    retryOrDeadLetter(razorpayOrderId, envelopesByOrder.get(razorpayOrderId), single);
+                }
+            }
+        }
+    }
+
+    private void apply(List<PaymentUpdate> updates) {
+        int changed = orderService.applyPaymentUpdates(updates);
+        applied.increment(changed);
+        ignored.increment(updates.size() - changed); // Unknown orders or already in that state
+    }
+
+    private void retryOrDeadLetter(String razorpayOrderId, List<Envelope> envelopes, RuntimeException error) {
+        for (Envelope envelope : envelopes) {
+            if (envelope.attempt() < MAX_ATTEMPTS && queue.offer(new Envelope(envelope.payload(),
+                    envelope.signature(), envelope.eventId(), envelope.attempt() + 1))) {
+                continue;
+            }
+            failed.increment();
+            String message = error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage();
+            try {
+                deadLetterRepository.save(new PaymentWebhookDeadLetter(null, envelope.eventId(), razorpayOrderId,
+                        new String(envelope.payload(), StandardCharsets.UTF_8), envelope.signature(),
+                        message.length() > 500 ? message.substring(0, 500) : message, envelope.attempt(), null));
+                deadLettered.increment();
+            } catch (RuntimeException e) {
+                // Last resort, so the event can still be applied by hand
+                System.out.println("LOST PAYMENT WEBHOOK for Razorpay order " + razorpayOrderId + " (" + e.getMessage()
+                        + "): " + new String(envelope.payload(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    // Maps Razorpay events to payment outcomes; other events are ignored
+    private PaymentUpdate parse(byte[] payload) {
+        try {
+            JsonNode root = objectMapper.readTree(payload);
+            String event = root.path("event").asText();
+            String status;
+            if ("payment.captured".equals(event) || "order.paid".equals(event)) {
+                status = "PAID";
+            } else if ("payment.failed".equals(event)) {
+                status = "FAILED";
+            } else {
+                return null;
+            }
+            JsonNode payment = root.path("payload").path("payment").path("entity");
+            String razorpayOrderId = payment.path("order_id").asText(null);
+            if (razorpayOrderId == null) {
+                return null;
+            }
+            return new PaymentUpdate(razorpayOrderId, payment.path("id").asText(null), status);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
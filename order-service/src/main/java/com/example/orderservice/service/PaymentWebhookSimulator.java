@@ -0,0 +1,140 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local load generator for the webhook pipeline: start with --spring.profiles.active=webhook-simulator.
+ * Sends signed Razorpay-style events (with a share of replays and bad signatures) to the webhook endpoint
+ * and prints throughput and response counts.
+ */
+@Component
+@Profile("webhook-simulator")
+public class PaymentWebhookSimulator implements ApplicationRunner {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private PaymentSignatureVerifier signatureVerifier;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${payments.simulator.target-url:http://localhost:${server.port}/payments/webhook}")
+    private String targetUrl;
+
+    @Value("${payments.simulator.events:10000}")
+    private int events;
+
+    @Value("${payments.simulator.concurrency:16}")
+    private int concurrency;
+
+    @Value("${payments.simulator.duplicate-ratio:0.1}")
+    private double duplicateRatio;
+
+    @Value("${payments.simulator.invalid-signature-ratio:0.01}")
+    private double invalidSignatureRatio;
+
+    @Value("${payments.simulator.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        // Target real pending orders when there are any, otherwise synthetic Razorpay ids
+        List<String> razorpayOrderIds = new ArrayList<>();
+        for (Order order : orderRepository.findByStatus("PENDING_PAYMENT")) {
+            if (order.getRazorpayOrderId() != null) {
+                razorpayOrderIds.add(order.getRazorpayOrderId());
+            }
+        }
+        if (razorpayOrderIds.isEmpty()) {
+            for (int i = 0; i < events; i++) {
+                razorpayOrderIds.add("order_sim_" + i);
+            }
+        }
+
+        Random random = new Random(seed);
+        Mac mac = signatureVerifier.newWebhookMac();
+        List<HttpEntity<byte[]>> requests = new ArrayList<>(events);
+        HttpEntity<byte[]> last = null;
+        for (int i = 0; i < events; i++) {
+            if (last != null && random.nextDouble() < duplicateRatio) {
+                requests.add(last); // Gateway retry: same event id and body
+                continue;
+            }
+            String razorpayOrderId = razorpayOrderIds.get(random.nextInt(razorpayOrderIds.size()));
+            String event = random.nextDouble() < 0.9 ? "payment.captured" : "payment.failed";
+            byte[] body = ("{\"entity\":\"event\",\"event\":\"" + event + "\",\"payload\":{\"payment\":{\"entity\":"
+                    + "{\"id\":\"pay_sim_" + i + "\",\"order_id\":\"" + razorpayOrderId + "\"}}}}")
+                    .getBytes(StandardCharsets.UTF_8);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("X-Razorpay-Event-Id", UUID.randomUUID().toString());
+            headers.set("X-Razorpay-Signature", random.nextDouble() < invalidSignatureRatio
+                    ? "0".repeat(64) : signatureVerifier.signWebhook(mac, body));
+            last = new HttpEntity<>(body, headers);
+            requests.add(last);
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger unavailable = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int t = 0; t < concurrency; t++) {
+            pool.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests.size()) {
+                    try {
+                        restTemplate.postForEntity(targetUrl, requests.get(i), Void.class);
+                        ok.incrementAndGet();
+                    } catch (HttpStatusCodeException e) {
+                        if (e.getStatusCode().value() == 503) {
+                            unavailable.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("========== WEBHOOK SIMULATION ==========");
+        System.out.println("   - Target: " + targetUrl);
+        System.out.println("   - Sent: " + requests.size() + " with concurrency " + concurrency);
+        System.out.println("   - 200 OK: " + ok.get() + ", 503: " + unavailable.get() + ", errors: " + errors.get());
+        System.out.printf("   - Throughput: %.0f webhooks/s%n", requests.size() / seconds);
+        System.out.println("   - Processing results: /actuator/metrics/payments.webhook.processed");
+        System.out.println("========================================");
+    }
+}
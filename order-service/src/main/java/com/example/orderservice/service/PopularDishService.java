@@ -0,0 +1,289 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.ApiResponse;
+import com.example.orderservice.dto.MenuItemName;
+import com.example.orderservice.dto.PopularDishBenchmarkReport;
+import com.example.orderservice.dto.PopularDishResponse;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.repository.OrderItemRepository;
+import com.example.orderservice.trending.PopularDishBenchmark;
+import com.example.orderservice.trending.SlidingTopK;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Most ordered dishes per restaurant and across all restaurants, from the order items of confirmed (paid) orders,
+ * counted at the time of confirmation. Counts live in SlidingTopK summaries (hourly Space-Saving buckets by default),
+ * so memory stays bounded and reads never aggregate order_items. The window is loaded from the CONFIRMED events in
+ * order_events on startup; each confirmation is then added after its transaction commits and relayed to the other
+ * instances over Redis, so every instance counts every order. Restaurants without orders in the window are dropped.
+ * <p>
+ * Dish names are never taken from the order body: they are looked up in restaurant-service by menu item id and kept
+ * for name-ttl-seconds. Ids that are on no menu, or on another restaurant's menu, are left out of the results.
+ */
+@Service
+public class PopularDishService {
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    @LoadBalanced
+    private RestTemplate loadBalancedRestTemplate;
+
+    @Value("${orders.popular.restaurant-service-url:http://restaurant-service}")
+    private String restaurantServiceUrl;
+
+    @Value("${orders.popular.name-ttl-seconds:600}")
+    private long nameTtlSeconds;
+
+    @Value("${app.cache.key-prefix:${spring.application.name}}")
+    private String keyPrefix;
+
+    @Value("${orders.popular.bucket-minutes:60}")
+    private int bucketMinutes;
+
+    @Value("${orders.popular.window-buckets:24}")
+    private int windowBuckets;
+
+    @Value("${orders.popular.restaurant-capacity:20}")
+    private int restaurantCapacity;
+
+    @Value("${orders.popular.global-capacity:500}")
+    private int globalCapacity;
+
+    @Value("${orders.popular.max-limit:50}")
+    private int maxLimit;
+
+    private final ConcurrentHashMap<Long, SlidingTopK> byRestaurant = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, DishName> dishNames = new ConcurrentHashMap<>();
+    private final String instanceId = UUID.randomUUID().toString();
+    private SlidingTopK global;
+    private String channel;
+    // Orders confirmed before this are counted by the startup load; unset until it starts
+    private volatile long loadedBefore = Long.MAX_VALUE;
+
+    // restaurantId and name are null for an id that is on no menu
+    private record DishName(Long restaurantId, String name, long fetchedAtMillis) {
+    }
+
+    @PostConstruct
+    public void init() {
+        global = new SlidingTopK(globalCapacity, bucketMillis(), windowBuckets);
+        channel = keyPrefix + "::popular-dishes";
+        listenerContainer.addMessageListener((message, pattern) ->
+                onMessage(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(channel));
+    }
+
+    // Called after the transaction that moved the order to CONFIRMED has committed
+    public void recordConfirmedOrder(Order order, LocalDateTime confirmedAt) {
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            return;
+        }
+        long time = toMillis(confirmedAt);
+        boolean counted = time >= loadedBefore; // Otherwise part of the startup load
+        StringBuilder message = new StringBuilder(instanceId).append('|').append(order.getRestaurantId())
+                .append('|').append(time);
+        for (OrderItem item : order.getItems()) {
+            if (item.getMenuItemId() != null && item.getQuantity() != null && item.getQuantity() > 0) {
+                if (counted) {
+                    add(order.getRestaurantId(), item.getMenuItemId(), item.getQuantity(), time);
+                }
+                message.append('|').append(item.getMenuItemId()).append(':').append(item.getQuantity());
+            }
+        }
+        try {
+            redisTemplate.convertAndSend(channel, message.toString());
+        } catch (RuntimeException e) {
+            System.out.println("Popular dish publish failed for order " + order.getId() + ": " + e.getMessage());
+        }
+    }
+
+    // Message format: <instance>|<restaurant>|<confirmedAt millis>|<menu item>:<quantity>...
+    public void onMessage(String message) {
+        String[] parts = message.split("\\|");
+        if (parts.length < 4 || instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            long restaurantId = Long.parseLong(parts[1]);
+            long confirmedAt = Long.parseLong(parts[2]);
+            if (confirmedAt < loadedBefore) {
+                return;
+            }
+            for (int i = 3; i < parts.length; i++) {
+                String[] fields = parts[i].split(":");
+                add(restaurantId, Long.parseLong(fields[0]), Integer.parseInt(fields[1]), confirmedAt);
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Ignoring malformed popular dish message: " + message);
+        }
+    }
+
+    public List<PopularDishResponse> popularDishes(Long restaurantId, int limit, int windowHours) {
+        int buckets = windowBuckets(windowHours, limit);
+        SlidingTopK summary = restaurantId == null ? global : byRestaurant.get(restaurantId);
+        if (summary == null) {
+            return List.of();
+        }
+        // Ranked past the limit so that ids dropped below can be made up for
+        List<SlidingTopK.Item> ranked = summary.top(Integer.MAX_VALUE, buckets, System.currentTimeMillis());
+        List<PopularDishResponse> dishes = new ArrayList<>(limit);
+        int next = 0;
+        while (dishes.size() < limit && next < ranked.size()) {
+            List<SlidingTopK.Item> batch = ranked.subList(next, Math.min(ranked.size(), next + limit - dishes.size()));
+            next += batch.size();
+            Map<Long, DishName> names = dishNames(batch.stream().map(SlidingTopK.Item::key).toList());
+            for (SlidingTopK.Item item : batch) {
+                DishName name = names.get(item.key());
+                // Without a name (restaurant-service unreachable) the dish is still listed
+                if (name != null && (name.restaurantId() == null
+                        || (restaurantId != null && !restaurantId.equals(name.restaurantId())))) {
+                    continue;
+                }
+                dishes.add(new PopularDishResponse(item.key(), name == null ? null : name.name(),
+                        item.count(), item.minCount(), item.maxCount()));
+            }
+        }
+        return dishes;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.popular.prune-interval-ms:600000}")
+    public void pruneIdleRestaurants() {
+        long now = System.currentTimeMillis();
+        for (Long restaurantId : byRestaurant.keySet()) {
+            byRestaurant.computeIfPresent(restaurantId, (id, summary) -> summary.isEmpty(now) ? null : summary);
+        }
+        dishNames.values().removeIf(name -> now - name.fetchedAtMillis() >= nameTtlSeconds * 1000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadFromDatabase() {
+        long start = System.currentTimeMillis();
+        LocalDateTime before = LocalDateTime.now();
+        loadedBefore = toMillis(before);
+        int items = 0;
+        for (Object[] row : orderItemRepository.findConfirmedPopularityFields(before.minusMinutes((long) bucketMinutes * windowBuckets), before)) {
+            if (row[1] != null && row[2] != null && (Integer) row[2] > 0) {
+                add((Long) row[0], (Long) row[1], (Integer) row[2], toMillis((LocalDateTime) row[3]));
+                items++;
+            }
+        }
+        System.out.println("Popular dishes loaded: " + items + " order items, " + byRestaurant.size()
+                + " restaurants in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public PopularDishBenchmarkReport benchmark(int items, int dishes, double skew, int capacity, int topK,
+                                                int windowHours, long seed) {
+        if (items <= 0 || items > 5_000_000 || dishes <= 0 || dishes > 1_000_000) {
+            throw new IllegalArgumentException("items must be between 1 and 5000000 and dishes between 1 and 1000000");
+        }
+        if (skew < 0.5 || skew > 2.0 || capacity <= 0 || capacity > 10_000 || topK <= 0 || topK > 100) {
+            throw new IllegalArgumentException("skew must be between 0.5 and 2.0, capacity between 1 and 10000 and topK between 1 and 100");
+        }
+        if (windowHours <= 0 || windowHours > 24) {
+            throw new IllegalArgumentException("windowHours must be between 1 and 24");
+        }
+        return PopularDishBenchmark.run(items, dishes, skew, capacity, topK, windowHours, seed);
+    }
+
+    private void add(Long restaurantId, long menuItemId, int quantity, long confirmedAt) {
+        global.add(menuItemId, quantity, confirmedAt);
+        byRestaurant.compute(restaurantId, (id, summary) -> {
+            SlidingTopK result = summary != null ? summary
+                    : new SlidingTopK(restaurantCapacity, bucketMillis(), windowBuckets);
+            result.add(menuItemId, quantity, confirmedAt);
+            return result;
+        });
+    }
+
+    // Names for the ids, fetched in one call for those not cached within the TTL. If restaurant-service cannot be
+    // reached, expired names are still used and ids never fetched are missing from the result
+    private Map<Long, DishName> dishNames(List<Long> ids) {
+        long now = System.currentTimeMillis();
+        Map<Long, DishName> names = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            DishName cached = dishNames.get(id);
+            if (cached != null) {
+                names.put(id, cached);
+            }
+            if (cached == null || now - cached.fetchedAtMillis() >= nameTtlSeconds * 1000) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return names;
+        }
+        try {
+            ApiResponse<List<MenuItemName>> response = loadBalancedRestTemplate.exchange(
+                    restaurantServiceUrl + "/restaurants/internal/menu-items/names?ids={ids}", HttpMethod.GET, null,
+                    new ParameterizedTypeReference<ApiResponse<List<MenuItemName>>>() {},
+                    missing.stream().map(String::valueOf).collect(Collectors.joining(","))).getBody();
+            Map<Long, MenuItemName> found = new HashMap<>();
+            if (response != null && response.getData() != null) {
+                response.getData().forEach(item -> found.put(item.getId(), item));
+            }
+            for (Long id : missing) {
+                MenuItemName item = found.get(id);
+                DishName name = item == null ? new DishName(null, null, now)
+                        : new DishName(item.getRestaurantId(), item.getName(), now);
+                dishNames.put(id, name);
+                names.put(id, name);
+            }
+        } catch (RestClientException e) {
+            System.out.println("Popular dish names unavailable, using cached names: " + e.getMessage());
+        }
+        return names;
+    }
+
+    private int windowBuckets(int windowHours, int limit) {
+        int maxHours = windowBuckets * bucketMinutes / 60;
+        if (limit <= 0 || limit > maxLimit || windowHours <= 0 || windowHours > maxHours) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit
+                    + " and windowHours between 1 and " + maxHours);
+        }
+        return Math.max(1, windowHours * 60 / bucketMinutes);
+    }
+
+    private long bucketMillis() {
+        return bucketMinutes * 60_000L;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
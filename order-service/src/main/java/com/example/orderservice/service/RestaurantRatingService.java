@@ -0,0 +1,245 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.RestaurantRatingResponse;
+import com.example.orderservice.dto.RestaurantRatingUpdate;
+import com.example.orderservice.exception.ResourceNotFoundException;
+import com.example.orderservice.model.RestaurantRating;
+import com.example.orderservice.repository.OrderReviewRepository;
+import com.example.orderservice.repository.RestaurantRatingRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-restaurant rating aggregates from order reviews.
+ * Each review adds O(1) deltas to in-memory accumulators once its transaction commits. A scheduled flush adds them
+ * to the restaurant_ratings rollup and pushes the changed restaurants' ratings to restaurant-service, which stores
+ * them as Restaurant.rating; nothing is ever recomputed from the reviews themselves except by the admin rebuild.
+ * <p>
+ * Next to count and sum the rollup keeps exponentially decayed sums, so recent reviews weigh more. They are stored
+ * scaled to a fixed epoch, which keeps them additive like the other columns. The published rating is the decayed
+ * average smoothed towards a prior (a Bayesian average), so a handful of reviews cannot put a restaurant on top.
+ * Because it decays, it drifts without new reviews; a periodic scan pushes every rating that has moved since its
+ * last push.
+ */
+@Service
+public class RestaurantRatingService {
+
+    private static final long DECAY_EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int PUBLISH_CHUNK = 500;
+
+    @Autowired
+    private RestaurantRatingRepository ratingRepository;
+
+    @Autowired
+    private OrderReviewRepository orderReviewRepository;
+
+    @Autowired
+    @LoadBalanced
+    private RestTemplate loadBalancedRestTemplate;
+
+    @Value("${orders.ratings.restaurant-service-url:http://restaurant-service}")
+    private String restaurantServiceUrl;
+
+    @Value("${orders.ratings.prior-mean:3.5}")
+    private double priorMean;
+
+    @Value("${orders.ratings.prior-weight:5}")
+    private double priorWeight;
+
+    @Value("${orders.ratings.half-life-days:90}")
+    private double halfLifeDays;
+
+    private final ConcurrentHashMap<Long, RatingAccumulator> pending = new ConcurrentHashMap<>();
+    // Restaurants whose rollup row changed since their rating was last pushed
+    private final Set<Long> unpublished = ConcurrentHashMap.newKeySet();
+
+    // Called after the review's transaction has committed
+    public void recordReview(Long restaurantId, int rating, LocalDateTime reviewedAt) {
+        double weight = weight(reviewedAt);
+        RatingAccumulator acc = pending.computeIfAbsent(restaurantId, id -> new RatingAccumulator());
+        acc.reviews.increment();
+        acc.ratingSum.add(rating);
+        acc.decayedSum.add(rating * weight);
+        acc.decayedWeight.add(weight);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.ratings.flush-interval-ms:30000}")
+    public void flush() {
+        for (Map.Entry<Long, RatingAccumulator> entry : pending.entrySet()) {
+            if (writeDeltas(entry.getKey(), entry.getValue())) {
+                unpublished.add(entry.getKey());
+            }
+        }
+        publish();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Restaurant-service may have missed pushes while this instance was down; send every rating once more
+    @EventListener(ApplicationReadyEvent.class)
+    public void republishAll() {
+        try {
+            unpublished.addAll(ratingRepository.findAllRestaurantIds());
+        } catch (RuntimeException e) {
+            System.out.println("Could not load restaurant ratings to republish: " + e.getMessage());
+        }
+    }
+
+    // Decay moves the rating without new reviews; queue those whose published value is out of date
+    @Scheduled(fixedDelayString = "${orders.ratings.republish-interval-ms:3600000}",
+            initialDelayString = "${orders.ratings.republish-interval-ms:3600000}")
+    public void republishDrifted() {
+        long now = System.currentTimeMillis();
+        int drifted = 0;
+        try {
+            Page<RestaurantRating> page;
+            int number = 0;
+            do {
+                page = ratingRepository.findAll(PageRequest.of(number++, PUBLISH_CHUNK, Sort.by("restaurantId")));
+                for (RestaurantRating row : page) {
+                    // Both are rounded to one decimal, so any difference is at least 0.1
+                    if (row.getPublishedRating() == null || Math.abs(row.getPublishedRating() - rating(row, now)) > 0.05) {
+                        unpublished.add(row.getRestaurantId());
+                        drifted++;
+                    }
+                }
+            } while (page.hasNext());
+        } catch (RuntimeException e) {
+            System.out.println("Could not scan restaurant ratings for drift: " + e.getMessage());
+        }
+        if (drifted > 0) {
+            System.out.println("Republishing " + drifted + " restaurant ratings moved by decay");
+            publish();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public RestaurantRatingResponse getRating(Long restaurantId) {
+        RestaurantRating row = ratingRepository.findById(restaurantId)
+                .orElseThrow(() -> new ResourceNotFoundException("No reviews yet for restaurant with id: " + restaurantId));
+        Double average = row.getReviewCount() > 0 ? round((double) row.getRatingSum() / row.getReviewCount()) : null;
+        Double recentAverage = row.getDecayedWeight() > 0 ? round(row.getDecayedSum() / row.getDecayedWeight()) : null;
+        return new RestaurantRatingResponse(restaurantId, row.getReviewCount(), average, recentAverage,
+                row.getPublishedRating(), row.getUpdatedAt());
+    }
+
+    // Recomputes one restaurant's aggregates from its reviews, e.g. after changing the half-life
+    @Transactional
+    public long rebuildFromReviews(Long restaurantId) {
+        pending.remove(restaurantId);
+        RestaurantRating row = new RestaurantRating(restaurantId, 0L, 0L, 0.0, 0.0, LocalDateTime.now(), null);
+        for (Object[] review : orderReviewRepository.findRatingFields(restaurantId)) {
+            int rating = (Integer) review[0];
+            double weight = weight((LocalDateTime) review[1]);
+            row.setReviewCount(row.getReviewCount() + 1);
+            row.setRatingSum(row.getRatingSum() + rating);
+            row.setDecayedSum(row.getDecayedSum() + rating * weight);
+            row.setDecayedWeight(row.getDecayedWeight() + weight);
+        }
+        ratingRepository.save(row);
+        unpublished.add(restaurantId);
+        System.out.println("Rebuilt rating for restaurant " + restaurantId + " from " + row.getReviewCount() + " reviews");
+        return row.getReviewCount();
+    }
+
+    private void publish() {
+        if (unpublished.isEmpty()) {
+            return;
+        }
+        List<Long> restaurantIds = new ArrayList<>(unpublished);
+        long now = System.currentTimeMillis();
+        for (int from = 0; from < restaurantIds.size(); from += PUBLISH_CHUNK) {
+            List<Long> chunk = restaurantIds.subList(from, Math.min(from + PUBLISH_CHUNK, restaurantIds.size()));
+            try {
+                List<RestaurantRatingUpdate> updates = new ArrayList<>(chunk.size());
+                for (RestaurantRating row : ratingRepository.findForPublishing(chunk)) {
+                    updates.add(new RestaurantRatingUpdate(row.getRestaurantId(), rating(row, now)));
+                }
+                loadBalancedRestTemplate.put(restaurantServiceUrl + "/restaurants/internal/ratings", updates);
+                chunk.forEach(unpublished::remove);
+                updates.forEach(update -> ratingRepository.markPublished(update.getRestaurantId(), update.getRating()));
+            } catch (RuntimeException e) {
+                // Kept for the next flush
+                System.out.println("Failed to publish ratings for " + chunk.size() + " restaurants: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Decayed average as of now, shrunk towards the prior by priorWeight reviews' worth, to one decimal
+    private double rating(RestaurantRating row, long nowMillis) {
+        double decay = Math.pow(2, -(nowMillis - DECAY_EPOCH_MILLIS) / halfLifeMillis());
+        double sum = row.getDecayedSum() * decay;
+        double weight = row.getDecayedWeight() * decay;
+        return round((priorMean * priorWeight + sum) / (priorWeight + weight));
+    }
+
+    // A review's weight relative to one made at the decay epoch; later reviews weigh exponentially more
+    private double weight(LocalDateTime reviewedAt) {
+        long millis = reviewedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.pow(2, (millis - DECAY_EPOCH_MILLIS) / halfLifeMillis());
+    }
+
+    private double halfLifeMillis() {
+        return halfLifeDays * 24 * 60 * 60 * 1000;
+    }
+
+    private static double round(double rating) {
+        return Math.round(rating * 10) / 10.0;
+    }
+
+    private boolean writeDeltas(Long restaurantId, RatingAccumulator acc) {
+        long reviews = acc.reviews.sumThenReset();
+        long ratingSum = acc.ratingSum.sumThenReset();
+        double decayedSum = acc.decayedSum.sumThenReset();
+        double decayedWeight = acc.decayedWeight.sumThenReset();
+        if (reviews == 0) {
+            return false;
+        }
+        try {
+            ratingRepository.addDeltas(restaurantId, reviews, ratingSum, decayedSum, decayedWeight);
+        } catch (RuntimeException e) {
+            // Keep the deltas for the next flush
+            RatingAccumulator retry = pending.computeIfAbsent(restaurantId, id -> new RatingAccumulator());
+            retry.reviews.add(reviews);
+            retry.ratingSum.add(ratingSum);
+            retry.decayedSum.add(decayedSum);
+            retry.decayedWeight.add(decayedWeight);
+            System.out.println("Failed to flush rating for restaurant " + restaurantId + ": " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private static class RatingAccumulator {
+        final LongAdder reviews = new LongAdder();
+        final LongAdder ratingSum = new LongAdder();
+        final DoubleAdder decayedSum = new DoubleAdder();
+        final DoubleAdder decayedWeight = new DoubleAdder();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.orderservice.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 buckets, each level's slot spanning 64 slots of the level below.
+ * Timers sit in intrusive doubly linked bucket lists, so schedule and cancel are O(1) regardless of how many
+ * are pending. Advancing one tick expires a single level-0 bucket and, every 64 ticks, redistributes one
+ * bucket from the level above. With a one-second tick the wheel covers about 194 days; later deadlines are
+ * parked in the top level and re-placed when they come round.
+ */
+public class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    public static final class Timer<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timer<T> previous;
+        private Timer<T> next;
+        private Bucket<T> bucket;
+
+        private Timer(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private final Timer<T> head = new Timer<>(null, 0);
+
+        Bucket() {
+            head.previous = head;
+            head.next = head;
+        }
+
+        void add(Timer<T> timer) {
+            timer.previous = head.previous;
+            timer.next = head;
+            head.previous.next = timer;
+            head.previous = timer;
+            timer.bucket = this;
+        }
+
+        // Detaches and returns every timer in the bucket
+        List<Timer<T>> drain() {
+            List<Timer<T>> timers = new ArrayList<>();
+            for (Timer<T> timer = head.next; timer != head; ) {
+                Timer<T> next = timer.next;
+                timer.previous = null;
+                timer.next = null;
+                timer.bucket = null;
+                timers.add(timer);
+                timer = next;
+            }
+            head.previous = head;
+            head.next = head;
+            return timers;
+        }
+    }
+
+    private final long tickMillis;
+    private final Bucket<T>[][] levels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = new Bucket[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                levels[level][slot] = new Bucket<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized Timer<T> schedule(long deadlineMillis, T payload) {
+        // Round up so a timer never fires before its deadline
+        Timer<T> timer = new Timer<>(payload, Math.max(currentTick + 1, (deadlineMillis + tickMillis - 1) / tickMillis));
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    // Returns false if the timer already fired or was cancelled
+    public synchronized boolean cancel(Timer<T> timer) {
+        if (timer.bucket == null) {
+            return false;
+        }
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+        timer.bucket = null;
+        size--;
+        return true;
+    }
+
+    // Moves the wheel up to nowMillis and returns the payloads of every timer that came due, tick by tick
+    public synchronized List<T> advanceTo(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            for (Timer<T> timer : levels[0][(int) (currentTick & MASK)].drain()) {
+                size--;
+                expired.add(timer.payload);
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Redistributes the level's current bucket when every level below it has just wrapped to slot 0
+    private void cascade(int level) {
+        if (level >= LEVELS || ((currentTick >>> (BITS * (level - 1))) & MASK) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        for (Timer<T> timer : levels[level][(int) ((currentTick >>> (BITS * level)) & MASK)].drain()) {
+            place(timer);
+        }
+    }
+
+    // Lowest level where the deadline is fewer than 64 slots ahead; that slot is not visited again before the
+    // deadline. A deadline equal to the current tick only arrives from a cascade and is drained on this tick.
+    private void place(Timer<T> timer) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * level;
+            long ahead = (timer.deadlineTick >>> shift) - (currentTick >>> shift);
+            if (ahead < SLOTS) {
+                levels[level][(int) ((timer.deadlineTick >>> shift) & MASK)].add(timer);
+                return;
+            }
+        }
+        // Beyond the wheel's range: park in the farthest top-level slot and re-place when it cascades
+        int top = BITS * (LEVELS - 1);
+        levels[LEVELS - 1][(int) (((currentTick >>> top) + SLOTS - 1) & MASK)].add(timer);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.orderservice.trending;
+
+import com.example.orderservice.dto.PopularDishBenchmarkReport;
+import com.example.orderservice.dto.PopularDishStrategyResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Accuracy and cost of SlidingTopK against exact per-bucket counts on a seeded synthetic order stream: dish
+ * popularity follows a Zipf distribution, quantities are 1-3, and items are spread evenly over 24 hourly buckets.
+ * The exact counts are what a GROUP BY over the window would return. Only timings vary between runs with the same seed.
+ */
+public final class PopularDishBenchmark {
+
+    private static final long BUCKET_MILLIS = 60 * 60_000L;
+    private static final int BUCKETS = 24;
+    private static final long START_MILLIS = 1_699_999_200_000L; // On an hour boundary, like the buckets
+    private static final int QUERY_RUNS = 20;
+
+    private PopularDishBenchmark() {
+    }
+
+    public static PopularDishBenchmarkReport run(int itemCount, int dishCount, double skew, int capacity, int topK,
+                                                 int windowHours, long seed) {
+        Random random = new Random(seed);
+        double[] cumulative = new double[dishCount];
+        double total = 0;
+        for (int d = 0; d < dishCount; d++) {
+            total += 1 / Math.pow(d + 1, skew);
+            cumulative[d] = total;
+        }
+        long[] keys = new long[itemCount];
+        int[] quantities = new int[itemCount];
+        long[] times = new long[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            // Shuffled ids, so popularity does not follow key order
+            keys[i] = ((index < 0 ? -index - 1 : index) * 2_654_435_761L) % 1_000_000_007L;
+            quantities[i] = 1 + random.nextInt(3);
+            times[i] = START_MILLIS + (long) i * BUCKETS * BUCKET_MILLIS / itemCount;
+        }
+        long nowMillis = times[itemCount - 1];
+
+        // Exact: one count map per bucket, merged for the window
+        long start = System.nanoTime();
+        List<Map<Long, Long>> exactBuckets = new ArrayList<>();
+        for (int b = 0; b < BUCKETS; b++) {
+            exactBuckets.add(new HashMap<>());
+        }
+        for (int i = 0; i < itemCount; i++) {
+            int bucket = (int) ((times[i] - START_MILLIS) / BUCKET_MILLIS);
+            exactBuckets.get(bucket).merge(keys[i], (long) quantities[i], Long::sum);
+        }
+        double exactIngest = (System.nanoTime() - start) / (double) itemCount;
+        start = System.nanoTime();
+        Map<Long, Long> exact = null;
+        List<Map.Entry<Long, Long>> exactTop = null;
+        for (int run = 0; run < QUERY_RUNS; run++) {
+            exact = mergeWindow(exactBuckets, windowHours);
+            exactTop = new ArrayList<>(exact.entrySet());
+            exactTop.sort(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        }
+        double exactQuery = (System.nanoTime() - start) / 1e6 / QUERY_RUNS;
+        int exactEntries = exactBuckets.stream().mapToInt(Map::size).sum();
+
+        SlidingTopK sketch = new SlidingTopK(capacity, BUCKET_MILLIS, BUCKETS);
+        start = System.nanoTime();
+        for (int i = 0; i < itemCount; i++) {
+            sketch.add(keys[i], quantities[i], times[i]);
+        }
+        double sketchIngest = (System.nanoTime() - start) / (double) itemCount;
+        start = System.nanoTime();
+        List<SlidingTopK.Item> sketchTop = null;
+        for (int run = 0; run < QUERY_RUNS; run++) {
+            sketchTop = sketch.top(topK, windowHours, nowMillis);
+        }
+        double sketchQuery = (System.nanoTime() - start) / 1e6 / QUERY_RUNS;
+
+        List<PopularDishStrategyResult> results = new ArrayList<>();
+        results.add(new PopularDishStrategyResult("exact-counts", exactEntries, exactIngest, exactQuery, 1.0, 0.0, 0.0, true));
+        results.add(accuracy(sketchTop, exact, exactTop, topK, sketch.counterCount(), sketchIngest, sketchQuery));
+        return new PopularDishBenchmarkReport(seed, itemCount, dishCount, skew, capacity, topK, windowHours, results);
+    }
+
+    private static PopularDishStrategyResult accuracy(List<SlidingTopK.Item> top, Map<Long, Long> exact,
+                                                      List<Map.Entry<Long, Long>> exactTop, int topK, int counters,
+                                                      double ingestNanos, double queryMillis) {
+        Map<Long, SlidingTopK.Item> returned = new HashMap<>();
+        boolean boundsHeld = true;
+        for (SlidingTopK.Item item : top) {
+            returned.put(item.key(), item);
+            long truth = exact.getOrDefault(item.key(), 0L);
+            boundsHeld &= item.minCount() <= truth && truth <= item.maxCount();
+        }
+        int k = Math.min(topK, exactTop.size());
+        int hits = 0;
+        double maxError = 0;
+        double errorSum = 0;
+        for (int i = 0; i < k; i++) {
+            Map.Entry<Long, Long> entry = exactTop.get(i);
+            SlidingTopK.Item item = returned.get(entry.getKey());
+            if (item != null) {
+                hits++;
+            }
+            // A missed dish counts as entirely wrong
+            double error = item == null ? 1.0 : Math.abs(item.count() - entry.getValue()) / (double) entry.getValue();
+            maxError = Math.max(maxError, error);
+            errorSum += error;
+        }
+        return new PopularDishStrategyResult("sliding-space-saving", counters, ingestNanos, queryMillis,
+                k == 0 ? 1.0 : hits / (double) k, maxError, k == 0 ? 0.0 : errorSum / k, boundsHeld);
+    }
+
+    private static Map<Long, Long> mergeWindow(List<Map<Long, Long>> buckets, int windowHours) {
+        Map<Long, Long> merged = new HashMap<>();
+        for (int b = BUCKETS - windowHours; b < BUCKETS; b++) {
+            buckets.get(b).forEach((key, count) -> merged.merge(key, count, Long::sum));
+        }
+        return merged;
+    }
+}
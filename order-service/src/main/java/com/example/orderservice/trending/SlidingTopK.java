@@ -0,0 +1,96 @@
+package com.example.orderservice.trending;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heavy hitters over a sliding time window: a ring of Space-Saving summaries, one per time bucket, so memory is
+ * bounded by buckets * capacity counters however many keys are seen. Expired buckets are reused by newer ones.
+ * A query merges the buckets in the requested window; a key missing from a full bucket may still have occurred there
+ * up to that bucket's smallest count, which is added to its possible underestimate.
+ */
+public class SlidingTopK {
+
+    // count is the merged estimate; the key's true weight in the window lies between minCount and maxCount
+    public record Item(long key, long count, long minCount, long maxCount) {
+    }
+
+    private final int capacity;
+    private final long bucketMillis;
+    private final SpaceSaving[] buckets;
+    private final long[] bucketIds;
+
+    public SlidingTopK(int capacity, long bucketMillis, int bucketCount) {
+        this.capacity = capacity;
+        this.bucketMillis = bucketMillis;
+        this.buckets = new SpaceSaving[bucketCount];
+        this.bucketIds = new long[bucketCount];
+        Arrays.fill(bucketIds, Long.MIN_VALUE);
+    }
+
+    public synchronized void add(long key, long weight, long timeMillis) {
+        long id = Math.floorDiv(timeMillis, bucketMillis);
+        int slot = (int) Math.floorMod(id, (long) buckets.length);
+        if (bucketIds[slot] != id) {
+            if (id < bucketIds[slot]) {
+                return; // Older than the window
+            }
+            buckets[slot] = new SpaceSaving(capacity);
+            bucketIds[slot] = id;
+        }
+        buckets[slot].add(key, weight);
+    }
+
+    // Top keys over the last windowBuckets buckets up to and including the one holding nowMillis
+    public synchronized List<Item> top(int limit, int windowBuckets, long nowMillis) {
+        long newest = Math.floorDiv(nowMillis, bucketMillis);
+        long oldest = newest - Math.min(windowBuckets, buckets.length) + 1;
+        Map<Long, long[]> merged = new HashMap<>(); // key -> count, error, sum of minCount where present
+        long totalMin = 0;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (bucketIds[slot] < oldest || bucketIds[slot] > newest) {
+                continue;
+            }
+            long bucketMin = buckets[slot].minCount();
+            totalMin += bucketMin;
+            for (SpaceSaving.Entry entry : buckets[slot].entries()) {
+                long[] sums = merged.computeIfAbsent(entry.key(), key -> new long[3]);
+                sums[0] += entry.count();
+                sums[1] += entry.error();
+                sums[2] += bucketMin;
+            }
+        }
+        List<Item> items = new ArrayList<>(merged.size());
+        for (Map.Entry<Long, long[]> entry : merged.entrySet()) {
+            long[] sums = entry.getValue();
+            items.add(new Item(entry.getKey(), sums[0], sums[0] - sums[1], sums[0] + totalMin - sums[2]));
+        }
+        items.sort(Comparator.comparingLong(Item::count).reversed().thenComparingLong(Item::key));
+        return items.size() > limit ? new ArrayList<>(items.subList(0, limit)) : items;
+    }
+
+    // True when no bucket holds data for the window ending at nowMillis
+    public synchronized boolean isEmpty(long nowMillis) {
+        long oldest = Math.floorDiv(nowMillis, bucketMillis) - buckets.length + 1;
+        for (long id : bucketIds) {
+            if (id >= oldest) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized int counterCount() {
+        int counters = 0;
+        for (SpaceSaving bucket : buckets) {
+            if (bucket != null) {
+                counters += bucket.size();
+            }
+        }
+        return counters;
+    }
+}
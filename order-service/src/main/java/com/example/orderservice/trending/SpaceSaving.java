@@ -0,0 +1,78 @@
+package com.example.orderservice.trending;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitter summary with at most capacity counters. A key without a counter takes over the smallest
+ * one, inheriting its count as the key's possible overestimate (error). Every key whose true weight exceeds
+ * total / capacity is guaranteed a counter, and each count is at most error above the key's true weight.
+ * Not thread-safe.
+ */
+public class SpaceSaving {
+
+    public record Entry(long key, long count, long error) {
+    }
+
+    private static final class Counter {
+        final long key;
+        long count;
+        long error;
+
+        Counter(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(
+            Comparator.comparingLong((Counter counter) -> counter.count).thenComparingLong(counter -> counter.key));
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void add(long key, long weight) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += weight;
+        } else if (counters.size() < capacity) {
+            counter = new Counter(key, weight, 0);
+            counters.put(key, counter);
+        } else {
+            Counter smallest = byCount.pollFirst();
+            counters.remove(smallest.key);
+            counter = new Counter(key, smallest.count + weight, smallest.count);
+            counters.put(key, counter);
+        }
+        byCount.add(counter);
+    }
+
+    // Upper bound on the weight of any key without a counter
+    public long minCount() {
+        return counters.size() < capacity ? 0 : byCount.first().count;
+    }
+
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        for (Counter counter : counters.values()) {
+            entries.add(new Entry(counter.key, counter.count, counter.error));
+        }
+        return entries;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.restaurantservice.availability;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current availability of every menu item of the restaurants loaded so far, one bitset per restaurant indexed by
+ * the position of the item id in the restaurant's sorted id array. Each item also keeps when it last changed
+ * (epoch millis): changes are applied last-writer-wins on that timestamp, so toggles relayed between instances and
+ * replayed from the journal converge regardless of arrival order. Local toggles are marked pending until the
+ * write-behind flush drains them.
+ */
+public class MenuAvailabilityIndex {
+
+    public record Change(long restaurantId, long itemId, boolean available, long changedAt) {
+    }
+
+    private static final class Menu {
+        final long[] itemIds;
+        final BitSet available;
+        final long[] changedAt;
+        final BitSet pending = new BitSet();
+
+        Menu(long[] itemIds, BitSet available, long[] changedAt) {
+            this.itemIds = itemIds;
+            this.available = available;
+            this.changedAt = changedAt;
+        }
+
+        int indexOf(long itemId) {
+            return Arrays.binarySearch(itemIds, itemId);
+        }
+    }
+
+    private final Map<Long, Menu> menus = new ConcurrentHashMap<>();
+
+    // itemIds must be sorted ascending. Newer values already held for items that still exist, pending or not, are kept
+    public void load(long restaurantId, long[] itemIds, boolean[] available, long[] changedAt) {
+        BitSet bits = new BitSet(itemIds.length);
+        for (int i = 0; i < itemIds.length; i++) {
+            bits.set(i, available[i]);
+        }
+        Menu loaded = new Menu(itemIds, bits, changedAt.clone());
+        menus.compute(restaurantId, (id, previous) -> {
+            if (previous != null) {
+                synchronized (previous) {
+                    for (int i = 0; i < previous.itemIds.length; i++) {
+                        int index = loaded.indexOf(previous.itemIds[i]);
+                        if (index >= 0 && previous.changedAt[i] > loaded.changedAt[index]) {
+                            loaded.available.set(index, previous.available.get(i));
+                            loaded.changedAt[index] = previous.changedAt[i];
+                            loaded.pending.set(index, previous.pending.get(i));
+                        }
+                    }
+                }
+            }
+            return loaded;
+        });
+    }
+
+    public boolean isLoaded(long restaurantId) {
+        return menus.containsKey(restaurantId);
+    }
+
+    // Drops the restaurant, pending toggles included; it is loaded again on next use
+    public void remove(long restaurantId) {
+        menus.remove(restaurantId);
+    }
+
+    // A local toggle: stamped after the item's last change even if that came from a clock running ahead.
+    // Null if the restaurant is not loaded or has no such item
+    public Change toggle(long restaurantId, long itemId, boolean available, long now) {
+        Menu menu = menus.get(restaurantId);
+        if (menu == null) {
+            return null;
+        }
+        synchronized (menu) {
+            int index = menu.indexOf(itemId);
+            if (index < 0) {
+                return null;
+            }
+            long changedAt = Math.max(now, menu.changedAt[index] + 1);
+            menu.available.set(index, available);
+            menu.changedAt[index] = changedAt;
+            menu.pending.set(index);
+            return new Change(restaurantId, itemId, available, changedAt);
+        }
+    }
+
+    // A change made elsewhere; false if the restaurant is not loaded or has no such item
+    public boolean apply(Change change) {
+        Menu menu = menus.get(change.restaurantId());
+        if (menu == null) {
+            return false;
+        }
+        synchronized (menu) {
+            int index = menu.indexOf(change.itemId());
+            if (index < 0) {
+                return false;
+            }
+            if (change.changedAt() > menu.changedAt[index]) {
+                menu.available.set(index, change.available());
+                menu.changedAt[index] = change.changedAt();
+                // A newer change from elsewhere is written by whoever made it
+                menu.pending.clear(index);
+            }
+            return true;
+        }
+    }
+
+    // Null if the restaurant is not loaded or has no such item
+    public Boolean isAvailable(long restaurantId, long itemId) {
+        Menu menu = menus.get(restaurantId);
+        if (menu == null) {
+            return null;
+        }
+        synchronized (menu) {
+            int index = menu.indexOf(itemId);
+            return index < 0 ? null : menu.available.get(index);
+        }
+    }
+
+    // The latest value of every pending item, clearing the pending marks; toggles since the last drain coalesce
+    public List<Change> drainPending() {
+        List<Change> changes = new ArrayList<>();
+        menus.forEach((restaurantId, menu) -> {
+            synchronized (menu) {
+                for (int i = menu.pending.nextSetBit(0); i >= 0; i = menu.pending.nextSetBit(i + 1)) {
+                    changes.add(new Change(restaurantId, menu.itemIds[i], menu.available.get(i), menu.changedAt[i]));
+                }
+                menu.pending.clear();
+            }
+        });
+        return changes;
+    }
+
+    // After a failed write: pending again unless the item has changed since
+    public void restorePending(Change change) {
+        Menu menu = menus.get(change.restaurantId());
+        if (menu == null) {
+            return;
+        }
+        synchronized (menu) {
+            int index = menu.indexOf(change.itemId());
+            if (index >= 0 && menu.changedAt[index] == change.changedAt()) {
+                menu.pending.set(index);
+            }
+        }
+    }
+
+    public int restaurantCount() {
+        return menus.size();
+    }
+
+    public int pendingCount() {
+        int pending = 0;
+        for (Menu menu : menus.values()) {
+            synchronized (menu) {
+                pending += menu.pending.cardinality();
+            }
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.restaurantservice.cache;
+
+import com.example.common.cache.CompactBinaryRedisSerializer;
+import com.example.common.cache.TwoTierCache;
+import com.example.restaurantservice.dto.RestaurantSummaryResponse;
+import com.example.restaurantservice.dto.SerializerBenchmarkReport;
+import com.example.restaurantservice.dto.SerializerResult;
+import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.model.Restaurant;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic comparison of the cache serializers on what the restaurant caches actually hold: a restaurant
+ * with its menu (each item pointing back at the restaurant), a menu list and a page of restaurant summaries, each
+ * wrapped the way TwoTierCache stores it. Every payload is encoded and decoded a number of times after a warm-up;
+ * a round trip passes when the decoded value encodes to the same bytes again.
+ */
+public final class SerializerBenchmark {
+
+    private static final int WARM_UP_ITERATIONS = 200;
+
+    private static final String[] WORDS = {"Spice", "Garden", "Royal", "Tandoor", "Golden", "Curry", "Urban", "Bowl",
+            "Dragon", "Olive", "Bombay", "Street", "Kitchen", "House", "Fresh", "Smoky"};
+    private static final String[] CUISINES = {"North Indian", "South Indian", "Chinese", "Italian", "Mexican",
+            "Thai", "Japanese", "Continental", "Mughlai", "Street Food"};
+    private static final String[] DISHES = {"Paneer Tikka", "Butter Chicken", "Masala Dosa", "Veg Biryani",
+            "Margherita Pizza", "Pad Thai", "Hakka Noodles", "Dal Makhani", "Chicken Burrito", "Gulab Jamun"};
+    private static final String[] CATEGORIES = {"Starters", "Main Course", "Breads", "Rice", "Desserts", "Beverages"};
+
+    private SerializerBenchmark() {
+    }
+
+    public static SerializerBenchmarkReport run(int menuItemCount, int summaryCount, int iterations, long seed) {
+        Random random = new Random(seed);
+        Restaurant restaurant = restaurant(random, 1L);
+        for (int i = 0; i < menuItemCount; i++) {
+            restaurant.getMenuItems().add(menuItem(random, restaurant, i + 1L));
+        }
+        List<RestaurantSummaryResponse> summaries = new ArrayList<>(summaryCount);
+        for (int i = 0; i < summaryCount; i++) {
+            Restaurant listed = restaurant(random, i + 1L);
+            summaries.add(new RestaurantSummaryResponse(listed.getId(), listed.getName(), listed.getAddress(),
+                    listed.getCuisine(), listed.getImageUrl(), listed.getRating(), listed.getIsOpen(),
+                    listed.getDeliveryTime(), random.nextInt(10) == 0));
+        }
+        long expiresAt = System.currentTimeMillis() + 600_000;
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("restaurant", new TwoTierCache.Stamped(restaurant, expiresAt, 12));
+        payloads.put("menuItems", new TwoTierCache.Stamped(new ArrayList<>(restaurant.getMenuItems()), expiresAt, 8));
+        payloads.put("restaurantSummaries", new TwoTierCache.Stamped(summaries, expiresAt, 40));
+
+        Map<String, RedisSerializer<Object>> serializers = new LinkedHashMap<>();
+        serializers.put("jdk", RedisSerializer.java());
+        serializers.put("compact-binary", new CompactBinaryRedisSerializer());
+        List<SerializerResult> results = new ArrayList<>();
+        payloads.forEach((payload, value) -> serializers.forEach((name, serializer) ->
+                results.add(measure(name, serializer, payload, value, iterations))));
+        return new SerializerBenchmarkReport(seed, menuItemCount, summaryCount, iterations, results);
+    }
+
+    private static SerializerResult measure(String name, RedisSerializer<Object> serializer, String payload,
+                                            Object value, int iterations) {
+        byte[] bytes = serializer.serialize(value);
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            bytes = serializer.serialize(value);
+            long encoded = System.nanoTime();
+            serializer.deserialize(bytes);
+            decodeNanos += System.nanoTime() - encoded;
+            encodeNanos += encoded - start;
+        }
+        boolean roundTrip = Arrays.equals(bytes, serializer.serialize(serializer.deserialize(bytes)));
+        return new SerializerResult(name, payload, bytes.length, round(encodeNanos / 1e3 / iterations),
+                round(decodeNanos / 1e3 / iterations), roundTrip);
+    }
+
+    private static Restaurant restaurant(Random random, long id) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName(pick(random, WORDS) + " " + pick(random, WORDS) + " " + pick(random, WORDS));
+        restaurant.setAddress((1 + random.nextInt(300)) + ", " + pick(random, WORDS) + " Road, Sector "
+                + (1 + random.nextInt(60)) + ", Bengaluru 5600" + (10 + random.nextInt(90)));
+        restaurant.setLatitude(12.9 + random.nextDouble() * 0.2);
+        restaurant.setLongitude(77.5 + random.nextDouble() * 0.2);
+        restaurant.setPhone("+91 98" + (10_000_000 + random.nextInt(90_000_000)));
+        restaurant.setEmail("orders" + id + "@example.com");
+        restaurant.setCuisine(pick(random, CUISINES) + (random.nextBoolean() ? ", " + pick(random, CUISINES) : ""));
+        restaurant.setImageUrl("https://images.example.com/restaurants/" + id + "/cover.jpg");
+        restaurant.setRating(Math.round((3 + random.nextDouble() * 2) * 10) / 10.0);
+        restaurant.setIsOpen(random.nextInt(5) != 0);
+        restaurant.setOwnerId(String.valueOf(1000 + random.nextInt(9000)));
+        restaurant.setDeliveryTime((20 + 5 * random.nextInt(6)) + "-" + (35 + 5 * random.nextInt(6)) + " mins");
+        restaurant.setMenuVersion((long) random.nextInt(50));
+        restaurant.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(random.nextInt(500_000)));
+        restaurant.setUpdatedAt(restaurant.getCreatedAt().plusMinutes(random.nextInt(100_000)));
+        return restaurant;
+    }
+
+    private static MenuItem menuItem(Random random, Restaurant restaurant, long id) {
+        MenuItem item = new MenuItem();
+        item.setId(id);
+        item.setName(pick(random, WORDS) + " " + pick(random, DISHES));
+        item.setDescription("House-style " + item.getName().toLowerCase() + " made fresh to order, served with "
+                + pick(random, DISHES).toLowerCase() + " on the side.");
+        item.setPrice((double) (99 + 10 * random.nextInt(40)) + (random.nextInt(4) == 0 ? 0.5 : 0));
+        item.setCategory(pick(random, CATEGORIES));
+        item.setImageUrl("https://images.example.com/menu/" + id + ".jpg");
+        item.setIsAvailable(random.nextInt(10) != 0);
+        item.setIsVeg(random.nextBoolean());
+        item.setRestaurant(restaurant);
+        item.setCreatedAt(restaurant.getCreatedAt().plusMinutes(random.nextInt(10_000)));
+        item.setUpdatedAt(item.getCreatedAt().plusMinutes(random.nextInt(10_000)));
+        return item;
+    }
+
+    private static String pick(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
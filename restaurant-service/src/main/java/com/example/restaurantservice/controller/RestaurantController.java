@@ -1,15 +1,49 @@
 package com.example.restaurantservice.controller;
 
 import com.example.restaurantservice.dto.ApiResponse;
+import com.example.restaurantservice.dto.ListingBenchmarkReport;
+import com.example.restaurantservice.dto.MenuImportReport;
+import com.example.restaurantservice.dto.MenuItemName;
+import com.example.restaurantservice.dto.MenuItemAvailabilityResponse;
+import com.example.restaurantservice.dto.MenuPayload;
+import com.example.restaurantservice.dto.NearbyBenchmarkReport;
+import com.example.restaurantservice.dto.NearbyRestaurantPage;
+import com.example.restaurantservice.dto.OpeningHoursBenchmarkReport;
+import com.example.restaurantservice.dto.OpeningHoursResponse;
+import com.example.restaurantservice.dto.RestaurantAdminSummaryResponse;
+import com.example.restaurantservice.dto.RestaurantCoordinates;
+import com.example.restaurantservice.dto.RestaurantListingPage;
+import com.example.restaurantservice.dto.RestaurantRatingUpdate;
+import com.example.restaurantservice.dto.RestaurantSummaryResponse;
+import com.example.restaurantservice.dto.SearchBenchmarkReport;
+import com.example.restaurantservice.dto.SerializerBenchmarkReport;
+import com.example.restaurantservice.dto.SuggestBenchmarkReport;
+import com.example.restaurantservice.dto.SuggestionsResponse;
 import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.model.OpeningHours;
 import com.example.restaurantservice.model.Restaurant;
+import com.example.restaurantservice.service.MenuAvailabilityService;
+import com.example.restaurantservice.service.MenuImportService;
+import com.example.restaurantservice.service.MenuPayloadService;
+import com.example.restaurantservice.service.OpeningHoursService;
+import com.example.restaurantservice.service.RestaurantListingService;
+import com.example.restaurantservice.service.RestaurantLocationService;
+import com.example.restaurantservice.service.RestaurantRatingService;
+import com.example.restaurantservice.service.RestaurantSearchService;
 import com.example.restaurantservice.service.RestaurantService;
+import com.example.restaurantservice.service.RestaurantSuggestService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/restaurants")
@@ -19,6 +53,36 @@ public class RestaurantController {
     @Autowired   
     private RestaurantService restaurantService;
 
+    @Autowired
+    private RestaurantSearchService restaurantSearchService;
+
+    @Autowired
+    private RestaurantLocationService restaurantLocationService;
+
+    @Autowired
+    private RestaurantListingService restaurantListingService;
+
+    @Autowired
+    private RestaurantSuggestService restaurantSuggestService;
+
+    @Autowired
+    private MenuPayloadService menuPayloadService;
+
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private MenuAvailabilityService menuAvailabilityService;
+
+    @Autowired
+    private OpeningHoursService openingHoursService;
+
+    @Autowired
+    private RestaurantRatingService restaurantRatingService;
+
+    @Value("${menu.payload.max-age-seconds:60}")
+    private long menuMaxAgeSeconds;
+
     @PostMapping
     public ResponseEntity<ApiResponse<Restaurant>> createRestaurant(
             @Valid @RequestBody Restaurant restaurant,
@@ -29,6 +93,7 @@ public class RestaurantController {
         if (userId != null) {
             restaurant.setOwnerId(userId);
         }
+        restaurant.setRating(0.0); // Set from order reviews only
         
         Restaurant created = restaurantService.createRestaurant(restaurant);
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -36,29 +101,68 @@ public class RestaurantController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Restaurant>>> getAllRestaurants(
+    public ResponseEntity<ApiResponse<List<RestaurantSummaryResponse>>> getAllRestaurants(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) Boolean isOpen) {
-        List<Restaurant> restaurants;
+        List<RestaurantSummaryResponse> restaurants;
         if (query != null && !query.trim().isEmpty()) {
             restaurants = restaurantService.searchRestaurants(query);
         } else {
             restaurants = restaurantService.getAllRestaurants();
         }
+        restaurants = restaurantListingService.withCurrentRatings(openingHoursService.withOpenState(restaurants));
+        if (isOpen != null) {
+            restaurants = restaurants.stream().filter(r -> isOpen.equals(r.getIsOpen())).toList();
+        }
         return ResponseEntity.ok(ApiResponse.success(restaurants));
     }
     
+    // Filters combine with AND (several cuisines match any of them); results are ordered by rating
+    @GetMapping("/listing")
+    public ResponseEntity<ApiResponse<RestaurantListingPage>> getRestaurantListing(
+            @RequestParam(required = false) List<String> cuisine,
+            @RequestParam(required = false) Boolean isOpen,
+            @RequestParam(defaultValue = "false") boolean vegOnly,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Integer maxDeliveryMinutes,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        return ResponseEntity.ok(ApiResponse.success(restaurantListingService.listing(
+                cuisine, isOpen, vegOnly, minRating, maxDeliveryMinutes, page, size)));
+    }
+
+    // Typeahead: best restaurants, cuisines and dishes starting with the prefix (or with a later word of them)
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<SuggestionsResponse>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "5") int limit) {
+        
+        return ResponseEntity.ok(ApiResponse.success(restaurantSuggestService.suggest(prefix, limit)));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<ApiResponse<NearbyRestaurantPage>> getNearbyRestaurants(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radius,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        return ResponseEntity.ok(ApiResponse.success(restaurantLocationService.nearby(lat, lng, radius, page, size)));
+    }
+    
     @GetMapping("/all")
-    public ResponseEntity<ApiResponse<List<Restaurant>>> getAllRestaurantsAdmin(
+    public ResponseEntity<ApiResponse<List<RestaurantAdminSummaryResponse>>> getAllRestaurantsAdmin(
             @RequestHeader(value = "X-User-Role", required = false) String userRole) {
         // Admin endpoint - gateway already checked role
-        List<Restaurant> restaurants = restaurantService.getAllRestaurants();
+        List<RestaurantAdminSummaryResponse> restaurants = restaurantService.getAllRestaurantsForAdmin();
         return ResponseEntity.ok(ApiResponse.success(restaurants));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<Restaurant>> getRestaurantById(@PathVariable Long id) {
-        Restaurant restaurant = restaurantService.getRestaurantById(id);
+        Restaurant restaurant = menuAvailabilityService.overlay(restaurantService.getRestaurantById(id));
         return ResponseEntity.ok(ApiResponse.success(restaurant));
     }
     
@@ -70,7 +174,7 @@ public class RestaurantController {
             @RequestHeader(value = "X-User-Role", required = false) String userRole) {
         
         // Check ownership (unless admin)
-        Restaurant existing = restaurantService.getRestaurantById(id);
+        Restaurant existing = restaurantService.getRestaurantForWrite(id);
         if (!"ADMIN".equals(userRole) && !existing.getOwnerId().equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("You can only update your own restaurants"));
@@ -78,6 +182,7 @@ public class RestaurantController {
         
         restaurant.setId(id);
         restaurant.setOwnerId(existing.getOwnerId()); // Preserve original owner
+        restaurant.setRating(existing.getRating()); // Set from order reviews only
         Restaurant updated = restaurantService.updateRestaurant(restaurant);
         return ResponseEntity.ok(ApiResponse.success("Restaurant updated successfully", updated));
     }
@@ -89,7 +194,7 @@ public class RestaurantController {
             @RequestHeader(value = "X-User-Role", required = false) String userRole) {
         
         // Check ownership (unless admin)
-        Restaurant existing = restaurantService.getRestaurantById(id);
+        Restaurant existing = restaurantService.getRestaurantForWrite(id);
         if (!"ADMIN".equals(userRole) && !existing.getOwnerId().equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("You can only delete your own restaurants"));
@@ -99,10 +204,31 @@ public class RestaurantController {
         return ResponseEntity.ok(ApiResponse.success("Restaurant deleted successfully", null));
     }
 
+    // Served from pre-encoded bytes with current availability patched in; the weak ETag changes with both
     @GetMapping("/{id}/menu")
-    public ResponseEntity<ApiResponse<List<MenuItem>>> getRestaurantMenu(@PathVariable Long id) {
-        List<MenuItem> menuItems = restaurantService.getMenuItems(id);
-        return ResponseEntity.ok(ApiResponse.success(menuItems));
+    public ResponseEntity<byte[]> getRestaurantMenu(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        MenuPayload payload = menuAvailabilityService.overlay(id, menuPayloadService.getMenuPayload(id));
+        String etag = "W/\"" + payload.getEtag() + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(menuMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+        if (ifNoneMatch != null && matchesEtag(ifNoneMatch, payload.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (payload.getGzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return response.body(payload.getJson());
     }
 
     @PostMapping("/{id}/menu-items")
@@ -113,7 +239,7 @@ public class RestaurantController {
             @RequestHeader(value = "X-User-Role", required = false) String userRole) {
         
         // Check ownership (unless admin)
-        Restaurant existing = restaurantService.getRestaurantById(id);
+        Restaurant existing = restaurantService.getRestaurantForWrite(id);
         if (!"ADMIN".equals(userRole) && !existing.getOwnerId().equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("You can only add menu items to your own restaurants"));
@@ -124,6 +250,193 @@ public class RestaurantController {
                 .body(ApiResponse.success("Menu item added successfully", created));
     }
 
+    @GetMapping("/{id}/hours")
+    public ResponseEntity<ApiResponse<OpeningHoursResponse>> getOpeningHours(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(openingHoursService.getHours(id)));
+    }
+
+    // Weekly hours plus dated exceptions (holidays) in the restaurant's time zone; replaces any previous hours
+    @PutMapping("/{id}/hours")
+    public ResponseEntity<ApiResponse<OpeningHoursResponse>> setOpeningHours(
+            @PathVariable Long id,
+            @Valid @RequestBody OpeningHours hours,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        
+        // Check ownership (unless admin)
+        Restaurant existing = restaurantService.getRestaurantForWrite(id);
+        if (!"ADMIN".equals(userRole) && !existing.getOwnerId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("You can only set opening hours of your own restaurants"));
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success("Opening hours updated successfully",
+                openingHoursService.setHours(id, hours)));
+    }
+
+    // Without hours the restaurant's isOpen switch alone decides again
+    @DeleteMapping("/{id}/hours")
+    public ResponseEntity<ApiResponse<Void>> deleteOpeningHours(
+            @PathVariable Long id,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        
+        // Check ownership (unless admin)
+        Restaurant existing = restaurantService.getRestaurantForWrite(id);
+        if (!"ADMIN".equals(userRole) && !existing.getOwnerId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("You can only remove opening hours of your own restaurants"));
+        }
+        
+        openingHoursService.deleteHours(id);
+        return ResponseEntity.ok(ApiResponse.success("Opening hours removed successfully", null));
+    }
+
+    // Internal: a restaurant's stored coordinates, for order-service's partner matching; not routed by the gateway
+    @GetMapping("/internal/{id}/location")
+    public ResponseEntity<ApiResponse<RestaurantCoordinates>> getCoordinates(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(restaurantService.getCoordinates(id)));
+    }
+
+    // Internal: current names of menu items by id, for order-service's popular dishes; not routed by the gateway
+    @GetMapping("/internal/menu-items/names")
+    public ResponseEntity<ApiResponse<List<MenuItemName>>> getMenuItemNames(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(ApiResponse.success(restaurantService.getMenuItemNames(ids)));
+    }
+
+    // Internal: ratings computed by order-service from order reviews; not routed by the gateway
+    @PutMapping("/internal/ratings")
+    public ResponseEntity<ApiResponse<Integer>> applyRatings(@RequestBody List<RestaurantRatingUpdate> updates) {
+        int applied = restaurantRatingService.applyRatings(updates);
+        return ResponseEntity.ok(ApiResponse.success("Updated " + applied + " rating(s)", applied));
+    }
+
+    // Sold out / back on: kept in memory and written behind, so the cached menu is not evicted
+    @PutMapping("/{id}/menu-items/{itemId}/availability")
+    public ResponseEntity<ApiResponse<MenuItemAvailabilityResponse>> setMenuItemAvailability(
+            @PathVariable Long id,
+            @PathVariable Long itemId,
+            @RequestParam boolean available,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        
+        // Check ownership (unless admin)
+        Restaurant existing = restaurantService.getRestaurantForWrite(id);
+        if (!"ADMIN".equals(userRole) && !existing.getOwnerId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("You can only change menu items of your own restaurants"));
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success(menuAvailabilityService.setAvailability(id, itemId, available)));
+    }
+
+    // Streams a CSV (header row first) or JSON-lines body; per-row failures are reported, valid rows are kept
+    @PostMapping(value = "/{id}/menu-items/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    public ResponseEntity<ApiResponse<MenuImportReport>> importMenuItems(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-User-Role", required = false) String userRole) {
+        
+        // Check ownership (unless admin)
+        Restaurant existing = restaurantService.getRestaurantForWrite(id);
+        if (!"ADMIN".equals(userRole) && !existing.getOwnerId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("You can only import menu items to your own restaurants"));
+        }
+        
+        String format = contentType.startsWith("text/csv") ? MenuImportService.CSV : MenuImportService.JSON_LINES;
+        MenuImportReport report = menuImportService.importMenu(id, format, body);
+        return ResponseEntity.ok(ApiResponse.success("Imported " + report.getImported() + " of "
+                + report.getRowsRead() + " menu items", report));
+    }
+
+    // Admin: Search index vs the JPQL substring scan on a synthetic catalogue (and on live data with live=true)
+    @GetMapping("/search/benchmark")
+    public ResponseEntity<ApiResponse<SearchBenchmarkReport>> searchBenchmark(
+            @RequestParam(defaultValue = "100000") int menuItems,
+            @RequestParam(defaultValue = "500") int queries,
+            @RequestParam(defaultValue = "42") long seed,
+            @RequestParam(defaultValue = "false") boolean live) {
+        
+        return ResponseEntity.ok(ApiResponse.success(restaurantSearchService.benchmark(menuItems, queries, seed, live)));
+    }
+
+    // Admin: Facet bitmaps vs filtering and sorting the full list in memory, on a synthetic catalogue
+    @GetMapping("/listing/benchmark")
+    public ResponseEntity<ApiResponse<ListingBenchmarkReport>> listingBenchmark(
+            @RequestParam(defaultValue = "200000") int restaurants,
+            @RequestParam(defaultValue = "1000") int queries,
+            @RequestParam(defaultValue = "20") int pageSize,
+            @RequestParam(defaultValue = "42") long seed) {
+        
+        return ResponseEntity.ok(ApiResponse.success(restaurantListingService.benchmark(restaurants, queries, pageSize, seed)));
+    }
+
+    // Admin: Prefix trie vs scanning every suggestion, on the same synthetic catalogue as the search benchmark
+    @GetMapping("/suggest/benchmark")
+    public ResponseEntity<ApiResponse<SuggestBenchmarkReport>> suggestBenchmark(
+            @RequestParam(defaultValue = "100000") int menuItems,
+            @RequestParam(defaultValue = "5000") int queries,
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(defaultValue = "42") long seed) {
+        
+        return ResponseEntity.ok(ApiResponse.success(restaurantSuggestService.benchmark(menuItems, queries, limit, seed)));
+    }
+
+    // Admin: Grid index vs a full haversine scan on a synthetic multi-city catalogue
+    @GetMapping("/nearby/benchmark")
+    public ResponseEntity<ApiResponse<NearbyBenchmarkReport>> nearbyBenchmark(
+            @RequestParam(defaultValue = "200000") int restaurants,
+            @RequestParam(defaultValue = "1000") int queries,
+            @RequestParam(defaultValue = "5") double radius,
+            @RequestParam(defaultValue = "20") int pageSize,
+            @RequestParam(defaultValue = "42") long seed) {
+        
+        return ResponseEntity.ok(ApiResponse.success(restaurantLocationService.benchmark(restaurants, queries, radius, pageSize, seed)));
+    }
+
+    // Admin: Compact binary vs JDK serialization of realistic cache values (size, encode and decode time)
+    @GetMapping("/cache/benchmark")
+    public ResponseEntity<ApiResponse<SerializerBenchmarkReport>> cacheSerializerBenchmark(
+            @RequestParam(defaultValue = "40") int menuItems,
+            @RequestParam(defaultValue = "500") int summaries,
+            @RequestParam(defaultValue = "2000") int iterations,
+            @RequestParam(defaultValue = "42") long seed) {
+        
+        return ResponseEntity.ok(ApiResponse.success(restaurantService.cacheSerializerBenchmark(menuItems, summaries, iterations, seed)));
+    }
+
+    // Admin: Transition-bucket tracker vs evaluating every schedule per request, over a simulated period of ticks
+    @GetMapping("/hours/benchmark")
+    public ResponseEntity<ApiResponse<OpeningHoursBenchmarkReport>> openingHoursBenchmark(
+            @RequestParam(defaultValue = "50000") int restaurants,
+            @RequestParam(defaultValue = "72") int hours,
+            @RequestParam(defaultValue = "15") int tickSeconds,
+            @RequestParam(defaultValue = "200") int requests,
+            @RequestParam(defaultValue = "42") long seed) {
+        
+        return ResponseEntity.ok(ApiResponse.success(openingHoursService.benchmark(restaurants, hours, tickSeconds, requests, seed)));
+    }
+
+    // If-None-Match may list several tags, weak or strong, or be "*"
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("\"" + etag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @GetMapping("/health")
     public ResponseEntity<ApiResponse<String>> health() 
     {
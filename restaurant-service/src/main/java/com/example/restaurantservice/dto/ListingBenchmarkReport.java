@@ -0,0 +1,19 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingBenchmarkReport {
+    private long seed;
+    private int restaurants;
+    private int queries;
+    private int pageSize;
+    private double indexBuildMillis;
+    private List<ListingStrategyResult> results;
+}
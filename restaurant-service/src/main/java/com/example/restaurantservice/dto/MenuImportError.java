@@ -0,0 +1,13 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuImportError {
+    private long row;
+    private String message;
+}
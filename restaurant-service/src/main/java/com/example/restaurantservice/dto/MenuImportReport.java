@@ -0,0 +1,24 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk menu import. Rows are numbered from 1, excluding the CSV header; only the first
+ * menu.import.max-reported-errors failures are listed, failed counts them all.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuImportReport {
+    private Long restaurantId;
+    private String format;
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+    private List<MenuImportError> errors;
+}
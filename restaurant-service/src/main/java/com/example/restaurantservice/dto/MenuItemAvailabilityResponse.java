@@ -0,0 +1,14 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemAvailabilityResponse {
+    private Long restaurantId;
+    private Long menuItemId;
+    private Boolean isAvailable;
+}
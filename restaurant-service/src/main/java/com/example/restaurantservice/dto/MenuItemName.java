@@ -0,0 +1,15 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A menu item's current name and restaurant; used by order-service to label popular dishes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemName {
+    private Long id;
+    private Long restaurantId;
+    private String name;
+}
@@ -0,0 +1,23 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * A restaurant's menu response already encoded as JSON, plus a gzipped copy when it is large enough to be worth it
+ * (null otherwise). The ETag is derived from the restaurant's menu version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuPayload implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long version;
+    private String etag;
+    private byte[] json;
+    private byte[] gzip;
+}
@@ -0,0 +1,20 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyBenchmarkReport {
+    private long seed;
+    private int restaurants;
+    private int queries;
+    private double radiusKm;
+    private int pageSize;
+    private double indexBuildMillis;
+    private List<NearbyStrategyResult> results;
+}
@@ -0,0 +1,17 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyRestaurantPage {
+    private int page;
+    private int size;
+    private int totalResults;
+    private List<NearbyRestaurantResponse> restaurants;
+}
@@ -0,0 +1,22 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyRestaurantResponse {
+    private Long id;
+    private String name;
+    private String address;
+    private String cuisine;
+    private String imageUrl;
+    private Double rating;
+    private Boolean isOpen;
+    private String deliveryTime;
+    private Double latitude;
+    private Double longitude;
+    private double distanceKm;
+}
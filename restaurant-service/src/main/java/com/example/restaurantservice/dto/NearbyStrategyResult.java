@@ -0,0 +1,16 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyStrategyResult {
+    private String strategy;
+    private double averageMillis;
+    private double p95Millis;
+    private double averageMatches;
+    private double firstPageAgreement;
+}
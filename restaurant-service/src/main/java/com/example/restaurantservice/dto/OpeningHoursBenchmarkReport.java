@@ -0,0 +1,23 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpeningHoursBenchmarkReport {
+    private long seed;
+    private int restaurants;
+    private int simulatedHours;
+    private int tickSeconds;
+    private int requests;
+    private double trackerBuildMillis;
+    private long transitions;
+    private double evaluationsPerTick;
+    private double averageTickMillis;
+    private List<OpeningHoursStrategyResult> results;
+}
@@ -0,0 +1,26 @@
+package com.example.restaurantservice.dto;
+
+import com.example.restaurantservice.model.HoursException;
+import com.example.restaurantservice.model.WeeklyHours;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A restaurant's opening hours with its current state: isOpen combines the owner's open switch with the hours,
+ * nextChangeAt is when the hours next open or close it (if not within a week, when they are looked at again).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpeningHoursResponse {
+    private Long restaurantId;
+    private String timeZone;
+    private List<WeeklyHours> weekly;
+    private List<HoursException> exceptions;
+    private Boolean isOpen;
+    private Instant nextChangeAt;
+}
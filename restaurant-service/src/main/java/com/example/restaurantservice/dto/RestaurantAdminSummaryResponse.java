@@ -0,0 +1,29 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A restaurant row in the admin listing: owner and contact details, no menu.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantAdminSummaryResponse implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String name;
+    private String address;
+    private String cuisine;
+    private Double rating;
+    private Boolean isOpen;
+    private String ownerId;
+    private String email;
+    private String phone;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A restaurant's stored location; used by order-service to find delivery partners near it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantCoordinates {
+    private Long id;
+    private Double latitude;
+    private Double longitude;
+}
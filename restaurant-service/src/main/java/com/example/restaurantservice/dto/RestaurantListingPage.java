@@ -0,0 +1,20 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantListingPage {
+    private int page;
+    private int size;
+    private int totalResults;
+    private List<RestaurantSummaryResponse> restaurants;
+    // facet name -> value -> number of results if that value were selected instead
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,14 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A restaurant's new rating as computed by order-service from its order reviews
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantRatingUpdate {
+    private Long restaurantId;
+    private Double rating;
+}
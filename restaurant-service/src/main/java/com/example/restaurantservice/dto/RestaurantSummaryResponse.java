@@ -0,0 +1,33 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * A restaurant as shown in browse, search and listing results: no menu, no owner or contact details.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantSummaryResponse implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String name;
+    private String address;
+    private String cuisine;
+    private String imageUrl;
+    private Double rating;
+    private Boolean isOpen;
+    private String deliveryTime;
+    private boolean vegOnly;
+
+    // JPQL projection; vegOnly comes from the listing index
+    public RestaurantSummaryResponse(Long id, String name, String address, String cuisine, String imageUrl,
+                                     Double rating, Boolean isOpen, String deliveryTime) {
+        this(id, name, address, cuisine, imageUrl, rating, isOpen, deliveryTime, false);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchBenchmarkReport {
+    private long seed;
+    private int restaurants;
+    private int menuItems;
+    private int queries;
+    private int typoQueries;
+    private int vocabularySize;
+    private double indexBuildMillis;
+    private List<SearchStrategyResult> results;
+}
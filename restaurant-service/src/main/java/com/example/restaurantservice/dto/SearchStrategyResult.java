@@ -0,0 +1,17 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchStrategyResult {
+    private String strategy;
+    private double averageMillis;
+    private double p95Millis;
+    private double averageResults;
+    private double recall;
+    private double typoRecall;
+}
@@ -0,0 +1,18 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerializerBenchmarkReport {
+    private long seed;
+    private int menuItems;
+    private int summaries;
+    private int iterations;
+    private List<SerializerResult> results;
+}
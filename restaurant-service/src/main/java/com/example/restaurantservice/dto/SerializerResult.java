@@ -0,0 +1,17 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerializerResult {
+    private String serializer;
+    private String payload;
+    private int bytes;
+    private double encodeMicros;
+    private double decodeMicros;
+    private boolean roundTrip;
+}
@@ -0,0 +1,21 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestBenchmarkReport {
+    private long seed;
+    private int restaurants;
+    private int menuItems;
+    private int suggestions;
+    private int trieNodes;
+    private int queries;
+    private double indexBuildMillis;
+    private List<SuggestStrategyResult> results;
+}
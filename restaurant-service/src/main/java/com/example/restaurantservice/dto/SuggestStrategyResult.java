@@ -0,0 +1,16 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestStrategyResult {
+    private String strategy;
+    private double averageMillis;
+    private double p99Millis;
+    private double averageSuggestions;
+    private double agreement;
+}
@@ -0,0 +1,17 @@
+package com.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionsResponse {
+    private String prefix;
+    private List<SuggestionResponse> restaurants;
+    private List<SuggestionResponse> cuisines;
+    private List<SuggestionResponse> dishes;
+}
@@ -0,0 +1,210 @@
+package com.example.restaurantservice.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact point set bucketed into a uniform lat/lon grid. Points live in parallel primitive arrays indexed by
+ * an int slot; each cell holds an int array of slots. Moving a point is O(1) (swap-remove from the old cell,
+ * append to the new one), and a radius query only scans the cells overlapping the search box.
+ * Not thread-safe: owners guard it with their own lock.
+ */
+public class GeoGrid {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    private static final long NO_CELL = Long.MIN_VALUE;
+
+    @FunctionalInterface
+    public interface SlotVisitor {
+        void visit(int slot, double distanceKm);
+    }
+
+    private static final class Cell {
+        int[] slots = new int[4];
+        int size;
+    }
+
+    private final double cellSizeKm;
+    private final double cellDegrees;
+    private final Map<Long, Cell> cells = new HashMap<>();
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private long[] cellKeys;
+    private int[] positionInCell;
+    private int[] freeSlots;
+    private int freeCount;
+    private int highWater;
+    private int size;
+
+    public GeoGrid(double cellSizeKm, int initialCapacity) {
+        this.cellSizeKm = cellSizeKm;
+        this.cellDegrees = cellSizeKm / KM_PER_DEGREE_LAT;
+        int capacity = Math.max(16, initialCapacity);
+        latitudes = new double[capacity];
+        longitudes = new double[capacity];
+        cellKeys = new long[capacity];
+        positionInCell = new int[capacity];
+        freeSlots = new int[16];
+        Arrays.fill(cellKeys, NO_CELL);
+    }
+
+    public int allocate() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == latitudes.length) {
+                grow();
+            }
+            slot = highWater++;
+        }
+        size++;
+        return slot;
+    }
+
+    public void release(int slot) {
+        removeFromCell(slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        size--;
+    }
+
+    public void move(int slot, double latitude, double longitude) {
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        long key = cellKey(latitude, longitude);
+        if (key == cellKeys[slot]) {
+            return; // Most pings stay inside the same cell
+        }
+        removeFromCell(slot);
+        Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+        if (cell.size == cell.slots.length) {
+            cell.slots = Arrays.copyOf(cell.slots, cell.size * 2);
+        }
+        cell.slots[cell.size] = slot;
+        positionInCell[slot] = cell.size++;
+        cellKeys[slot] = key;
+    }
+
+    public double latitude(int slot) {
+        return latitudes[slot];
+    }
+
+    public double longitude(int slot) {
+        return longitudes[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return latitudes.length;
+    }
+
+    // Visits every placed slot within radiusKm of the point, in no particular order. Distances use the
+    // equirectangular approximation (no trig per point), which is well within GPS error at city-scale radii.
+    public void forEachWithin(double latitude, double longitude, double radiusKm, SlotVisitor visitor) {
+        double latSpan = radiusKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        double radiusSquared = radiusKm * radiusKm;
+        double lonSpan = radiusKm / (KM_PER_DEGREE_LAT * cosLat);
+        int minRow = row(latitude - latSpan);
+        int maxRow = row(latitude + latSpan);
+        int minCol = column(longitude - lonSpan);
+        int maxCol = column(longitude + lonSpan);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                Cell cell = cells.get(key(r, c));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size; i++) {
+                    int slot = cell.slots[i];
+                    double dy = (latitudes[slot] - latitude) * KM_PER_DEGREE_LAT;
+                    double dx = (longitudes[slot] - longitude) * KM_PER_DEGREE_LAT * cosLat;
+                    double distanceSquared = dx * dx + dy * dy;
+                    if (distanceSquared <= radiusSquared) {
+                        visitor.visit(slot, Math.sqrt(distanceSquared));
+                    }
+                }
+            }
+        }
+    }
+
+    // Visits up to k closest slots within maxRadiusKm, closest first. Searches a small radius and doubles it
+    // until k points are found, so dense areas never scan the full maxRadiusKm box.
+    public void nearest(double latitude, double longitude, double maxRadiusKm, int k, SlotVisitor visitor) {
+        double radius = Math.min(maxRadiusKm, cellSizeKm);
+        while (true) {
+            List<double[]> found = new ArrayList<>();
+            forEachWithin(latitude, longitude, radius, (slot, distance) -> found.add(new double[] {distance, slot}));
+            if (found.size() >= k || radius >= maxRadiusKm) {
+                found.sort(Comparator.<double[]>comparingDouble(hit -> hit[0]).thenComparingDouble(hit -> hit[1]));
+                for (int i = 0; i < Math.min(k, found.size()); i++) {
+                    visitor.visit((int) found.get(i)[1], found.get(i)[0]);
+                }
+                return;
+            }
+            radius = Math.min(maxRadiusKm, radius * 2);
+        }
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void removeFromCell(int slot) {
+        long key = cellKeys[slot];
+        if (key == NO_CELL) {
+            return;
+        }
+        Cell cell = cells.get(key);
+        int position = positionInCell[slot];
+        int last = cell.slots[--cell.size];
+        cell.slots[position] = last;
+        positionInCell[last] = position;
+        if (cell.size == 0) {
+            cells.remove(key);
+        }
+        cellKeys[slot] = NO_CELL;
+    }
+
+    private void grow() {
+        int capacity = latitudes.length * 2;
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        positionInCell = Arrays.copyOf(positionInCell, capacity);
+        int oldLength = cellKeys.length;
+        cellKeys = Arrays.copyOf(cellKeys, capacity);
+        Arrays.fill(cellKeys, oldLength, capacity, NO_CELL);
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return key(row(latitude), column(longitude));
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.restaurantservice.geo;
+
+import com.example.restaurantservice.dto.NearbyBenchmarkReport;
+import com.example.restaurantservice.dto.NearbyStrategyResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Deterministic benchmark of nearby lookups. A seeded synthetic country (a few metros of different sizes,
+ * restaurants clustered around their centres, about 80% open) is queried at random points inside the metros.
+ * The index is compared with a full scan using exact haversine distances, which is the least work a client
+ * filtering the complete GET /restaurants list would do. The scan's first page is the reference for agreement.
+ */
+public final class NearbyBenchmark {
+
+    private static final double[][] METROS = {
+            {19.0760, 72.8777, 30, 0.24}, {28.6139, 77.2090, 35, 0.22}, {12.9716, 77.5946, 25, 0.18},
+            {17.3850, 78.4867, 22, 0.12}, {13.0827, 80.2707, 22, 0.10}, {18.5204, 73.8567, 18, 0.08},
+            {22.5726, 88.3639, 20, 0.06}}; // latitude, longitude, radius km, share of restaurants
+    private static final int WARM_UP_QUERIES = 50;
+
+    private NearbyBenchmark() {
+    }
+
+    public static NearbyBenchmarkReport run(double cellSizeKm, int restaurantCount, int queryCount, double radiusKm,
+                                            int pageSize, long seed) {
+        Random random = new Random(seed);
+        double[] latitudes = new double[restaurantCount];
+        double[] longitudes = new double[restaurantCount];
+        boolean[] open = new boolean[restaurantCount];
+        for (int i = 0; i < restaurantCount; i++) {
+            double[] metro = metro(random);
+            double[] point = offset(metro[0], metro[1], random.nextDouble() * 360,
+                    Math.min(metro[2], Math.abs(random.nextGaussian()) * metro[2] / 2));
+            latitudes[i] = point[0];
+            longitudes[i] = point[1];
+            open[i] = random.nextDouble() < 0.8;
+        }
+
+        long buildStart = System.nanoTime();
+        RestaurantLocationIndex index = new RestaurantLocationIndex(cellSizeKm, restaurantCount);
+        for (int i = 0; i < restaurantCount; i++) {
+            index.put(i, latitudes[i], longitudes[i], open[i]);
+        }
+        double buildMillis = (System.nanoTime() - buildStart) / 1e6;
+
+        double[][] queries = new double[queryCount][];
+        for (int q = 0; q < queryCount; q++) {
+            double[] metro = metro(random);
+            queries[q] = offset(metro[0], metro[1], random.nextDouble() * 360, Math.sqrt(random.nextDouble()) * metro[2]);
+        }
+
+        List<List<Long>> reference = new ArrayList<>();
+        NearbyStrategyResult scan = measure("full-scan", queries, null, query -> {
+            List<double[]> inRange = new ArrayList<>();
+            for (int i = 0; i < restaurantCount; i++) {
+                if (open[i]) {
+                    double distance = GeoGrid.distanceKm(query[0], query[1], latitudes[i], longitudes[i]);
+                    if (distance <= radiusKm) {
+                        inRange.add(new double[] {distance, i});
+                    }
+                }
+            }
+            inRange.sort((a, b) -> a[0] != b[0] ? Double.compare(a[0], b[0]) : Double.compare(a[1], b[1]));
+            List<Long> page = new ArrayList<>(pageSize);
+            for (int i = 0; i < Math.min(pageSize, inRange.size()); i++) {
+                page.add((long) inRange.get(i)[1]);
+            }
+            return new Object[] {inRange.size(), page};
+        }, reference);
+        NearbyStrategyResult grid = measure("grid-index", queries, reference, query -> {
+            RestaurantLocationIndex.Page page = index.nearby(query[0], query[1], radiusKm, true, 0, pageSize);
+            return new Object[] {page.totalMatches(), page.matches().stream().map(RestaurantLocationIndex.Match::restaurantId).toList()};
+        }, null);
+        return new NearbyBenchmarkReport(seed, restaurantCount, queryCount, radiusKm, pageSize, round(buildMillis),
+                List.of(scan, grid));
+    }
+
+    // Each query returns {total matches, first page ids}; pages are recorded when record != null
+    @SuppressWarnings("unchecked")
+    private static NearbyStrategyResult measure(String name, double[][] queries, List<List<Long>> reference,
+                                                Function<double[], Object[]> query, List<List<Long>> record) {
+        for (int q = 0; q < Math.min(queries.length, WARM_UP_QUERIES); q++) {
+            query.apply(queries[q]);
+        }
+        double[] millis = new double[queries.length];
+        long totalMatches = 0;
+        int agreeing = 0;
+        for (int q = 0; q < queries.length; q++) {
+            long start = System.nanoTime();
+            Object[] result = query.apply(queries[q]);
+            millis[q] = (System.nanoTime() - start) / 1e6;
+            totalMatches += (Integer) result[0];
+            List<Long> page = (List<Long>) result[1];
+            if (record != null) {
+                record.add(page);
+            }
+            if (reference == null || new HashSet<>(reference.get(q)).equals(new HashSet<>(page))) {
+                agreeing++;
+            }
+        }
+        double[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return new NearbyStrategyResult(name, round(Arrays.stream(millis).average().orElse(0)),
+                round(sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95) - 1)]),
+                round((double) totalMatches / queries.length), round((double) agreeing / queries.length));
+    }
+
+    private static double[] metro(Random random) {
+        double pick = random.nextDouble();
+        for (double[] metro : METROS) {
+            pick -= metro[3];
+            if (pick <= 0) {
+                return metro;
+            }
+        }
+        return METROS[METROS.length - 1];
+    }
+
+    private static double[] offset(double latitude, double longitude, double bearingDegrees, double distanceKm) {
+        double bearing = Math.toRadians(bearingDegrees);
+        double dLat = distanceKm * Math.cos(bearing) / 111.32;
+        double dLon = distanceKm * Math.sin(bearing) / (111.32 * Math.cos(Math.toRadians(latitude)));
+        return new double[] {latitude + dLat, longitude + dLon};
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.restaurantservice.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Restaurant coordinates and open flags on a GeoGrid. A nearby query scans only the grid cells overlapping the
+ * radius and keeps the closest offset + limit matches in a bounded heap, so a page costs O(matches * log page)
+ * rather than a full sort of everything in range.
+ */
+public class RestaurantLocationIndex {
+
+    public record Match(long restaurantId, double latitude, double longitude, double distanceKm) {
+    }
+
+    public record Page(int totalMatches, List<Match> matches) {
+    }
+
+    private final GeoGrid grid;
+    private final Map<Long, Integer> slotByRestaurant = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] restaurantBySlot;
+    private boolean[] openBySlot;
+
+    public RestaurantLocationIndex(double cellSizeKm, int initialCapacity) {
+        this.grid = new GeoGrid(cellSizeKm, initialCapacity);
+        this.restaurantBySlot = new long[grid.capacity()];
+        this.openBySlot = new boolean[grid.capacity()];
+    }
+
+    public void put(long restaurantId, double latitude, double longitude, boolean open) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRestaurant.get(restaurantId);
+            if (slot == null) {
+                slot = grid.allocate();
+                ensureCapacity();
+                slotByRestaurant.put(restaurantId, slot);
+                restaurantBySlot[slot] = restaurantId;
+            }
+            grid.move(slot, latitude, longitude);
+            openBySlot[slot] = open;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setOpen(long restaurantId, boolean open) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRestaurant.get(restaurantId);
+            if (slot != null) {
+                openBySlot[slot] = open;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRestaurant.remove(restaurantId);
+            if (slot == null) {
+                return false;
+            }
+            grid.release(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Matches within radiusKm ordered by distance (then id), skipping offset and returning at most limit
+    public Page nearby(double latitude, double longitude, double radiusKm, boolean openOnly, int offset, int limit) {
+        int keep = offset + limit;
+        // Max-heap on distance: the root is the worst of the current best `keep`
+        PriorityQueue<Match> best = new PriorityQueue<>(Math.max(1, Math.min(keep, 1024)),
+                (a, b) -> a.distanceKm() != b.distanceKm() ? Double.compare(b.distanceKm(), a.distanceKm())
+                        : Long.compare(b.restaurantId(), a.restaurantId()));
+        int[] total = {0};
+        lock.readLock().lock();
+        try {
+            grid.forEachWithin(latitude, longitude, radiusKm, (slot, distance) -> {
+                if (openOnly && !openBySlot[slot]) {
+                    return;
+                }
+                total[0]++;
+                if (keep == 0) {
+                    return;
+                }
+                Match match = new Match(restaurantBySlot[slot], grid.latitude(slot), grid.longitude(slot), distance);
+                if (best.size() < keep) {
+                    best.add(match);
+                } else if (best.comparator().compare(match, best.peek()) > 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        Match[] ordered = best.toArray(new Match[0]);
+        Arrays.sort(ordered, best.comparator().reversed());
+        List<Match> page = new ArrayList<>(limit);
+        for (int i = offset; i < ordered.length; i++) {
+            page.add(ordered[i]);
+        }
+        return new Page(total[0], page);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return grid.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureCapacity() {
+        if (restaurantBySlot.length < grid.capacity()) {
+            restaurantBySlot = Arrays.copyOf(restaurantBySlot, grid.capacity());
+            openBySlot = Arrays.copyOf(openBySlot, grid.capacity());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.restaurantservice.hours;
+
+/**
+ * A restaurant whose effective open state (the owner's open switch and its opening hours together) has changed.
+ * Published as an application event so the listing and nearby indexes can follow it.
+ */
+public record OpenStateChange(long restaurantId, boolean open) {
+}
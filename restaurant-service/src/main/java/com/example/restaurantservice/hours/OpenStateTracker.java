@@ -0,0 +1,137 @@
+package com.example.restaurantservice.hours;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current open state of every restaurant with opening hours, kept up to date incrementally. Each restaurant sits
+ * in the bucket of the minute of its next open/close transition; advancing to a new time only re-evaluates the
+ * buckets that have come due, so a tick costs O(transitions) however many restaurants are tracked. Reads are a
+ * map lookup and never evaluate a schedule.
+ */
+public class OpenStateTracker {
+
+    private static final class Entry {
+        final OpeningSchedule schedule;
+        volatile boolean manualOpen;
+        volatile boolean scheduledOpen;
+        volatile Instant nextChange;
+        long bucket;
+
+        Entry(OpeningSchedule schedule, boolean manualOpen) {
+            this.schedule = schedule;
+            this.manualOpen = manualOpen;
+        }
+
+        boolean open() {
+            return manualOpen && scheduledOpen;
+        }
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Set<Long>> buckets = new TreeMap<>();
+    private long evaluations = 0;
+
+    // Adds or replaces the restaurant's schedule; true if it is open now (switch and hours together)
+    public synchronized boolean put(long restaurantId, OpeningSchedule schedule, boolean manualOpen, Instant now) {
+        Entry previous = entries.get(restaurantId);
+        if (previous != null) {
+            unbucket(restaurantId, previous);
+        }
+        Entry entry = new Entry(schedule, manualOpen);
+        evaluate(restaurantId, entry, now);
+        entries.put(restaurantId, entry);
+        return entry.open();
+    }
+
+    // Only tracked restaurants are affected; the open switch alone decides for the others
+    public void setManualOpen(long restaurantId, boolean manualOpen) {
+        Entry entry = entries.get(restaurantId);
+        if (entry != null) {
+            entry.manualOpen = manualOpen;
+        }
+    }
+
+    public synchronized void remove(long restaurantId) {
+        Entry entry = entries.remove(restaurantId);
+        if (entry != null) {
+            unbucket(restaurantId, entry);
+        }
+    }
+
+    // Null if the restaurant has no opening hours
+    public Boolean scheduledOpen(long restaurantId) {
+        Entry entry = entries.get(restaurantId);
+        return entry == null ? null : entry.scheduledOpen;
+    }
+
+    // Null if the restaurant has no opening hours
+    public Instant nextChange(long restaurantId) {
+        Entry entry = entries.get(restaurantId);
+        return entry == null ? null : entry.nextChange;
+    }
+
+    // Re-evaluates the restaurants whose transition is due by now; returns those whose effective state changed
+    public synchronized List<OpenStateChange> advance(Instant now) {
+        List<OpenStateChange> changes = new ArrayList<>();
+        long minute = Math.floorDiv(now.getEpochSecond(), 60);
+        while (!buckets.isEmpty() && buckets.firstKey() <= minute) {
+            for (Long restaurantId : buckets.pollFirstEntry().getValue()) {
+                Entry entry = entries.get(restaurantId);
+                boolean wasOpen = entry.open();
+                evaluate(restaurantId, entry, now);
+                if (entry.open() != wasOpen) {
+                    changes.add(new OpenStateChange(restaurantId, entry.open()));
+                }
+            }
+        }
+        return changes;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int openCount() {
+        int open = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.open()) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    public synchronized int bucketCount() {
+        return buckets.size();
+    }
+
+    // Schedule evaluations so far, for the benchmark
+    public synchronized long evaluations() {
+        return evaluations;
+    }
+
+    private void evaluate(long restaurantId, Entry entry, Instant now) {
+        OpeningSchedule.State state = entry.schedule.at(now);
+        evaluations++;
+        entry.scheduledOpen = state.open();
+        entry.nextChange = state.nextChange();
+        // The minute the transition falls in, rounded up so it is never re-evaluated early
+        entry.bucket = Math.floorDiv(state.nextChange().getEpochSecond() + 59, 60);
+        buckets.computeIfAbsent(entry.bucket, minute -> new HashSet<>()).add(restaurantId);
+    }
+
+    private void unbucket(long restaurantId, Entry entry) {
+        Set<Long> bucket = buckets.get(entry.bucket);
+        if (bucket != null && bucket.remove(restaurantId) && bucket.isEmpty()) {
+            buckets.remove(entry.bucket);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.restaurantservice.hours;
+
+import com.example.restaurantservice.dto.OpeningHoursBenchmarkReport;
+import com.example.restaurantservice.dto.OpeningHoursStrategyResult;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiPredicate;
+
+/**
+ * Deterministic benchmark of answering "which restaurants are open now" for a whole catalogue. Seeded synthetic
+ * schedules (lunch and dinner, all day, late night, 24 hours; a weekly closing day and some holidays) in several
+ * time zones are followed for a simulated period starting just before the European DST change. Evaluating every
+ * schedule per request is compared with the transition-bucket tracker advanced by a scheduler tick; the per-request
+ * evaluation is the reference for agreement.
+ */
+public final class OpeningHoursBenchmark {
+
+    private static final String[] ZONES = {"Asia/Kolkata", "Europe/London", "America/New_York", "Asia/Dubai",
+            "Asia/Singapore"};
+    private static final Instant START = Instant.parse("2026-03-27T00:00:00Z");
+    private static final int WARM_UP_REQUESTS = 5;
+
+    private OpeningHoursBenchmark() {
+    }
+
+    public static OpeningHoursBenchmarkReport run(int restaurantCount, int simulatedHours, int tickSeconds,
+                                                  int requestCount, long seed) {
+        Random random = new Random(seed);
+        OpeningSchedule[] schedules = new OpeningSchedule[restaurantCount];
+        for (int i = 0; i < restaurantCount; i++) {
+            schedules[i] = schedule(random);
+        }
+
+        OpenStateTracker tracker = new OpenStateTracker();
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < restaurantCount; i++) {
+            tracker.put(i, schedules[i], true, START);
+        }
+        double buildMillis = (System.nanoTime() - buildStart) / 1e6;
+        long evaluationsAfterBuild = tracker.evaluations();
+
+        // Browse requests land on evenly spaced ticks; each asks for the open state of every restaurant
+        int ticks = simulatedHours * 3600 / tickSeconds;
+        int requestEvery = Math.max(1, ticks / requestCount);
+        List<Instant> requestTimes = new ArrayList<>();
+        List<boolean[]> tracked = new ArrayList<>();
+        long tickNanos = 0;
+        long transitions = 0;
+        for (int tick = 1; tick <= ticks; tick++) {
+            Instant now = START.plusSeconds((long) tick * tickSeconds);
+            long start = System.nanoTime();
+            transitions += tracker.advance(now).size();
+            tickNanos += System.nanoTime() - start;
+            if (tick % requestEvery == 0 && requestTimes.size() < requestCount) {
+                requestTimes.add(now);
+                boolean[] open = new boolean[restaurantCount];
+                for (int i = 0; i < restaurantCount; i++) {
+                    open[i] = tracker.scheduledOpen(i);
+                }
+                tracked.add(open);
+            }
+        }
+        double evaluationsPerTick = (double) (tracker.evaluations() - evaluationsAfterBuild) / ticks;
+
+        List<boolean[]> reference = new ArrayList<>();
+        OpeningHoursStrategyResult perRequest = measure("evaluate-per-request", requestTimes, restaurantCount, null,
+                (i, now) -> schedules[i].at(now).open(), reference);
+        // Timed against the final state; counts and agreement use the states recorded at each request time
+        OpeningHoursStrategyResult buckets = measure("transition-buckets", requestTimes, restaurantCount, null,
+                (i, now) -> tracker.scheduledOpen(i), null);
+        long totalOpen = 0;
+        int agreeing = 0;
+        for (int r = 0; r < tracked.size(); r++) {
+            for (boolean open : tracked.get(r)) {
+                totalOpen += open ? 1 : 0;
+            }
+            agreeing += Arrays.equals(tracked.get(r), reference.get(r)) ? 1 : 0;
+        }
+        if (!tracked.isEmpty()) {
+            buckets.setAverageOpen(round((double) totalOpen / tracked.size()));
+            buckets.setOpenAgreement(round((double) agreeing / tracked.size()));
+        }
+        return new OpeningHoursBenchmarkReport(seed, restaurantCount, simulatedHours, tickSeconds, requestTimes.size(),
+                round(buildMillis), transitions, round(evaluationsPerTick), round(tickNanos / 1e6 / ticks),
+                List.of(perRequest, buckets));
+    }
+
+    private static OpeningHoursStrategyResult measure(String name, List<Instant> requestTimes, int restaurantCount,
+                                                      List<boolean[]> reference, BiPredicate<Integer, Instant> isOpen,
+                                                      List<boolean[]> record) {
+        for (int r = 0; r < Math.min(requestTimes.size(), WARM_UP_REQUESTS); r++) {
+            for (int i = 0; i < restaurantCount; i++) {
+                isOpen.test(i, requestTimes.get(r));
+            }
+        }
+        double[] millis = new double[requestTimes.size()];
+        long totalOpen = 0;
+        int agreeing = 0;
+        for (int r = 0; r < requestTimes.size(); r++) {
+            Instant now = requestTimes.get(r);
+            boolean[] open = new boolean[restaurantCount];
+            long start = System.nanoTime();
+            for (int i = 0; i < restaurantCount; i++) {
+                open[i] = isOpen.test(i, now);
+            }
+            millis[r] = (System.nanoTime() - start) / 1e6;
+            for (boolean value : open) {
+                totalOpen += value ? 1 : 0;
+            }
+            if (record != null) {
+                record.add(open);
+            }
+            if (reference == null || Arrays.equals(reference.get(r), open)) {
+                agreeing++;
+            }
+        }
+        if (millis.length == 0) {
+            return new OpeningHoursStrategyResult(name, 0, 0, 0, 1);
+        }
+        double[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return new OpeningHoursStrategyResult(name, round(Arrays.stream(millis).average().orElse(0)),
+                round(sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95) - 1)]),
+                round((double) totalOpen / millis.length), round((double) agreeing / millis.length));
+    }
+
+    private static OpeningSchedule schedule(Random random) {
+        List<OpeningSchedule.Weekly> weekly = new ArrayList<>();
+        int pattern = random.nextInt(10);
+        DayOfWeek closedDay = random.nextInt(3) == 0 ? DayOfWeek.of(1 + random.nextInt(7)) : null;
+        int shift = 15 * random.nextInt(5); // Opening times spread over the hour
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day == closedDay) {
+                continue;
+            }
+            if (pattern < 4) { // Lunch and dinner
+                weekly.add(new OpeningSchedule.Weekly(day, LocalTime.of(11, 30).plusMinutes(shift), LocalTime.of(15, 0)));
+                weekly.add(new OpeningSchedule.Weekly(day, LocalTime.of(18, 30).plusMinutes(shift), LocalTime.of(23, 0)));
+            } else if (pattern < 7) { // All day
+                weekly.add(new OpeningSchedule.Weekly(day, LocalTime.of(9, 0).plusMinutes(shift), LocalTime.of(22, 30)));
+            } else if (pattern < 9) { // Late night, past midnight
+                weekly.add(new OpeningSchedule.Weekly(day, LocalTime.of(18, 0).plusMinutes(shift), LocalTime.of(3, 0)));
+            } else { // Around the clock
+                weekly.add(new OpeningSchedule.Weekly(day, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT));
+            }
+        }
+        List<OpeningSchedule.Exception> exceptions = new ArrayList<>();
+        if (random.nextInt(5) == 0) {
+            LocalDate holiday = LocalDate.of(2026, 3, 27).plusDays(random.nextInt(7));
+            exceptions.add(random.nextBoolean() ? new OpeningSchedule.Exception(holiday, null, null)
+                    : new OpeningSchedule.Exception(holiday, LocalTime.of(10, 0), LocalTime.of(14, 0)));
+        }
+        return OpeningSchedule.compile(ZONES[random.nextInt(ZONES.length)], weekly, exceptions);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10000) / 10000.0;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.restaurantservice.hours;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A restaurant's weekly opening hours and dated exceptions, compiled into sorted [start, end) minute arrays: one
+ * per weekday and one per exception date, the dates themselves sorted for binary search. An interval whose closing
+ * time is not after its opening time runs past midnight (equal times mean 24 hours). An exception replaces the
+ * weekly intervals that start on its date; an interval running past midnight from the day before still applies.
+ */
+public final class OpeningSchedule {
+
+    public record Weekly(DayOfWeek day, LocalTime opens, LocalTime closes) {
+    }
+
+    // opens and closes both null: closed all day
+    public record Exception(LocalDate date, LocalTime opens, LocalTime closes) {
+    }
+
+    public record State(boolean open, Instant nextChange) {
+    }
+
+    private static final int MINUTES_PER_DAY = 1440;
+    // How far ahead a transition is looked for; a restaurant with none in that window is checked again at its end
+    private static final int LOOKAHEAD_DAYS = 8;
+    private static final int[] CLOSED = new int[0];
+
+    private final ZoneId zone;
+    private final int[][] weekly = new int[7][];
+    private final long[] exceptionDays;
+    private final int[][] exceptionIntervals;
+
+    private OpeningSchedule(ZoneId zone, int[][] weekly, long[] exceptionDays, int[][] exceptionIntervals) {
+        this.zone = zone;
+        System.arraycopy(weekly, 0, this.weekly, 0, 7);
+        this.exceptionDays = exceptionDays;
+        this.exceptionIntervals = exceptionIntervals;
+    }
+
+    public static OpeningSchedule compile(String timeZone, Collection<Weekly> weekly, Collection<Exception> exceptions) {
+        ZoneId zone;
+        try {
+            zone = ZoneId.of(timeZone);
+        } catch (DateTimeException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + timeZone);
+        }
+        List<List<int[]>> byDay = new ArrayList<>();
+        for (int d = 0; d < 7; d++) {
+            byDay.add(new ArrayList<>());
+        }
+        for (Weekly interval : weekly) {
+            if (interval.day() == null || interval.opens() == null || interval.closes() == null) {
+                throw new IllegalArgumentException("Weekly hours need a day, an opening and a closing time");
+            }
+            byDay.get(interval.day().getValue() - 1).add(minutes(interval.opens(), interval.closes()));
+        }
+        int[][] compiledWeekly = new int[7][];
+        for (int d = 0; d < 7; d++) {
+            compiledWeekly[d] = merge(byDay.get(d));
+        }
+
+        Map<LocalDate, List<int[]>> byDate = new TreeMap<>();
+        Map<LocalDate, Boolean> closedAllDay = new TreeMap<>();
+        for (Exception exception : exceptions) {
+            if (exception.date() == null) {
+                throw new IllegalArgumentException("An opening hours exception needs a date");
+            }
+            if ((exception.opens() == null) != (exception.closes() == null)) {
+                throw new IllegalArgumentException("Exception on " + exception.date()
+                        + " needs both opening and closing times, or neither to close all day");
+            }
+            List<int[]> intervals = byDate.computeIfAbsent(exception.date(), date -> new ArrayList<>());
+            boolean closed = exception.opens() == null;
+            if (closedAllDay.containsKey(exception.date()) && closedAllDay.get(exception.date()) != closed) {
+                throw new IllegalArgumentException("Exception on " + exception.date()
+                        + " cannot both close all day and have opening times");
+            }
+            closedAllDay.put(exception.date(), closed);
+            if (!closed) {
+                intervals.add(minutes(exception.opens(), exception.closes()));
+            }
+        }
+        long[] days = new long[byDate.size()];
+        int[][] intervals = new int[byDate.size()][];
+        int i = 0;
+        for (Map.Entry<LocalDate, List<int[]>> entry : byDate.entrySet()) {
+            days[i] = entry.getKey().toEpochDay();
+            intervals[i] = merge(entry.getValue());
+            i++;
+        }
+        return new OpeningSchedule(zone, compiledWeekly, days, intervals);
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    // Whether the restaurant is open at the instant, and when that next changes
+    public State at(Instant now) {
+        LocalDate today = LocalDate.ofInstant(now, zone);
+        long nowSeconds = now.getEpochSecond();
+        long openUntil = Long.MIN_VALUE;
+        long nextOpen = Long.MAX_VALUE;
+        // Day by day from yesterday (its intervals may run past midnight); starts ascend across days, ends may not
+        scan:
+        for (int offset = -1; offset <= LOOKAHEAD_DAYS; offset++) {
+            LocalDate day = today.plusDays(offset);
+            int[] intervals = intervalsOn(day);
+            for (int j = 0; j < intervals.length; j += 2) {
+                long start = epochSecond(day, intervals[j]);
+                long end = epochSecond(day, intervals[j + 1]);
+                if (end <= nowSeconds) {
+                    continue;
+                }
+                if (start <= nowSeconds || start <= openUntil) {
+                    // Covers now, or continues an interval that does
+                    openUntil = Math.max(openUntil, end);
+                } else if (openUntil == Long.MIN_VALUE) {
+                    nextOpen = start;
+                    break scan;
+                } else {
+                    break scan; // A gap after the open stretch
+                }
+            }
+        }
+        if (openUntil != Long.MIN_VALUE) {
+            return new State(true, Instant.ofEpochSecond(openUntil));
+        }
+        if (nextOpen != Long.MAX_VALUE) {
+            return new State(false, Instant.ofEpochSecond(nextOpen));
+        }
+        return new State(false, Instant.ofEpochSecond(epochSecond(today.plusDays(LOOKAHEAD_DAYS), 0)));
+    }
+
+    // Sorted, merged [start, end) minute pairs from the day's midnight; ends may run into the next day
+    int[] intervalsOn(LocalDate day) {
+        int index = Arrays.binarySearch(exceptionDays, day.toEpochDay());
+        return index >= 0 ? exceptionIntervals[index] : weekly[day.getDayOfWeek().getValue() - 1];
+    }
+
+    private long epochSecond(LocalDate day, int minute) {
+        // Local times skipped by a DST change resolve to just after it
+        return day.plusDays(minute / MINUTES_PER_DAY)
+                .atTime(LocalTime.ofSecondOfDay((minute % MINUTES_PER_DAY) * 60L))
+                .atZone(zone).toEpochSecond();
+    }
+
+    private static int[] minutes(LocalTime opens, LocalTime closes) {
+        int start = opens.getHour() * 60 + opens.getMinute();
+        int end = closes.getHour() * 60 + closes.getMinute();
+        return new int[]{start, end > start ? end : end + MINUTES_PER_DAY};
+    }
+
+    private static int[] merge(List<int[]> intervals) {
+        if (intervals.isEmpty()) {
+            return CLOSED;
+        }
+        intervals.sort((a, b) -> Integer.compare(a[0], b[0]));
+        int[] merged = new int[intervals.size() * 2];
+        int size = 0;
+        for (int[] interval : intervals) {
+            if (size > 0 && interval[0] <= merged[size - 1]) {
+                merged[size - 1] = Math.max(merged[size - 1], interval[1]);
+            } else {
+                merged[size++] = interval[0];
+                merged[size++] = interval[1];
+            }
+        }
+        return Arrays.copyOf(merged, size);
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.restaurantservice.listing;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Mutable set of non-negative ints in the Roaring layout: values are split by their high 16 bits into chunks, and
+ * each chunk holds its low 16 bits either as a sorted char array (up to 4096 values) or as a 65536-bit bitmap
+ * (beyond that), whichever is smaller. Intersections work chunk by chunk and never expand sparse chunks.
+ * Not thread-safe; RestaurantFacetIndex guards access.
+ */
+public class CompressedBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Object[] chunks = new Object[4]; // ArrayChunk or long[BITMAP_WORDS]
+    private int[] chunkCardinality = new int[4];
+    private int size;
+
+    private static final class ArrayChunk {
+        char[] values;
+        int length;
+
+        ArrayChunk(int capacity) {
+            values = new char[capacity];
+        }
+    }
+
+    public void add(int value) {
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, key, new ArrayChunk(4));
+        }
+        Object chunk = chunks[index];
+        if (chunk instanceof ArrayChunk array) {
+            int position = Arrays.binarySearch(array.values, 0, array.length, low);
+            if (position >= 0) {
+                return;
+            }
+            if (array.length == ARRAY_MAX) {
+                long[] bitmap = toBitmap(array);
+                bitmap[low >>> 6] |= 1L << low;
+                chunks[index] = bitmap;
+            } else {
+                position = -position - 1;
+                if (array.length == array.values.length) {
+                    array.values = Arrays.copyOf(array.values, Math.min(ARRAY_MAX, array.length * 2));
+                }
+                System.arraycopy(array.values, position, array.values, position + 1, array.length - position);
+                array.values[position] = low;
+                array.length++;
+            }
+        } else {
+            long[] bitmap = (long[]) chunk;
+            long before = bitmap[low >>> 6];
+            bitmap[low >>> 6] = before | (1L << low);
+            if (before == bitmap[low >>> 6]) {
+                return;
+            }
+        }
+        chunkCardinality[index]++;
+    }
+
+    public void remove(int value) {
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            return;
+        }
+        Object chunk = chunks[index];
+        if (chunk instanceof ArrayChunk array) {
+            int position = Arrays.binarySearch(array.values, 0, array.length, low);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(array.values, position + 1, array.values, position, array.length - position - 1);
+            array.length--;
+        } else {
+            long[] bitmap = (long[]) chunk;
+            long before = bitmap[low >>> 6];
+            bitmap[low >>> 6] = before & ~(1L << low);
+            if (before == bitmap[low >>> 6]) {
+                return;
+            }
+        }
+        if (--chunkCardinality[index] == 0) {
+            removeChunk(index);
+        } else if (chunk instanceof long[] bitmap && chunkCardinality[index] <= ARRAY_MAX / 2) {
+            chunks[index] = toArray(bitmap, chunkCardinality[index]);
+        }
+    }
+
+    public boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object chunk = chunks[index];
+        if (chunk instanceof ArrayChunk array) {
+            return Arrays.binarySearch(array.values, 0, array.length, low) >= 0;
+        }
+        return (((long[]) chunk)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += chunkCardinality[i];
+        }
+        return total;
+    }
+
+    // Ascending order
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            int high = keys[i] << 16;
+            Object chunk = chunks[i];
+            if (chunk instanceof ArrayChunk array) {
+                for (int j = 0; j < array.length; j++) {
+                    action.accept(high | array.values[j]);
+                }
+            } else {
+                long[] bitmap = (long[]) chunk;
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    long bits = bitmap[word];
+                    while (bits != 0) {
+                        action.accept(high | (word << 6) | Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Object chunk = andChunks(a.chunks[i], b.chunks[j]);
+                int cardinality = chunkCardinality(chunk);
+                if (cardinality > 0) {
+                    result.appendChunk(a.keys[i], chunk, cardinality);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Size of the intersection without building it
+    public static int andCardinality(CompressedBitmap a, CompressedBitmap b) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                total += andChunkCardinality(a.chunks[i], b.chunks[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    public static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.appendChunk(a.keys[i], copyChunk(a.chunks[i]), a.chunkCardinality[i]);
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.appendChunk(b.keys[j], copyChunk(b.chunks[j]), b.chunkCardinality[j]);
+                j++;
+            } else {
+                long[] bitmap = toBitmap(a.chunks[i]);
+                orInto(bitmap, b.chunks[j]);
+                int cardinality = bitCount(bitmap);
+                result.appendChunk(a.keys[i], cardinality <= ARRAY_MAX ? toArray(bitmap, cardinality) : bitmap, cardinality);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private static Object andChunks(Object a, Object b) {
+        if (a instanceof long[] left && b instanceof long[] right) {
+            long[] bitmap = new long[BITMAP_WORDS];
+            int cardinality = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bitmap[w] = left[w] & right[w];
+                cardinality += Long.bitCount(bitmap[w]);
+            }
+            return cardinality <= ARRAY_MAX ? toArray(bitmap, cardinality) : bitmap;
+        }
+        if (a instanceof ArrayChunk left && b instanceof ArrayChunk right) {
+            ArrayChunk result = new ArrayChunk(Math.max(1, Math.min(left.length, right.length)));
+            int i = 0;
+            int j = 0;
+            while (i < left.length && j < right.length) {
+                if (left.values[i] < right.values[j]) {
+                    i++;
+                } else if (left.values[i] > right.values[j]) {
+                    j++;
+                } else {
+                    result.values[result.length++] = left.values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+        ArrayChunk array = (ArrayChunk) (a instanceof ArrayChunk ? a : b);
+        long[] bitmap = (long[]) (a instanceof ArrayChunk ? b : a);
+        ArrayChunk result = new ArrayChunk(Math.max(1, array.length));
+        for (int i = 0; i < array.length; i++) {
+            char low = array.values[i];
+            if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                result.values[result.length++] = low;
+            }
+        }
+        return result;
+    }
+
+    private static int andChunkCardinality(Object a, Object b) {
+        if (a instanceof long[] left && b instanceof long[] right) {
+            int cardinality = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                cardinality += Long.bitCount(left[w] & right[w]);
+            }
+            return cardinality;
+        }
+        if (a instanceof ArrayChunk left && b instanceof ArrayChunk right) {
+            int cardinality = 0;
+            int i = 0;
+            int j = 0;
+            while (i < left.length && j < right.length) {
+                if (left.values[i] < right.values[j]) {
+                    i++;
+                } else if (left.values[i] > right.values[j]) {
+                    j++;
+                } else {
+                    cardinality++;
+                    i++;
+                    j++;
+                }
+            }
+            return cardinality;
+        }
+        ArrayChunk array = (ArrayChunk) (a instanceof ArrayChunk ? a : b);
+        long[] bitmap = (long[]) (a instanceof ArrayChunk ? b : a);
+        int cardinality = 0;
+        for (int i = 0; i < array.length; i++) {
+            char low = array.values[i];
+            if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                cardinality++;
+            }
+        }
+        return cardinality;
+    }
+
+    private static int chunkCardinality(Object chunk) {
+        return chunk instanceof ArrayChunk array ? array.length : bitCount((long[]) chunk);
+    }
+
+    private static Object copyChunk(Object chunk) {
+        if (chunk instanceof ArrayChunk array) {
+            ArrayChunk copy = new ArrayChunk(Math.max(1, array.length));
+            System.arraycopy(array.values, 0, copy.values, 0, array.length);
+            copy.length = array.length;
+            return copy;
+        }
+        return ((long[]) chunk).clone();
+    }
+
+    private static long[] toBitmap(Object chunk) {
+        if (chunk instanceof long[] bitmap) {
+            return bitmap.clone();
+        }
+        long[] bitmap = new long[BITMAP_WORDS];
+        orInto(bitmap, chunk);
+        return bitmap;
+    }
+
+    private static void orInto(long[] bitmap, Object chunk) {
+        if (chunk instanceof ArrayChunk array) {
+            for (int i = 0; i < array.length; i++) {
+                bitmap[array.values[i] >>> 6] |= 1L << array.values[i];
+            }
+        } else {
+            long[] other = (long[]) chunk;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bitmap[w] |= other[w];
+            }
+        }
+    }
+
+    private static ArrayChunk toArray(long[] bitmap, int cardinality) {
+        ArrayChunk array = new ArrayChunk(Math.max(1, cardinality));
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            long bits = bitmap[word];
+            while (bits != 0) {
+                array.values[array.length++] = (char) ((word << 6) | Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return array;
+    }
+
+    private static int bitCount(long[] bitmap) {
+        int cardinality = 0;
+        for (long word : bitmap) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    private void appendChunk(char key, Object chunk, int cardinality) {
+        insertChunk(size, key, chunk);
+        chunkCardinality[size - 1] = cardinality;
+    }
+
+    private void insertChunk(int index, char key, Object chunk) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            chunks = Arrays.copyOf(chunks, size * 2);
+            chunkCardinality = Arrays.copyOf(chunkCardinality, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(chunks, index, chunks, index + 1, size - index);
+        System.arraycopy(chunkCardinality, index, chunkCardinality, index + 1, size - index);
+        keys[index] = key;
+        chunks[index] = chunk;
+        chunkCardinality[index] = 0;
+        size++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, size - index - 1);
+        System.arraycopy(chunkCardinality, index + 1, chunkCardinality, index, size - index - 1);
+        size--;
+        chunks[size] = null;
+    }
+}
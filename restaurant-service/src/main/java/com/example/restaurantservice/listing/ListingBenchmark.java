@@ -0,0 +1,131 @@
+package com.example.restaurantservice.listing;
+
+import com.example.restaurantservice.dto.ListingBenchmarkReport;
+import com.example.restaurantservice.dto.ListingStrategyResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Deterministic benchmark of filtered listing pages. A seeded synthetic catalogue (skewed cuisine popularity, about
+ * 80% open, a fifth veg-only) is queried with random filter combinations. The facet index is compared with
+ * filtering and sorting the whole list in memory, which is what the frontend does today after downloading it;
+ * the in-memory result is the reference for first-page agreement.
+ */
+public final class ListingBenchmark {
+
+    private static final String[] CUISINES = {"North Indian", "South Indian", "Chinese", "Italian", "Biryani",
+            "Fast Food", "Pizza", "Desserts", "Street Food", "Mughlai", "Continental", "Thai", "Bengali", "Gujarati",
+            "Punjabi", "Kerala", "Japanese", "Mexican", "Cafe", "Bakery", "Healthy Food", "Seafood", "Rajasthani",
+            "Korean"};
+    private static final int WARM_UP_QUERIES = 50;
+
+    private ListingBenchmark() {
+    }
+
+    public static ListingBenchmarkReport run(int restaurantCount, int queryCount, int pageSize, long seed) {
+        Random random = new Random(seed);
+        String[] cuisines = new String[restaurantCount];
+        boolean[] open = new boolean[restaurantCount];
+        boolean[] veg = new boolean[restaurantCount];
+        double[] ratings = new double[restaurantCount];
+        int[] delivery = new int[restaurantCount];
+        for (int i = 0; i < restaurantCount; i++) {
+            cuisines[i] = CUISINES[skewed(random, CUISINES.length)];
+            open[i] = random.nextDouble() < 0.8;
+            veg[i] = random.nextDouble() < 0.2;
+            ratings[i] = Math.round(Math.max(1, Math.min(5, 3.9 + random.nextGaussian() * 0.5)) * 10) / 10.0;
+            delivery[i] = 15 + random.nextInt(13) * 5;
+        }
+
+        long buildStart = System.nanoTime();
+        RestaurantFacetIndex index = new RestaurantFacetIndex();
+        for (int i = 0; i < restaurantCount; i++) {
+            index.putRestaurant(i, cuisines[i], open[i], ratings[i], delivery[i]);
+            index.setMenuCounts(i, 10, veg[i] ? 0 : 3);
+        }
+        double buildMillis = (System.nanoTime() - buildStart) / 1e6;
+
+        RestaurantFacetIndex.Filter[] filters = new RestaurantFacetIndex.Filter[queryCount];
+        for (int q = 0; q < queryCount; q++) {
+            List<String> cuisineFilter = new ArrayList<>();
+            if (random.nextDouble() < 0.5) {
+                cuisineFilter.add(CUISINES[skewed(random, CUISINES.length)]);
+                if (random.nextDouble() < 0.3) {
+                    cuisineFilter.add(CUISINES[random.nextInt(CUISINES.length)]);
+                }
+            }
+            filters[q] = new RestaurantFacetIndex.Filter(cuisineFilter,
+                    random.nextDouble() < 0.6 ? Boolean.TRUE : null,
+                    random.nextDouble() < 0.2,
+                    random.nextDouble() < 0.5 ? RestaurantFacetIndex.RATING_THRESHOLDS[random.nextInt(4)] : null,
+                    random.nextDouble() < 0.4 ? RestaurantFacetIndex.DELIVERY_THRESHOLDS[random.nextInt(4)] : null);
+        }
+
+        List<List<Long>> reference = new ArrayList<>();
+        ListingStrategyResult scan = measure("in-memory-filter", filters, null, filter -> {
+            List<Integer> matches = new ArrayList<>();
+            for (int i = 0; i < restaurantCount; i++) {
+                if ((filter.cuisines().isEmpty() || filter.cuisines().contains(cuisines[i]))
+                        && (filter.open() == null || filter.open() == open[i])
+                        && (!filter.vegOnly() || veg[i])
+                        && (filter.minRating() == null || ratings[i] >= filter.minRating())
+                        && (filter.maxDeliveryMinutes() == null || delivery[i] <= filter.maxDeliveryMinutes())) {
+                    matches.add(i);
+                }
+            }
+            matches.sort((a, b) -> ratings[a] != ratings[b] ? Double.compare(ratings[b], ratings[a]) : Integer.compare(a, b));
+            List<Long> page = new ArrayList<>(pageSize);
+            for (int i = 0; i < Math.min(pageSize, matches.size()); i++) {
+                page.add((long) matches.get(i));
+            }
+            return new RestaurantFacetIndex.Result(matches.size(), page, null);
+        }, reference);
+        ListingStrategyResult bitmaps = measure("bitmap-index", filters, reference,
+                filter -> index.query(filter, 0, pageSize, false), null);
+        ListingStrategyResult withFacets = measure("bitmap-index-with-facets", filters, reference,
+                filter -> index.query(filter, 0, pageSize, true), null);
+        return new ListingBenchmarkReport(seed, restaurantCount, queryCount, pageSize, round(buildMillis),
+                List.of(scan, bitmaps, withFacets));
+    }
+
+    private static ListingStrategyResult measure(String name, RestaurantFacetIndex.Filter[] filters, List<List<Long>> reference,
+                                                 Function<RestaurantFacetIndex.Filter, RestaurantFacetIndex.Result> query,
+                                                 List<List<Long>> record) {
+        for (int q = 0; q < Math.min(filters.length, WARM_UP_QUERIES); q++) {
+            query.apply(filters[q]);
+        }
+        double[] millis = new double[filters.length];
+        long totalMatches = 0;
+        int agreeing = 0;
+        for (int q = 0; q < filters.length; q++) {
+            long start = System.nanoTime();
+            RestaurantFacetIndex.Result result = query.apply(filters[q]);
+            millis[q] = (System.nanoTime() - start) / 1e6;
+            totalMatches += result.total();
+            if (record != null) {
+                record.add(result.restaurantIds());
+            }
+            if (reference == null || reference.get(q).equals(result.restaurantIds())) {
+                agreeing++;
+            }
+        }
+        double[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return new ListingStrategyResult(name, round(Arrays.stream(millis).average().orElse(0)),
+                round(sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95) - 1)]),
+                round((double) totalMatches / filters.length), round((double) agreeing / filters.length));
+    }
+
+    // Index in [0, n) with earlier entries more likely (roughly Zipfian)
+    private static int skewed(Random random, int n) {
+        return Math.min(n - 1, (int) (Math.pow(random.nextDouble(), 2.2) * n));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10000) / 10000.0;
+    }
+}
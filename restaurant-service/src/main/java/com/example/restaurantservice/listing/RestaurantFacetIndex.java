@@ -0,0 +1,434 @@
+package com.example.restaurantservice.listing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Restaurant listing filters as one CompressedBitmap per facet value over dense restaurant slots: each cuisine,
+ * open/closed, veg-only, and cumulative "rating at least" / "delivery within" thresholds. A filtered page is the
+ * intersection of the selected bitmaps, smallest first; facet counts use the intersection of every other filter,
+ * so each count is what the result size would be after also selecting that value.
+ */
+public class RestaurantFacetIndex {
+
+    public static final double[] RATING_THRESHOLDS = {4.5, 4.0, 3.5, 3.0};
+    public static final int[] DELIVERY_THRESHOLDS = {20, 30, 45, 60};
+    private static final int MAX_CUISINE_FACETS = 50;
+    private static final int RATING_BUCKETS = 51; // 0.0-0.09, ..., 4.9-4.99, 5.0 and above
+
+    public record Filter(Collection<String> cuisines, Boolean open, boolean vegOnly, Double minRating,
+                         Integer maxDeliveryMinutes) {
+    }
+
+    public record Result(int total, List<Long> restaurantIds, Map<String, Map<String, Integer>> facets) {
+    }
+
+    private final Map<Long, Integer> slotByRestaurant = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final CompressedBitmap open = new CompressedBitmap();
+    private final CompressedBitmap closed = new CompressedBitmap();
+    private final CompressedBitmap vegOnly = new CompressedBitmap();
+    private final CompressedBitmap[] ratingAtLeast = newBitmaps(RATING_THRESHOLDS.length);
+    private final CompressedBitmap[] deliveryWithin = newBitmaps(DELIVERY_THRESHOLDS.length);
+    private final CompressedBitmap[] byRatingBucket = newBitmaps(RATING_BUCKETS);
+    private final Map<String, CompressedBitmap> byCuisine = new HashMap<>();
+    private final Map<String, String> cuisineLabels = new HashMap<>();
+
+    private long[] restaurantBySlot = new long[1024];
+    private double[] ratingBySlot = new double[1024];
+    private String[][] cuisinesBySlot = new String[1024][];
+    private int[] menuItemsBySlot = new int[1024];
+    private int[] nonVegItemsBySlot = new int[1024];
+    private int nextSlot = 0;
+
+    // Replaces the restaurant's own fields; its menu counts are kept
+    public void putRestaurant(long restaurantId, String cuisine, boolean isOpen, double rating, Integer deliveryMinutes) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotFor(restaurantId);
+            clearFields(slot);
+            all.add(slot);
+            (isOpen ? open : closed).add(slot);
+            ratingBySlot[slot] = rating;
+            byRatingBucket[ratingBucket(rating)].add(slot);
+            for (int t = 0; t < RATING_THRESHOLDS.length; t++) {
+                if (rating >= RATING_THRESHOLDS[t]) {
+                    ratingAtLeast[t].add(slot);
+                }
+            }
+            for (int t = 0; deliveryMinutes != null && t < DELIVERY_THRESHOLDS.length; t++) {
+                if (deliveryMinutes <= DELIVERY_THRESHOLDS[t]) {
+                    deliveryWithin[t].add(slot);
+                }
+            }
+            List<String> keys = new ArrayList<>();
+            for (String label : splitCuisines(cuisine)) {
+                String key = label.toLowerCase(Locale.ROOT);
+                if (!keys.contains(key)) {
+                    keys.add(key);
+                    cuisineLabels.putIfAbsent(key, label);
+                    byCuisine.computeIfAbsent(key, k -> new CompressedBitmap()).add(slot);
+                }
+            }
+            cuisinesBySlot[slot] = keys.toArray(new String[0]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setOpen(long restaurantId, boolean isOpen) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRestaurant.get(restaurantId);
+            if (slot != null) {
+                (isOpen ? closed : open).remove(slot);
+                (isOpen ? open : closed).add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Moves the restaurant to its new rating bucket and thresholds
+    public void setRating(long restaurantId, double rating) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRestaurant.get(restaurantId);
+            if (slot != null && ratingBySlot[slot] != rating) {
+                byRatingBucket[ratingBucket(ratingBySlot[slot])].remove(slot);
+                byRatingBucket[ratingBucket(rating)].add(slot);
+                for (int t = 0; t < RATING_THRESHOLDS.length; t++) {
+                    if (rating >= RATING_THRESHOLDS[t]) {
+                        ratingAtLeast[t].add(slot);
+                    } else {
+                        ratingAtLeast[t].remove(slot);
+                    }
+                }
+                ratingBySlot[slot] = rating;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setMenuCounts(long restaurantId, int menuItems, int nonVegItems) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRestaurant.get(restaurantId);
+            if (slot != null) {
+                menuItemsBySlot[slot] = menuItems;
+                nonVegItemsBySlot[slot] = nonVegItems;
+                updateVeg(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addMenuItem(long restaurantId, boolean veg) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRestaurant.get(restaurantId);
+            if (slot != null) {
+                menuItemsBySlot[slot]++;
+                if (!veg) {
+                    nonVegItemsBySlot[slot]++;
+                }
+                updateVeg(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByRestaurant.remove(restaurantId);
+            if (slot != null) {
+                clearFields(slot);
+                vegOnly.remove(slot);
+                menuItemsBySlot[slot] = 0;
+                nonVegItemsBySlot[slot] = 0;
+                freeSlots.push(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Double rating(long restaurantId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByRestaurant.get(restaurantId);
+            return slot == null ? null : ratingBySlot[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isVegOnly(long restaurantId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByRestaurant.get(restaurantId);
+            return slot != null && vegOnly.contains(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByRestaurant.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Matching restaurant ids ordered by rating (highest first, then id), skipping offset and returning at most limit
+    public Result query(Filter filter, int offset, int limit, boolean withFacets) {
+        lock.readLock().lock();
+        try {
+            CompressedBitmap cuisineFilter = cuisineBitmap(filter.cuisines());
+            CompressedBitmap openFilter = filter.open() == null ? null : filter.open() ? open : closed;
+            CompressedBitmap vegFilter = filter.vegOnly() ? vegOnly : null;
+            CompressedBitmap ratingFilter = filter.minRating() == null ? null
+                    : ratingAtLeast[indexOf(RATING_THRESHOLDS, filter.minRating())];
+            CompressedBitmap deliveryFilter = filter.maxDeliveryMinutes() == null ? null
+                    : deliveryWithin[indexOf(DELIVERY_THRESHOLDS, filter.maxDeliveryMinutes())];
+            CompressedBitmap[] selected = {cuisineFilter, openFilter, vegFilter, ratingFilter, deliveryFilter};
+
+            CompressedBitmap matches = intersect(selected, -1);
+            Map<String, Map<String, Integer>> facets = withFacets ? facets(selected) : Map.of();
+            return new Result(matches.cardinality(), page(matches, offset, limit), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Map<String, Integer>> facets(CompressedBitmap[] selected) {
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+
+        CompressedBitmap base = intersect(selected, 0);
+        List<Map.Entry<String, Integer>> cuisines = new ArrayList<>();
+        byCuisine.forEach((key, bitmap) -> {
+            int count = CompressedBitmap.andCardinality(base, bitmap);
+            if (count > 0) {
+                cuisines.add(Map.entry(cuisineLabels.get(key), count));
+            }
+        });
+        cuisines.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> cuisineCounts = new LinkedHashMap<>();
+        cuisines.stream().limit(MAX_CUISINE_FACETS).forEach(entry -> cuisineCounts.put(entry.getKey(), entry.getValue()));
+        facets.put("cuisine", cuisineCounts);
+
+        CompressedBitmap withoutOpen = intersect(selected, 1);
+        Map<String, Integer> openCounts = new LinkedHashMap<>();
+        openCounts.put("true", CompressedBitmap.andCardinality(withoutOpen, open));
+        openCounts.put("false", CompressedBitmap.andCardinality(withoutOpen, closed));
+        facets.put("isOpen", openCounts);
+
+        facets.put("vegOnly", Map.of("true", CompressedBitmap.andCardinality(intersect(selected, 2), vegOnly)));
+
+        CompressedBitmap withoutRating = intersect(selected, 3);
+        Map<String, Integer> ratingCounts = new LinkedHashMap<>();
+        for (int t = 0; t < RATING_THRESHOLDS.length; t++) {
+            ratingCounts.put(String.valueOf(RATING_THRESHOLDS[t]), CompressedBitmap.andCardinality(withoutRating, ratingAtLeast[t]));
+        }
+        facets.put("minRating", ratingCounts);
+
+        CompressedBitmap withoutDelivery = intersect(selected, 4);
+        Map<String, Integer> deliveryCounts = new LinkedHashMap<>();
+        for (int t = 0; t < DELIVERY_THRESHOLDS.length; t++) {
+            deliveryCounts.put(String.valueOf(DELIVERY_THRESHOLDS[t]), CompressedBitmap.andCardinality(withoutDelivery, deliveryWithin[t]));
+        }
+        facets.put("maxDeliveryMinutes", deliveryCounts);
+        return facets;
+    }
+
+    // Intersection of the selected bitmaps except the one at skip, smallest first; all restaurants when none apply
+    private CompressedBitmap intersect(CompressedBitmap[] selected, int skip) {
+        List<CompressedBitmap> bitmaps = new ArrayList<>();
+        for (int i = 0; i < selected.length; i++) {
+            if (i != skip && selected[i] != null) {
+                bitmaps.add(selected[i]);
+            }
+        }
+        if (bitmaps.isEmpty()) {
+            return all;
+        }
+        bitmaps.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+        CompressedBitmap result = bitmaps.get(0);
+        for (int i = 1; i < bitmaps.size() && result.cardinality() > 0; i++) {
+            result = CompressedBitmap.and(result, bitmaps.get(i));
+        }
+        return result;
+    }
+
+    // Walks rating buckets from the top, skipping whole buckets by count; only buckets on the page are sorted
+    private List<Long> page(CompressedBitmap matches, int offset, int limit) {
+        Comparator<Integer> rank = (a, b) -> ratingBySlot[a] != ratingBySlot[b]
+                ? Double.compare(ratingBySlot[b], ratingBySlot[a])
+                : Long.compare(restaurantBySlot[a], restaurantBySlot[b]);
+        List<Long> ids = new ArrayList<>(limit);
+        int skip = offset;
+        for (int bucket = RATING_BUCKETS - 1; bucket >= 0 && ids.size() < limit; bucket--) {
+            int count = CompressedBitmap.andCardinality(matches, byRatingBucket[bucket]);
+            if (count <= skip) {
+                skip -= count;
+                continue;
+            }
+            List<Integer> slots = new ArrayList<>(count);
+            CompressedBitmap.and(matches, byRatingBucket[bucket]).forEach(slots::add);
+            slots.sort(rank);
+            for (int i = skip; i < slots.size() && ids.size() < limit; i++) {
+                ids.add(restaurantBySlot[slots.get(i)]);
+            }
+            skip = 0;
+        }
+        return ids;
+    }
+
+    private CompressedBitmap cuisineBitmap(Collection<String> cuisines) {
+        if (cuisines == null || cuisines.isEmpty()) {
+            return null;
+        }
+        if (cuisines.size() == 1) {
+            CompressedBitmap bitmap = byCuisine.get(cuisines.iterator().next().trim().toLowerCase(Locale.ROOT));
+            return bitmap != null ? bitmap : new CompressedBitmap();
+        }
+        CompressedBitmap union = new CompressedBitmap();
+        for (String cuisine : cuisines) {
+            CompressedBitmap bitmap = byCuisine.get(cuisine.trim().toLowerCase(Locale.ROOT));
+            if (bitmap != null) {
+                union = CompressedBitmap.or(union, bitmap);
+            }
+        }
+        return union;
+    }
+
+    private void updateVeg(int slot) {
+        if (menuItemsBySlot[slot] > 0 && nonVegItemsBySlot[slot] == 0) {
+            vegOnly.add(slot);
+        } else {
+            vegOnly.remove(slot);
+        }
+    }
+
+    private void clearFields(int slot) {
+        all.remove(slot);
+        open.remove(slot);
+        closed.remove(slot);
+        byRatingBucket[ratingBucket(ratingBySlot[slot])].remove(slot);
+        for (CompressedBitmap bitmap : ratingAtLeast) {
+            bitmap.remove(slot);
+        }
+        for (CompressedBitmap bitmap : deliveryWithin) {
+            bitmap.remove(slot);
+        }
+        if (cuisinesBySlot[slot] != null) {
+            for (String key : cuisinesBySlot[slot]) {
+                CompressedBitmap bitmap = byCuisine.get(key);
+                bitmap.remove(slot);
+                if (bitmap.cardinality() == 0) {
+                    byCuisine.remove(key);
+                    cuisineLabels.remove(key);
+                }
+            }
+            cuisinesBySlot[slot] = null;
+        }
+    }
+
+    private int slotFor(long restaurantId) {
+        Integer slot = slotByRestaurant.get(restaurantId);
+        if (slot != null) {
+            return slot;
+        }
+        slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+        if (slot >= restaurantBySlot.length) {
+            int capacity = restaurantBySlot.length * 2;
+            restaurantBySlot = Arrays.copyOf(restaurantBySlot, capacity);
+            ratingBySlot = Arrays.copyOf(ratingBySlot, capacity);
+            cuisinesBySlot = Arrays.copyOf(cuisinesBySlot, capacity);
+            menuItemsBySlot = Arrays.copyOf(menuItemsBySlot, capacity);
+            nonVegItemsBySlot = Arrays.copyOf(nonVegItemsBySlot, capacity);
+        }
+        slotByRestaurant.put(restaurantId, slot);
+        restaurantBySlot[slot] = restaurantId;
+        return slot;
+    }
+
+    // "North Indian, Chinese" lists two cuisines
+    public static List<String> splitCuisines(String cuisine) {
+        List<String> labels = new ArrayList<>();
+        if (cuisine != null) {
+            for (String part : cuisine.split("[,/|]")) {
+                if (!part.isBlank()) {
+                    labels.add(part.trim());
+                }
+            }
+        }
+        return labels;
+    }
+
+    // Leading number of "30-40 min", as the frontend reads it; null when there is none
+    public static Integer deliveryMinutes(String deliveryTime) {
+        if (deliveryTime == null) {
+            return null;
+        }
+        int i = 0;
+        while (i < deliveryTime.length() && Character.isWhitespace(deliveryTime.charAt(i))) {
+            i++;
+        }
+        int start = i;
+        while (i < deliveryTime.length() && i - start < 6 && Character.isDigit(deliveryTime.charAt(i))) {
+            i++;
+        }
+        return i == start ? null : Integer.valueOf(deliveryTime.substring(start, i));
+    }
+
+    public static int indexOf(double[] thresholds, double value) {
+        for (int t = 0; t < thresholds.length; t++) {
+            if (thresholds[t] == value) {
+                return t;
+            }
+        }
+        throw new IllegalArgumentException("minRating must be one of " + Arrays.toString(thresholds));
+    }
+
+    public static int indexOf(int[] thresholds, int value) {
+        for (int t = 0; t < thresholds.length; t++) {
+            if (thresholds[t] == value) {
+                return t;
+            }
+        }
+        throw new IllegalArgumentException("maxDeliveryMinutes must be one of " + Arrays.toString(thresholds));
+    }
+
+    private static int ratingBucket(double rating) {
+        return Math.max(0, Math.min(RATING_BUCKETS - 1, (int) Math.floor(rating * 10 + 1e-9)));
+    }
+
+    private static CompressedBitmap[] newBitmaps(int count) {
+        CompressedBitmap[] bitmaps = new CompressedBitmap[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new CompressedBitmap();
+        }
+        return bitmaps;
+    }
+}
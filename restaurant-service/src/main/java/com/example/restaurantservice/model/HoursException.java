@@ -0,0 +1,29 @@
+package com.example.restaurantservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Replaces the weekly hours on one date: open from opens to closes, or closed all day when both are omitted
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoursException {
+
+    @NotNull(message = "Exception date is required")
+    @Column(name = "exception_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "opens_at")
+    private LocalTime opens;
+
+    @Column(name = "closes_at")
+    private LocalTime closes;
+}
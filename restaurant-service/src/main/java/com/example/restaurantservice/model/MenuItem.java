@@ -54,14 +54,21 @@ public class MenuItem implements java.io.Serializable {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Epoch millis of the last write to isAvailable; write-behind availability updates only apply if newer
+    @Column(name = "availability_changed_at")
+    @JsonIgnore
+    private Long availabilityChangedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        availabilityChangedAt = System.currentTimeMillis();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        availabilityChangedAt = System.currentTimeMillis();
     }
 }
\ No newline at end of file
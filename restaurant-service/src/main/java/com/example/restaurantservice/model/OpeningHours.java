@@ -0,0 +1,54 @@
+package com.example.restaurantservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// A restaurant's weekly opening hours and holiday exceptions, in its own time zone
+@Entity
+@Table(name = "restaurant_opening_hours")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpeningHours {
+
+    @Id
+    @Column(name = "restaurant_id")
+    @JsonIgnore
+    private Long restaurantId;
+
+    @NotBlank(message = "Time zone is required, e.g. Asia/Kolkata")
+    @Column(name = "time_zone", nullable = false)
+    private String timeZone;
+
+    @NotNull(message = "Weekly hours are required")
+    @Size(max = 50, message = "At most 50 weekly intervals")
+    @ElementCollection
+    @CollectionTable(name = "restaurant_weekly_hours", joinColumns = @JoinColumn(name = "restaurant_id"))
+    private List<@Valid WeeklyHours> weekly = new ArrayList<>();
+
+    @Size(max = 400, message = "At most 400 exceptions")
+    @ElementCollection
+    @CollectionTable(name = "restaurant_hours_exceptions", joinColumns = @JoinColumn(name = "restaurant_id"))
+    private List<@Valid HoursException> exceptions = new ArrayList<>();
+
+    @Column(name = "updated_at")
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.restaurantservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -31,6 +34,15 @@ public class Restaurant implements java.io.Serializable {
     @Column(nullable = false)
     private String address;
 
+    // Optional; restaurants without coordinates are left out of nearby search
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
     @Pattern(regexp = "^[0-9]{10}$", message = "Phone number must be 10 digits")
     @Column(nullable = false)
     private String phone;
@@ -53,6 +65,11 @@ public class Restaurant implements java.io.Serializable {
     @Column(name = "delivery_time")
     private String deliveryTime;
 
+    // Bumped by RestaurantRepository.incrementMenuVersion only; full-entity saves never write it
+    @Column(name = "menu_version", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long menuVersion;
+
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MenuItem> menuItems = new ArrayList<>();
 
@@ -0,0 +1,34 @@
+package com.example.restaurantservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// Open from opens to closes every dayOfWeek; a closing time not after the opening time runs past midnight
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyHours {
+
+    @NotNull(message = "Day of week is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false, length = 9)
+    private DayOfWeek dayOfWeek;
+
+    @NotNull(message = "Opening time is required")
+    @Column(name = "opens_at", nullable = false)
+    private LocalTime opens;
+
+    @NotNull(message = "Closing time is required")
+    @Column(name = "closes_at", nullable = false)
+    private LocalTime closes;
+}
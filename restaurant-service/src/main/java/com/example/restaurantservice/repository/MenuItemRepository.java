@@ -1,12 +1,44 @@
 package com.example.restaurantservice.repository;
 
+import com.example.restaurantservice.dto.MenuItemName;
 import com.example.restaurantservice.model.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     List<MenuItem> findByRestaurantId(Long restaurantId);
+
+    // restaurant id, item id, item name for building the search index
+    @Query("SELECT m.restaurant.id, m.id, m.name FROM MenuItem m")
+    List<Object[]> findSearchFields();
+
+    // id, isAvailable, availabilityChangedAt of a restaurant's items, by id, for the availability overlay.
+    // Not read-only, so it goes to the primary: a lagging replica could miss toggles already flushed
+    @Transactional
+    @Query("SELECT m.id, m.isAvailable, m.availabilityChangedAt FROM MenuItem m " +
+           "WHERE m.restaurant.id = :restaurantId ORDER BY m.id")
+    List<Object[]> findAvailabilityByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT m.name FROM MenuItem m WHERE m.restaurant.id = :restaurantId")
+    List<String> findNamesByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT new com.example.restaurantservice.dto.MenuItemName(m.id, m.restaurant.id, m.name) " +
+           "FROM MenuItem m WHERE m.id IN :ids")
+    List<MenuItemName> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // restaurant id, menu items, non-veg menu items, per restaurant with a menu
+    @Query("SELECT m.restaurant.id, COUNT(m), SUM(CASE WHEN m.isVeg = true THEN 0 ELSE 1 END) " +
+           "FROM MenuItem m GROUP BY m.restaurant.id")
+    List<Object[]> countVegByRestaurant();
+
+    @Query("SELECT COUNT(m), SUM(CASE WHEN m.isVeg = true THEN 0 ELSE 1 END) FROM MenuItem m " +
+           "WHERE m.restaurant.id = :restaurantId")
+    List<Object[]> countVegForRestaurant(@Param("restaurantId") Long restaurantId);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.restaurantservice.repository;
+
+import com.example.restaurantservice.model.OpeningHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OpeningHoursRepository extends JpaRepository<OpeningHours, Long> {
+
+    // restaurant id, time zone and the restaurant's open switch, for building the open-state tracker
+    @Query("SELECT h.restaurantId, h.timeZone, r.isOpen FROM OpeningHours h, Restaurant r WHERE r.id = h.restaurantId")
+    List<Object[]> findScheduleFields();
+
+    // restaurant id, day of week, opens, closes
+    @Query("SELECT h.restaurantId, w.dayOfWeek, w.opens, w.closes FROM OpeningHours h JOIN h.weekly w")
+    List<Object[]> findWeeklyFields();
+
+    // restaurant id, date, opens, closes
+    @Query("SELECT h.restaurantId, e.date, e.opens, e.closes FROM OpeningHours h JOIN h.exceptions e")
+    List<Object[]> findExceptionFields();
+}
@@ -1,12 +1,19 @@
 package com.example.restaurantservice.repository;
 
+import com.example.restaurantservice.dto.RestaurantAdminSummaryResponse;
+import com.example.restaurantservice.dto.RestaurantCoordinates;
+import com.example.restaurantservice.dto.RestaurantSummaryResponse;
 import com.example.restaurantservice.model.Restaurant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
@@ -20,7 +27,60 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
            "LOWER(m.name) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Restaurant> searchRestaurants(@Param("query") String query);
     
+    // Summary projections: one query, restaurant columns only
+    @Query("SELECT new com.example.restaurantservice.dto.RestaurantSummaryResponse(r.id, r.name, r.address, r.cuisine, " +
+           "r.imageUrl, r.rating, r.isOpen, r.deliveryTime) FROM Restaurant r ORDER BY r.id")
+    List<RestaurantSummaryResponse> findAllSummaries();
+
+    @Query("SELECT new com.example.restaurantservice.dto.RestaurantSummaryResponse(r.id, r.name, r.address, r.cuisine, " +
+           "r.imageUrl, r.rating, r.isOpen, r.deliveryTime) FROM Restaurant r WHERE r.id IN :ids")
+    List<RestaurantSummaryResponse> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Same matching as searchRestaurants; EXISTS instead of a join keeps one row per restaurant
+    @Query("SELECT new com.example.restaurantservice.dto.RestaurantSummaryResponse(r.id, r.name, r.address, r.cuisine, " +
+           "r.imageUrl, r.rating, r.isOpen, r.deliveryTime) FROM Restaurant r WHERE " +
+           "LOWER(r.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(r.cuisine) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "EXISTS (SELECT m.id FROM MenuItem m WHERE m.restaurant = r AND LOWER(m.name) LIKE LOWER(CONCAT('%', :query, '%')))")
+    List<RestaurantSummaryResponse> searchSummaries(@Param("query") String query);
+
+    @Query("SELECT new com.example.restaurantservice.dto.RestaurantAdminSummaryResponse(r.id, r.name, r.address, " +
+           "r.cuisine, r.rating, r.isOpen, r.ownerId, r.email, r.phone, r.createdAt) FROM Restaurant r ORDER BY r.id")
+    List<RestaurantAdminSummaryResponse> findAllAdminSummaries();
+    
     // Fallback method name query (kept for reference, but replaced by above)
     List<Restaurant> findByNameContainingIgnoreCaseOrCuisineContainingIgnoreCase(String name, String cuisine);
     java.util.Optional<Restaurant> findByName(String name);
+
+    // id, name, cuisine for building the search index without loading entities
+    @Query("SELECT r.id, r.name, r.cuisine FROM Restaurant r")
+    List<Object[]> findSearchFields();
+
+    // Best-rated restaurant ids first, for the startup cache warm-up
+    @Query("SELECT r.id FROM Restaurant r ORDER BY r.rating DESC, r.id")
+    List<Long> findIdsByRatingDesc(Pageable pageable);
+
+    // id, name, cuisine, rating for the typeahead index
+    @Query("SELECT r.id, r.name, r.cuisine, r.rating FROM Restaurant r")
+    List<Object[]> findSuggestFields();
+
+    @Query("SELECT new com.example.restaurantservice.dto.RestaurantCoordinates(r.id, r.latitude, r.longitude) " +
+           "FROM Restaurant r WHERE r.id = :id")
+    Optional<RestaurantCoordinates> findCoordinatesById(@Param("id") Long id);
+
+    // id, latitude, longitude, isOpen of every restaurant with coordinates, for the nearby index
+    @Query("SELECT r.id, r.latitude, r.longitude, r.isOpen FROM Restaurant r " +
+           "WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<Object[]> findLocations();
+
+    // id, cuisine, isOpen, rating, deliveryTime for the listing facet index
+    @Query("SELECT r.id, r.cuisine, r.isOpen, r.rating, r.deliveryTime FROM Restaurant r")
+    List<Object[]> findListingFields();
+
+    @Query("SELECT COALESCE(r.menuVersion, 0) FROM Restaurant r WHERE r.id = :id")
+    java.util.Optional<Long> findMenuVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Restaurant r SET r.menuVersion = COALESCE(r.menuVersion, 0) + 1 WHERE r.id = :id")
+    int incrementMenuVersion(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,317 @@
+package com.example.restaurantservice.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search over restaurant names, cuisines and menu item names. Text is split into words; each distinct
+ * word is indexed once by its padded trigrams, and each word keeps the restaurants (and fields) it occurs in.
+ * A query word matches vocabulary words that equal it, start with it, contain it, or share enough trigrams
+ * (Jaccard similarity), which is what makes typos like "piza" still find "pizza". A restaurant must match every
+ * query word; its score sums the best match per word, weighted by field (name > cuisine > menu item).
+ */
+public class RestaurantSearchIndex {
+
+    public static final byte NAME = 1;
+    public static final byte CUISINE = 2;
+    public static final byte MENU_ITEM = 4;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public record Hit(long restaurantId, double score) {
+    }
+
+    private static final class Document {
+        String name;
+        String cuisine;
+        final Map<Long, String> menuItems = new HashMap<>();
+        Map<Integer, Byte> terms = Map.of();
+    }
+
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private final double minSimilarity;
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<Map<Long, Byte>> restaurantsByWord = new ArrayList<>();
+    private final Map<Long, Postings> wordsByTrigram = new HashMap<>();
+    private int[] trigramCounts = new int[64];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RestaurantSearchIndex(double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    // Inserts or renames a restaurant, keeping any menu items already indexed for it
+    public void putRestaurant(long restaurantId, String name, String cuisine) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.computeIfAbsent(restaurantId, id -> new Document());
+            document.name = name;
+            document.cuisine = cuisine;
+            reindex(restaurantId, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putMenuItem(long restaurantId, long menuItemId, String name) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.computeIfAbsent(restaurantId, id -> new Document());
+            if (document.menuItems.put(menuItemId, name) != null) {
+                reindex(restaurantId, document); // Renamed item: its old words may have to go
+                return;
+            }
+            // New item only adds words, so merge them without re-reading the rest of the menu
+            Map<Integer, Byte> added = new HashMap<>();
+            addTerms(added, name, MENU_ITEM);
+            if (document.terms.isEmpty()) {
+                document.terms = new HashMap<>();
+            }
+            added.forEach((wordId, field) -> {
+                byte fields = document.terms.merge(wordId, field, (a, b) -> (byte) (a | b));
+                restaurantsByWord.get(wordId).put(restaurantId, fields);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeMenuItem(long restaurantId, long menuItemId) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.get(restaurantId);
+            if (document != null && document.menuItems.remove(menuItemId) != null) {
+                reindex(restaurantId, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRestaurant(long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.remove(restaurantId);
+            if (document != null) {
+                document.terms.keySet().forEach(wordId -> restaurantsByWord.get(wordId).remove(restaurantId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Restaurants matching every word of the query, best first; ties go to the lower id
+    public List<Hit> search(String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = new HashMap<>();
+                matchWords(token).forEach((wordId, termScore) -> restaurantsByWord.get(wordId).forEach((restaurantId, fields) ->
+                        tokenScores.merge(restaurantId, termScore * fieldWeight(fields), Math::max)));
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((restaurantId, score) -> score + tokenScores.get(restaurantId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((restaurantId, score) -> hits.add(new Hit(restaurantId, score)));
+            hits.sort((a, b) -> a.score() != b.score() ? Double.compare(b.score(), a.score())
+                    : Long.compare(a.restaurantId(), b.restaurantId()));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Random indexed words that still occur somewhere, for benchmark queries
+    public List<String> sampleWords(int count, long seed) {
+        lock.readLock().lock();
+        try {
+            List<String> live = new ArrayList<>();
+            for (int wordId = 0; wordId < words.size(); wordId++) {
+                if (!restaurantsByWord.get(wordId).isEmpty()) {
+                    live.add(words.get(wordId));
+                }
+            }
+            List<String> sample = new ArrayList<>(count);
+            Random random = new Random(seed);
+            for (int i = 0; i < count && !live.isEmpty(); i++) {
+                sample.add(live.get(random.nextInt(live.size())));
+            }
+            return sample;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            return words.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lowercase, accents stripped, split on anything that is not a letter or digit
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = text.chars().allMatch(c -> c < 128) ? text
+                : COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : WORD_SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Recomputes the document's word -> fields map and applies only the difference to the postings
+    private void reindex(long restaurantId, Document document) {
+        Map<Integer, Byte> terms = new HashMap<>();
+        addTerms(terms, document.name, NAME);
+        addTerms(terms, document.cuisine, CUISINE);
+        document.menuItems.values().forEach(name -> addTerms(terms, name, MENU_ITEM));
+        for (Integer wordId : document.terms.keySet()) {
+            if (!terms.containsKey(wordId)) {
+                restaurantsByWord.get(wordId).remove(restaurantId);
+            }
+        }
+        terms.forEach((wordId, fields) -> restaurantsByWord.get(wordId).put(restaurantId, fields));
+        document.terms = terms;
+    }
+
+    private void addTerms(Map<Integer, Byte> terms, String text, byte field) {
+        for (String token : tokenize(text)) {
+            terms.merge(wordId(token), field, (a, b) -> (byte) (a | b));
+        }
+    }
+
+    private int wordId(String word) {
+        Integer existing = wordIds.get(word);
+        if (existing != null) {
+            return existing;
+        }
+        int wordId = words.size();
+        words.add(word);
+        wordIds.put(word, wordId);
+        restaurantsByWord.add(new HashMap<>());
+        long[] grams = trigrams(word);
+        for (long gram : grams) {
+            wordsByTrigram.computeIfAbsent(gram, g -> new Postings()).add(wordId);
+        }
+        if (wordId == trigramCounts.length) {
+            trigramCounts = Arrays.copyOf(trigramCounts, wordId * 2);
+        }
+        trigramCounts[wordId] = grams.length;
+        return wordId;
+    }
+
+    // Vocabulary words close enough to the token, with their match score
+    private Map<Integer, Double> matchWords(String token) {
+        long[] grams = trigrams(token);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (long gram : grams) {
+            Postings postings = wordsByTrigram.get(gram);
+            if (postings != null) {
+                for (int i = 0; i < postings.size; i++) {
+                    shared.merge(postings.ids[i], 1, Integer::sum);
+                }
+            }
+        }
+        Map<Integer, Double> matches = new HashMap<>();
+        shared.forEach((wordId, count) -> {
+            double score = termScore(token, words.get(wordId), count, grams.length, trigramCounts[wordId]);
+            if (score > 0) {
+                matches.put(wordId, score);
+            }
+        });
+        return matches;
+    }
+
+    private double termScore(String token, String word, int shared, int tokenGrams, int wordGrams) {
+        if (word.equals(token)) {
+            return 1.0;
+        }
+        if (word.startsWith(token)) {
+            return 0.9;
+        }
+        if (token.length() >= 3 && word.contains(token)) {
+            return 0.75;
+        }
+        double similarity = (double) shared / (tokenGrams + wordGrams - shared);
+        return similarity >= minSimilarity ? similarity * 0.7 : 0;
+    }
+
+    private static double fieldWeight(byte fields) {
+        if ((fields & NAME) != 0) {
+            return 3;
+        }
+        return (fields & CUISINE) != 0 ? 2 : 1;
+    }
+
+    // Distinct trigrams of "  word ", so short words and word starts still produce grams
+    static long[] trigrams(String word) {
+        String padded = "  " + word + " ";
+        long[] grams = new long[padded.length() - 2];
+        int count = 0;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            long gram = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            boolean seen = false;
+            for (int j = 0; j < count && !seen; j++) {
+                seen = grams[j] == gram;
+            }
+            if (!seen) {
+                grams[count++] = gram;
+            }
+        }
+        return Arrays.copyOf(grams, count);
+    }
+}
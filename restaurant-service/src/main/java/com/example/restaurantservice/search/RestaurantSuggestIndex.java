@@ -0,0 +1,164 @@
+package com.example.restaurantservice.search;
+
+import com.example.restaurantservice.listing.RestaurantFacetIndex;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typeahead suggestions for restaurants, cuisines and dishes on top of a SuggestionTrie. Restaurants are ranked
+ * by rating; a cuisine or dish by how many restaurants offer it, so the counts are kept here per restaurant and
+ * only the suggestions whose count changed are rewritten in the trie.
+ */
+public class RestaurantSuggestIndex {
+
+    public record Result(List<SuggestionTrie.Suggestion> restaurants, List<SuggestionTrie.Suggestion> cuisines,
+                         List<SuggestionTrie.Suggestion> dishes) {
+    }
+
+    private static final class Term {
+        final String text;
+        int restaurants;
+
+        Term(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class Listed {
+        Set<String> cuisines = Set.of();
+        final Set<String> dishes = new HashSet<>();
+    }
+
+    private final SuggestionTrie trie;
+    private final Map<Long, Listed> restaurants = new HashMap<>();
+    private final Map<String, Term> cuisines = new HashMap<>();
+    private final Map<String, Term> dishes = new HashMap<>();
+    private boolean bulkLoading = false;
+
+    public RestaurantSuggestIndex(int topK) {
+        this.trie = new SuggestionTrie(topK);
+    }
+
+    // Until finishBulkLoad, cuisine and dish counts are only tallied, so each term enters the trie once
+    public synchronized void startBulkLoad() {
+        bulkLoading = true;
+    }
+
+    public synchronized void finishBulkLoad() {
+        bulkLoading = false;
+        cuisines.forEach((key, term) -> publish(SuggestionTrie.Type.CUISINE, key, term));
+        dishes.forEach((key, term) -> publish(SuggestionTrie.Type.DISH, key, term));
+    }
+
+    public synchronized void putRestaurant(long restaurantId, String name, String cuisine, double rating) {
+        trie.put("r:" + restaurantId, SuggestionTrie.Type.RESTAURANT, name, restaurantId, rating);
+        Listed listed = restaurants.computeIfAbsent(restaurantId, id -> new Listed());
+        Set<String> keys = new HashSet<>();
+        for (String label : RestaurantFacetIndex.splitCuisines(cuisine)) {
+            String key = SuggestionTrie.normalize(label);
+            if (!key.isEmpty() && keys.add(key) && !listed.cuisines.contains(key)) {
+                adjust(cuisines, SuggestionTrie.Type.CUISINE, key, label, 1);
+            }
+        }
+        for (String key : listed.cuisines) {
+            if (!keys.contains(key)) {
+                adjust(cuisines, SuggestionTrie.Type.CUISINE, key, null, -1);
+            }
+        }
+        listed.cuisines = keys;
+    }
+
+    // Replaces the restaurant's dishes, e.g. after a menu import or a PUT with a new menu
+    public synchronized void setDishes(long restaurantId, Collection<String> names) {
+        Listed listed = restaurants.computeIfAbsent(restaurantId, id -> new Listed());
+        Map<String, String> keys = new HashMap<>();
+        for (String name : names) {
+            String key = SuggestionTrie.normalize(name);
+            if (!key.isEmpty()) {
+                keys.putIfAbsent(key, name.trim());
+            }
+        }
+        for (Map.Entry<String, String> entry : keys.entrySet()) {
+            if (listed.dishes.add(entry.getKey())) {
+                adjust(dishes, SuggestionTrie.Type.DISH, entry.getKey(), entry.getValue(), 1);
+            }
+        }
+        listed.dishes.removeIf(key -> {
+            if (keys.containsKey(key)) {
+                return false;
+            }
+            adjust(dishes, SuggestionTrie.Type.DISH, key, null, -1);
+            return true;
+        });
+    }
+
+    public synchronized void addDish(long restaurantId, String name) {
+        String key = SuggestionTrie.normalize(name);
+        if (!key.isEmpty() && restaurants.computeIfAbsent(restaurantId, id -> new Listed()).dishes.add(key)) {
+            adjust(dishes, SuggestionTrie.Type.DISH, key, name.trim(), 1);
+        }
+    }
+
+    // Re-ranks the restaurant's suggestion; its name and cuisines are unchanged
+    public synchronized void setRating(long restaurantId, double rating) {
+        SuggestionTrie.Suggestion current = trie.get("r:" + restaurantId);
+        if (current != null && current.weight() != rating) {
+            trie.put("r:" + restaurantId, SuggestionTrie.Type.RESTAURANT, current.text(), restaurantId, rating);
+        }
+    }
+
+    public synchronized void removeRestaurant(long restaurantId) {
+        trie.remove("r:" + restaurantId);
+        Listed listed = restaurants.remove(restaurantId);
+        if (listed != null) {
+            listed.cuisines.forEach(key -> adjust(cuisines, SuggestionTrie.Type.CUISINE, key, null, -1));
+            listed.dishes.forEach(key -> adjust(dishes, SuggestionTrie.Type.DISH, key, null, -1));
+        }
+    }
+
+    public Result suggest(String prefix, int limit) {
+        return new Result(trie.suggest(prefix, SuggestionTrie.Type.RESTAURANT, limit),
+                trie.suggest(prefix, SuggestionTrie.Type.CUISINE, limit),
+                trie.suggest(prefix, SuggestionTrie.Type.DISH, limit));
+    }
+
+    public int size() {
+        return trie.size();
+    }
+
+    public int nodeCount() {
+        return trie.nodeCount();
+    }
+
+    // The first spelling seen is the one suggested; the term leaves the trie when no restaurant offers it
+    private void adjust(Map<String, Term> terms, SuggestionTrie.Type type, String key, String text, int delta) {
+        Term term = terms.get(key);
+        if (term == null) {
+            if (delta < 0) {
+                return;
+            }
+            term = new Term(text);
+            terms.put(key, term);
+        }
+        term.restaurants += delta;
+        if (term.restaurants <= 0) {
+            terms.remove(key);
+            trie.remove(id(type, key));
+        } else if (!bulkLoading) {
+            publish(type, key, term);
+        }
+    }
+
+    private void publish(SuggestionTrie.Type type, String key, Term term) {
+        trie.put(id(type, key), type, term.text, null, term.restaurants);
+    }
+
+    private static String id(SuggestionTrie.Type type, String key) {
+        return (type == SuggestionTrie.Type.CUISINE ? "c:" : "d:") + key;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.restaurantservice.search;
+
+import com.example.restaurantservice.dto.SearchBenchmarkReport;
+import com.example.restaurantservice.dto.SearchStrategyResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Deterministic benchmark of the search index against the substring scan that searchRestaurants' JPQL performs.
+ * A seeded synthetic catalogue (common dish vocabulary plus a long tail of house specials) is searched with words
+ * taken from random restaurants, half of them with a one-letter typo. The scan runs in memory over pre-lowercased
+ * text, so it is a lower bound on what the database does per query (no I/O, join or DISTINCT).
+ */
+public final class SearchBenchmark {
+
+    private static final int MENU_ITEMS_PER_RESTAURANT = 40;
+    private static final int WARM_UP_QUERIES = 100;
+
+    static final String[] NAME_WORDS = {"Spice", "Golden", "Royal", "Green", "Urban", "Little", "Blue", "Grand",
+            "Coastal", "Saffron", "Tandoor", "Silver", "Lucky", "Bamboo", "Olive", "Smoky", "Garden", "Kitchen", "Palace",
+            "House", "Bistro", "Corner", "Express", "Grill", "Diner", "Cafe", "Table", "Bowl", "Oven", "Wok"};
+    static final String[] CUISINES = {"North Indian", "South Indian", "Chinese", "Italian", "Mexican", "Thai",
+            "Japanese", "Continental", "Mughlai", "Street Food", "Desserts", "Bakery", "Biryani", "Fast Food", "Korean",
+            "Lebanese"};
+    static final String[] DISHES = {"Biryani", "Pizza", "Burger", "Noodles", "Fried Rice", "Tikka", "Masala",
+            "Curry", "Dosa", "Idli", "Pasta", "Lasagna", "Taco", "Burrito", "Sushi", "Ramen", "Momos", "Paratha", "Kebab",
+            "Shawarma", "Salad", "Sandwich", "Wrap", "Soup", "Brownie", "Cheesecake", "Falafel", "Risotto", "Dumplings"};
+    static final String[] MODIFIERS = {"Chicken", "Paneer", "Veg", "Mutton", "Egg", "Prawn", "Mushroom", "Spicy",
+            "Butter", "Garlic", "Schezwan", "Hyderabadi", "Malai", "Tandoori", "Cheese", "Classic", "Smoked", "Crispy",
+            "Chilli", "Lemon", "Mango", "Kadai", "Peri Peri"};
+    static final String[] SYLLABLES = {"ka", "ri", "mo", "sa", "lu", "te", "na", "vo", "pi", "dha", "ru", "ke",
+            "zu", "ba", "lo", "mi", "gha", "ne", "to", "chi"};
+
+    private SearchBenchmark() {
+    }
+
+    public static SearchBenchmarkReport run(double minSimilarity, int menuItemCount, int queryCount, long seed) {
+        Random random = new Random(seed);
+        int restaurantCount = Math.max(1, menuItemCount / MENU_ITEMS_PER_RESTAURANT);
+        String[] names = new String[restaurantCount];
+        String[] cuisines = new String[restaurantCount];
+        List<List<String>> menus = new ArrayList<>(restaurantCount);
+        for (int r = 0; r < restaurantCount; r++) {
+            names[r] = pick(random, NAME_WORDS) + " " + pick(random, NAME_WORDS) + " " + capitalize(invent(random));
+            cuisines[r] = pick(random, CUISINES) + (random.nextInt(3) == 0 ? ", " + pick(random, CUISINES) : "");
+            menus.add(new ArrayList<>());
+        }
+        for (int i = 0; i < menuItemCount; i++) {
+            // Round-robin first so every restaurant gets items, then whatever is left lands randomly
+            int r = i < restaurantCount ? i : random.nextInt(restaurantCount);
+            String dish = pick(random, MODIFIERS) + " " + pick(random, DISHES);
+            menus.get(r).add(random.nextInt(5) == 0 ? capitalize(invent(random)) + " " + dish : dish);
+        }
+
+        long buildStart = System.nanoTime();
+        RestaurantSearchIndex index = new RestaurantSearchIndex(minSimilarity);
+        long menuItemId = 1;
+        for (int r = 0; r < restaurantCount; r++) {
+            index.putRestaurant(r, names[r], cuisines[r]);
+            for (String item : menus.get(r)) {
+                index.putMenuItem(r, menuItemId++, item);
+            }
+        }
+        double buildMillis = (System.nanoTime() - buildStart) / 1e6;
+
+        String[] lowerNames = new String[restaurantCount];
+        String[] lowerCuisines = new String[restaurantCount];
+        String[][] lowerMenus = new String[restaurantCount][];
+        for (int r = 0; r < restaurantCount; r++) {
+            lowerNames[r] = names[r].toLowerCase(Locale.ROOT);
+            lowerCuisines[r] = cuisines[r].toLowerCase(Locale.ROOT);
+            lowerMenus[r] = menus.get(r).stream().map(item -> item.toLowerCase(Locale.ROOT)).toArray(String[]::new);
+        }
+
+        String[] queries = new String[queryCount];
+        int[] targets = new int[queryCount];
+        boolean[] typos = new boolean[queryCount];
+        int typoCount = 0;
+        for (int q = 0; q < queryCount; q++) {
+            int r = random.nextInt(restaurantCount);
+            int field = random.nextInt(3);
+            String text = field == 0 ? names[r] : field == 1 ? cuisines[r] : menus.get(r).get(random.nextInt(menus.get(r).size()));
+            List<String> words = RestaurantSearchIndex.tokenize(text);
+            String word = words.get(random.nextInt(words.size()));
+            targets[q] = r;
+            if (word.length() >= 5 && random.nextBoolean()) {
+                word = typo(random, word);
+                typos[q] = true;
+                typoCount++;
+            }
+            queries[q] = word;
+        }
+
+        List<SearchStrategyResult> results = new ArrayList<>();
+        results.add(measure("jpql-like-scan", queries, targets, typos, query -> {
+            List<Integer> matches = new ArrayList<>();
+            for (int r = 0; r < restaurantCount; r++) {
+                if (lowerNames[r].contains(query) || lowerCuisines[r].contains(query) || anyContains(lowerMenus[r], query)) {
+                    matches.add(r);
+                }
+            }
+            return matches;
+        }));
+        results.add(measure("trigram-index", queries, targets, typos, query -> {
+            List<Integer> matches = new ArrayList<>();
+            for (RestaurantSearchIndex.Hit hit : index.search(query, Integer.MAX_VALUE)) {
+                matches.add((int) hit.restaurantId());
+            }
+            return matches;
+        }));
+        return new SearchBenchmarkReport(seed, restaurantCount, menuItemCount, queryCount, typoCount,
+                index.vocabularySize(), round(buildMillis), results);
+    }
+
+    private static SearchStrategyResult measure(String name, String[] queries, int[] targets, boolean[] typos,
+                                                Function<String, List<Integer>> search) {
+        for (int q = 0; q < Math.min(queries.length, WARM_UP_QUERIES); q++) {
+            search.apply(queries[q]);
+        }
+        double[] millis = new double[queries.length];
+        long totalResults = 0;
+        int found = 0;
+        int typoFound = 0;
+        int typoTotal = 0;
+        for (int q = 0; q < queries.length; q++) {
+            long start = System.nanoTime();
+            List<Integer> matches = search.apply(queries[q]);
+            millis[q] = (System.nanoTime() - start) / 1e6;
+            totalResults += matches.size();
+            boolean hit = matches.contains(targets[q]);
+            found += hit ? 1 : 0;
+            if (typos[q]) {
+                typoTotal++;
+                typoFound += hit ? 1 : 0;
+            }
+        }
+        double[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return new SearchStrategyResult(name, round(Arrays.stream(millis).average().orElse(0)),
+                round(sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95) - 1)]),
+                round((double) totalResults / queries.length), round((double) found / queries.length),
+                typoTotal > 0 ? round((double) typoFound / typoTotal) : 0);
+    }
+
+    // One deletion, substitution, transposition or insertion, never on the first letter
+    private static String typo(Random random, String word) {
+        int position = 1 + random.nextInt(word.length() - 2);
+        char letter = (char) ('a' + random.nextInt(26));
+        StringBuilder typo = new StringBuilder(word);
+        switch (random.nextInt(4)) {
+            case 0 -> typo.deleteCharAt(position);
+            case 1 -> typo.setCharAt(position, letter);
+            case 2 -> {
+                typo.setCharAt(position, word.charAt(position + 1));
+                typo.setCharAt(position + 1, word.charAt(position));
+            }
+            default -> typo.insert(position, letter);
+        }
+        return typo.toString();
+    }
+
+    private static boolean anyContains(String[] texts, String query) {
+        for (String text : texts) {
+            if (text.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String invent(Random random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            word.append(pick(random, SYLLABLES));
+        }
+        return word.toString();
+    }
+
+    static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.restaurantservice.search;
+
+import com.example.restaurantservice.dto.SuggestBenchmarkReport;
+import com.example.restaurantservice.dto.SuggestStrategyResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Deterministic benchmark of typeahead lookups. The catalogue is generated the same way as SearchBenchmark's, and
+ * queries are the first one to six letters of a word from a random restaurant name, cuisine or dish, as typed
+ * keystroke by keystroke. The trie is compared with scanning every suggestion's keys and sorting the matches,
+ * which is also the reference for agreement.
+ */
+public final class SuggestBenchmark {
+
+    private static final int MENU_ITEMS_PER_RESTAURANT = 40;
+    private static final int WARM_UP_QUERIES = 200;
+
+    private record Candidate(String id, SuggestionTrie.Type type, String text, double weight, String[] keys) {
+    }
+
+    private static final Comparator<Candidate> RANK = Comparator
+            .comparingDouble((Candidate candidate) -> -candidate.weight())
+            .thenComparing(Candidate::text)
+            .thenComparing(Candidate::id);
+
+    private SuggestBenchmark() {
+    }
+
+    public static SuggestBenchmarkReport run(int topK, int menuItemCount, int queryCount, int limit, long seed) {
+        Random random = new Random(seed);
+        int restaurantCount = Math.max(1, menuItemCount / MENU_ITEMS_PER_RESTAURANT);
+        String[] names = new String[restaurantCount];
+        String[] cuisines = new String[restaurantCount];
+        double[] ratings = new double[restaurantCount];
+        List<List<String>> menus = new ArrayList<>(restaurantCount);
+        for (int r = 0; r < restaurantCount; r++) {
+            names[r] = SearchBenchmark.pick(random, SearchBenchmark.NAME_WORDS) + " "
+                    + SearchBenchmark.pick(random, SearchBenchmark.NAME_WORDS) + " "
+                    + SearchBenchmark.capitalize(SearchBenchmark.invent(random));
+            cuisines[r] = SearchBenchmark.pick(random, SearchBenchmark.CUISINES)
+                    + (random.nextInt(3) == 0 ? ", " + SearchBenchmark.pick(random, SearchBenchmark.CUISINES) : "");
+            ratings[r] = Math.round(Math.max(1, Math.min(5, 3.9 + random.nextGaussian() * 0.5)) * 10) / 10.0;
+            menus.add(new ArrayList<>());
+        }
+        for (int i = 0; i < menuItemCount; i++) {
+            int r = i < restaurantCount ? i : random.nextInt(restaurantCount);
+            String dish = SearchBenchmark.pick(random, SearchBenchmark.MODIFIERS) + " "
+                    + SearchBenchmark.pick(random, SearchBenchmark.DISHES);
+            menus.get(r).add(random.nextInt(5) == 0 ? SearchBenchmark.capitalize(SearchBenchmark.invent(random)) + " " + dish : dish);
+        }
+
+        long buildStart = System.nanoTime();
+        RestaurantSuggestIndex index = new RestaurantSuggestIndex(topK);
+        index.startBulkLoad();
+        for (int r = 0; r < restaurantCount; r++) {
+            index.putRestaurant(r, names[r], cuisines[r], ratings[r]);
+            index.setDishes(r, menus.get(r));
+        }
+        index.finishBulkLoad();
+        double buildMillis = (System.nanoTime() - buildStart) / 1e6;
+
+        // The same suggestions, flattened for the scan
+        List<Candidate> candidates = new ArrayList<>();
+        Map<String, String> cuisineTexts = new LinkedHashMap<>();
+        Map<String, Integer> cuisineCounts = new HashMap<>();
+        Map<String, String> dishTexts = new LinkedHashMap<>();
+        Map<String, Integer> dishCounts = new HashMap<>();
+        for (int r = 0; r < restaurantCount; r++) {
+            candidates.add(new Candidate("r:" + r, SuggestionTrie.Type.RESTAURANT, names[r], ratings[r],
+                    SuggestionTrie.keys(names[r])));
+            countDistinct(Arrays.asList(cuisines[r].split(",")), cuisineTexts, cuisineCounts);
+            countDistinct(menus.get(r), dishTexts, dishCounts);
+        }
+        cuisineTexts.forEach((key, text) -> candidates.add(new Candidate("c:" + key, SuggestionTrie.Type.CUISINE, text,
+                cuisineCounts.get(key), SuggestionTrie.keys(text))));
+        dishTexts.forEach((key, text) -> candidates.add(new Candidate("d:" + key, SuggestionTrie.Type.DISH, text,
+                dishCounts.get(key), SuggestionTrie.keys(text))));
+
+        String[] queries = new String[queryCount];
+        for (int q = 0; q < queryCount; q++) {
+            Candidate candidate = candidates.get(random.nextInt(candidates.size()));
+            String word = candidate.keys()[random.nextInt(candidate.keys().length)];
+            int space = word.indexOf(' ');
+            word = space < 0 ? word : word.substring(0, space);
+            queries[q] = word.substring(0, Math.min(word.length(), 1 + random.nextInt(6)));
+        }
+
+        List<List<String>> reference = new ArrayList<>();
+        SuggestStrategyResult scan = measure("linear-prefix-scan", queries, null, prefix -> {
+            String key = SuggestionTrie.normalize(prefix);
+            Map<SuggestionTrie.Type, List<Candidate>> matches = new HashMap<>();
+            for (Candidate candidate : candidates) {
+                for (String candidateKey : candidate.keys()) {
+                    if (candidateKey.startsWith(key)) {
+                        matches.computeIfAbsent(candidate.type(), type -> new ArrayList<>()).add(candidate);
+                        break;
+                    }
+                }
+            }
+            List<String> texts = new ArrayList<>();
+            for (SuggestionTrie.Type type : SuggestionTrie.Type.values()) {
+                matches.getOrDefault(type, List.of()).stream().sorted(RANK).limit(limit)
+                        .forEach(candidate -> texts.add(candidate.text()));
+            }
+            return texts;
+        }, reference);
+        SuggestStrategyResult trie = measure("prefix-trie", queries, reference, prefix -> {
+            RestaurantSuggestIndex.Result result = index.suggest(prefix, limit);
+            List<String> texts = new ArrayList<>();
+            result.restaurants().forEach(suggestion -> texts.add(suggestion.text()));
+            result.cuisines().forEach(suggestion -> texts.add(suggestion.text()));
+            result.dishes().forEach(suggestion -> texts.add(suggestion.text()));
+            return texts;
+        }, null);
+        return new SuggestBenchmarkReport(seed, restaurantCount, menuItemCount, index.size(), index.nodeCount(),
+                queryCount, round(buildMillis), List.of(scan, trie));
+    }
+
+    private static SuggestStrategyResult measure(String name, String[] queries, List<List<String>> reference,
+                                                 Function<String, List<String>> suggest, List<List<String>> record) {
+        for (int q = 0; q < Math.min(queries.length, WARM_UP_QUERIES); q++) {
+            suggest.apply(queries[q]);
+        }
+        double[] millis = new double[queries.length];
+        long totalSuggestions = 0;
+        int agreeing = 0;
+        for (int q = 0; q < queries.length; q++) {
+            long start = System.nanoTime();
+            List<String> texts = suggest.apply(queries[q]);
+            millis[q] = (System.nanoTime() - start) / 1e6;
+            totalSuggestions += texts.size();
+            if (record != null) {
+                record.add(texts);
+            }
+            if (reference == null || reference.get(q).equals(texts)) {
+                agreeing++;
+            }
+        }
+        double[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return new SuggestStrategyResult(name, round(Arrays.stream(millis).average().orElse(0)),
+                round(sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.99) - 1)]),
+                round((double) totalSuggestions / queries.length), round((double) agreeing / queries.length));
+    }
+
+    // Counts each normalized text once per restaurant, keeping its first spelling
+    private static void countDistinct(List<String> texts, Map<String, String> spellings, Map<String, Integer> counts) {
+        Map<String, String> distinct = new LinkedHashMap<>();
+        for (String text : texts) {
+            String key = SuggestionTrie.normalize(text);
+            if (!key.isEmpty()) {
+                distinct.putIfAbsent(key, text.trim());
+            }
+        }
+        distinct.forEach((key, text) -> {
+            spellings.putIfAbsent(key, text);
+            counts.merge(key, 1, Integer::sum);
+        });
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10000) / 10000.0;
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.restaurantservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over restaurant names, cuisines and dishes as a compressed (radix) trie. A suggestion is reachable
+ * from the start of its text and from the start of its next few words, so "pan" finds "Butter Paneer". Every node
+ * keeps the top K suggestions of each type below it, highest weight first, so a lookup is one walk down the
+ * prefix and never visits the subtree. Writes recompute those lists along the changed paths only.
+ */
+public class SuggestionTrie {
+
+    public enum Type { RESTAURANT, CUISINE, DISH }
+
+    public record Suggestion(Type type, String text, Long restaurantId, double weight) {
+    }
+
+    private static final Entry[] NONE = new Entry[0];
+    private static final int MAX_KEYS = 4;
+    private static final int MAX_KEY_LENGTH = 40;
+
+    private static final class Entry {
+        final String id;
+        final Suggestion suggestion;
+        final String[] keys;
+
+        Entry(String id, Suggestion suggestion, String[] keys) {
+            this.id = id;
+            this.suggestion = suggestion;
+            this.keys = keys;
+        }
+    }
+
+    private static final class Node {
+        String label;
+        char[] childChars = new char[0];
+        Node[] children = new Node[0];
+        Entry[] terminals = NONE;
+        final Entry[][] top = {NONE, NONE, NONE};
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(childChars, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void putChild(Node child) {
+            char c = child.label.charAt(0);
+            int index = Arrays.binarySearch(childChars, c);
+            if (index >= 0) {
+                children[index] = child;
+                return;
+            }
+            index = -index - 1;
+            char[] chars = new char[childChars.length + 1];
+            Node[] nodes = new Node[children.length + 1];
+            System.arraycopy(childChars, 0, chars, 0, index);
+            System.arraycopy(children, 0, nodes, 0, index);
+            chars[index] = c;
+            nodes[index] = child;
+            System.arraycopy(childChars, index, chars, index + 1, childChars.length - index);
+            System.arraycopy(children, index, nodes, index + 1, children.length - index);
+            childChars = chars;
+            children = nodes;
+        }
+
+        void removeChild(char c) {
+            int index = Arrays.binarySearch(childChars, c);
+            if (index < 0) {
+                return;
+            }
+            char[] chars = new char[childChars.length - 1];
+            Node[] nodes = new Node[children.length - 1];
+            System.arraycopy(childChars, 0, chars, 0, index);
+            System.arraycopy(children, 0, nodes, 0, index);
+            System.arraycopy(childChars, index + 1, chars, index, chars.length - index);
+            System.arraycopy(children, index + 1, nodes, index, nodes.length - index);
+            childChars = chars;
+            children = nodes;
+        }
+    }
+
+    private static final Comparator<Entry> RANK = Comparator
+            .comparingDouble((Entry entry) -> -entry.suggestion.weight())
+            .thenComparing(entry -> entry.suggestion.text())
+            .thenComparing(entry -> entry.id);
+
+    private final int topK;
+    private final Node root = new Node("");
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int nodeCount = 1;
+
+    public SuggestionTrie(int topK) {
+        this.topK = topK;
+    }
+
+    // Adds or replaces the suggestion with this id
+    public void put(String id, Type type, String text, Long restaurantId, double weight) {
+        String[] keys = keys(text);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                for (String key : previous.keys) {
+                    removeKey(key, previous);
+                }
+            }
+            if (keys.length == 0) {
+                return;
+            }
+            Entry entry = new Entry(id, new Suggestion(type, text, restaurantId, weight), keys);
+            entries.put(id, entry);
+            for (String key : keys) {
+                insertKey(key, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Suggestion get(String id) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            return entry == null ? null : entry.suggestion;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(id);
+            if (entry != null) {
+                for (String key : entry.keys) {
+                    removeKey(key, entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Up to limit suggestions of the type whose text (or one of its leading words) starts with prefix
+    public List<Suggestion> suggest(String prefix, Type type, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            key = key.substring(0, MAX_KEY_LENGTH);
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int matched = 0;
+            while (matched < key.length()) {
+                Node child = node.child(key.charAt(matched));
+                if (child == null) {
+                    return List.of();
+                }
+                String label = child.label;
+                int remaining = key.length() - matched;
+                if (remaining <= label.length()) {
+                    if (!label.regionMatches(0, key, matched, remaining)) {
+                        return List.of();
+                    }
+                    node = child;
+                    break;
+                }
+                if (!key.regionMatches(matched, label, 0, label.length())) {
+                    return List.of();
+                }
+                matched += label.length();
+                node = child;
+            }
+            Entry[] top = node.top[type.ordinal()];
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, top.length));
+            for (int i = 0; i < top.length && i < limit; i++) {
+                suggestions.add(top[i].suggestion);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insertKey(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Node child = node.child(key.charAt(matched));
+            if (child == null) {
+                child = new Node(key.substring(matched));
+                nodeCount++;
+                node.putChild(child);
+                matched = key.length();
+            } else {
+                int common = commonPrefix(child.label, key, matched);
+                if (common < child.label.length()) {
+                    // Split the edge: node -> middle -> child
+                    Node middle = new Node(child.label.substring(0, common));
+                    nodeCount++;
+                    child.label = child.label.substring(common);
+                    middle.putChild(child);
+                    System.arraycopy(child.top, 0, middle.top, 0, child.top.length);
+                    node.putChild(middle);
+                    child = middle;
+                }
+                matched += common;
+            }
+            node = child;
+            path.add(node);
+        }
+        node.terminals = append(node.terminals, entry);
+        // An entry that misses a node's top K also misses every ancestor's, which rank a superset
+        int type = entry.suggestion.type().ordinal();
+        for (int i = path.size() - 1; i >= 0; i--) {
+            if (!offer(path.get(i), type, entry)) {
+                break;
+            }
+        }
+    }
+
+    private void removeKey(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Node child = node.child(key.charAt(matched));
+            if (child == null || !key.startsWith(child.label, matched)) {
+                return;
+            }
+            matched += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        node.terminals = without(node.terminals, entry);
+        // Prune empty leaves and merge pass-through nodes, bottom up
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.terminals.length == 0 && current.children.length == 0) {
+                parent.removeChild(current.label.charAt(0));
+                nodeCount--;
+                path.remove(i);
+            } else if (current.terminals.length == 0 && current.children.length == 1) {
+                Node only = current.children[0];
+                current.label = current.label + only.label;
+                current.childChars = only.childChars;
+                current.children = only.children;
+                current.terminals = only.terminals; // Its top lists still rank the same subtree
+                nodeCount--;
+                if (i + 1 < path.size()) {
+                    path.remove(i + 1);
+                }
+            }
+        }
+        // Only lists that held the entry change, and an ancestor can only hold it if its child on the path did
+        int type = entry.suggestion.type().ordinal();
+        for (int i = path.size() - 1; i >= 0 && contains(path.get(i).top[type], entry); i--) {
+            recompute(path.get(i), type);
+        }
+    }
+
+    // Inserts the entry into the node's top list if it ranks within the top K; false if it does not (or is there)
+    private boolean offer(Node node, int type, Entry entry) {
+        Entry[] top = node.top[type];
+        if (contains(top, entry)) {
+            return false;
+        }
+        int position = top.length;
+        while (position > 0 && RANK.compare(entry, top[position - 1]) < 0) {
+            position--;
+        }
+        if (position >= topK) {
+            return false;
+        }
+        Entry[] result = new Entry[Math.min(topK, top.length + 1)];
+        System.arraycopy(top, 0, result, 0, position);
+        result[position] = entry;
+        System.arraycopy(top, position, result, position + 1, result.length - position - 1);
+        node.top[type] = result;
+        return true;
+    }
+
+    // A node's top list comes from its own terminals and its children's top lists
+    private void recompute(Node node, int type) {
+        Set<Entry> candidates = new LinkedHashSet<>();
+        for (Entry entry : node.terminals) {
+            if (entry.suggestion.type().ordinal() == type) {
+                candidates.add(entry);
+            }
+        }
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top[type]));
+        }
+        node.top[type] = candidates.stream().sorted(RANK).limit(topK).toArray(Entry[]::new);
+    }
+
+    private static boolean contains(Entry[] entries, Entry entry) {
+        for (Entry existing : entries) {
+            if (existing == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The whole text and the text from each of its next few words, normalized and length-capped
+    static String[] keys(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        int start = 0;
+        while (start >= 0 && keys.size() < MAX_KEYS) {
+            String key = normalized.substring(start);
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    // Lowercase letters and digits; everything else separates words. Apostrophes are dropped ("Domino's" -> "dominos")
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(Character.toLowerCase(c));
+                space = false;
+            } else if (c != '\'' && c != '’') {
+                space = true;
+            }
+        }
+        return builder.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        if (contains(entries, entry)) {
+            return entries;
+        }
+        Entry[] result = Arrays.copyOf(entries, entries.length + 1);
+        result[entries.length] = entry;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == entry) {
+                if (entries.length == 1) {
+                    return NONE;
+                }
+                Entry[] result = new Entry[entries.length - 1];
+                System.arraycopy(entries, 0, result, 0, i);
+                System.arraycopy(entries, i + 1, result, i, entries.length - i - 1);
+                return result;
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.repository.RestaurantRepository;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the restaurant caches before the instance takes traffic. The instance registers with Eureka as STARTING
+ * (eureka.instance.initial-status), so the gateway does not route to it; once the restaurant list, the best-rated
+ * restaurants and their menus are loaded in parallel, or the time budget runs out, it is marked UP. A failed
+ * warm-up only costs cold misses, so errors are logged and the instance still comes up.
+ */
+@Service
+public class CacheWarmUpService {
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private MenuPayloadService menuPayloadService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired(required = false)
+    private ApplicationInfoManager applicationInfoManager;
+
+    @Value("${app.cache.warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.warm-up.top-restaurants:100}")
+    private int topRestaurants;
+
+    @Value("${app.cache.warm-up.threads:4}")
+    private int threads;
+
+    @Value("${app.cache.warm-up.timeout-seconds:60}")
+    private long timeoutSeconds;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        try {
+            if (enabled) {
+                preload();
+            }
+        } finally {
+            if (applicationInfoManager != null) {
+                applicationInfoManager.setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+            }
+        }
+    }
+
+    private void preload() {
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            executor.execute(() -> run("restaurant list", restaurantService::getAllRestaurants));
+            List<Long> ids = restaurantRepository.findIdsByRatingDesc(PageRequest.of(0, topRestaurants));
+            for (Long id : ids) {
+                executor.execute(() -> run("restaurant " + id, () -> {
+                    restaurantService.getRestaurantById(id);
+                    restaurantService.getMenuItems(id);
+                    menuPayloadService.getMenuPayload(id);
+                }));
+            }
+            executor.shutdown();
+            boolean finished = executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS);
+            System.out.println("Cache warm-up " + (finished ? "finished" : "timed out") + " for " + ids.size()
+                    + " restaurants in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.out.println("Cache warm-up failed: " + e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(String what, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            System.out.println("Cache warm-up of " + what + " failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.availability.MenuAvailabilityIndex;
+import com.example.restaurantservice.dto.MenuItemAvailabilityResponse;
+import com.example.restaurantservice.dto.MenuPayload;
+import com.example.restaurantservice.exception.ResourceNotFoundException;
+import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.model.Restaurant;
+import com.example.restaurantservice.repository.MenuItemRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sold-out toggles without entity updates or cache evictions. The current availability of each loaded restaurant's
+ * menu lives in a MenuAvailabilityIndex and is overlaid onto the cached restaurant and menu payload on every read,
+ * so the cached bodies stay valid. Toggles are written to MySQL in coalesced batches by a scheduled flush.
+ * <p>
+ * Each toggle is also recorded in a per-restaurant Redis hash (the journal) and published to the other instances.
+ * An instance loading a restaurant reads the journal on top of MySQL, so unflushed toggles are visible everywhere;
+ * entries are removed once written. If an instance dies before its flush, its entries stay in the journal and the
+ * periodic recovery sweep writes any older than the grace period. Writes only apply if newer than the row's
+ * availability_changed_at, so a replay can never overwrite a later toggle or menu update.
+ */
+@Service
+public class MenuAvailabilityService {
+
+    private static final String UPDATE_SQL = "UPDATE menu_items SET is_available = ?, availability_changed_at = ? " +
+            "WHERE id = ? AND (availability_changed_at IS NULL OR availability_changed_at < ?)";
+
+    private static final String RELOAD = "*";
+
+    // Removes journal entries still holding the value that was written; a newer toggle of the same item stays
+    private static final DefaultRedisScript<Long> CLEAR_JOURNAL = new DefaultRedisScript<>(
+            "local removed = 0\n" +
+            "for i = 1, #ARGV, 2 do\n" +
+            "  if redis.call('HGET', KEYS[1], ARGV[i]) == ARGV[i + 1] then\n" +
+            "    removed = removed + redis.call('HDEL', KEYS[1], ARGV[i])\n" +
+            "  end\n" +
+            "end\n" +
+            "return removed", Long.class);
+
+    // Where each item's isAvailable literal sits in a cached menu payload
+    private record Layout(String etag, long[] itemIds, boolean[] available, int[] offsets, int[] lengths) {
+    }
+
+    private record Overlaid(String sourceEtag, long signature, MenuPayload payload) {
+    }
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.key-prefix:${spring.application.name}}")
+    private String keyPrefix;
+
+    @Value("${menu.availability.recovery-grace-ms:30000}")
+    private long recoveryGraceMillis;
+
+    private final MenuAvailabilityIndex index = new MenuAvailabilityIndex();
+    private final Map<Long, Layout> layouts = new ConcurrentHashMap<>();
+    private final Map<Long, Overlaid> overlaid = new ConcurrentHashMap<>();
+    private final String instanceId = UUID.randomUUID().toString();
+    private String channel;
+    private String journalPrefix;
+
+    @PostConstruct
+    public void init() {
+        channel = keyPrefix + "::menu-availability";
+        journalPrefix = keyPrefix + "::menu-availability::";
+        listenerContainer.addMessageListener((message, pattern) ->
+                onMessage(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(channel));
+        meterRegistry.gauge("menu.availability.restaurants", index, MenuAvailabilityIndex::restaurantCount);
+        meterRegistry.gauge("menu.availability.pending", index, MenuAvailabilityIndex::pendingCount);
+    }
+
+    public MenuItemAvailabilityResponse setAvailability(Long restaurantId, Long menuItemId, boolean available) {
+        ensureLoaded(restaurantId);
+        MenuAvailabilityIndex.Change change = index.toggle(restaurantId, menuItemId, available, System.currentTimeMillis());
+        if (change == null) {
+            // Possibly added since the restaurant was loaded
+            load(restaurantId);
+            change = index.toggle(restaurantId, menuItemId, available, System.currentTimeMillis());
+            if (change == null) {
+                throw new ResourceNotFoundException("Menu item " + menuItemId + " not found in restaurant " + restaurantId);
+            }
+        }
+        journal(change);
+        return new MenuItemAvailabilityResponse(restaurantId, menuItemId, available);
+    }
+
+    // The restaurant as cached, or a copy whose menu items carry the current availability
+    public Restaurant overlay(Restaurant restaurant) {
+        List<MenuItem> items = restaurant.getMenuItems();
+        if (items == null || items.isEmpty()) {
+            return restaurant;
+        }
+        ensureLoaded(restaurant.getId());
+        List<MenuItem> current = null;
+        for (int i = 0; i < items.size(); i++) {
+            MenuItem item = items.get(i);
+            Boolean available = item.getId() == null ? null : index.isAvailable(restaurant.getId(), item.getId());
+            boolean cached = !Boolean.FALSE.equals(item.getIsAvailable());
+            if (available != null && available != cached) {
+                if (current == null) {
+                    current = new ArrayList<>(items);
+                }
+                MenuItem copy = new MenuItem();
+                BeanUtils.copyProperties(item, copy);
+                copy.setIsAvailable(available);
+                current.set(i, copy);
+            }
+        }
+        if (current == null) {
+            return restaurant;
+        }
+        Restaurant copy = new Restaurant();
+        BeanUtils.copyProperties(restaurant, copy);
+        copy.setMenuItems(current);
+        return copy;
+    }
+
+    // The cached payload, or one with the isAvailable literals of changed items rewritten (and an ETag to match)
+    public MenuPayload overlay(Long restaurantId, MenuPayload payload) {
+        ensureLoaded(restaurantId);
+        Layout layout = layouts.get(restaurantId);
+        if (layout == null || !layout.etag().equals(payload.getEtag())) {
+            layout = layout(payload);
+            layouts.put(restaurantId, layout);
+        }
+        boolean[] current = new boolean[layout.itemIds().length];
+        long signature = 0;
+        boolean changed = false;
+        for (int i = 0; i < current.length; i++) {
+            Boolean available = index.isAvailable(restaurantId, layout.itemIds()[i]);
+            current[i] = available == null ? layout.available()[i] : available;
+            if (current[i] != layout.available()[i]) {
+                changed = true;
+                signature = signature * 31 + layout.itemIds()[i] * 2 + (current[i] ? 1 : 0);
+            }
+        }
+        if (!changed) {
+            return payload;
+        }
+        Overlaid previous = overlaid.get(restaurantId);
+        if (previous != null && previous.sourceEtag().equals(payload.getEtag()) && previous.signature() == signature) {
+            return previous.payload();
+        }
+        byte[] json = patch(payload.getJson(), layout, current);
+        byte[] gzip = payload.getGzip() == null ? null : MenuPayloadService.gzip(json);
+        MenuPayload result = new MenuPayload(payload.getVersion(),
+                payload.getEtag() + "-" + Long.toHexString(signature), json, gzip);
+        overlaid.put(restaurantId, new Overlaid(payload.getEtag(), signature, result));
+        return result;
+    }
+
+    // After a menu is replaced or deleted: pending toggles are superseded, here and on the other instances
+    public void onMenuReplaced(Long restaurantId) {
+        forget(restaurantId);
+        try {
+            redisTemplate.delete(journalPrefix + restaurantId);
+            redisTemplate.convertAndSend(channel, instanceId + "|" + restaurantId + "|" + RELOAD);
+        } catch (RuntimeException e) {
+            System.out.println("Menu availability reload publish failed for restaurant " + restaurantId + ": " + e.getMessage());
+        }
+    }
+
+    // Message format: <instance>|<restaurant>|<item>|<0|1>|<changedAt>, or <instance>|<restaurant>|* to reload
+    public void onMessage(String message) {
+        String[] parts = message.split("\\|");
+        if (parts.length < 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            long restaurantId = Long.parseLong(parts[1]);
+            if (RELOAD.equals(parts[2])) {
+                forget(restaurantId);
+            } else if (parts.length == 5 && index.isLoaded(restaurantId)) {
+                MenuAvailabilityIndex.Change change = new MenuAvailabilityIndex.Change(restaurantId,
+                        Long.parseLong(parts[2]), "1".equals(parts[3]), Long.parseLong(parts[4]));
+                if (!index.apply(change)) {
+                    // An item added since this instance loaded the menu; load it again on next use
+                    forget(restaurantId);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring malformed menu availability message: " + message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${menu.availability.flush-interval-ms:1000}")
+    public void flush() {
+        List<MenuAvailabilityIndex.Change> changes = index.drainPending();
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            write(changes);
+        } catch (RuntimeException e) {
+            // Keep them for the next flush; the journal still has them if this instance does not get there
+            changes.forEach(index::restorePending);
+            System.out.println("Failed to flush " + changes.size() + " menu availability changes: " + e.getMessage());
+            return;
+        }
+        clearJournal(changes);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Writes journal entries older than the grace period, i.e. those their instance should long have flushed
+    @Scheduled(fixedDelayString = "${menu.availability.recovery-interval-ms:60000}")
+    public void recover() {
+        long cutoff = System.currentTimeMillis() - recoveryGraceMillis;
+        int recovered = 0;
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().match(journalPrefix + "*").count(1000).build())) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                long restaurantId = Long.parseLong(key.substring(journalPrefix.length()));
+                List<MenuAvailabilityIndex.Change> stale = new ArrayList<>();
+                for (Map.Entry<Object, Object> entry : redisTemplate.opsForHash().entries(key).entrySet()) {
+                    MenuAvailabilityIndex.Change change = parseJournal(restaurantId, (String) entry.getKey(), (String) entry.getValue());
+                    if (change != null && change.changedAt() < cutoff) {
+                        stale.add(change);
+                    }
+                }
+                if (!stale.isEmpty()) {
+                    write(stale);
+                    clearJournal(stale);
+                    recovered += stale.size();
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Menu availability recovery failed: " + e.getMessage());
+        }
+        if (recovered > 0) {
+            System.out.println("Recovered " + recovered + " unflushed menu availability changes from the journal");
+        }
+    }
+
+    private void ensureLoaded(Long restaurantId) {
+        if (!index.isLoaded(restaurantId)) {
+            load(restaurantId);
+        }
+    }
+
+    // MySQL, then the journal on top of it for toggles not written yet
+    private void load(Long restaurantId) {
+        List<Object[]> rows = menuItemRepository.findAvailabilityByRestaurantId(restaurantId);
+        long[] itemIds = new long[rows.size()];
+        boolean[] available = new boolean[rows.size()];
+        long[] changedAt = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            itemIds[i] = (Long) row[0];
+            available[i] = !Boolean.FALSE.equals(row[1]);
+            changedAt[i] = row[2] == null ? 0 : (Long) row[2];
+        }
+        index.load(restaurantId, itemIds, available, changedAt);
+        try {
+            redisTemplate.opsForHash().entries(journalPrefix + restaurantId).forEach((item, value) -> {
+                MenuAvailabilityIndex.Change change = parseJournal(restaurantId, (String) item, (String) value);
+                if (change != null) {
+                    index.apply(change);
+                }
+            });
+        } catch (RuntimeException e) {
+            System.out.println("Menu availability journal read failed for restaurant " + restaurantId + ": " + e.getMessage());
+        }
+    }
+
+    private void forget(long restaurantId) {
+        index.remove(restaurantId);
+        layouts.remove(restaurantId);
+        overlaid.remove(restaurantId);
+    }
+
+    // Journal entry and peer notification in one round trip; if Redis is down the toggle is still flushed from here
+    private void journal(MenuAvailabilityIndex.Change change) {
+        byte[] key = (journalPrefix + change.restaurantId()).getBytes(StandardCharsets.UTF_8);
+        byte[] field = String.valueOf(change.itemId()).getBytes(StandardCharsets.UTF_8);
+        byte[] value = journalValue(change).getBytes(StandardCharsets.UTF_8);
+        byte[] message = (instanceId + "|" + change.restaurantId() + "|" + change.itemId() + "|"
+                + journalValue(change).replace(':', '|')).getBytes(StandardCharsets.UTF_8);
+        byte[] topic = channel.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) (RedisConnection connection) -> {
+                connection.hashCommands().hSet(key, field, value);
+                connection.publish(topic, message);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            System.out.println("Menu availability journal write failed for restaurant " + change.restaurantId() + ": " + e.getMessage());
+        }
+    }
+
+    private void write(List<MenuAvailabilityIndex.Change> changes) {
+        jdbcTemplate.batchUpdate(UPDATE_SQL, changes, changes.size(), (statement, change) -> {
+            statement.setBoolean(1, change.available());
+            statement.setLong(2, change.changedAt());
+            statement.setLong(3, change.itemId());
+            statement.setLong(4, change.changedAt());
+        });
+    }
+
+    private void clearJournal(List<MenuAvailabilityIndex.Change> changes) {
+        Map<Long, List<String>> byRestaurant = new HashMap<>();
+        for (MenuAvailabilityIndex.Change change : changes) {
+            List<String> arguments = byRestaurant.computeIfAbsent(change.restaurantId(), id -> new ArrayList<>());
+            arguments.add(String.valueOf(change.itemId()));
+            arguments.add(journalValue(change));
+        }
+        try {
+            byRestaurant.forEach((restaurantId, arguments) -> redisTemplate.execute(CLEAR_JOURNAL,
+                    List.of(journalPrefix + restaurantId), arguments.toArray()));
+        } catch (RuntimeException e) {
+            // Left-over entries are harmless: replaying them is a no-op against the newer row
+            System.out.println("Menu availability journal cleanup failed: " + e.getMessage());
+        }
+    }
+
+    private static String journalValue(MenuAvailabilityIndex.Change change) {
+        return (change.available() ? "1" : "0") + ":" + change.changedAt();
+    }
+
+    private static MenuAvailabilityIndex.Change parseJournal(long restaurantId, String item, String value) {
+        int colon = value.indexOf(':');
+        if (colon < 0) {
+            return null;
+        }
+        try {
+            return new MenuAvailabilityIndex.Change(restaurantId, Long.parseLong(item), value.startsWith("1"),
+                    Long.parseLong(value.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Finds each item's id and isAvailable literal in the encoded ApiResponse<List<MenuItem>>
+    private Layout layout(MenuPayload payload) {
+        List<long[]> found = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload.getJson())) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY && "data".equals(field)) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            long[] item = readItem(parser);
+                            if (item != null) {
+                                found.add(item);
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read menu payload " + payload.getEtag(), e);
+        }
+        long[] itemIds = new long[found.size()];
+        boolean[] available = new boolean[found.size()];
+        int[] offsets = new int[found.size()];
+        int[] lengths = new int[found.size()];
+        for (int i = 0; i < found.size(); i++) {
+            long[] item = found.get(i);
+            itemIds[i] = item[0];
+            available[i] = item[1] == 1;
+            offsets[i] = (int) item[2];
+            lengths[i] = (int) item[3];
+        }
+        return new Layout(payload.getEtag(), itemIds, available, offsets, lengths);
+    }
+
+    // id, available (0/1), offset and length of the isAvailable literal; null if either is missing
+    private static long[] readItem(JsonParser parser) throws IOException {
+        long id = -1;
+        long[] literal = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("id".equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                id = parser.getLongValue();
+            } else if ("isAvailable".equals(field) && token.isScalarValue()) {
+                literal = new long[]{token == JsonToken.VALUE_FALSE ? 0 : 1,
+                        parser.getTokenLocation().getByteOffset(), parser.getText().length()};
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return id < 0 || literal == null ? null : new long[]{id, literal[0], literal[1], literal[2]};
+    }
+
+    private static byte[] patch(byte[] json, Layout layout, boolean[] current) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length + 16);
+        int copied = 0;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != layout.available()[i]) {
+                out.write(json, copied, layout.offsets()[i] - copied);
+                out.writeBytes((current[i] ? "true" : "false").getBytes(StandardCharsets.US_ASCII));
+                copied = layout.offsets()[i] + layout.lengths()[i];
+            }
+        }
+        out.write(json, copied, json.length - copied);
+        return out.toByteArray();
+    }
+}
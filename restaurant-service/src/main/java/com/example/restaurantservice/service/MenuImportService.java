@@ -0,0 +1,377 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.dto.MenuImportError;
+import com.example.restaurantservice.dto.MenuImportReport;
+import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.repository.RestaurantRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk menu import from a CSV (with header) or JSON-lines stream. Rows are parsed and validated with the MenuItem
+ * constraints as they are read, then inserted with JDBC batches, one transaction per chunk; a chunk the database
+ * rejects is retried row by row so the failing rows can be reported. Menu caches, the menu version and the
+ * search index are updated once per import.
+ */
+@Service
+public class MenuImportService {
+
+    public static final String CSV = "csv";
+    public static final String JSON_LINES = "jsonl";
+
+    private static final String INSERT_SQL = "INSERT INTO menu_items " +
+            "(name, description, price, category, image_url, is_available, is_veg, restaurant_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private record Row(long number, MenuItem item) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RestaurantSearchService restaurantSearchService;
+
+    @Autowired
+    private RestaurantListingService restaurantListingService;
+
+    @Autowired
+    private RestaurantSuggestService restaurantSuggestService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${menu.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${menu.import.max-rows:200000}")
+    private int maxRows;
+
+    @Value("${menu.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public MenuImportReport importMenu(Long restaurantId, String format, InputStream body) {
+        long start = System.currentTimeMillis();
+        MenuImportReport report = new MenuImportReport(restaurantId, format, 0, 0, 0, 0, new ArrayList<>());
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024)) {
+            if (CSV.equals(format)) {
+                readCsv(reader, restaurantId, report, chunk);
+            } else if (JSON_LINES.equals(format)) {
+                readJsonLines(reader, restaurantId, report, chunk);
+            } else {
+                throw new IllegalArgumentException("Unsupported import format: " + format);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read import body", e);
+        } finally {
+            // Whatever was parsed before a read error is still written, matching the chunks already committed
+            insert(chunk, report);
+            if (report.getImported() > 0) {
+                transactionTemplate.executeWithoutResult(status -> restaurantRepository.incrementMenuVersion(restaurantId));
+                // Here rather than @CacheEvict, which only runs when the import returns normally
+                evictCaches(restaurantId);
+                restaurantSearchService.onMenuImported(restaurantId);
+                restaurantListingService.onMenuImported(restaurantId);
+                restaurantSuggestService.onMenuImported(restaurantId);
+                eventPublisher.publishEvent(new RestaurantChanged(restaurantId));
+            }
+            report.setElapsedMillis(System.currentTimeMillis() - start);
+            System.out.println("Menu import for restaurant " + restaurantId + ": " + report.getImported() + " imported, "
+                    + report.getFailed() + " failed in " + report.getElapsedMillis() + " ms");
+        }
+        return report;
+    }
+
+    private void evictCaches(Long restaurantId) {
+        cacheManager.getCache("menuItems").evict(restaurantId);
+        cacheManager.getCache("menuPayload").evict(restaurantId);
+        cacheManager.getCache("restaurant").evict(restaurantId);
+        cacheManager.getCache("restaurantSummaries").clear();
+        cacheManager.getCache("restaurantSummarySearch").clear();
+    }
+
+    private void readCsv(BufferedReader reader, Long restaurantId, MenuImportReport report, List<Row> chunk) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            if (!List.of("name", "description", "price", "category", "imageurl", "isavailable", "isveg").contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + header.get(i));
+            }
+            columns.put(column, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new IllegalArgumentException("CSV header must include name and price");
+        }
+        while (true) {
+            List<String> fields;
+            try {
+                fields = csv.next();
+            } catch (IllegalArgumentException e) { // The rest of the input is inside the unterminated quote
+                fail(report, report.getRowsRead() + 1, e.getMessage());
+                return;
+            }
+            if (fields == null || !withinLimit(report)) {
+                return;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            long number = nextRow(report);
+            try {
+                MenuItem item = new MenuItem();
+                item.setName(field(fields, columns, "name"));
+                item.setDescription(field(fields, columns, "description"));
+                String price = field(fields, columns, "price");
+                item.setPrice(price == null ? null : parsePrice(price));
+                item.setCategory(field(fields, columns, "category"));
+                item.setImageUrl(field(fields, columns, "imageurl"));
+                item.setIsAvailable(flag(field(fields, columns, "isavailable"), true));
+                item.setIsVeg(flag(field(fields, columns, "isveg"), false));
+                accept(number, item, restaurantId, report, chunk);
+            } catch (IllegalArgumentException e) {
+                fail(report, number, e.getMessage());
+            }
+        }
+    }
+
+    private void readJsonLines(BufferedReader reader, Long restaurantId, MenuImportReport report, List<Row> chunk) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!withinLimit(report)) {
+                return;
+            }
+            long number = nextRow(report);
+            MenuItem item;
+            try {
+                item = objectMapper.readValue(line, MenuItem.class);
+            } catch (JsonProcessingException e) {
+                fail(report, number, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (item.getIsAvailable() == null) {
+                item.setIsAvailable(true);
+            }
+            if (item.getIsVeg() == null) {
+                item.setIsVeg(false);
+            }
+            accept(number, item, restaurantId, report, chunk);
+        }
+    }
+
+    private boolean withinLimit(MenuImportReport report) {
+        if (report.getRowsRead() < maxRows) {
+            return true;
+        }
+        fail(report, report.getRowsRead() + 1, "Imports are limited to " + maxRows + " rows; the remaining input was ignored");
+        return false;
+    }
+
+    private long nextRow(MenuImportReport report) {
+        report.setRowsRead(report.getRowsRead() + 1);
+        return report.getRowsRead();
+    }
+
+    private void accept(long number, MenuItem item, Long restaurantId, MenuImportReport report, List<Row> chunk) {
+        item.setId(null);
+        Set<ConstraintViolation<MenuItem>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            fail(report, number, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return;
+        }
+        chunk.add(new Row(number, item));
+        if (chunk.size() >= chunkSize) {
+            insert(chunk, report);
+        }
+    }
+
+    private void insert(List<Row> chunk, MenuImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Long restaurantId = report.getRestaurantId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(),
+                    (ps, row) -> bind(ps, row.item(), restaurantId, now)));
+            report.setImported(report.getImported() + chunk.size());
+        } catch (RuntimeException batchFailure) {
+            // Find the offending rows; the rest of the chunk still goes in
+            for (Row row : chunk) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row.item(), restaurantId, now));
+                    report.setImported(report.getImported() + 1);
+                } catch (RuntimeException e) {
+                    fail(report, row.number(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private static void bind(PreparedStatement ps, MenuItem item, Long restaurantId, Timestamp now) throws SQLException {
+        ps.setString(1, item.getName());
+        ps.setString(2, item.getDescription());
+        ps.setDouble(3, item.getPrice());
+        ps.setString(4, item.getCategory());
+        ps.setString(5, item.getImageUrl());
+        ps.setBoolean(6, item.getIsAvailable());
+        ps.setBoolean(7, item.getIsVeg());
+        ps.setLong(8, restaurantId);
+        ps.setTimestamp(9, now);
+        ps.setTimestamp(10, now);
+    }
+
+    private void fail(MenuImportReport report, long row, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new MenuImportError(row, message));
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Double parsePrice(String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: " + value);
+        }
+    }
+
+    private static Boolean flag(String value, boolean defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid boolean: " + value);
+        };
+    }
+
+    /**
+     * RFC 4180 records: comma separated, fields optionally double-quoted, "" inside quotes is a quote, and quoted
+     * fields may span lines.
+     */
+    private static final class CsvReader {
+
+        private final BufferedReader reader;
+        private final StringBuilder field = new StringBuilder();
+
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            boolean quoted = false;
+            field.setLength(0);
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted CSV field");
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
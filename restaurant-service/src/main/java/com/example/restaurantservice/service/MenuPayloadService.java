@@ -0,0 +1,69 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.dto.ApiResponse;
+import com.example.restaurantservice.dto.MenuPayload;
+import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.repository.MenuItemRepository;
+import com.example.restaurantservice.repository.RestaurantRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds the GET /restaurants/{id}/menu response once per menu version. The encoded bytes are cached under
+ * "menuPayload" and evicted by RestaurantService whenever it bumps the menu version, so reads serve cached bytes
+ * without touching Jackson.
+ */
+@Service
+public class MenuPayloadService {
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${menu.payload.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    // Read-write so it runs on the primary: bytes and version from a lagging replica would be cached for the
+    // whole TTL, and clients holding the old ETag would keep getting 304
+    @Transactional
+    @Cacheable(value = "menuPayload", key = "#restaurantId", sync = true)
+    public MenuPayload getMenuPayload(Long restaurantId) {
+        // Read the version first: a concurrent change can only make the ETag older than the content, never newer
+        long version = restaurantRepository.findMenuVersion(restaurantId).orElse(0L);
+        List<MenuItem> menuItems = menuItemRepository.findByRestaurantId(restaurantId);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(ApiResponse.success(menuItems));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode menu of restaurant " + restaurantId, e);
+        }
+        byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+        return new MenuPayload(version, restaurantId + "-" + version, json, gzip);
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.dto.OpeningHoursBenchmarkReport;
+import com.example.restaurantservice.dto.OpeningHoursResponse;
+import com.example.restaurantservice.dto.RestaurantSummaryResponse;
+import com.example.restaurantservice.exception.ResourceNotFoundException;
+import com.example.restaurantservice.hours.OpenStateChange;
+import com.example.restaurantservice.hours.OpenStateTracker;
+import com.example.restaurantservice.hours.OpeningHoursBenchmark;
+import com.example.restaurantservice.hours.OpeningSchedule;
+import com.example.restaurantservice.model.HoursException;
+import com.example.restaurantservice.model.OpeningHours;
+import com.example.restaurantservice.model.Restaurant;
+import com.example.restaurantservice.model.WeeklyHours;
+import com.example.restaurantservice.repository.OpeningHoursRepository;
+import com.example.restaurantservice.repository.RestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opening hours and the open state they imply. A restaurant is open when its owner's open switch (Restaurant.isOpen)
+ * is on and, if it has opening hours, they say so; without hours the switch alone decides, as before. The current
+ * state of every restaurant with hours is held in an OpenStateTracker, loaded on startup and advanced by a scheduled
+ * tick, so reads never evaluate a schedule. Each change is published as an OpenStateChange event for the listing
+ * and nearby indexes; browse summaries, which are cached with the switch as stored, get the state applied on read.
+ */
+@Service
+public class OpeningHoursService {
+
+    @Autowired
+    private OpeningHoursRepository openingHoursRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final OpenStateTracker tracker = new OpenStateTracker();
+    private volatile boolean ready = false;
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("restaurants.hours.scheduled", tracker, OpenStateTracker::size);
+        meterRegistry.gauge("restaurants.hours.open", tracker, OpenStateTracker::openCount);
+    }
+
+    public boolean isOpen(Long restaurantId, Boolean manualOpen) {
+        return Boolean.TRUE.equals(manualOpen) && !Boolean.FALSE.equals(tracker.scheduledOpen(restaurantId));
+    }
+
+    // Summaries may be shared cache entries, so those whose state differs from their stored switch are copied
+    public List<RestaurantSummaryResponse> withOpenState(List<RestaurantSummaryResponse> restaurants) {
+        List<RestaurantSummaryResponse> result = null;
+        for (int i = 0; i < restaurants.size(); i++) {
+            RestaurantSummaryResponse restaurant = restaurants.get(i);
+            boolean open = isOpen(restaurant.getId(), restaurant.getIsOpen());
+            if (open != Boolean.TRUE.equals(restaurant.getIsOpen())) {
+                if (result == null) {
+                    result = new ArrayList<>(restaurants);
+                }
+                RestaurantSummaryResponse copy = new RestaurantSummaryResponse();
+                BeanUtils.copyProperties(restaurant, copy);
+                copy.setIsOpen(open);
+                result.set(i, copy);
+            }
+        }
+        return result == null ? restaurants : result;
+    }
+
+    @Transactional(readOnly = true)
+    public OpeningHoursResponse getHours(Long restaurantId) {
+        Restaurant restaurant = findRestaurant(restaurantId);
+        OpeningHours hours = openingHoursRepository.findById(restaurantId)
+                .orElseThrow(() -> new ResourceNotFoundException("No opening hours set for restaurant with id: " + restaurantId));
+        return response(hours, compile(hours), restaurant);
+    }
+
+    // Replaces the restaurant's hours; the new state applies as soon as the write commits
+    @Transactional
+    public OpeningHoursResponse setHours(Long restaurantId, OpeningHours hours) {
+        Restaurant restaurant = findRestaurant(restaurantId);
+        if (hours.getExceptions() == null) {
+            hours.setExceptions(new ArrayList<>());
+        }
+        OpeningSchedule schedule = compile(hours);
+        hours.setRestaurantId(restaurantId);
+        OpeningHours saved = openingHoursRepository.save(hours);
+        boolean manualOpen = Boolean.TRUE.equals(restaurant.getIsOpen());
+        afterCommit(() -> {
+            touch(restaurantId);
+            eventPublisher.publishEvent(new OpenStateChange(restaurantId,
+                    tracker.put(restaurantId, schedule, manualOpen, Instant.now())));
+            eventPublisher.publishEvent(new RestaurantChanged(restaurantId));
+        });
+        return response(saved, schedule, restaurant);
+    }
+
+    // Back to the open switch alone
+    @Transactional
+    public void deleteHours(Long restaurantId) {
+        Restaurant restaurant = findRestaurant(restaurantId);
+        if (!openingHoursRepository.existsById(restaurantId)) {
+            throw new ResourceNotFoundException("No opening hours set for restaurant with id: " + restaurantId);
+        }
+        openingHoursRepository.deleteById(restaurantId);
+        boolean manualOpen = Boolean.TRUE.equals(restaurant.getIsOpen());
+        afterCommit(() -> {
+            touch(restaurantId);
+            tracker.remove(restaurantId);
+            eventPublisher.publishEvent(new OpenStateChange(restaurantId, manualOpen));
+            eventPublisher.publishEvent(new RestaurantChanged(restaurantId));
+        });
+    }
+
+    // Part of deleting the restaurant, in its transaction
+    @Transactional
+    public void deleteForRestaurant(Long restaurantId) {
+        openingHoursRepository.findById(restaurantId).ifPresent(openingHoursRepository::delete);
+    }
+
+    // Called before the listing and nearby indexes are updated, so they see the new switch
+    public void onRestaurantSaved(Restaurant restaurant) {
+        touch(restaurant.getId());
+        tracker.setManualOpen(restaurant.getId(), Boolean.TRUE.equals(restaurant.getIsOpen()));
+    }
+
+    public void onRestaurantDeleted(Long restaurantId) {
+        touch(restaurantId);
+        tracker.remove(restaurantId);
+    }
+
+    // Re-reads one restaurant's hours and open switch, e.g. after another instance changed them. The nearby and
+    // listing indexes re-read the restaurant themselves afterwards, so no OpenStateChange is published.
+    public void reload(Long restaurantId) {
+        touch(restaurantId);
+        tracker.remove(restaurantId);
+        openingHoursRepository.findById(restaurantId).ifPresent(hours -> restaurantRepository.findById(restaurantId)
+                .ifPresent(restaurant -> tracker.put(restaurantId, compile(hours),
+                        Boolean.TRUE.equals(restaurant.getIsOpen()), Instant.now())));
+    }
+
+    @Scheduled(fixedDelayString = "${restaurants.hours.tick-interval-ms:15000}")
+    public void tick() {
+        if (!ready) {
+            return;
+        }
+        for (OpenStateChange change : tracker.advance(Instant.now())) {
+            eventPublisher.publishEvent(change);
+        }
+    }
+
+    // Before RestaurantListingService and RestaurantLocationService, which take open states from here
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void loadFromDatabase() {
+        long start = System.currentTimeMillis();
+        Map<Long, List<OpeningSchedule.Weekly>> weekly = new HashMap<>();
+        for (Object[] row : openingHoursRepository.findWeeklyFields()) {
+            weekly.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new OpeningSchedule.Weekly((DayOfWeek) row[1], (LocalTime) row[2], (LocalTime) row[3]));
+        }
+        Map<Long, List<OpeningSchedule.Exception>> exceptions = new HashMap<>();
+        for (Object[] row : openingHoursRepository.findExceptionFields()) {
+            exceptions.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new OpeningSchedule.Exception((LocalDate) row[1], (LocalTime) row[2], (LocalTime) row[3]));
+        }
+        Instant now = Instant.now();
+        for (Object[] row : openingHoursRepository.findScheduleFields()) {
+            Long restaurantId = (Long) row[0];
+            try {
+                tracker.put(restaurantId, OpeningSchedule.compile((String) row[1],
+                        weekly.getOrDefault(restaurantId, List.of()), exceptions.getOrDefault(restaurantId, List.of())),
+                        Boolean.TRUE.equals(row[2]), now);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Ignoring opening hours of restaurant " + restaurantId + ": " + e.getMessage());
+            }
+        }
+        ready = true;
+        touchedDuringLoad.forEach(this::reload);
+        touchedDuringLoad.clear();
+        System.out.println("Opening hours loaded: " + tracker.size() + " restaurants with hours, "
+                + tracker.openCount() + " open now, in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public OpeningHoursBenchmarkReport benchmark(int restaurants, int simulatedHours, int tickSeconds, int requests, long seed) {
+        if (restaurants <= 0 || restaurants > 200_000 || requests <= 0 || requests > 1000) {
+            throw new IllegalArgumentException("restaurants must be between 1 and 200000 and requests between 1 and 1000");
+        }
+        if (simulatedHours <= 0 || simulatedHours > 168 || tickSeconds <= 0 || tickSeconds > 3600) {
+            throw new IllegalArgumentException("hours must be between 1 and 168 and tickSeconds between 1 and 3600");
+        }
+        return OpeningHoursBenchmark.run(restaurants, simulatedHours, tickSeconds, requests, seed);
+    }
+
+    private Restaurant findRestaurant(Long restaurantId) {
+        return restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
+    }
+
+    private OpeningSchedule compile(OpeningHours hours) {
+        List<OpeningSchedule.Weekly> weekly = new ArrayList<>();
+        for (WeeklyHours interval : hours.getWeekly()) {
+            weekly.add(new OpeningSchedule.Weekly(interval.getDayOfWeek(), interval.getOpens(), interval.getCloses()));
+        }
+        List<OpeningSchedule.Exception> exceptions = new ArrayList<>();
+        for (HoursException exception : hours.getExceptions()) {
+            exceptions.add(new OpeningSchedule.Exception(exception.getDate(), exception.getOpens(), exception.getCloses()));
+        }
+        return OpeningSchedule.compile(hours.getTimeZone(), weekly, exceptions);
+    }
+
+    private OpeningHoursResponse response(OpeningHours hours, OpeningSchedule schedule, Restaurant restaurant) {
+        OpeningSchedule.State state = schedule.at(Instant.now());
+        return new OpeningHoursResponse(restaurant.getId(), hours.getTimeZone(), new ArrayList<>(hours.getWeekly()),
+                new ArrayList<>(hours.getExceptions()), Boolean.TRUE.equals(restaurant.getIsOpen()) && state.open(),
+                state.nextChange());
+    }
+
+    private void touch(Long restaurantId) {
+        if (!ready) {
+            touchedDuringLoad.add(restaurantId);
+        }
+    }
+
+    // Tracker updates only apply once the write is committed
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
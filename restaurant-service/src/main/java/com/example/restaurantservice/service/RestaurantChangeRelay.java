@@ -0,0 +1,98 @@
+package com.example.restaurantservice.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Keeps the in-memory restaurant indexes of every instance in step. The instance that commits a write updates its
+ * own indexes directly and publishes a RestaurantChanged event; this relays the restaurant id over Redis pub/sub,
+ * and each other instance re-reads that restaurant and applies it to its open-state, search, nearby, listing and
+ * suggest indexes (or removes it from them if it was deleted).
+ */
+@Service
+public class RestaurantChangeRelay {
+
+    @Autowired
+    private OpeningHoursService openingHoursService;
+
+    @Autowired
+    private RestaurantSearchService restaurantSearchService;
+
+    @Autowired
+    private RestaurantLocationService restaurantLocationService;
+
+    @Autowired
+    private RestaurantListingService restaurantListingService;
+
+    @Autowired
+    private RestaurantSuggestService restaurantSuggestService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.cache.key-prefix:${spring.application.name}}")
+    private String keyPrefix;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private String channel;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        channel = keyPrefix + "::restaurant-changes";
+        // Read-write, so the re-read goes to the primary: the replica may not have the write yet
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        listenerContainer.addMessageListener((message, pattern) ->
+                onMessage(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(channel));
+    }
+
+    @EventListener
+    public void onRestaurantChanged(RestaurantChanged change) {
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + "|" + change.restaurantId());
+        } catch (RuntimeException e) {
+            System.out.println("Restaurant change publish failed for restaurant " + change.restaurantId() + ": "
+                    + e.getMessage());
+        }
+    }
+
+    // Message format: <instance>|<restaurant>
+    public void onMessage(String message) {
+        String[] parts = message.split("\\|");
+        if (parts.length < 2 || instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            long restaurantId = Long.parseLong(parts[1]);
+            transactionTemplate.executeWithoutResult(status -> {
+                // Open state first: the nearby and listing indexes take theirs from it
+                openingHoursService.reload(restaurantId);
+                restaurantSearchService.reload(restaurantId);
+                restaurantLocationService.reload(restaurantId);
+                restaurantListingService.reload(restaurantId);
+                restaurantSuggestService.reload(restaurantId);
+            });
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring malformed restaurant change message: " + message);
+        } catch (RuntimeException e) {
+            System.out.println("Failed to apply restaurant change " + message + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.restaurantservice.service;
+
+/**
+ * A committed write to a restaurant, its menu or its opening hours. Published as an application event by the
+ * instance that made it; RestaurantChangeRelay passes it on to the other instances.
+ */
+public record RestaurantChanged(long restaurantId) {
+}
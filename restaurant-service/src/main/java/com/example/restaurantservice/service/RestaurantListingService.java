@@ -0,0 +1,206 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.dto.ListingBenchmarkReport;
+import com.example.restaurantservice.dto.RestaurantListingPage;
+import com.example.restaurantservice.dto.RestaurantSummaryResponse;
+import com.example.restaurantservice.hours.OpenStateChange;
+import com.example.restaurantservice.listing.ListingBenchmark;
+import com.example.restaurantservice.listing.RestaurantFacetIndex;
+import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.model.Restaurant;
+import com.example.restaurantservice.repository.MenuItemRepository;
+import com.example.restaurantservice.repository.RestaurantRepository;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Filtered, faceted restaurant listing from an in-memory RestaurantFacetIndex. The index is loaded on startup and
+ * kept in sync by RestaurantService and MenuImportService after each committed write, by the open state changes
+ * OpeningHoursService publishes and by the ratings RestaurantRatingService applies; restaurants written during the
+ * load are re-read once it completes. Only the requested page is loaded from the database.
+ */
+@Service
+public class RestaurantListingService {
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private OpeningHoursService openingHoursService;
+
+    @Value("${restaurants.listing.max-page-size:100}")
+    private int maxPageSize;
+
+    private final RestaurantFacetIndex index = new RestaurantFacetIndex();
+    private volatile boolean ready = false;
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    // Restaurant writes can replace the menu (PUT), so its veg counts are re-read as well
+    public void onRestaurantSaved(Restaurant restaurant) {
+        touch(restaurant.getId());
+        putRestaurant(restaurant);
+        refreshMenuCounts(restaurant.getId());
+    }
+
+    public void onRestaurantDeleted(Long restaurantId) {
+        touch(restaurantId);
+        index.remove(restaurantId);
+    }
+
+    public void onMenuItemSaved(Long restaurantId, MenuItem menuItem) {
+        touch(restaurantId);
+        index.addMenuItem(restaurantId, Boolean.TRUE.equals(menuItem.getIsVeg()));
+    }
+
+    public void onMenuImported(Long restaurantId) {
+        touch(restaurantId);
+        refreshMenuCounts(restaurantId);
+    }
+
+    // Re-reads one restaurant and its menu counts, e.g. after another instance changed it
+    public void reload(Long restaurantId) {
+        touch(restaurantId);
+        restaurantRepository.findById(restaurantId).ifPresentOrElse(this::onRestaurantSaved, () -> index.remove(restaurantId));
+    }
+
+    // Opening hours opened or closed the restaurant
+    @EventListener
+    public void onOpenStateChanged(OpenStateChange change) {
+        touch(change.restaurantId());
+        index.setOpen(change.restaurantId(), change.open());
+    }
+
+    public void onRatingChanged(Long restaurantId, double rating) {
+        touch(restaurantId);
+        index.setRating(restaurantId, rating);
+    }
+
+    public boolean isVegOnly(Long restaurantId) {
+        return index.isVegOnly(restaurantId);
+    }
+
+    // Summaries are cached with the rating they were loaded with; those that have changed since are copied
+    public List<RestaurantSummaryResponse> withCurrentRatings(List<RestaurantSummaryResponse> restaurants) {
+        if (!ready) {
+            return restaurants;
+        }
+        List<RestaurantSummaryResponse> result = null;
+        for (int i = 0; i < restaurants.size(); i++) {
+            RestaurantSummaryResponse restaurant = restaurants.get(i);
+            Double rating = index.rating(restaurant.getId());
+            if (rating != null && !rating.equals(restaurant.getRating())) {
+                if (result == null) {
+                    result = new ArrayList<>(restaurants);
+                }
+                RestaurantSummaryResponse copy = new RestaurantSummaryResponse();
+                BeanUtils.copyProperties(restaurant, copy);
+                copy.setRating(rating);
+                result.set(i, copy);
+            }
+        }
+        return result == null ? restaurants : result;
+    }
+
+    @Transactional(readOnly = true)
+    public RestaurantListingPage listing(List<String> cuisines, Boolean isOpen, boolean vegOnly, Double minRating,
+                                         Integer maxDeliveryMinutes, int page, int size) {
+        if (page < 0 || size <= 0 || size > maxPageSize) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + maxPageSize);
+        }
+        if (!ready) {
+            throw new IllegalStateException("Restaurant listing is still loading, please retry shortly");
+        }
+        RestaurantFacetIndex.Result result = index.query(
+                new RestaurantFacetIndex.Filter(cuisines, isOpen, vegOnly, minRating, maxDeliveryMinutes),
+                page * size, size, true);
+        Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(result.restaurantIds()).stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        List<RestaurantSummaryResponse> summaries = new ArrayList<>(result.restaurantIds().size());
+        for (Long restaurantId : result.restaurantIds()) {
+            Restaurant restaurant = restaurants.get(restaurantId);
+            if (restaurant != null) { // Deleted after the index was read
+                Double rating = index.rating(restaurantId);
+                summaries.add(new RestaurantSummaryResponse(restaurant.getId(), restaurant.getName(),
+                        restaurant.getAddress(), restaurant.getCuisine(), restaurant.getImageUrl(),
+                        rating != null ? rating : restaurant.getRating(),
+                        openingHoursService.isOpen(restaurantId, restaurant.getIsOpen()), restaurant.getDeliveryTime(),
+                        index.isVegOnly(restaurantId)));
+            }
+        }
+        return new RestaurantListingPage(page, size, result.total(), summaries, result.facets());
+    }
+
+    // Before CacheWarmUpService: the summaries it caches take their veg flags from this index. After
+    // OpeningHoursService, which decides the open flags
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @Transactional
+    public void loadFromDatabase() {
+        long start = System.currentTimeMillis();
+        for (Object[] row : restaurantRepository.findListingFields()) {
+            index.putRestaurant((Long) row[0], (String) row[1], openingHoursService.isOpen((Long) row[0], (Boolean) row[2]),
+                    row[3] == null ? 0.0 : (Double) row[3], RestaurantFacetIndex.deliveryMinutes((String) row[4]));
+        }
+        for (Object[] row : menuItemRepository.countVegByRestaurant()) {
+            index.setMenuCounts((Long) row[0], ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+        }
+        ready = true;
+        for (Long restaurantId : touchedDuringLoad) {
+            index.remove(restaurantId);
+            restaurantRepository.findById(restaurantId).ifPresent(restaurant -> {
+                putRestaurant(restaurant);
+                refreshMenuCounts(restaurantId);
+            });
+        }
+        touchedDuringLoad.clear();
+        System.out.println("Listing index loaded: " + index.size() + " restaurants in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public ListingBenchmarkReport benchmark(int restaurants, int queries, int pageSize, long seed) {
+        if (restaurants <= 0 || restaurants > 1_000_000 || queries <= 0 || queries > 10_000) {
+            throw new IllegalArgumentException("restaurants must be between 1 and 1000000 and queries between 1 and 10000");
+        }
+        if (pageSize <= 0 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + maxPageSize);
+        }
+        return ListingBenchmark.run(restaurants, queries, pageSize, seed);
+    }
+
+    private void putRestaurant(Restaurant restaurant) {
+        index.putRestaurant(restaurant.getId(), restaurant.getCuisine(),
+                openingHoursService.isOpen(restaurant.getId(), restaurant.getIsOpen()),
+                restaurant.getRating() == null ? 0.0 : restaurant.getRating(),
+                RestaurantFacetIndex.deliveryMinutes(restaurant.getDeliveryTime()));
+    }
+
+    private void refreshMenuCounts(Long restaurantId) {
+        Object[] counts = menuItemRepository.countVegForRestaurant(restaurantId).get(0);
+        index.setMenuCounts(restaurantId, ((Number) counts[0]).intValue(),
+                counts[1] == null ? 0 : ((Number) counts[1]).intValue());
+    }
+
+    private void touch(Long restaurantId) {
+        if (!ready) {
+            touchedDuringLoad.add(restaurantId);
+        }
+    }
+}
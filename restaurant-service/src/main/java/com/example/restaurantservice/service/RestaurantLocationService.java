@@ -0,0 +1,157 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.dto.NearbyBenchmarkReport;
+import com.example.restaurantservice.dto.NearbyRestaurantPage;
+import com.example.restaurantservice.dto.NearbyRestaurantResponse;
+import com.example.restaurantservice.geo.NearbyBenchmark;
+import com.example.restaurantservice.geo.RestaurantLocationIndex;
+import com.example.restaurantservice.hours.OpenStateChange;
+import com.example.restaurantservice.model.Restaurant;
+import com.example.restaurantservice.repository.RestaurantRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Nearby restaurant discovery from an in-memory grid of restaurant coordinates. The grid is loaded on startup and
+ * kept in sync by RestaurantService after each committed write, and by the open state changes OpeningHoursService
+ * publishes; restaurants written during the load are re-read once it completes. Only the requested page is loaded
+ * from the database.
+ */
+@Service
+public class RestaurantLocationService {
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private OpeningHoursService openingHoursService;
+
+    @Value("${restaurants.geo.cell-size-km:1.0}")
+    private double cellSizeKm;
+
+    @Value("${restaurants.geo.max-radius-km:25}")
+    private double maxRadiusKm;
+
+    @Value("${restaurants.geo.max-page-size:100}")
+    private int maxPageSize;
+
+    private RestaurantLocationIndex index;
+    private volatile boolean ready = false;
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        index = new RestaurantLocationIndex(cellSizeKm, 1024);
+    }
+
+    public void onRestaurantSaved(Restaurant restaurant) {
+        touch(restaurant.getId());
+        if (restaurant.getLatitude() != null && restaurant.getLongitude() != null) {
+            index.put(restaurant.getId(), restaurant.getLatitude(), restaurant.getLongitude(),
+                    openingHoursService.isOpen(restaurant.getId(), restaurant.getIsOpen()));
+        } else {
+            index.remove(restaurant.getId());
+        }
+    }
+
+    public void onRestaurantDeleted(Long restaurantId) {
+        touch(restaurantId);
+        index.remove(restaurantId);
+    }
+
+    // Re-reads one restaurant, e.g. after another instance changed it
+    public void reload(Long restaurantId) {
+        touch(restaurantId);
+        restaurantRepository.findById(restaurantId).ifPresentOrElse(this::onRestaurantSaved, () -> index.remove(restaurantId));
+    }
+
+    // Opening hours opened or closed the restaurant
+    @EventListener
+    public void onOpenStateChanged(OpenStateChange change) {
+        touch(change.restaurantId());
+        index.setOpen(change.restaurantId(), change.open());
+    }
+
+    // Open restaurants within radiusKm, closest first
+    @Transactional(readOnly = true)
+    public NearbyRestaurantPage nearby(double latitude, double longitude, double radiusKm, int page, int size) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("lat must be between -90 and 90 and lng between -180 and 180");
+        }
+        if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            throw new IllegalArgumentException("radius must be greater than 0 and at most " + maxRadiusKm + " km");
+        }
+        if (page < 0 || size <= 0 || size > maxPageSize) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + maxPageSize);
+        }
+        if (!ready) {
+            throw new IllegalStateException("Nearby search is still loading, please retry shortly");
+        }
+        // As a long: page * size can overflow. A page past the last restaurant only needs the total
+        long offset = (long) page * size;
+        RestaurantLocationIndex.Page matches = offset < index.size()
+                ? index.nearby(latitude, longitude, radiusKm, true, (int) offset, size)
+                : index.nearby(latitude, longitude, radiusKm, true, 0, 0);
+        List<Long> ids = matches.matches().stream().map(RestaurantLocationIndex.Match::restaurantId).toList();
+        Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        List<NearbyRestaurantResponse> results = new ArrayList<>(ids.size());
+        for (RestaurantLocationIndex.Match match : matches.matches()) {
+            Restaurant restaurant = restaurants.get(match.restaurantId());
+            if (restaurant != null) { // Deleted after the index was read
+                results.add(new NearbyRestaurantResponse(restaurant.getId(), restaurant.getName(), restaurant.getAddress(),
+                        restaurant.getCuisine(), restaurant.getImageUrl(), restaurant.getRating(),
+                        openingHoursService.isOpen(restaurant.getId(), restaurant.getIsOpen()),
+                        restaurant.getDeliveryTime(), restaurant.getLatitude(), restaurant.getLongitude(),
+                        Math.round(match.distanceKm() * 1000) / 1000.0));
+            }
+        }
+        return new NearbyRestaurantPage(page, size, matches.totalMatches(), results);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadFromDatabase() {
+        long start = System.currentTimeMillis();
+        for (Object[] row : restaurantRepository.findLocations()) {
+            index.put((Long) row[0], (Double) row[1], (Double) row[2], openingHoursService.isOpen((Long) row[0], (Boolean) row[3]));
+        }
+        ready = true;
+        for (Long restaurantId : touchedDuringLoad) {
+            index.remove(restaurantId);
+            restaurantRepository.findById(restaurantId).ifPresent(this::onRestaurantSaved);
+        }
+        touchedDuringLoad.clear();
+        System.out.println("Nearby index loaded: " + index.size() + " restaurants with coordinates in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public NearbyBenchmarkReport benchmark(int restaurants, int queries, double radiusKm, int pageSize, long seed) {
+        if (restaurants <= 0 || restaurants > 1_000_000 || queries <= 0 || queries > 10_000) {
+            throw new IllegalArgumentException("restaurants must be between 1 and 1000000 and queries between 1 and 10000");
+        }
+        if (radiusKm <= 0 || radiusKm > maxRadiusKm || pageSize <= 0 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("radius must be in (0, " + maxRadiusKm + "] and pageSize in [1, " + maxPageSize + "]");
+        }
+        return NearbyBenchmark.run(cellSizeKm, restaurants, queries, radiusKm, pageSize, seed);
+    }
+
+    private void touch(Long restaurantId) {
+        if (!ready) {
+            touchedDuringLoad.add(restaurantId);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.dto.RestaurantRatingUpdate;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies the restaurant ratings order-service computes from order reviews. Ratings change far more often than
+ * anything else about a restaurant, so an update does not evict the summary caches: the rating column is written,
+ * only the affected restaurants' cache entries are evicted, and the listing and typeahead indexes are updated in
+ * place on every instance (relayed over Redis). Cached browse summaries get the current rating from the listing
+ * index on read.
+ */
+@Service
+public class RestaurantRatingService {
+
+    private static final String UPDATE_SQL = "UPDATE restaurants SET rating = ? WHERE id = ?";
+    private static final int MAX_UPDATES = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RestaurantListingService restaurantListingService;
+
+    @Autowired
+    private RestaurantSuggestService restaurantSuggestService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.cache.key-prefix:${spring.application.name}}")
+    private String keyPrefix;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private String channel;
+
+    @PostConstruct
+    public void init() {
+        channel = keyPrefix + "::ratings";
+        listenerContainer.addMessageListener((message, pattern) ->
+                onMessage(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(channel));
+    }
+
+    // Returns how many of the restaurants exist and were updated
+    public int applyRatings(List<RestaurantRatingUpdate> updates) {
+        if (updates == null || updates.isEmpty() || updates.size() > MAX_UPDATES) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_UPDATES + " rating updates are allowed per request");
+        }
+        for (RestaurantRatingUpdate update : updates) {
+            if (update.getRestaurantId() == null || update.getRating() == null
+                    || update.getRating() < 0 || update.getRating() > 5) {
+                throw new IllegalArgumentException("Each update needs a restaurantId and a rating between 0 and 5");
+            }
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, update) -> {
+            ps.setDouble(1, update.getRating());
+            ps.setLong(2, update.getRestaurantId());
+        })[0];
+
+        List<RestaurantRatingUpdate> applied = new ArrayList<>(updates.size());
+        for (int i = 0; i < updates.size(); i++) {
+            // Batched statements may only report success without a row count
+            if (counts[i] != 0) {
+                applied.add(updates.get(i));
+            }
+        }
+        Cache restaurantCache = cacheManager.getCache("restaurant");
+        StringBuilder message = new StringBuilder(instanceId);
+        for (RestaurantRatingUpdate update : applied) {
+            if (restaurantCache != null) {
+                restaurantCache.evict(update.getRestaurantId());
+            }
+            applyLocally(update.getRestaurantId(), update.getRating());
+            message.append('|').append(update.getRestaurantId()).append(':').append(update.getRating());
+        }
+        if (!applied.isEmpty()) {
+            try {
+                redisTemplate.convertAndSend(channel, message.toString());
+            } catch (RuntimeException e) {
+                System.out.println("Rating update publish failed: " + e.getMessage());
+            }
+        }
+        return applied.size();
+    }
+
+    // Message format: <instance>|<restaurant>:<rating>|<restaurant>:<rating>...
+    public void onMessage(String message) {
+        String[] parts = message.split("\\|");
+        if (parts.length < 2 || instanceId.equals(parts[0])) {
+            return;
+        }
+        for (int i = 1; i < parts.length; i++) {
+            int separator = parts[i].indexOf(':');
+            try {
+                applyLocally(Long.parseLong(parts[i].substring(0, separator)),
+                        Double.parseDouble(parts[i].substring(separator + 1)));
+            } catch (RuntimeException e) {
+                System.out.println("Ignoring malformed rating update: " + parts[i]);
+            }
+        }
+    }
+
+    private void applyLocally(Long restaurantId, double rating) {
+        restaurantListingService.onRatingChanged(restaurantId, rating);
+        restaurantSuggestService.onRatingChanged(restaurantId, rating);
+    }
+}
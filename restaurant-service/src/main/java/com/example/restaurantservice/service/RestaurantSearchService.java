@@ -0,0 +1,192 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.dto.SearchBenchmarkReport;
+import com.example.restaurantservice.dto.SearchStrategyResult;
+import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.model.Restaurant;
+import com.example.restaurantservice.repository.MenuItemRepository;
+import com.example.restaurantservice.repository.RestaurantRepository;
+import com.example.restaurantservice.search.RestaurantSearchIndex;
+import com.example.restaurantservice.search.SearchBenchmark;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the in-memory search index in step with the restaurant tables. The index is loaded once on startup and
+ * then updated by RestaurantService after each committed write; until the load finishes, search falls back to
+ * the JPQL query. Restaurants written while the load is running are re-read once it completes.
+ */
+@Service
+public class RestaurantSearchService {
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.index.min-similarity:0.3}")
+    private double minSimilarity;
+
+    @Value("${search.index.max-results:100}")
+    private int maxResults;
+
+    private RestaurantSearchIndex index;
+    private volatile boolean ready = false;
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        index = new RestaurantSearchIndex(minSimilarity);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Ranked restaurant ids for the query, best first
+    public List<Long> search(String query) {
+        List<Long> ids = new ArrayList<>();
+        for (RestaurantSearchIndex.Hit hit : index.search(query, maxResults)) {
+            ids.add(hit.restaurantId());
+        }
+        return ids;
+    }
+
+    public void onRestaurantSaved(Restaurant restaurant) {
+        touch(restaurant.getId());
+        index.putRestaurant(restaurant.getId(), restaurant.getName(), restaurant.getCuisine());
+    }
+
+    public void onRestaurantDeleted(Long restaurantId) {
+        touch(restaurantId);
+        index.removeRestaurant(restaurantId);
+    }
+
+    public void onMenuItemSaved(Long restaurantId, MenuItem menuItem) {
+        touch(restaurantId);
+        index.putMenuItem(restaurantId, menuItem.getId(), menuItem.getName());
+    }
+
+    // Bulk imports insert without entity ids to hand over, so the restaurant's menu is re-read instead
+    public void onMenuImported(Long restaurantId) {
+        if (!enabled) {
+            return;
+        }
+        touch(restaurantId);
+        reload(restaurantId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadFromDatabase() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        for (Object[] row : restaurantRepository.findSearchFields()) {
+            index.putRestaurant((Long) row[0], (String) row[1], (String) row[2]);
+        }
+        int menuItems = 0;
+        for (Object[] row : menuItemRepository.findSearchFields()) {
+            index.putMenuItem((Long) row[0], (Long) row[1], (String) row[2]);
+            menuItems++;
+        }
+        ready = true;
+        // Writes that committed while the bulk load was reading may be missing or overwritten; re-read those
+        touchedDuringLoad.forEach(this::reload);
+        touchedDuringLoad.clear();
+        System.out.println("Search index loaded: " + index.size() + " restaurants, " + menuItems + " menu items, "
+                + index.vocabularySize() + " words in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Synthetic corpus of menuItems items; with live=true also times the real JPQL against the index on current data
+    @Transactional(readOnly = true)
+    public SearchBenchmarkReport benchmark(int menuItems, int queries, long seed, boolean live) {
+        if (menuItems <= 0 || menuItems > 500_000 || queries <= 0 || queries > 10_000) {
+            throw new IllegalArgumentException("menuItems must be between 1 and 500000 and queries between 1 and 10000");
+        }
+        SearchBenchmarkReport report = SearchBenchmark.run(minSimilarity, menuItems, queries, seed);
+        if (live) {
+            if (!ready) {
+                throw new IllegalStateException("Search index is still loading");
+            }
+            report.getResults().addAll(benchmarkLive(index.sampleWords(queries, seed)));
+        }
+        return report;
+    }
+
+    // Recall here is the share of JPQL matches the index also returns (within max-results)
+    private List<SearchStrategyResult> benchmarkLive(List<String> words) {
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        double[] jpqlMillis = new double[words.size()];
+        double[] indexMillis = new double[words.size()];
+        long jpqlResults = 0;
+        long indexResults = 0;
+        long sharedMatches = 0;
+        for (int i = 0; i < words.size(); i++) {
+            long start = System.nanoTime();
+            List<Restaurant> expected = restaurantRepository.searchRestaurants(words.get(i));
+            jpqlMillis[i] = (System.nanoTime() - start) / 1e6;
+            start = System.nanoTime();
+            Set<Long> found = new HashSet<>(search(words.get(i)));
+            indexMillis[i] = (System.nanoTime() - start) / 1e6;
+            jpqlResults += expected.size();
+            indexResults += found.size();
+            sharedMatches += expected.stream().filter(restaurant -> found.contains(restaurant.getId())).count();
+        }
+        double recall = jpqlResults > 0 ? (double) sharedMatches / jpqlResults : 1;
+        return List.of(
+                liveResult("jpql-live", jpqlMillis, jpqlResults, 1),
+                liveResult("trigram-index-live", indexMillis, indexResults, recall));
+    }
+
+    private SearchStrategyResult liveResult(String name, double[] millis, long totalResults, double recall) {
+        double[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return new SearchStrategyResult(name, round(Arrays.stream(millis).average().orElse(0)),
+                round(sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95) - 1)]),
+                round((double) totalResults / millis.length), round(recall), 0);
+    }
+
+    // Re-reads one restaurant and its menu, e.g. after another instance changed it
+    public void reload(Long restaurantId) {
+        if (!enabled) {
+            return;
+        }
+        touch(restaurantId);
+        index.removeRestaurant(restaurantId);
+        restaurantRepository.findById(restaurantId).ifPresent(restaurant -> {
+            index.putRestaurant(restaurantId, restaurant.getName(), restaurant.getCuisine());
+            menuItemRepository.findByRestaurantId(restaurantId)
+                    .forEach(item -> index.putMenuItem(restaurantId, item.getId(), item.getName()));
+        });
+    }
+
+    private void touch(Long restaurantId) {
+        if (!ready) {
+            touchedDuringLoad.add(restaurantId);
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
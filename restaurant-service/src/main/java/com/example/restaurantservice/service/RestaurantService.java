@@ -1,18 +1,33 @@
 package com.example.restaurantservice.service;
 
+import com.example.restaurantservice.cache.SerializerBenchmark;
+import com.example.restaurantservice.dto.MenuItemName;
+import com.example.restaurantservice.dto.RestaurantAdminSummaryResponse;
+import com.example.restaurantservice.dto.RestaurantCoordinates;
+import com.example.restaurantservice.dto.RestaurantSummaryResponse;
+import com.example.restaurantservice.dto.SerializerBenchmarkReport;
 import com.example.restaurantservice.exception.ResourceNotFoundException;
 import com.example.restaurantservice.model.MenuItem;
 import com.example.restaurantservice.model.Restaurant;
 import com.example.restaurantservice.repository.MenuItemRepository;
 import com.example.restaurantservice.repository.RestaurantRepository;
+import org.hibernate.Hibernate;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -24,57 +39,226 @@ public class RestaurantService {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
-    @CacheEvict(value = "restaurants", allEntries = true)
+    @Autowired
+    private RestaurantSearchService restaurantSearchService;
+
+    @Autowired
+    private RestaurantLocationService restaurantLocationService;
+
+    @Autowired
+    private RestaurantListingService restaurantListingService;
+
+    @Autowired
+    private RestaurantSuggestService restaurantSuggestService;
+
+    @Autowired
+    private MenuAvailabilityService menuAvailabilityService;
+
+    @Autowired
+    private OpeningHoursService openingHoursService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Caching(evict = {
+        @CacheEvict(value = "restaurantSummaries", allEntries = true),
+        @CacheEvict(value = "restaurantSummarySearch", allEntries = true),
+        @CacheEvict(value = "restaurantAdminSummaries", allEntries = true)
+    })
     public Restaurant createRestaurant(Restaurant restaurant) {
-        return restaurantRepository.save(restaurant);
+        validateCoordinates(restaurant);
+        Restaurant saved = restaurantRepository.save(restaurant);
+        afterCommit(() -> {
+            openingHoursService.onRestaurantSaved(saved);
+            restaurantSearchService.onRestaurantSaved(saved);
+            restaurantLocationService.onRestaurantSaved(saved);
+            restaurantListingService.onRestaurantSaved(saved);
+            restaurantSuggestService.onRestaurantSaved(saved);
+            eventPublisher.publishEvent(new RestaurantChanged(saved.getId()));
+        });
+        return saved;
     }
 
-    @Cacheable(value = "restaurants")
-    public List<Restaurant> getAllRestaurants() {
-        return restaurantRepository.findAll();
+    // Cache loader: read-write so it runs on the primary; a lagging replica read would be cached for the whole TTL
+    @Transactional
+    @Cacheable(value = "restaurantSummaries", sync = true)
+    public List<RestaurantSummaryResponse> getAllRestaurants() {
+        return withVegFlags(restaurantRepository.findAllSummaries());
     }
 
-    @Cacheable(value = "restaurants", key = "#query", condition = "#query != null")
-    public List<Restaurant> searchRestaurants(String query) {
+    @Transactional
+    @Cacheable(value = "restaurantSummarySearch", key = "#query", condition = "#query != null", sync = true)
+    public List<RestaurantSummaryResponse> searchRestaurants(String query) {
         if (query == null || query.trim().isEmpty()) {
             return getAllRestaurants();
         }
-        return restaurantRepository.searchRestaurants(query);
+        if (!restaurantSearchService.isReady()) {
+            return withVegFlags(restaurantRepository.searchSummaries(query));
+        }
+        // Index gives the ranking; summaries come from one id lookup, put back into rank order
+        List<Long> rankedIds = restaurantSearchService.search(query);
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rank.put(rankedIds.get(i), i);
+        }
+        List<RestaurantSummaryResponse> restaurants = rankedIds.isEmpty() ? new ArrayList<>()
+                : new ArrayList<>(restaurantRepository.findSummariesByIdIn(rankedIds));
+        restaurants.sort(Comparator.comparing(restaurant -> rank.get(restaurant.getId())));
+        return withVegFlags(restaurants);
+    }
+
+    @Transactional
+    @Cacheable(value = "restaurantAdminSummaries", sync = true)
+    public List<RestaurantAdminSummaryResponse> getAllRestaurantsForAdmin() {
+        return restaurantRepository.findAllAdminSummaries();
+    }
+
+    // Read-write so it runs on the primary: order-service caches the answer
+    @Transactional
+    public RestaurantCoordinates getCoordinates(Long id) {
+        RestaurantCoordinates coordinates = restaurantRepository.findCoordinatesById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + id));
+        if (coordinates.getLatitude() == null || coordinates.getLongitude() == null) {
+            throw new ResourceNotFoundException("No location set for restaurant with id: " + id);
+        }
+        return coordinates;
     }
 
-    @Cacheable(value = "restaurant", key = "#id")
+    @Transactional
+    @Cacheable(value = "restaurant", key = "#id", sync = true)
     public Restaurant getRestaurantById(Long id) {
+        Restaurant restaurant = restaurantRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + id));
+        Hibernate.initialize(restaurant.getMenuItems());
+        return restaurant;
+    }
+
+    // Ownership checks and copied fields that precede a write must not see a cached or lagging replica copy
+    public Restaurant getRestaurantForWrite(Long id) {
         return restaurantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + id));
     }
     
     @Caching(evict = {
         @CacheEvict(value = "restaurant", key = "#restaurant.id"),
-        @CacheEvict(value = "restaurants", allEntries = true)
+        @CacheEvict(value = "restaurantSummaries", allEntries = true),
+        @CacheEvict(value = "restaurantSummarySearch", allEntries = true),
+        @CacheEvict(value = "restaurantAdminSummaries", allEntries = true),
+        @CacheEvict(value = "menuItems", key = "#restaurant.id"),
+        @CacheEvict(value = "menuPayload", key = "#restaurant.id")
     })
     public Restaurant updateRestaurant(Restaurant restaurant) {
-        return restaurantRepository.save(restaurant);
+        validateCoordinates(restaurant);
+        // The submitted entity replaces the stored one, menu included
+        restaurantRepository.incrementMenuVersion(restaurant.getId());
+        Restaurant saved = restaurantRepository.save(restaurant);
+        afterCommit(() -> {
+            openingHoursService.onRestaurantSaved(saved);
+            restaurantSearchService.onRestaurantSaved(saved);
+            restaurantLocationService.onRestaurantSaved(saved);
+            restaurantListingService.onRestaurantSaved(saved);
+            restaurantSuggestService.onRestaurantSaved(saved);
+            menuAvailabilityService.onMenuReplaced(saved.getId());
+            eventPublisher.publishEvent(new RestaurantChanged(saved.getId()));
+        });
+        return saved;
     }
     
     @Caching(evict = {
         @CacheEvict(value = "restaurant", key = "#id"),
-        @CacheEvict(value = "restaurants", allEntries = true)
+        @CacheEvict(value = "restaurantSummaries", allEntries = true),
+        @CacheEvict(value = "restaurantSummarySearch", allEntries = true),
+        @CacheEvict(value = "restaurantAdminSummaries", allEntries = true),
+        @CacheEvict(value = "menuItems", key = "#id"),
+        @CacheEvict(value = "menuPayload", key = "#id")
     })
     public void deleteRestaurant(Long id) {
         Restaurant restaurant = getRestaurantById(id);
+        openingHoursService.deleteForRestaurant(id);
         restaurantRepository.delete(restaurant);
+        afterCommit(() -> {
+            openingHoursService.onRestaurantDeleted(id);
+            restaurantSearchService.onRestaurantDeleted(id);
+            restaurantLocationService.onRestaurantDeleted(id);
+            restaurantListingService.onRestaurantDeleted(id);
+            restaurantSuggestService.onRestaurantDeleted(id);
+            menuAvailabilityService.onMenuReplaced(id);
+            eventPublisher.publishEvent(new RestaurantChanged(id));
+        });
     }
 
-    @Cacheable(value = "menuItems", key = "#restaurantId")
+    // Ids that are on no menu are simply missing from the result
+    // Read-write so it runs on the primary: order-service caches the answer
+    @Transactional
+    public List<MenuItemName> getMenuItemNames(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > 1000) {
+            throw new IllegalArgumentException("Between 1 and 1000 menu item ids are required");
+        }
+        return menuItemRepository.findNamesByIdIn(ids);
+    }
+
+    @Transactional
+    @Cacheable(value = "menuItems", key = "#restaurantId", sync = true)
     public List<MenuItem> getMenuItems(Long restaurantId) {
         // Explicitly fetch from repository to ensure fresh data and avoid lazy loading issues
         return menuItemRepository.findByRestaurantId(restaurantId);
     }
 
-    @CacheEvict(value = "menuItems", key = "#restaurantId")
+    // The cached restaurant embeds its menu, summaries carry the veg flag, and cached searches may now match
+    @Caching(evict = {
+        @CacheEvict(value = "menuItems", key = "#restaurantId"),
+        @CacheEvict(value = "menuPayload", key = "#restaurantId"),
+        @CacheEvict(value = "restaurant", key = "#restaurantId"),
+        @CacheEvict(value = "restaurantSummaries", allEntries = true),
+        @CacheEvict(value = "restaurantSummarySearch", allEntries = true)
+    })
     public MenuItem addMenuItem(Long restaurantId, MenuItem menuItem) {
         Restaurant restaurant = getRestaurantById(restaurantId);
         menuItem.setRestaurant(restaurant);
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        restaurantRepository.incrementMenuVersion(restaurantId);
+        afterCommit(() -> {
+            restaurantSearchService.onMenuItemSaved(restaurantId, saved);
+            restaurantListingService.onMenuItemSaved(restaurantId, saved);
+            restaurantSuggestService.onMenuItemSaved(restaurantId, saved);
+            eventPublisher.publishEvent(new RestaurantChanged(restaurantId));
+        });
+        return saved;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SerializerBenchmarkReport cacheSerializerBenchmark(int menuItems, int summaries, int iterations, long seed) {
+        if (menuItems < 0 || menuItems > 1000 || summaries < 0 || summaries > 10_000) {
+            throw new IllegalArgumentException("menuItems must be between 0 and 1000 and summaries between 0 and 10000");
+        }
+        if (iterations <= 0 || iterations > 100_000) {
+            throw new IllegalArgumentException("iterations must be between 1 and 100000");
+        }
+        return SerializerBenchmark.run(menuItems, summaries, iterations, seed);
+    }
+
+    private void validateCoordinates(Restaurant restaurant) {
+        if ((restaurant.getLatitude() == null) != (restaurant.getLongitude() == null)) {
+            throw new IllegalArgumentException("latitude and longitude must be provided together");
+        }
+    }
+
+    private List<RestaurantSummaryResponse> withVegFlags(List<RestaurantSummaryResponse> restaurants) {
+        restaurants.forEach(restaurant -> restaurant.setVegOnly(restaurantListingService.isVegOnly(restaurant.getId())));
+        return restaurants;
+    }
+
+    // Index updates only apply once the write is committed
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
\ No newline at end of file
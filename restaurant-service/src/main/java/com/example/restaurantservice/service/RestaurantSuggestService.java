@@ -0,0 +1,159 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.dto.SuggestBenchmarkReport;
+import com.example.restaurantservice.dto.SuggestionResponse;
+import com.example.restaurantservice.dto.SuggestionsResponse;
+import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.model.Restaurant;
+import com.example.restaurantservice.repository.MenuItemRepository;
+import com.example.restaurantservice.repository.RestaurantRepository;
+import com.example.restaurantservice.search.RestaurantSuggestIndex;
+import com.example.restaurantservice.search.SuggestBenchmark;
+import com.example.restaurantservice.search.SuggestionTrie;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typeahead for the search box from an in-memory RestaurantSuggestIndex. Like the search and listing indexes it
+ * is loaded on startup and updated by RestaurantService and MenuImportService after each committed write;
+ * restaurants written during the load are re-read once it completes. Lookups never touch the database.
+ */
+@Service
+public class RestaurantSuggestService {
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Value("${search.suggest.top-k:10}")
+    private int topK;
+
+    @Value("${search.suggest.max-prefix-length:50}")
+    private int maxPrefixLength;
+
+    private RestaurantSuggestIndex index;
+    private volatile boolean ready = false;
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        index = new RestaurantSuggestIndex(topK);
+    }
+
+    // Restaurant writes can replace the menu (PUT), so its dishes are re-read as well
+    public void onRestaurantSaved(Restaurant restaurant) {
+        touch(restaurant.getId());
+        putRestaurant(restaurant);
+        index.setDishes(restaurant.getId(), menuItemRepository.findNamesByRestaurantId(restaurant.getId()));
+    }
+
+    public void onRestaurantDeleted(Long restaurantId) {
+        touch(restaurantId);
+        index.removeRestaurant(restaurantId);
+    }
+
+    // Re-reads one restaurant and its dishes, e.g. after another instance changed it
+    public void reload(Long restaurantId) {
+        touch(restaurantId);
+        restaurantRepository.findById(restaurantId).ifPresentOrElse(this::onRestaurantSaved,
+                () -> index.removeRestaurant(restaurantId));
+    }
+
+    public void onRatingChanged(Long restaurantId, double rating) {
+        touch(restaurantId);
+        index.setRating(restaurantId, rating);
+    }
+
+    public void onMenuItemSaved(Long restaurantId, MenuItem menuItem) {
+        touch(restaurantId);
+        index.addDish(restaurantId, menuItem.getName());
+    }
+
+    public void onMenuImported(Long restaurantId) {
+        touch(restaurantId);
+        index.setDishes(restaurantId, menuItemRepository.findNamesByRestaurantId(restaurantId));
+    }
+
+    public SuggestionsResponse suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || prefix.length() > maxPrefixLength) {
+            throw new IllegalArgumentException("prefix must be between 1 and " + maxPrefixLength + " characters");
+        }
+        if (limit <= 0 || limit > topK) {
+            throw new IllegalArgumentException("limit must be between 1 and " + topK);
+        }
+        if (!ready) {
+            throw new IllegalStateException("Suggestions are still loading, please retry shortly");
+        }
+        RestaurantSuggestIndex.Result result = index.suggest(prefix, limit);
+        return new SuggestionsResponse(prefix, toResponses(result.restaurants()), toResponses(result.cuisines()),
+                toResponses(result.dishes()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadFromDatabase() {
+        long start = System.currentTimeMillis();
+        index.startBulkLoad();
+        for (Object[] row : restaurantRepository.findSuggestFields()) {
+            index.putRestaurant((Long) row[0], (String) row[1], (String) row[2], row[3] == null ? 0.0 : (Double) row[3]);
+        }
+        Map<Long, List<String>> menus = new HashMap<>();
+        for (Object[] row : menuItemRepository.findSearchFields()) {
+            menus.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[2]);
+        }
+        menus.forEach(index::setDishes);
+        index.finishBulkLoad();
+        ready = true;
+        // Writes that committed while the bulk load was reading may be missing or overwritten; re-read those
+        for (Long restaurantId : touchedDuringLoad) {
+            index.removeRestaurant(restaurantId);
+            restaurantRepository.findById(restaurantId).ifPresent(this::onRestaurantSaved);
+        }
+        touchedDuringLoad.clear();
+        System.out.println("Suggestion index loaded: " + index.size() + " suggestions, " + index.nodeCount()
+                + " trie nodes in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public SuggestBenchmarkReport benchmark(int menuItems, int queries, int limit, long seed) {
+        if (menuItems <= 0 || menuItems > 500_000 || queries <= 0 || queries > 100_000) {
+            throw new IllegalArgumentException("menuItems must be between 1 and 500000 and queries between 1 and 100000");
+        }
+        if (limit <= 0 || limit > topK) {
+            throw new IllegalArgumentException("limit must be between 1 and " + topK);
+        }
+        return SuggestBenchmark.run(topK, menuItems, queries, limit, seed);
+    }
+
+    private void putRestaurant(Restaurant restaurant) {
+        index.putRestaurant(restaurant.getId(), restaurant.getName(), restaurant.getCuisine(),
+                restaurant.getRating() == null ? 0.0 : restaurant.getRating());
+    }
+
+    private static List<SuggestionResponse> toResponses(List<SuggestionTrie.Suggestion> suggestions) {
+        List<SuggestionResponse> responses = new ArrayList<>(suggestions.size());
+        for (SuggestionTrie.Suggestion suggestion : suggestions) {
+            responses.add(new SuggestionResponse(suggestion.text(), suggestion.restaurantId()));
+        }
+        return responses;
+    }
+
+    private void touch(Long restaurantId) {
+        if (!ready) {
+            touchedDuringLoad.add(restaurantId);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.restaurantservice.repository;
+
+import com.example.restaurantservice.dto.ApiResponse;
+import com.example.restaurantservice.dto.RestaurantAdminSummaryResponse;
+import com.example.restaurantservice.dto.RestaurantSummaryResponse;
+import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.model.Restaurant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The summary lists behind browse, search and the admin listing: each is one statement that loads no entities, and
+ * its JSON is smaller than the entity list it replaced. Runs against a fixed three-restaurant fixture in H2.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RestaurantRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        restaurant("Spice Route", "Indian", "Paneer Tikka", "Dal Makhani", "Naan", "Lassi");
+        restaurant("Pasta Bar", "Italian", "Carbonara", "Arrabbiata", "Tiramisu", "Focaccia");
+        restaurant("Green Bowl", "Salads", "Caesar", "Quinoa Bowl", "Paneer Wrap", "Smoothie");
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void browseSummariesAreOneStatementAndSmallerThanEntities() throws Exception {
+        List<RestaurantSummaryResponse> summaries = restaurantRepository.findAllSummaries();
+        byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success(summaries));
+
+        assertThat(summaries).extracting(RestaurantSummaryResponse::getName)
+                .containsExactly("Spice Route", "Pasta Bar", "Green Bowl");
+        assertSingleStatementWithoutEntities();
+        assertThat(new String(json)).doesNotContain("menuItems", "ownerId", "email");
+        assertThat(json.length).isLessThan(entityJsonLength());
+    }
+
+    @Test
+    void searchSummariesMatchMenuItemsInOneStatement() throws Exception {
+        List<RestaurantSummaryResponse> summaries = restaurantRepository.searchSummaries("paneer");
+        byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success(summaries));
+
+        assertThat(summaries).extracting(RestaurantSummaryResponse::getName)
+                .containsExactlyInAnyOrder("Spice Route", "Green Bowl");
+        assertSingleStatementWithoutEntities();
+        assertThat(json.length).isLessThan(objectMapper.writeValueAsBytes(
+                ApiResponse.success(restaurantRepository.searchRestaurants("paneer"))).length);
+    }
+
+    @Test
+    void adminSummariesAreOneStatementWithoutMenus() throws Exception {
+        List<RestaurantAdminSummaryResponse> summaries = restaurantRepository.findAllAdminSummaries();
+        byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success(summaries));
+
+        assertThat(summaries).hasSize(3).allSatisfy(summary -> assertThat(summary.getOwnerId()).isEqualTo("owner-1"));
+        assertSingleStatementWithoutEntities();
+        assertThat(new String(json)).doesNotContain("menuItems");
+        assertThat(json.length).isLessThan(entityJsonLength());
+    }
+
+    private void assertSingleStatementWithoutEntities() {
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    // The entity list the summaries replaced, serialized with its menus as the old endpoints returned it
+    private int entityJsonLength() throws Exception {
+        entityManager.clear();
+        return objectMapper.writeValueAsBytes(ApiResponse.success(restaurantRepository.findAll())).length;
+    }
+
+    private void restaurant(String name, String cuisine, String... dishes) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName(name);
+        restaurant.setAddress("1 Main Street");
+        restaurant.setPhone("9876543210");
+        restaurant.setEmail(name.toLowerCase().replace(' ', '.') + "@example.com");
+        restaurant.setCuisine(cuisine);
+        restaurant.setOwnerId("owner-1");
+        restaurant.setDeliveryTime("30 mins");
+        for (String dish : dishes) {
+            MenuItem item = new MenuItem();
+            item.setName(dish);
+            item.setDescription(dish + " made fresh to order");
+            item.setPrice(250.0);
+            item.setCategory("Mains");
+            item.setRestaurant(restaurant);
+            restaurant.getMenuItems().add(item);
+        }
+        entityManager.persist(restaurant);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.restaurantservice.service;
+
+import com.example.restaurantservice.model.MenuItem;
+import com.example.restaurantservice.model.Restaurant;
+import com.example.restaurantservice.repository.MenuItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The crash path of the availability journal: a toggle journaled by an instance that dies before its flush must be
+ * written to MySQL by another instance's recovery sweep. MySQL is an in-memory H2 table and the Redis journal an
+ * in-memory map, so nothing outside the test is touched.
+ */
+class MenuAvailabilityServiceTest {
+
+    private static final long RESTAURANT_ID = 7L;
+
+    private final Map<String, Map<String, String>> journal = new ConcurrentHashMap<>();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:availability;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE menu_items (id BIGINT PRIMARY KEY, restaurant_id BIGINT, "
+                + "is_available BOOLEAN, availability_changed_at BIGINT)");
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO menu_items VALUES (?, ?, TRUE, NULL)", id, RESTAURANT_ID);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE menu_items");
+    }
+
+    @Test
+    void toggleLostInACrashIsWrittenByTheRecoverySweep() throws InterruptedException {
+        MenuAvailabilityService crashed = instance(0);
+        crashed.setAvailability(RESTAURANT_ID, 2L, false);
+        // The instance dies here: its flush never runs
+
+        assertThat(storedAvailability(2L)).isTrue();
+        assertThat(journal.get(journalKey())).containsKey("2");
+
+        MenuAvailabilityService restarted = instance(0);
+        assertThat(restarted.overlay(restaurant()).getMenuItems().get(1).getIsAvailable()).isFalse();
+
+        Thread.sleep(5); // Past the zero grace period
+        restarted.recover();
+
+        assertThat(storedAvailability(2L)).isFalse();
+        assertThat(journal.get(journalKey())).isEmpty();
+    }
+
+    @Test
+    void entriesWithinTheGracePeriodAreLeftToTheirInstance() {
+        instance(60_000).setAvailability(RESTAURANT_ID, 3L, false);
+
+        instance(60_000).recover();
+
+        assertThat(storedAvailability(3L)).isTrue();
+        assertThat(journal.get(journalKey())).containsKey("3");
+    }
+
+    @Test
+    void staleJournalEntryDoesNotOverwriteANewerRow() {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update("UPDATE menu_items SET is_available = TRUE, availability_changed_at = ? WHERE id = 1", now);
+        journal.computeIfAbsent(journalKey(), key -> new ConcurrentHashMap<>()).put("1", "0:" + (now - 5_000));
+
+        instance(0).recover();
+
+        assertThat(storedAvailability(1L)).isTrue();
+        assertThat(journal.get(journalKey())).isEmpty();
+    }
+
+    @Test
+    void flushWritesTheToggleAndClearsTheJournal() {
+        MenuAvailabilityService service = instance(0);
+        service.setAvailability(RESTAURANT_ID, 1L, false);
+
+        service.flush();
+
+        assertThat(storedAvailability(1L)).isFalse();
+        assertThat(journal.get(journalKey())).isEmpty();
+    }
+
+    private MenuAvailabilityService instance(long recoveryGraceMillis) {
+        MenuAvailabilityService service = new MenuAvailabilityService();
+        ReflectionTestUtils.setField(service, "menuItemRepository", menuItemRepository());
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "redisTemplate", redisTemplate());
+        ReflectionTestUtils.setField(service, "listenerContainer", mock(RedisMessageListenerContainer.class));
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "keyPrefix", "restaurant-service");
+        ReflectionTestUtils.setField(service, "recoveryGraceMillis", recoveryGraceMillis);
+        service.init();
+        return service;
+    }
+
+    private MenuItemRepository menuItemRepository() {
+        MenuItemRepository repository = mock(MenuItemRepository.class);
+        when(repository.findAvailabilityByRestaurantId(any())).thenAnswer(invocation -> jdbcTemplate.query(
+                "SELECT id, is_available, availability_changed_at FROM menu_items WHERE restaurant_id = ? ORDER BY id",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getBoolean(2), rs.getObject(3, Long.class)},
+                invocation.<Long>getArgument(0)));
+        return repository;
+    }
+
+    // Just the hash, scan and script calls the journal makes, against the in-memory map
+    @SuppressWarnings("unchecked")
+    private StringRedisTemplate redisTemplate() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+        RedisHashCommands hashCommands = mock(RedisHashCommands.class);
+        when(hashCommands.hSet(any(), any(), any())).thenAnswer(invocation -> {
+            journal.computeIfAbsent(text(invocation.getArgument(0)), key -> new ConcurrentHashMap<>())
+                    .put(text(invocation.getArgument(1)), text(invocation.getArgument(2)));
+            return true;
+        });
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(hashOperations.entries(anyString())).thenAnswer(invocation ->
+                new HashMap<Object, Object>(journal.getOrDefault(invocation.<String>getArgument(0), Map.of())));
+        when(redisTemplate.opsForHash()).thenAnswer(invocation -> hashOperations);
+
+        when(redisTemplate.scan(any(ScanOptions.class))).thenAnswer(invocation -> cursor(new ArrayList<>(journal.keySet())));
+
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            Map<String, String> entries = journal.getOrDefault(invocation.<List<String>>getArgument(1).get(0), Map.of());
+            Object[] arguments = (Object[]) invocation.getRawArguments()[2];
+            long removed = 0;
+            for (int i = 0; i < arguments.length; i += 2) {
+                if (arguments[i + 1].equals(entries.get((String) arguments[i]))) {
+                    entries.remove((String) arguments[i]);
+                    removed++;
+                }
+            }
+            return removed;
+        });
+        return redisTemplate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<String> cursor(List<String> keys) {
+        Iterator<String> iterator = keys.iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+
+    private boolean storedAvailability(long itemId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT is_available FROM menu_items WHERE id = ?", Boolean.class, itemId));
+    }
+
+    private static Restaurant restaurant() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(RESTAURANT_ID);
+        for (long id = 1; id <= 3; id++) {
+            MenuItem item = new MenuItem();
+            item.setId(id);
+            item.setName("Dish " + id);
+            item.setPrice(100.0);
+            item.setIsAvailable(true);
+            item.setRestaurant(restaurant);
+            restaurant.getMenuItems().add(item);
+        }
+        return restaurant;
+    }
+
+    private static String journalKey() {
+        return "restaurant-service::menu-availability::" + RESTAURANT_ID;
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.userservice.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,10 +21,11 @@ public class SecurityConfig {
     @Autowired
     private HeaderAuthenticationFilter headerAuthenticationFilter;
 
+    // Changing the strength rehashes each password on its owner's next login
     @Bean
-    public PasswordEncoder passwordEncoder() 
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) 
     {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
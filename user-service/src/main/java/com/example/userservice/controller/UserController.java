@@ -1,23 +1,20 @@
 package com.example.userservice.controller;
 
-import com.example.userservice.config.JwtUtil;
 import com.example.userservice.dto.ApiResponse;
 import com.example.userservice.dto.LoginRequest;
 import com.example.userservice.dto.LoginResponse;
 import com.example.userservice.dto.RegisterRequest;
 import com.example.userservice.dto.UserResponse;
 import com.example.userservice.model.User;
-import com.example.userservice.service.CustomUserDetailsService;
+import com.example.userservice.service.LoginService;
 import com.example.userservice.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -26,17 +23,12 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
-    private final AuthenticationManager authenticationManager;
-    private final CustomUserDetailsService userDetailsService;
-    private final JwtUtil jwtUtil;
+    private final LoginService loginService;
 
     @Autowired
-    public UserController(UserService userService, AuthenticationManager authenticationManager,
-                          CustomUserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public UserController(UserService userService, LoginService loginService) {
         this.userService = userService;
-        this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
-        this.jwtUtil = jwtUtil;
+        this.loginService = loginService;
     }
 
     @PostMapping("/register")
@@ -48,17 +40,10 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
-        // Authenticate using email as username
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
-        );
-        
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getEmail());
-        
-        // Fetch user to get role
-        User user = userService.findByUsername(loginRequest.getEmail());
-        final String token = jwtUtil.generateToken(userDetails.getUsername(), user.getRole());
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest,
+                                                            HttpServletRequest request) {
+        // Email is the username; one lookup and one password check, hashed off the request thread
+        final String token = loginService.login(loginRequest.getEmail(), loginRequest.getPassword(), clientAddress(request));
         
         return ResponseEntity.ok(ApiResponse.success("Login successful", new LoginResponse(token)));
     }
@@ -79,6 +64,17 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success("User service is running"));
     }
 
+    // The gateway appends the address it received the request from to X-Forwarded-For, so the last entry is the
+    // one a client cannot forge; requests straight to the service use the connection's address
+    private String clientAddress(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String[] addresses = forwardedFor.split(",");
+            return addresses[addresses.length - 1].trim();
+        }
+        return request.getRemoteAddr();
+    }
+
     private UserResponse mapToUserResponse(User user) {
         return new UserResponse(
                 user.getId(),
@@ -0,0 +1,8 @@
+package com.example.userservice.exception;
+
+// Work was shed to protect the service; the client should retry shortly (503)
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.userservice.exception;
+
+import lombok.Getter;
+
+// Too many failed logins for the account or the client address; retry after the given number of seconds (429)
+@Getter
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
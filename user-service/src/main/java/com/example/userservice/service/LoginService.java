@@ -0,0 +1,57 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.JwtUtil;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Login in one user lookup and one password check. Unknown emails are checked against a dummy hash of the same cost,
+ * so response times do not reveal which accounts exist. A hash made with an outdated cost is replaced in the
+ * background after a successful login. Accounts and addresses with too many recent failures are turned away by
+ * LoginThrottleService before either.
+ */
+@Service
+public class LoginService {
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottleService loginThrottleService;
+    private final JwtUtil jwtUtil;
+    private final String dummyHash;
+
+    @Autowired
+    public LoginService(UserRepository userRepository, UserService userService,
+                        PasswordHashingService passwordHashingService, LoginThrottleService loginThrottleService,
+                        JwtUtil jwtUtil) {
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottleService = loginThrottleService;
+        this.jwtUtil = jwtUtil;
+        this.dummyHash = passwordHashingService.encode(UUID.randomUUID().toString());
+    }
+
+    // Returns a JWT for the user; BadCredentialsException (401) when the email or password is wrong,
+    // TooManyLoginAttemptsException (429) without checking either when they have failed too often
+    public String login(String email, String password, String clientAddress) {
+        loginThrottleService.checkAllowed(email, clientAddress);
+        User user = userRepository.findByUsername(email).orElse(null);
+        String hash = user != null ? user.getPassword() : dummyHash;
+        if (!passwordHashingService.matches(password, hash) || user == null) {
+            loginThrottleService.recordFailure(email, clientAddress);
+            throw new BadCredentialsException("Invalid username or password");
+        }
+        loginThrottleService.recordSuccess(email, clientAddress);
+        if (passwordHashingService.needsRehash(hash)) {
+            passwordHashingService.rehashInBackground(password,
+                    newHash -> userService.replacePasswordHash(user, newHash));
+        }
+        return jwtUtil.generateToken(user.getUsername(), user.getRole());
+    }
+}
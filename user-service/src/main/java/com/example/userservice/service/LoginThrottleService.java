@@ -0,0 +1,226 @@
+package com.example.userservice.service;
+
+import com.example.userservice.exception.TooManyLoginAttemptsException;
+import com.example.userservice.throttle.FailureCounters;
+import com.example.userservice.throttle.SlidingWindowCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Throttles logins by failed attempts over a sliding window, per account (email) and per client address. The check
+ * runs before the user lookup and the password hash, so a credential-stuffing burst against one account or from one
+ * address is turned away without costing BCrypt time. A successful login clears its account's failures.
+ *
+ * An account over its limit is only locked for the addresses that contributed failures to it (counted per account
+ * and address pair), so someone failing against a victim's email cannot lock the victim out from their own address.
+ *
+ * Failures are counted in memory on each instance. With security.login.throttle.redis on they are also counted in
+ * Redis, in one key per minute bucket, so all instances see the same totals; if Redis cannot be reached the
+ * in-memory counts are used alone.
+ */
+@Service
+public class LoginThrottleService {
+
+    private static final long BUCKET_MILLIS = 60_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final boolean useRedis;
+    private final int buckets;
+    private final int maxFailuresPerAccount;
+    private final int maxFailuresPerAddress;
+    private final String keyPrefix;
+    private final FailureCounters counters;
+    private final Counter allowed;
+    private final Counter throttledAccount;
+    private final Counter throttledAddress;
+    private volatile boolean redisAvailable = true;
+
+    @Autowired
+    public LoginThrottleService(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                                @Value("${security.login.throttle.enabled:true}") boolean enabled,
+                                @Value("${security.login.throttle.redis:false}") boolean useRedis,
+                                @Value("${security.login.throttle.window-minutes:15}") int windowMinutes,
+                                @Value("${security.login.throttle.max-failures-per-account:10}") int maxFailuresPerAccount,
+                                @Value("${security.login.throttle.max-failures-per-address:100}") int maxFailuresPerAddress,
+                                @Value("${security.login.throttle.max-tracked-keys:100000}") int maxTrackedKeys,
+                                @Value("${app.cache.key-prefix:${spring.application.name}}") String keyPrefix) {
+        if (windowMinutes < 1 || maxFailuresPerAccount < 1 || maxFailuresPerAddress < 1 || maxTrackedKeys < 1) {
+            throw new IllegalStateException("security.login.throttle window, limits and max-tracked-keys must be positive");
+        }
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.useRedis = useRedis;
+        this.buckets = windowMinutes;
+        this.maxFailuresPerAccount = maxFailuresPerAccount;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+        this.keyPrefix = keyPrefix + "::login-failures::";
+        this.counters = new FailureCounters(maxTrackedKeys, buckets, BUCKET_MILLIS);
+        this.allowed = meterRegistry.counter("users.login.attempts", "outcome", "allowed");
+        this.throttledAccount = meterRegistry.counter("users.login.attempts", "outcome", "throttled-account");
+        this.throttledAddress = meterRegistry.counter("users.login.attempts", "outcome", "throttled-address");
+        meterRegistry.gauge("users.login.throttle.tracked", counters, FailureCounters::size);
+    }
+
+    // Throws TooManyLoginAttemptsException (429) when the address is over its limit, or the account is over its
+    // limit and this address has failed on it within the window
+    public void checkAllowed(String email, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String account = accountKey(email);
+        String address = addressKey(clientAddress);
+        int[][] counts = counts(now, account, address, pairKey(account, address));
+        long accountWait = SlidingWindowCounter.secondsUntilBelow(counts[0], maxFailuresPerAccount, now, BUCKET_MILLIS);
+        long addressWait = SlidingWindowCounter.secondsUntilBelow(counts[1], maxFailuresPerAddress, now, BUCKET_MILLIS);
+        if (accountWait > 0) {
+            // Locked until the account drops under its limit or this address's failures on it leave the window
+            accountWait = Math.min(accountWait, SlidingWindowCounter.secondsUntilBelow(counts[2], 1, now, BUCKET_MILLIS));
+        }
+        if (accountWait > 0) {
+            throttledAccount.increment();
+            throw new TooManyLoginAttemptsException("Too many failed login attempts for this account. Please try again later.",
+                    Math.max(accountWait, addressWait));
+        }
+        if (addressWait > 0) {
+            throttledAddress.increment();
+            throw new TooManyLoginAttemptsException("Too many failed login attempts. Please try again later.", addressWait);
+        }
+        allowed.increment();
+    }
+
+    public void recordFailure(String email, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String account = accountKey(email);
+        String address = addressKey(clientAddress);
+        String pair = pairKey(account, address);
+        counters.add(account, now);
+        counters.add(address, now);
+        counters.add(pair, now);
+        if (useRedis) {
+            long slot = now / BUCKET_MILLIS;
+            // A bucket key outlives the window by one bucket, then Redis drops it
+            long ttlSeconds = (buckets + 1) * BUCKET_MILLIS / 1000;
+            redis(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                increment(connection, bucketKey(account, slot), ttlSeconds);
+                increment(connection, bucketKey(address, slot), ttlSeconds);
+                increment(connection, bucketKey(pair, slot), ttlSeconds);
+                return null;
+            }));
+        }
+    }
+
+    public void recordSuccess(String email, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        String account = accountKey(email);
+        String pair = pairKey(account, addressKey(clientAddress));
+        counters.clear(account);
+        counters.clear(pair);
+        if (useRedis) {
+            long now = System.currentTimeMillis();
+            List<String> keys = bucketKeys(account, now);
+            keys.addAll(bucketKeys(pair, now));
+            redis(() -> redisTemplate.delete(keys));
+        }
+    }
+
+    // Per-bucket failures oldest first for each key: the in-memory counts, or with Redis the larger of those and
+    // the shared ones
+    private int[][] counts(long now, String... keys) {
+        int[][] counts = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            counts[i] = local(keys[i], now);
+        }
+        if (useRedis) {
+            List<String> redisKeys = new ArrayList<>(keys.length * buckets);
+            for (String key : keys) {
+                redisKeys.addAll(bucketKeys(key, now));
+            }
+            List<String> values = redis(() -> redisTemplate.opsForValue().multiGet(redisKeys));
+            if (values != null) {
+                for (int i = 0; i < values.size(); i++) {
+                    String value = values.get(i);
+                    if (value != null) {
+                        int[] target = counts[i / buckets];
+                        target[i % buckets] = Math.max(target[i % buckets], Integer.parseInt(value));
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    private int[] local(String key, long now) {
+        int[] counts = counters.snapshot(key, now);
+        return counts != null ? counts : new int[buckets];
+    }
+
+    private void increment(RedisConnection connection, String key, long ttlSeconds) {
+        byte[] raw = key.getBytes(StandardCharsets.UTF_8);
+        connection.stringCommands().incr(raw);
+        connection.keyCommands().expire(raw, ttlSeconds);
+    }
+
+    // Bucket keys for the window, oldest first
+    private List<String> bucketKeys(String key, long now) {
+        long current = now / BUCKET_MILLIS;
+        List<String> keys = new ArrayList<>(buckets);
+        for (long slot = current - buckets + 1; slot <= current; slot++) {
+            keys.add(bucketKey(key, slot));
+        }
+        return keys;
+    }
+
+    private String bucketKey(String key, long slot) {
+        return keyPrefix + key + "::" + slot;
+    }
+
+    // Runs a Redis call, returning null and falling back to the in-memory counts when Redis is unavailable
+    private <T> T redis(Supplier<T> call) {
+        try {
+            T result = call.get();
+            if (!redisAvailable) {
+                redisAvailable = true;
+                System.out.println("Login throttle: Redis reachable again, sharing failure counts");
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (redisAvailable) {
+                redisAvailable = false;
+                System.out.println("Login throttle: Redis unavailable, using this instance's counts only: " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    private static String accountKey(String email) {
+        return "account:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String addressKey(String clientAddress) {
+        return "address:" + (clientAddress == null ? "unknown" : clientAddress);
+    }
+
+    // Failures on one account from one address
+    private static String pairKey(String account, String address) {
+        return account + "|" + address;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.userservice.service;
+
+import com.example.userservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt on a small dedicated pool instead of request threads, so a burst of logins cannot take every Tomcat
+ * thread away from other endpoints. The queue is bounded and a hash that waited longer than max-queue-ms is not
+ * started: the caller gets a ServiceOverloadedException (503) straight away instead of timing out behind the burst.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final long maxQueueNanos;
+    private final long maxWaitMillis;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedFull;
+    private final Counter rejectedExpired;
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                  @Value("${security.bcrypt.strength:10}") int strength,
+                                  @Value("${security.login.hash-workers:0}") int workers,
+                                  @Value("${security.login.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.login.max-queue-ms:500}") long maxQueueMillis,
+                                  @Value("${security.login.max-hash-ms:2000}") long maxHashMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.maxQueueNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueMillis);
+        this.maxWaitMillis = maxQueueMillis + maxHashMillis;
+        // Half the cores by default, leaving the rest for everything else
+        int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.rejectedFull = meterRegistry.counter("users.password.hashing.rejected", "reason", "queue-full");
+        this.rejectedExpired = meterRegistry.counter("users.password.hashing.rejected", "reason", "queue-timeout");
+        meterRegistry.gauge("users.password.hashing.queued", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("users.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    public boolean matches(String rawPassword, String hash) {
+        long submitted = System.nanoTime();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> System.nanoTime() - submitted > maxQueueNanos
+                    ? null : passwordEncoder.matches(rawPassword, hash));
+        } catch (RejectedExecutionException e) {
+            rejectedFull.increment();
+            throw overloaded();
+        }
+        try {
+            Boolean matches = result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            if (matches == null) {
+                rejectedExpired.increment();
+                throw overloaded();
+            }
+            return matches;
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejectedExpired.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password check failed", e.getCause());
+        }
+    }
+
+    public String encode(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    // Hashes made with a different cost than the configured one are replaced on the next successful login
+    public boolean needsRehash(String hash) {
+        Matcher matcher = BCRYPT_COST.matcher(hash);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    // Best effort: skipped when the pool is busy, and tried again on a later login
+    public void rehashInBackground(String rawPassword, Consumer<String> onHashed) {
+        try {
+            executor.execute(() -> {
+                try {
+                    onHashed.accept(passwordEncoder.encode(rawPassword));
+                } catch (RuntimeException e) {
+                    System.out.println("Password rehash failed: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Logins have priority
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException("Too many sign-ins in progress, please retry shortly");
+    }
+}
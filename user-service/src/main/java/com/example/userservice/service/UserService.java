@@ -43,6 +43,12 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    // Only if the hash is still the one the login verified, so a concurrent password change wins
+    @CacheEvict(value = "users", key = "#user.username")
+    public void replacePasswordHash(User user, String newHash) {
+        userRepository.updatePasswordHash(user.getId(), user.getPassword(), newHash);
+    }
+
     @Cacheable(value = "users", key = "#username")
     public User findByUsername(String username) {
         return userRepository.findByUsername(username)
@@ -0,0 +1,59 @@
+package com.example.userservice.throttle;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A SlidingWindowCounter per key, with the number of keys bounded so that a spray of distinct emails or addresses
+ * cannot grow memory without limit. When full, counters whose window has emptied are dropped first, then an
+ * arbitrary eighth of the rest.
+ */
+public class FailureCounters {
+
+    private final ConcurrentHashMap<String, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final int buckets;
+    private final long bucketMillis;
+
+    public FailureCounters(int maxKeys, int buckets, long bucketMillis) {
+        this.maxKeys = maxKeys;
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+    }
+
+    // Per-bucket counts oldest first, or null when the key has no counter
+    public int[] snapshot(String key, long nowMillis) {
+        SlidingWindowCounter counter = counters.get(key);
+        return counter == null ? null : counter.snapshot(nowMillis);
+    }
+
+    public void add(String key, long nowMillis) {
+        if (counters.size() >= maxKeys && !counters.containsKey(key)) {
+            makeRoom(nowMillis);
+        }
+        counters.computeIfAbsent(key, k -> new SlidingWindowCounter(buckets, bucketMillis)).add(nowMillis);
+    }
+
+    public void clear(String key) {
+        counters.remove(key);
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    private synchronized void makeRoom(long nowMillis) {
+        if (counters.size() < maxKeys) {
+            return;
+        }
+        counters.values().removeIf(counter -> counter.isEmpty(nowMillis));
+        if (counters.size() >= maxKeys) {
+            int toDrop = Math.max(1, counters.size() / 8);
+            Iterator<String> keys = counters.keySet().iterator();
+            while (toDrop-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.userservice.throttle;
+
+import java.util.Arrays;
+
+/**
+ * Events over the last window, kept as a ring of fixed-width time buckets: a bucket is reset when its slot comes
+ * round again, and only buckets still inside the window are counted. Memory is fixed per counter and the count is
+ * exact to one bucket width.
+ */
+public class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final long[] slots;
+    private final int[] counts;
+
+    public SlidingWindowCounter(int buckets, long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.slots = new long[buckets];
+        this.counts = new int[buckets];
+        Arrays.fill(slots, Long.MIN_VALUE);
+    }
+
+    public synchronized void add(long nowMillis) {
+        long slot = nowMillis / bucketMillis;
+        int i = (int) (slot % slots.length);
+        if (slots[i] != slot) {
+            slots[i] = slot;
+            counts[i] = 0;
+        }
+        counts[i]++;
+    }
+
+    // Per-bucket counts in the window, oldest first; the last is the current bucket
+    public synchronized int[] snapshot(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        int[] result = new int[slots.length];
+        for (int age = 0; age < slots.length; age++) {
+            long slot = current - age;
+            int i = (int) (slot % slots.length);
+            if (slots[i] == slot) {
+                result[slots.length - 1 - age] = counts[i];
+            }
+        }
+        return result;
+    }
+
+    public boolean isEmpty(long nowMillis) {
+        return sum(snapshot(nowMillis)) == 0;
+    }
+
+    public static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    // Seconds until enough of the oldest buckets leave the window to bring the count below limit; 0 if it already is
+    public static long secondsUntilBelow(int[] counts, int limit, long nowMillis, long bucketMillis) {
+        int total = sum(counts);
+        if (total < limit) {
+            return 0;
+        }
+        long currentStart = nowMillis / bucketMillis * bucketMillis;
+        int i = 0;
+        while (total >= limit) {
+            total -= counts[i++];
+        }
+        // Bucket i-1 is the last that has to leave; it does so when the current slot has moved on by i
+        long leavesAt = currentStart + (long) i * bucketMillis;
+        return Math.max(1, (leavesAt - nowMillis + 999) / 1000);
+    }
+}